@@ -0,0 +1,134 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import static com.expediagroup.beekeeper.cleanup.aws.S3SentinelFilesCleaner.SENTINEL_SUFFIX;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+/**
+ * Deletes the sentinel files of a directory and of its empty ancestors with a single DeleteObjects request.
+ * <p>
+ * Each ancestor is checked with one small listing, which also holds the sentinel file of the directory below it. Only
+ * the sentinel file of the topmost directory, or one which the listing did not reach, needs a listing of its own. This
+ * replaces the HEAD, metadata and delete requests sent for every level by {@link S3SentinelFilesCleaner}.
+ */
+class S3BatchSentinelFilesCleaner {
+
+  private final S3Client s3Client;
+
+  S3BatchSentinelFilesCleaner(S3Client s3Client) {
+    this.s3Client = s3Client;
+  }
+
+  /**
+   * @param bucket Bucket of the deleted directory.
+   * @param key Key of the deleted directory, without a trailing slash.
+   * @param ancestorKeys Keys of the ancestors whose sentinel files may be deleted, nearest first. Ancestors are only
+   *          cleaned up while they are empty.
+   */
+  void deleteSentinelFiles(String bucket, String key, List<String> ancestorKeys) {
+    String deletedDirectory = key + "/";
+    Set<String> sentinelFiles = new LinkedHashSet<>();
+    String childKey = key;
+    for (String ancestorKey : ancestorKeys) {
+      DirectoryListing listing = listDirectory(bucket, ancestorKey + "/", deletedDirectory, sentinelFiles.size() + 2);
+      findSentinelFile(bucket, childKey, listing).ifPresent(sentinelFiles::add);
+      if (!listing.isEmptyWithout(sentinelFiles)) {
+        deleteObjects(bucket, sentinelFiles);
+        return;
+      }
+      childKey = ancestorKey;
+    }
+    findSentinelFile(bucket, childKey).ifPresent(sentinelFiles::add);
+    deleteObjects(bucket, sentinelFiles);
+  }
+
+  /**
+   * Lists up to {@code maxKeys} objects under {@code directoryKey}. In dry run, the deleted directory still holds its
+   * objects, so they are skipped and pages are listed until {@code maxKeys} other objects are found.
+   */
+  private DirectoryListing listDirectory(String bucket, String directoryKey, String deletedDirectory, int maxKeys) {
+    if (s3Client.isDryRunEnabled()) {
+      List<S3ObjectSummary> objectSummaries = new ArrayList<>();
+      ListObjectsV2Result result;
+      String continuationToken = null;
+      do {
+        result = s3Client.listObjectsPage(bucket, directoryKey, continuationToken);
+        result.getObjectSummaries()
+            .stream()
+            .filter(objectSummary -> !objectSummary.getKey().startsWith(deletedDirectory))
+            .forEach(objectSummaries::add);
+        continuationToken = result.getNextContinuationToken();
+      } while (result.isTruncated() && objectSummaries.size() < maxKeys);
+      return new DirectoryListing(objectSummaries, !result.isTruncated());
+    }
+    ListObjectsV2Result result = s3Client.listObjectsPage(bucket, directoryKey, null, maxKeys);
+    return new DirectoryListing(result.getObjectSummaries(), !result.isTruncated());
+  }
+
+  // the listing of the parent directory may have stopped before the sentinel file
+  private Optional<String> findSentinelFile(String bucket, String key, DirectoryListing parentListing) {
+    Optional<String> sentinelFile = parentListing.findSentinelFile(key);
+    if (sentinelFile.isPresent() || parentListing.complete) {
+      return sentinelFile;
+    }
+    return findSentinelFile(bucket, key);
+  }
+
+  private Optional<String> findSentinelFile(String bucket, String key) {
+    String sentinelFile = key + SENTINEL_SUFFIX;
+    ListObjectsV2Result result = s3Client.listObjectsPage(bucket, sentinelFile, null, 1);
+    return new DirectoryListing(result.getObjectSummaries(), true).findSentinelFile(key);
+  }
+
+  private void deleteObjects(String bucket, Set<String> sentinelFiles) {
+    if (!sentinelFiles.isEmpty()) {
+      s3Client.deleteObjects(bucket, new ArrayList<>(sentinelFiles));
+    }
+  }
+
+  private static class DirectoryListing {
+    private final List<S3ObjectSummary> objectSummaries;
+    private final boolean complete;
+
+    private DirectoryListing(List<S3ObjectSummary> objectSummaries, boolean complete) {
+      this.objectSummaries = objectSummaries;
+      this.complete = complete;
+    }
+
+    // only empty sentinel files are deleted, as with S3SentinelFilesCleaner
+    private Optional<String> findSentinelFile(String key) {
+      String sentinelFile = key + SENTINEL_SUFFIX;
+      return objectSummaries.stream()
+          .filter(objectSummary -> objectSummary.getKey().equals(sentinelFile) && objectSummary.getSize() == 0L)
+          .map(S3ObjectSummary::getKey)
+          .findFirst();
+    }
+
+    private boolean isEmptyWithout(Set<String> sentinelFiles) {
+      return complete && objectSummaries.stream()
+          .allMatch(objectSummary -> sentinelFiles.contains(objectSummary.getKey()));
+    }
+  }
+}
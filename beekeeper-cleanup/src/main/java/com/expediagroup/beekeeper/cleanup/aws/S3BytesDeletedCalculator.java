@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2020 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,10 @@
 package com.expediagroup.beekeeper.cleanup.aws;
 
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
@@ -43,16 +45,44 @@ public class S3BytesDeletedCalculator {
     });
   }
 
+  /**
+   * Adds the sizes of {@code keysDeleted} to the bytes deleted. Counted keys are forgotten, so sizes stored page by
+   * page do not accumulate over the whole listing.
+   */
   public void calculateBytesDeleted(List<String> keysDeleted) {
     if (!keyToSize.isEmpty()) {
       keysDeleted.forEach(key -> {
-        if (keyToSize.containsKey(key)) {
-          bytesDeleted += keyToSize.get(key);
+        Long bytes = keyToSize.remove(key);
+        if (bytes != null) {
+          bytesDeleted += bytes;
         }
       });
     }
   }
 
+  /**
+   * Adds the sizes of the objects of a single DeleteObjects chunk which S3 reported as deleted. The sizes are given as
+   * a primitive array aligned with {@code chunkKeys}, so nothing is stored per key and the memory is released with the
+   * chunk.
+   *
+   * @param keysDeleted The keys S3 reported as deleted, which must be distinct keys of {@code chunkKeys}, as returned
+   *          by {@link S3Client#deleteObjectsAsync(String, List)}.
+   */
+  public void calculateBytesDeleted(List<String> chunkKeys, long[] chunkSizes, List<String> keysDeleted) {
+    if (keysDeleted.size() == chunkKeys.size()) {
+      for (long bytes : chunkSizes) {
+        bytesDeleted += bytes;
+      }
+      return;
+    }
+    Set<String> deleted = new HashSet<>(keysDeleted);
+    for (int i = 0; i < chunkKeys.size(); i++) {
+      if (deleted.contains(chunkKeys.get(i))) {
+        bytesDeleted += chunkSizes[i];
+      }
+    }
+  }
+
   public long getBytesDeleted() {
     return bytesDeleted;
   }
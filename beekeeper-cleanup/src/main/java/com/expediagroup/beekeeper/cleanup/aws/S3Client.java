@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,30 +17,98 @@ package com.expediagroup.beekeeper.cleanup.aws;
 
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.amazonaws.ClientConfiguration;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 import com.amazonaws.services.s3.model.DeleteObjectsResult;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
+/**
+ * Sends the S3 requests of a cleanup with the blocking SDK v1 client. Every request in flight holds a thread, whether
+ * it is the calling thread or one of a bounded pool, and {@link #doesObjectExist(String, String)} and
+ * {@link #getObjectMetadata(String, String)} are always sent on the calling thread.
+ */
 public class S3Client {
 
   private static final int REQUEST_CHUNK_SIZE = 1000;
+  private static final Executor CALLING_THREAD = Runnable::run;
   private static final Logger log = LoggerFactory.getLogger(S3Client.class);
   private final AmazonS3 amazonS3;
   private final boolean dryRunEnabled;
+  private final int deleteConcurrency;
+  private final ExecutorService deleteExecutorService;
+  private final int deleteMaxAttempts;
+  private final long deleteRetryBackoffMs;
+  private final S3RequestRateController rateController;
+  private final int listConcurrency;
+  private final ExecutorService listExecutorService;
+  private final ExecutorService requestExecutorService;
 
   public S3Client(AmazonS3 amazonS3, boolean dryRunEnabled) {
-    this.amazonS3 = amazonS3;
-    this.dryRunEnabled = dryRunEnabled;
+    this(builder(amazonS3).dryRunEnabled(dryRunEnabled));
+  }
+
+  private S3Client(Builder builder) {
+    amazonS3 = builder.amazonS3;
+    dryRunEnabled = builder.dryRunEnabled;
+    deleteConcurrency = Math.max(1, builder.deleteConcurrency);
+    deleteExecutorService = deleteConcurrency > 1 && builder.requestPoolThreads <= 0
+        ? newDeleteExecutorService(deleteConcurrency)
+        : null;
+    deleteMaxAttempts = Math.max(1, builder.deleteMaxAttempts);
+    deleteRetryBackoffMs = Math.max(0, builder.deleteRetryBackoffMs);
+    rateController = builder.rateController;
+    listConcurrency = Math.max(1, builder.listConcurrency);
+    listExecutorService = listConcurrency > 1 ? Executors
+        .newFixedThreadPool(listConcurrency,
+            new ThreadFactoryBuilder().setNameFormat("s3-list-%d").setDaemon(true).build())
+        : null;
+    requestExecutorService = builder.requestPoolThreads > 0 ? Executors
+        .newFixedThreadPool(builder.requestPoolThreads,
+            new ThreadFactoryBuilder().setNameFormat("s3-request-%d").setDaemon(true).build())
+        : null;
+  }
+
+  /**
+   * @param amazonS3 Client used for all S3 requests.
+   */
+  public static Builder builder(AmazonS3 amazonS3) {
+    return new Builder(amazonS3);
+  }
+
+  /**
+   * The pool is shared by the paths cleaned up at the same time, each with up to {@code deleteConcurrency} requests in
+   * flight. Its threads are bounded by the connections of a default {@link AmazonS3} client, beyond which requests
+   * would wait for a connection anyway, and further requests wait in the queue. Idle threads are stopped.
+   */
+  private static ExecutorService newDeleteExecutorService(int deleteConcurrency) {
+    int threads = Math.max(deleteConcurrency, ClientConfiguration.DEFAULT_MAX_CONNECTIONS);
+    ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS,
+        new LinkedBlockingQueue<>(),
+        new ThreadFactoryBuilder().setNameFormat("s3-delete-%d").setDaemon(true).build());
+    executor.allowCoreThreadTimeOut(true);
+    return executor;
   }
 
   void deleteObject(String bucket, String key) {
@@ -48,25 +116,96 @@ public class S3Client {
       log.info("Dry run - deleting: \"{}/{}\"", bucket, key);
     } else {
       log.info("Deleting \"{}/{}\"", bucket, key);
-      amazonS3.deleteObject(bucket, key);
+      rateController.execute(bucket, key, () -> amazonS3.deleteObject(bucket, key));
     }
   }
 
   List<S3ObjectSummary> listObjects(String bucket, String key) {
     List<S3ObjectSummary> objectSummaries = new ArrayList<>();
+    listObjects(bucket, key, objectSummaries::addAll);
+    return objectSummaries;
+  }
+
+  /**
+   * Lists the objects under {@code key} one ListObjectsV2 page at a time. Each page is handed to {@code pageConsumer}
+   * before the next one is requested, so callers never need to hold the whole listing in memory.
+   *
+   * @param bucket Bucket to list.
+   * @param key Prefix to list.
+   * @param pageConsumer Receives the object summaries of each page, in listing order.
+   */
+  void listObjects(String bucket, String key, Consumer<List<S3ObjectSummary>> pageConsumer) {
     ListObjectsV2Result listObjectsV2Result;
     String continuationToken = null;
     do {
-      ListObjectsV2Request request = new ListObjectsV2Request()
-          .withBucketName(bucket)
-          .withPrefix(key)
-          .withEncodingType("url")
-          .withContinuationToken(continuationToken);
-      listObjectsV2Result = amazonS3.listObjectsV2(request);
-      objectSummaries.addAll(listObjectsV2Result.getObjectSummaries());
+      listObjectsV2Result = listObjectsPage(bucket, key, continuationToken);
+      pageConsumer.accept(listObjectsV2Result.getObjectSummaries());
       continuationToken = listObjectsV2Result.getNextContinuationToken();
     } while (listObjectsV2Result.isTruncated());
-    return objectSummaries;
+  }
+
+  ListObjectsV2Result listObjectsPage(String bucket, String prefix, String continuationToken) {
+    return listObjectsPage(bucket, prefix, continuationToken, null);
+  }
+
+  /**
+   * Sends a single ListObjectsV2 request for the objects starting with {@code prefix}.
+   *
+   * @param continuationToken Token returned with the previous page, or {@code null} for the first page.
+   * @param maxKeys Maximum number of keys in the page, or {@code null} for the S3 default of 1000.
+   */
+  ListObjectsV2Result listObjectsPage(String bucket, String prefix, String continuationToken, Integer maxKeys) {
+    return listObjects(new ListObjectsV2Request()
+        .withBucketName(bucket)
+        .withPrefix(prefix)
+        .withContinuationToken(continuationToken)
+        .withMaxKeys(maxKeys));
+  }
+
+  /**
+   * Sends a single ListObjectsV2 request for the objects starting with {@code prefix} which sort after
+   * {@code startAfter}. The following pages are requested with the continuation token of this one.
+   */
+  ListObjectsV2Result listObjectsPageAfter(String bucket, String prefix, String startAfter) {
+    return listObjects(new ListObjectsV2Request()
+        .withBucketName(bucket)
+        .withPrefix(prefix)
+        .withStartAfter(startAfter));
+  }
+
+  /**
+   * Requests a ListObjectsV2 page on the request pool, so the caller can work on the previous page in the meantime.
+   * Without a request pool, the request is sent on the calling thread and a completed future is returned.
+   */
+  CompletableFuture<ListObjectsV2Result> listObjectsPageAsync(String bucket, String prefix, String continuationToken) {
+    Executor executor = requestExecutorService != null ? requestExecutorService : CALLING_THREAD;
+    return CompletableFuture.supplyAsync(() -> listObjectsPage(bucket, prefix, continuationToken), executor);
+  }
+
+  ListObjectsV2Result listObjects(ListObjectsV2Request request) {
+    request.setEncodingType("url");
+    return rateController
+        .execute(request.getBucketName(), request.getPrefix(), () -> amazonS3.listObjectsV2(request));
+  }
+
+  boolean isParallelListingEnabled() {
+    return listExecutorService != null;
+  }
+
+  /**
+   * Lists the objects under {@code directoryKey}, listing each of its child prefixes on the list executor. Pages are
+   * handed to {@code pageConsumer} on the calling thread, but pages of different prefixes are interleaved.
+   *
+   * @param directoryKey Prefix to list, ending with "/".
+   * @param startAfter Key after which to start listing, or {@code null} to list the whole directory.
+   */
+  void listObjectsInParallel(
+      String bucket,
+      String directoryKey,
+      String startAfter,
+      Consumer<List<S3ObjectSummary>> pageConsumer) {
+    new S3ParallelLister(this, listExecutorService, listConcurrency)
+        .listObjects(bucket, directoryKey, startAfter, pageConsumer);
   }
 
   List<String> deleteObjects(String bucket, List<String> keys) {
@@ -76,23 +215,20 @@ public class S3Client {
     if (!dryRunEnabled) {
       log.info("Attempting to delete a total of {} objects, from [{}] to [{}]", keys.size(), keys.get(0),
           keys.get(keys.size() - 1));
-      DeleteObjectsResult deleteObjectsResult = new DeleteObjectsResult(new ArrayList<>());
-      DeleteObjectsRequest deleteObjectsRequest = new DeleteObjectsRequest(bucket);
+      List<String> deletedKeys = new ArrayList<>();
+      S3DeleteRequestWindow<List<String>> deleteRequests = newDeleteRequestWindow();
       int totalKeys = keys.size();
       int indexStart;
       int indexEnd = 0;
       while (indexEnd < totalKeys) {
         indexStart = indexEnd;
         indexEnd = nextIndexEnd(indexStart, REQUEST_CHUNK_SIZE, totalKeys);
-        deleteObjectsRequest.withKeys(keys.subList(indexStart, indexEnd).toArray(String[]::new));
-        deleteObjectsResult.getDeletedObjects().addAll(
-            amazonS3.deleteObjects(deleteObjectsRequest).getDeletedObjects());
+        List<String> chunk = keys.subList(indexStart, indexEnd);
+        deleteRequests.submit(() -> deleteObjectsAsync(bucket, chunk), deletedKeys::addAll);
       }
+      deleteRequests.awaitAll();
       log.info("Successfully deleted {} objects", keys.size());
-      return deleteObjectsResult.getDeletedObjects()
-          .stream()
-          .map(DeleteObjectsResult.DeletedObject::getKey)
-          .collect(Collectors.toList());
+      return deletedKeys;
     } else {
       return keys.stream()
           .peek(key -> log.info("Dry run - deleting: \"{}/{}\"", bucket, key))
@@ -100,16 +236,58 @@ public class S3Client {
     }
   }
 
+  /**
+   * Sends one DeleteObjects request for {@code keys}, which must not exceed the S3 limit of 1000 keys. The request runs
+   * on the request pool, or on the delete pool when {@code deleteConcurrency} is greater than 1, or on the calling
+   * thread otherwise. Keys which S3 fails to delete are sent again, with backoff, up to {@code deleteMaxAttempts}
+   * requests in total.
+   *
+   * @return A future holding the keys S3 reported as deleted.
+   */
+  CompletableFuture<List<String>> deleteObjectsAsync(String bucket, List<String> keys) {
+    if (dryRunEnabled) {
+      return CompletableFuture.completedFuture(deleteObjects(bucket, keys));
+    }
+    Executor executor = deleteExecutor();
+    return deleteChunk(bucket, new LinkedHashSet<>(keys), new ArrayList<>(), 1, deleteRetryBackoffMs, executor,
+        executor);
+  }
+
+  /**
+   * Creates a window which bounds the number of DeleteObjects requests in flight for a single path.
+   */
+  <T> S3DeleteRequestWindow<T> newDeleteRequestWindow() {
+    return new S3DeleteRequestWindow<>(deleteConcurrency);
+  }
+
+  public void close() {
+    if (deleteExecutorService != null) {
+      deleteExecutorService.shutdown();
+    }
+    if (listExecutorService != null) {
+      listExecutorService.shutdown();
+    }
+    if (requestExecutorService != null) {
+      requestExecutorService.shutdown();
+    }
+  }
+
+  boolean isDryRunEnabled() {
+    return dryRunEnabled;
+  }
+
   boolean doesObjectExist(String bucket, String key) {
-    return amazonS3.doesObjectExist(bucket, key);
+    return rateController.execute(bucket, key, () -> amazonS3.doesObjectExist(bucket, key));
   }
 
   ObjectMetadata getObjectMetadata(String bucket, String key) {
-    return amazonS3.getObjectMetadata(bucket, key);
+    return rateController.execute(bucket, key, () -> amazonS3.getObjectMetadata(bucket, key));
   }
 
   boolean isEmpty(String bucket, String key, String leafKey) {
-    List<S3ObjectSummary> objectsLeftAtPath = amazonS3.listObjectsV2(bucket, key + "/").getObjectSummaries();
+    List<S3ObjectSummary> objectsLeftAtPath = rateController
+        .execute(bucket, key, () -> amazonS3.listObjectsV2(bucket, key + "/"))
+        .getObjectSummaries();
     if (!dryRunEnabled) {
       return objectsLeftAtPath.size() == 0;
     } else {
@@ -125,8 +303,153 @@ public class S3Client {
     }
   }
 
+  /**
+   * Sends a DeleteObjects request for the keys not deleted yet on {@code attemptExecutor}, then retries the keys S3
+   * did not delete. A retry on a pool is handed to the pool once its backoff has elapsed, so that no pool thread sleeps
+   * through the backoff while requests for other paths wait for a thread.
+   */
+  private CompletableFuture<List<String>> deleteChunk(
+      String bucket,
+      Set<String> remainingKeys,
+      List<String> deletedKeys,
+      int attempt,
+      long backoffMs,
+      Executor attemptExecutor,
+      Executor executor) {
+    return CompletableFuture
+        .supplyAsync(() -> deleteChunkOnce(bucket, new ArrayList<>(remainingKeys)), attemptExecutor)
+        .thenCompose(keys -> {
+          keys.stream().filter(remainingKeys::remove).forEach(deletedKeys::add);
+          if (remainingKeys.isEmpty() || attempt == deleteMaxAttempts) {
+            return CompletableFuture.completedFuture(deletedKeys);
+          }
+          log.warn("{} objects could not be deleted, retrying in {} ms (attempt {} of {})", remainingKeys.size(),
+              backoffMs, attempt + 1, deleteMaxAttempts);
+          Executor retryExecutor = executor;
+          if (executor != CALLING_THREAD) {
+            retryExecutor = CompletableFuture.delayedExecutor(backoffMs, TimeUnit.MILLISECONDS, executor);
+          } else if (!sleep(backoffMs)) {
+            return CompletableFuture.completedFuture(deletedKeys);
+          }
+          return deleteChunk(bucket, remainingKeys, deletedKeys, attempt + 1, backoffMs * 2, retryExecutor, executor);
+        });
+  }
+
+  // the calling thread waits for its deletes to complete anyway, so it can wait for the backoff too
+  private static boolean sleep(long millis) {
+    try {
+      Thread.sleep(millis);
+      return true;
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  // S3 reports the keys it could not delete with a MultiObjectDeleteException, which also holds the deleted keys
+  private List<String> deleteChunkOnce(String bucket, List<String> keys) {
+    DeleteObjectsRequest deleteObjectsRequest = new DeleteObjectsRequest(bucket)
+        .withKeys(keys.toArray(String[]::new));
+    List<DeleteObjectsResult.DeletedObject> deletedObjects;
+    try {
+      deletedObjects = rateController
+          .execute(bucket, keys.get(0), () -> amazonS3.deleteObjects(deleteObjectsRequest))
+          .getDeletedObjects();
+    } catch (MultiObjectDeleteException e) {
+      deletedObjects = e.getDeletedObjects();
+    }
+    return deletedObjects.stream()
+        .map(DeleteObjectsResult.DeletedObject::getKey)
+        .collect(Collectors.toList());
+  }
+
+  private Executor deleteExecutor() {
+    if (requestExecutorService != null) {
+      return requestExecutorService;
+    }
+    return deleteExecutorService != null ? deleteExecutorService : CALLING_THREAD;
+  }
+
   private int nextIndexEnd(final int indexStart, final int chunkSize, final int totalKeys) {
     int calculatedNextIndexEnd = indexStart + chunkSize;
     return Math.min(calculatedNextIndexEnd, totalKeys);
   }
+
+  public static class Builder {
+    private final AmazonS3 amazonS3;
+    private boolean dryRunEnabled;
+    private int deleteConcurrency = 1;
+    private int deleteMaxAttempts = 1;
+    private long deleteRetryBackoffMs;
+    private int listConcurrency = 1;
+    private S3RequestRateController rateController = S3RequestRateController.disabled();
+    private int requestPoolThreads;
+
+    private Builder(AmazonS3 amazonS3) {
+      this.amazonS3 = amazonS3;
+    }
+
+    public Builder dryRunEnabled(boolean dryRunEnabled) {
+      this.dryRunEnabled = dryRunEnabled;
+      return this;
+    }
+
+    /**
+     * @param deleteConcurrency Number of DeleteObjects requests kept in flight for each path. With a value of 1,
+     *          deletes are sent one after another on the calling thread.
+     */
+    public Builder deleteConcurrency(int deleteConcurrency) {
+      this.deleteConcurrency = deleteConcurrency;
+      return this;
+    }
+
+    /**
+     * @param deleteMaxAttempts Number of DeleteObjects requests sent for a chunk of keys, counting the first one. Each
+     *          retry only sends the keys S3 did not delete.
+     */
+    public Builder deleteMaxAttempts(int deleteMaxAttempts) {
+      this.deleteMaxAttempts = deleteMaxAttempts;
+      return this;
+    }
+
+    /**
+     * @param deleteRetryBackoffMs Time to wait before the first retry, doubled before every following one.
+     */
+    public Builder deleteRetryBackoffMs(long deleteRetryBackoffMs) {
+      this.deleteRetryBackoffMs = deleteRetryBackoffMs;
+      return this;
+    }
+
+    /**
+     * @param listConcurrency Number of threads listing the child prefixes of large directories in parallel. With a
+     *          value of 1, directories are listed with a single chain of ListObjectsV2 requests.
+     */
+    public Builder listConcurrency(int listConcurrency) {
+      this.listConcurrency = listConcurrency;
+      return this;
+    }
+
+    /**
+     * @param rateController Paces every request sent to S3, adapting to throttling.
+     */
+    public Builder rateController(S3RequestRateController rateController) {
+      this.rateController = rateController;
+      return this;
+    }
+
+    /**
+     * @param requestPoolThreads Number of threads of a pool shared by all paths which sends the DeleteObjects requests
+     *          and the read-ahead ListObjectsV2 requests. Each thread blocks on its request, so this bounds the number
+     *          of these requests in flight across paths. With a value of 0, deletes are sent as set by
+     *          {@code deleteConcurrency} and the next page is listed on the calling thread.
+     */
+    public Builder requestPoolThreads(int requestPoolThreads) {
+      this.requestPoolThreads = requestPoolThreads;
+      return this;
+    }
+
+    public S3Client build() {
+      return new S3Client(this);
+    }
+  }
 }
@@ -0,0 +1,113 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.expediagroup.beekeeper.cleanup.path.DeleteCheckpoint;
+import com.expediagroup.beekeeper.cleanup.path.DeleteCheckpointStore;
+import com.expediagroup.beekeeper.core.model.HousekeepingEntity;
+
+/**
+ * Stores the progress of the deletion of one directory, listed one page after another, every {@code intervalObjects}
+ * objects. A checkpoint is only stored once every object listed before it has been deleted, so objects which could
+ * not be deleted are listed again by the next attempt.
+ */
+class S3DeleteCheckpointer {
+
+  private static final Logger log = LoggerFactory.getLogger(S3DeleteCheckpointer.class);
+
+  private final DeleteCheckpointStore checkpointStore;
+  private final long intervalObjects;
+  private final HousekeepingEntity housekeepingEntity;
+  private final DeleteCheckpoint previousCheckpoint;
+  private long objectsAtLastCheckpoint = 0;
+  private boolean saved = false;
+
+  /**
+   * @param intervalObjects Number of objects deleted between checkpoints, or {@code 0} to store none.
+   * @param previousCheckpoint Checkpoint which the deletion carries on from, or {@code null} if it starts afresh.
+   */
+  S3DeleteCheckpointer(
+      DeleteCheckpointStore checkpointStore,
+      long intervalObjects,
+      HousekeepingEntity housekeepingEntity,
+      DeleteCheckpoint previousCheckpoint) {
+    this.checkpointStore = checkpointStore;
+    this.intervalObjects = intervalObjects;
+    this.housekeepingEntity = housekeepingEntity;
+    this.previousCheckpoint = previousCheckpoint;
+  }
+
+  /**
+   * Stores a checkpoint after a page, if enough objects have been deleted since the last one.
+   *
+   * @param startAfter Last key of the page, after which the listing can start again.
+   */
+  void afterPage(S3DirectoryDeleter directoryDeleter, S3BytesDeletedCalculator bytesDeletedCalculator,
+      String startAfter) {
+    if (intervalObjects <= 0 || directoryDeleter.getTotalFiles() - objectsAtLastCheckpoint < intervalObjects) {
+      return;
+    }
+    if (!directoryDeleter.awaitAllDeleted()) {
+      return;
+    }
+    objectsAtLastCheckpoint = directoryDeleter.getTotalFiles();
+    DeleteCheckpoint checkpoint = new DeleteCheckpoint(startAfter,
+        totalObjects(directoryDeleter.getTotalFiles()), totalBytes(bytesDeletedCalculator.getBytesDeleted()));
+    try {
+      checkpointStore.save(housekeepingEntity, checkpoint);
+      saved = true;
+      log.debug("Stored checkpoint of path \"{}\": {}", housekeepingEntity.getPath(), checkpoint);
+    } catch (Exception e) {
+      log.warn("Could not store checkpoint of path \"{}\"", housekeepingEntity.getPath(), e);
+    }
+  }
+
+  /**
+   * Clears the checkpoint of the directory once it has been deleted.
+   */
+  void complete(S3DirectoryDeleter directoryDeleter, S3BytesDeletedCalculator bytesDeletedCalculator) {
+    if (previousCheckpoint != null) {
+      log.info("Deleted {} objects ({} bytes) from path \"{}\" over every attempt",
+          totalObjects(directoryDeleter.getTotalFiles()), totalBytes(bytesDeletedCalculator.getBytesDeleted()),
+          housekeepingEntity.getPath());
+    }
+    if (previousCheckpoint == null && !saved) {
+      return;
+    }
+    try {
+      checkpointStore.clear(housekeepingEntity);
+    } catch (Exception e) {
+      log.warn("Could not clear checkpoint of path \"{}\"", housekeepingEntity.getPath(), e);
+    }
+  }
+
+  /**
+   * @return Number of objects deleted by every attempt, given the number deleted by this one.
+   */
+  long totalObjects(long objectsDeleted) {
+    return previousCheckpoint == null ? objectsDeleted : previousCheckpoint.getObjectsDeleted() + objectsDeleted;
+  }
+
+  /**
+   * @return Size of the objects deleted by every attempt, given the size deleted by this one.
+   */
+  long totalBytes(long bytesDeleted) {
+    return previousCheckpoint == null ? bytesDeleted : previousCheckpoint.getBytesDeleted() + bytesDeleted;
+  }
+}
@@ -0,0 +1,158 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Collects the objects of several small paths of one bucket and deletes them with shared DeleteObjects requests of up
+ * to {@value #MAX_KEYS_PER_REQUEST} keys. The objects of a path are never split between two requests, and every path
+ * is handed its own outcome once the request holding its objects has completed.
+ * <p>
+ * When the objects are only counted, for a dry run summary, no request is sent and every object counts as deleted.
+ */
+class S3DeleteCoalescer {
+
+  private static final int MAX_KEYS_PER_REQUEST = 1000;
+  private static final int MAX_REPORTED_FAILED_KEYS = 100;
+
+  private final S3Client s3Client;
+  private final String bucket;
+  private final boolean countOnly;
+  private final List<PendingPath> pendingPaths = new ArrayList<>();
+  private int pendingKeys = 0;
+
+  S3DeleteCoalescer(S3Client s3Client, String bucket) {
+    this(s3Client, bucket, false);
+  }
+
+  /**
+   * @param countOnly Whether the objects are only counted, without calling {@link S3Client#deleteObjects}, which logs
+   *          every key during dry runs.
+   */
+  S3DeleteCoalescer(S3Client s3Client, String bucket, boolean countOnly) {
+    this.s3Client = s3Client;
+    this.bucket = bucket;
+    this.countOnly = countOnly;
+  }
+
+  /**
+   * Adds the objects of a path, sending the pending request first if the objects would not fit in it.
+   *
+   * @param key Key of the path, used in error messages.
+   * @param objectSummaries All the objects of the path, which must not exceed {@value #MAX_KEYS_PER_REQUEST}.
+   * @param callback Receives the outcome of the path once its objects have been deleted.
+   */
+  void add(String key, List<S3ObjectSummary> objectSummaries, PathDeletionCallback callback) {
+    if (pendingKeys + objectSummaries.size() > MAX_KEYS_PER_REQUEST) {
+      flush();
+    }
+    pendingPaths.add(new PendingPath(key, objectSummaries, callback));
+    pendingKeys += objectSummaries.size();
+  }
+
+  /**
+   * Sends the pending request, then hands every path in it the bytes deleted and, if not all of its objects could be
+   * deleted, the reason.
+   */
+  void flush() {
+    if (pendingPaths.isEmpty()) {
+      return;
+    }
+    List<String> keys = pendingPaths.stream()
+        .flatMap(pendingPath -> pendingPath.keys.stream())
+        .collect(Collectors.toList());
+    Set<String> deletedKeys = Collections.emptySet();
+    Exception failure = null;
+    try {
+      deletedKeys = new HashSet<>(countOnly ? keys : s3Client.deleteObjects(bucket, keys));
+    } catch (Exception e) {
+      failure = e;
+    }
+    for (PendingPath pendingPath : pendingPaths) {
+      complete(pendingPath, deletedKeys, failure);
+    }
+    pendingPaths.clear();
+    pendingKeys = 0;
+  }
+
+  private void complete(PendingPath pendingPath, Set<String> deletedKeys, Exception failure) {
+    List<String> keysDeleted = pendingPath.keys.stream()
+        .filter(deletedKeys::contains)
+        .collect(Collectors.toList());
+    S3BytesDeletedCalculator bytesDeletedCalculator = new S3BytesDeletedCalculator(s3Client);
+    bytesDeletedCalculator.calculateBytesDeleted(pendingPath.keys, pendingPath.sizes, keysDeleted);
+    if (failure == null && keysDeleted.size() != pendingPath.keys.size()) {
+      failure = notAllDeleted(pendingPath, keysDeleted);
+    }
+    pendingPath.callback.deleted(bytesDeletedCalculator.getBytesDeleted(), failure);
+  }
+
+  private BeekeeperException notAllDeleted(PendingPath pendingPath, List<String> keysDeleted) {
+    Set<String> deleted = new HashSet<>(keysDeleted);
+    int remainingFiles = pendingPath.keys.size() - keysDeleted.size();
+    String failedDeletions = pendingPath.keys.stream()
+        .filter(k -> !deleted.contains(k))
+        .limit(MAX_REPORTED_FAILED_KEYS)
+        .map(k -> format("'%s'", k))
+        .collect(Collectors.joining(", "));
+    if (remainingFiles > MAX_REPORTED_FAILED_KEYS) {
+      failedDeletions += format(" and %s more", remainingFiles - MAX_REPORTED_FAILED_KEYS);
+    }
+    return new BeekeeperException(format(
+        "Not all files could be deleted at path \"%s/%s\"; deleted %s/%s objects, %s remaining. "
+            + "Objects not deleted: %s.",
+        bucket, pendingPath.key, keysDeleted.size(), pendingPath.keys.size(), remainingFiles, failedDeletions));
+  }
+
+  @FunctionalInterface
+  interface PathDeletionCallback {
+    /**
+     * @param bytesDeleted Size of the objects of the path which were deleted.
+     * @param failure Reason why not all objects of the path were deleted, or {@code null} if they all were.
+     */
+    void deleted(long bytesDeleted, Exception failure);
+  }
+
+  private static class PendingPath {
+    private final String key;
+    private final List<String> keys;
+    private final long[] sizes;
+    private final PathDeletionCallback callback;
+
+    private PendingPath(String key, List<S3ObjectSummary> objectSummaries, PathDeletionCallback callback) {
+      this.key = key;
+      keys = objectSummaries.stream()
+          .map(S3ObjectSummary::getKey)
+          .collect(Collectors.toList());
+      sizes = objectSummaries.stream()
+          .mapToLong(S3ObjectSummary::getSize)
+          .toArray();
+      this.callback = callback;
+    }
+  }
+}
@@ -0,0 +1,106 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Keeps at most {@code maxInFlight} requests running at once. Results are handed to their consumers on the calling
+ * thread, in the order the requests were submitted, so consumers do not need to be thread safe.
+ *
+ * @implNote If a request fails, the requests still in flight are awaited and their results consumed before the first
+ *           failure is rethrown, so no request outlives the window.
+ */
+class S3DeleteRequestWindow<T> {
+
+  private final int maxInFlight;
+  private final Deque<PendingRequest<T>> inFlight = new ArrayDeque<>();
+  private RuntimeException failure;
+
+  S3DeleteRequestWindow(int maxInFlight) {
+    this.maxInFlight = Math.max(1, maxInFlight);
+  }
+
+  void submit(Supplier<CompletableFuture<T>> request, Consumer<T> resultConsumer) {
+    while (inFlight.size() >= maxInFlight) {
+      completeOldest();
+    }
+    throwIfFailed();
+    inFlight.add(new PendingRequest<>(request.get(), resultConsumer));
+  }
+
+  void awaitAll() {
+    while (!inFlight.isEmpty()) {
+      completeOldest();
+    }
+    throwIfFailed();
+  }
+
+  private void completeOldest() {
+    PendingRequest<T> pendingRequest = inFlight.poll();
+    try {
+      T result = pendingRequest.future.join();
+      pendingRequest.resultConsumer.accept(result);
+    } catch (CompletionException e) {
+      recordFailure(unwrap(e));
+    } catch (RuntimeException e) {
+      recordFailure(e);
+    }
+  }
+
+  private void recordFailure(RuntimeException e) {
+    if (failure == null) {
+      failure = e;
+    }
+  }
+
+  private void throwIfFailed() {
+    if (failure != null) {
+      while (!inFlight.isEmpty()) {
+        completeOldest();
+      }
+      throw failure;
+    }
+  }
+
+  private RuntimeException unwrap(CompletionException e) {
+    Throwable cause = e.getCause();
+    if (cause instanceof RuntimeException) {
+      return (RuntimeException) cause;
+    }
+    if (cause instanceof Error) {
+      throw (Error) cause;
+    }
+    return new BeekeeperException("Unexpected exception while waiting for S3 delete request.", cause);
+  }
+
+  private static class PendingRequest<T> {
+    private final CompletableFuture<T> future;
+    private final Consumer<T> resultConsumer;
+
+    private PendingRequest(CompletableFuture<T> future, Consumer<T> resultConsumer) {
+      this.future = future;
+      this.resultConsumer = resultConsumer;
+    }
+  }
+}
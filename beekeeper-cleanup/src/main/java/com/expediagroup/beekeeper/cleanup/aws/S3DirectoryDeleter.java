@@ -0,0 +1,163 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import static java.lang.String.format;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Deletes the contents of a directory one listing page at a time. Only the keys and sizes of the pages being deleted
+ * and the first {@value #MAX_REPORTED_FAILED_KEYS} keys which could not be deleted are kept in memory, whatever the
+ * size of the directory. Up to the S3 client's delete concurrency, pages are deleted in the background while the
+ * next page is listed.
+ */
+class S3DirectoryDeleter {
+
+  private static final Logger log = LoggerFactory.getLogger(S3DirectoryDeleter.class);
+  private static final int MAX_REPORTED_FAILED_KEYS = 100;
+
+  private final S3Client s3Client;
+  private final String bucket;
+  private final String key;
+  private final S3BytesDeletedCalculator bytesDeletedCalculator;
+  private final S3DeleteRequestWindow<List<String>> deleteRequests;
+  private final List<String> failedKeys = new ArrayList<>();
+  private final boolean dryRunSummaryEnabled;
+  private int totalFiles = 0;
+  private int successfulDeletes = 0;
+  private String firstKey;
+  private String lastKey;
+
+  S3DirectoryDeleter(S3Client s3Client, String bucket, String key, S3BytesDeletedCalculator bytesDeletedCalculator) {
+    this(s3Client, bucket, key, bytesDeletedCalculator, false);
+  }
+
+  /**
+   * @param dryRunSummaryEnabled When enabled, pages are counted as deleted without being handed to the S3 client, which
+   *          would log every key of a dry run.
+   */
+  S3DirectoryDeleter(
+      S3Client s3Client,
+      String bucket,
+      String key,
+      S3BytesDeletedCalculator bytesDeletedCalculator,
+      boolean dryRunSummaryEnabled) {
+    this.s3Client = s3Client;
+    this.bucket = bucket;
+    this.key = key;
+    this.bytesDeletedCalculator = bytesDeletedCalculator;
+    this.dryRunSummaryEnabled = dryRunSummaryEnabled;
+    deleteRequests = s3Client.newDeleteRequestWindow();
+  }
+
+  void deletePage(List<S3ObjectSummary> objectSummaries) {
+    if (objectSummaries.isEmpty()) {
+      return;
+    }
+    List<String> keys = objectSummaries.stream()
+        .map(S3ObjectSummary::getKey)
+        .collect(Collectors.toList());
+    long[] sizes = objectSummaries.stream()
+        .mapToLong(S3ObjectSummary::getSize)
+        .toArray();
+    updateKeyRange(keys.get(0), keys.get(keys.size() - 1));
+    if (dryRunSummaryEnabled) {
+      completePage(keys, sizes, keys);
+      return;
+    }
+    log.info("Attempting to delete {} objects, from [{}] to [{}]", keys.size(), keys.get(0), keys.get(keys.size() - 1));
+    deleteRequests
+        .submit(() -> s3Client.deleteObjectsAsync(bucket, keys),
+            deletedKeys -> completePage(keys, sizes, deletedKeys));
+  }
+
+  private void completePage(List<String> keys, long[] sizes, List<String> deletedKeys) {
+    bytesDeletedCalculator.calculateBytesDeleted(keys, sizes, deletedKeys);
+    totalFiles += keys.size();
+    successfulDeletes += deletedKeys.size();
+    if (deletedKeys.size() != keys.size() && failedKeys.size() < MAX_REPORTED_FAILED_KEYS) {
+      Set<String> deleted = new HashSet<>(deletedKeys);
+      keys.stream()
+          .filter(k -> !deleted.contains(k))
+          .limit(MAX_REPORTED_FAILED_KEYS - failedKeys.size())
+          .forEach(failedKeys::add);
+    }
+  }
+
+  // pages of different child prefixes are interleaved when listing in parallel
+  private void updateKeyRange(String pageFirstKey, String pageLastKey) {
+    if (firstKey == null || pageFirstKey.compareTo(firstKey) < 0) {
+      firstKey = pageFirstKey;
+    }
+    if (lastKey == null || pageLastKey.compareTo(lastKey) > 0) {
+      lastKey = pageLastKey;
+    }
+  }
+
+  int getTotalFiles() {
+    return totalFiles;
+  }
+
+  String getFirstKey() {
+    return firstKey;
+  }
+
+  String getLastKey() {
+    return lastKey;
+  }
+
+  /**
+   * Waits for the pages still being deleted.
+   *
+   * @return Whether every object of the pages deleted so far has been deleted.
+   */
+  boolean awaitAllDeleted() {
+    deleteRequests.awaitAll();
+    return successfulDeletes == totalFiles;
+  }
+
+  /**
+   * Waits for the pages still being deleted, then throws if any object could not be deleted.
+   */
+  void throwIfNotAllDeleted() {
+    deleteRequests.awaitAll();
+    if (successfulDeletes != totalFiles) {
+      int remainingFiles = totalFiles - successfulDeletes;
+      String failedDeletions = failedKeys.stream()
+          .map(k -> format("'%s'", k))
+          .collect(Collectors.joining(", "));
+      if (remainingFiles > MAX_REPORTED_FAILED_KEYS) {
+        failedDeletions += format(" and %s more", remainingFiles - MAX_REPORTED_FAILED_KEYS);
+      }
+      throw new BeekeeperException(format(
+          "Not all files could be deleted at path \"%s/%s\"; deleted %s/%s objects, %s remaining. "
+              + "Objects not deleted: %s.",
+          bucket, key, successfulDeletes, totalFiles, remainingFiles, failedDeletions));
+    }
+  }
+}
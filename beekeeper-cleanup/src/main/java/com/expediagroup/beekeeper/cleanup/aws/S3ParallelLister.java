@@ -0,0 +1,180 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Consumer;
+
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+import com.google.common.util.concurrent.Uninterruptibles;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Lists a directory by first listing it with "/" as delimiter, which returns its own objects and its child prefixes,
+ * then listing every child prefix as a separate task on a bounded executor. The tasks put their pages on a bounded
+ * queue which the calling thread drains, so the consumer sees a single stream of pages and does not need to be thread
+ * safe.
+ */
+class S3ParallelLister {
+
+  private static final String DELIMITER = "/";
+
+  private final S3Client s3Client;
+  private final ExecutorService listExecutor;
+  private final BlockingQueue<ListedPage> listedPages;
+  private volatile boolean cancelled = false;
+  private int pendingPrefixes = 0;
+  private RuntimeException failure;
+
+  S3ParallelLister(S3Client s3Client, ExecutorService listExecutor, int concurrency) {
+    this.s3Client = s3Client;
+    this.listExecutor = listExecutor;
+    listedPages = new ArrayBlockingQueue<>(concurrency * 2);
+  }
+
+  /**
+   * @param startAfter Key after which to start listing. Child prefixes listed before it are skipped by S3, and the
+   *          child prefix holding it is only listed from that key onwards.
+   */
+  void listObjects(
+      String bucket,
+      String directoryKey,
+      String startAfter,
+      Consumer<List<S3ObjectSummary>> pageConsumer) {
+    try {
+      ListObjectsV2Result result;
+      String continuationToken = null;
+      do {
+        result = s3Client.listObjects(new ListObjectsV2Request()
+            .withBucketName(bucket)
+            .withPrefix(directoryKey)
+            .withDelimiter(DELIMITER)
+            .withStartAfter(startAfter)
+            .withContinuationToken(continuationToken));
+        pageConsumer.accept(result.getObjectSummaries());
+        for (String childPrefix : result.getCommonPrefixes()) {
+          submit(bucket, childPrefix, startAfter != null && startAfter.startsWith(childPrefix) ? startAfter : null);
+        }
+        consumeListedPages(pageConsumer, false);
+        continuationToken = result.getNextContinuationToken();
+      } while (result.isTruncated());
+    } catch (RuntimeException e) {
+      recordFailure(e);
+    }
+    while (pendingPrefixes > 0) {
+      consumeListedPages(pageConsumer, true);
+    }
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  private void submit(String bucket, String prefix, String startAfter) {
+    listExecutor.execute(() -> {
+      RuntimeException taskFailure = null;
+      try {
+        ListObjectsV2Result result;
+        String continuationToken = null;
+        do {
+          if (cancelled) {
+            break;
+          }
+          result = s3Client.listObjects(new ListObjectsV2Request()
+              .withBucketName(bucket)
+              .withPrefix(prefix)
+              .withStartAfter(startAfter)
+              .withContinuationToken(continuationToken));
+          put(new ListedPage(result.getObjectSummaries(), null, false));
+          continuationToken = result.getNextContinuationToken();
+        } while (result.isTruncated());
+      } catch (RuntimeException e) {
+        taskFailure = e;
+      } catch (Throwable e) {
+        taskFailure = new BeekeeperException("Unexpected error while listing objects.", e);
+      } finally {
+        // the calling thread waits for the last page of every task, so it is posted whatever happened
+        Uninterruptibles.putUninterruptibly(listedPages, new ListedPage(null, taskFailure, true));
+      }
+    });
+    // only counted once submitted, so that a rejected task is not waited for
+    pendingPrefixes++;
+  }
+
+  private void put(ListedPage listedPage) {
+    try {
+      listedPages.put(listedPage);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BeekeeperException("Interrupted while listing objects.", e);
+    }
+  }
+
+  // once a listing fails, pages are still drained so that no task stays blocked, but they are no longer consumed
+  private void consumeListedPages(Consumer<List<S3ObjectSummary>> pageConsumer, boolean waitForPage) {
+    ListedPage listedPage = waitForPage ? take() : listedPages.poll();
+    while (listedPage != null) {
+      if (listedPage.failure != null) {
+        recordFailure(listedPage.failure);
+      } else if (listedPage.objectSummaries != null && failure == null) {
+        try {
+          pageConsumer.accept(listedPage.objectSummaries);
+        } catch (RuntimeException e) {
+          recordFailure(e);
+        }
+      }
+      if (listedPage.last) {
+        pendingPrefixes--;
+      }
+      listedPage = listedPages.poll();
+    }
+  }
+
+  private ListedPage take() {
+    try {
+      return listedPages.take();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      cancelled = true;
+      throw new BeekeeperException("Interrupted while listing objects.", e);
+    }
+  }
+
+  private void recordFailure(RuntimeException e) {
+    cancelled = true;
+    if (failure == null) {
+      failure = e;
+    }
+  }
+
+  private static class ListedPage {
+    private final List<S3ObjectSummary> objectSummaries;
+    private final RuntimeException failure;
+    private final boolean last;
+
+    private ListedPage(List<S3ObjectSummary> objectSummaries, RuntimeException failure, boolean last) {
+      this.objectSummaries = objectSummaries;
+      this.failure = failure;
+      this.last = last;
+    }
+  }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,22 +15,30 @@
  */
 package com.expediagroup.beekeeper.cleanup.aws;
 
-import static java.lang.String.format;
-
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.BiConsumer;
 import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 import com.google.common.base.Strings;
 
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunSummaryReporter;
+import com.expediagroup.beekeeper.cleanup.path.DeleteCheckpoint;
+import com.expediagroup.beekeeper.cleanup.path.DeleteCheckpointStore;
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
 import com.expediagroup.beekeeper.cleanup.path.SentinelFilesCleaner;
 import com.expediagroup.beekeeper.core.config.FileSystemType;
-import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.model.HousekeepingEntity;
 import com.expediagroup.beekeeper.core.monitoring.TimedTaggable;
 
@@ -41,29 +49,194 @@ public class S3PathCleaner implements PathCleaner {
   private final S3Client s3Client;
   private final SentinelFilesCleaner sentinelFilesCleaner;
   private final BytesDeletedReporter bytesDeletedReporter;
+  private final S3BatchSentinelFilesCleaner batchSentinelFilesCleaner;
+  private final boolean deleteCoalescingEnabled;
+  private final DryRunSummaryReporter dryRunSummaryReporter;
+  private final boolean dryRunSummaryEnabled;
+  private final DeleteCheckpointStore checkpointStore;
+  private final long checkpointIntervalObjects;
 
   public S3PathCleaner(S3Client s3Client, SentinelFilesCleaner sentinelFilesCleaner,
       BytesDeletedReporter bytesDeletedReporter) {
-    this.s3Client = s3Client;
-    this.sentinelFilesCleaner = sentinelFilesCleaner;
-    this.bytesDeletedReporter = bytesDeletedReporter;
+    this(builder(s3Client, sentinelFilesCleaner, bytesDeletedReporter));
+  }
+
+  private S3PathCleaner(Builder builder) {
+    s3Client = builder.s3Client;
+    sentinelFilesCleaner = builder.sentinelFilesCleaner;
+    bytesDeletedReporter = builder.bytesDeletedReporter;
+    batchSentinelFilesCleaner = builder.batchSentinelCleanupEnabled ? new S3BatchSentinelFilesCleaner(s3Client) : null;
+    deleteCoalescingEnabled = builder.deleteCoalescingEnabled;
+    dryRunSummaryReporter = builder.dryRunSummaryReporter;
+    dryRunSummaryEnabled = s3Client.isDryRunEnabled() && dryRunSummaryReporter.isEnabled();
+    checkpointStore = builder.checkpointStore;
+    checkpointIntervalObjects = s3Client.isDryRunEnabled() ? 0 : builder.checkpointIntervalObjects;
+  }
+
+  public static Builder builder(
+      S3Client s3Client,
+      SentinelFilesCleaner sentinelFilesCleaner,
+      BytesDeletedReporter bytesDeletedReporter) {
+    return new Builder(s3Client, sentinelFilesCleaner, bytesDeletedReporter);
   }
 
+  /**
+   * Deletes the file or directory at the entity's path. The first page of a single ListObjectsV2 request for the key
+   * tells a file from a directory, gives the size of a file and holds the first objects of a directory, so no HEAD
+   * request is needed before deleting.
+   * <p>
+   * A directory whose deletion was interrupted after a checkpoint is listed from the last key of the checkpoint.
+   */
   @Override
   @TimedTaggable("s3-paths-deleted")
   public void cleanupPath(HousekeepingEntity housekeepingEntity) {
     S3SchemeURI s3SchemeURI = new S3SchemeURI(housekeepingEntity.getPath());
+    Optional<DeleteCheckpoint> checkpoint = findCheckpoint(housekeepingEntity);
+    if (checkpoint.isPresent()) {
+      resumeCleanupPath(housekeepingEntity, s3SchemeURI, checkpoint.get());
+      return;
+    }
+    ListObjectsV2Result firstPage = s3Client.listObjectsPage(s3SchemeURI.getBucket(), s3SchemeURI.getKey(), null);
+    cleanupPath(housekeepingEntity, s3SchemeURI, firstPage, null);
+  }
+
+  @Override
+  public boolean isBatchCleanupEnabled() {
+    return deleteCoalescingEnabled;
+  }
+
+  /**
+   * Lists the first page of every path. Files, and directories which fit in that page, are deleted with DeleteObjects
+   * requests shared by all the paths of the same bucket, which are sent once full or after the last path. Larger
+   * directories are deleted on their own, as by {@link #cleanupPath(HousekeepingEntity)}.
+   */
+  @Override
+  public <T extends HousekeepingEntity> void cleanupPaths(
+      List<T> housekeepingEntities,
+      BiConsumer<T, Exception> resultConsumer) {
+    if (!deleteCoalescingEnabled) {
+      PathCleaner.super.cleanupPaths(housekeepingEntities, resultConsumer);
+      return;
+    }
+    Map<String, S3DeleteCoalescer> coalescers = new LinkedHashMap<>();
+    for (T housekeepingEntity : housekeepingEntities) {
+      Exception failure = null;
+      try {
+        S3SchemeURI s3SchemeURI = new S3SchemeURI(housekeepingEntity.getPath());
+        Optional<DeleteCheckpoint> checkpoint = findCheckpoint(housekeepingEntity);
+        if (checkpoint.isPresent()) {
+          resumeCleanupPath(housekeepingEntity, s3SchemeURI, checkpoint.get());
+        } else if (coalesceOrCleanupPath(housekeepingEntity, s3SchemeURI, coalescers, resultConsumer)) {
+          continue;
+        }
+      } catch (Exception e) {
+        failure = e;
+      }
+      resultConsumer.accept(housekeepingEntity, failure);
+    }
+    coalescers.values().forEach(S3DeleteCoalescer::flush);
+  }
+
+  /**
+   * @return Whether the path was added to the coalescer of its bucket, which hands it to {@code resultConsumer} once
+   *         its objects have been deleted, rather than being cleaned up on its own.
+   */
+  private <T extends HousekeepingEntity> boolean coalesceOrCleanupPath(
+      T housekeepingEntity,
+      S3SchemeURI s3SchemeURI,
+      Map<String, S3DeleteCoalescer> coalescers,
+      BiConsumer<T, Exception> resultConsumer) {
+    String key = s3SchemeURI.getKey();
+    String bucket = s3SchemeURI.getBucket();
+    ListObjectsV2Result firstPage = s3Client.listObjectsPage(bucket, key, null);
+    Optional<S3ObjectSummary> file = findFile(key, firstPage);
+    Optional<List<S3ObjectSummary>> objectSummaries = file.isPresent() ? Optional.of(List.of(file.get()))
+        : directoryInFirstPage(key, firstPage);
+    if (objectSummaries.isPresent()) {
+      coalescers
+          .computeIfAbsent(bucket, b -> new S3DeleteCoalescer(s3Client, b, dryRunSummaryEnabled))
+          .add(file.isPresent() ? key : directoryKey(key), objectSummaries.get(),
+              (bytesDeleted, deleteFailure) -> completeCoalescedPath(housekeepingEntity, s3SchemeURI,
+                  objectSummaries.get(), file.isEmpty(), bytesDeleted, deleteFailure, resultConsumer));
+      return true;
+    }
+    cleanupPath(housekeepingEntity, s3SchemeURI, firstPage, null);
+    return false;
+  }
+
+  private <T extends HousekeepingEntity> void completeCoalescedPath(
+      T housekeepingEntity,
+      S3SchemeURI s3SchemeURI,
+      List<S3ObjectSummary> objectSummaries,
+      boolean directory,
+      long bytesDeleted,
+      Exception failure,
+      BiConsumer<T, Exception> resultConsumer) {
+    if (bytesDeleted > 0) {
+      bytesDeletedReporter.reportTaggable(bytesDeleted, housekeepingEntity, FileSystemType.S3);
+    }
+    if (failure == null && dryRunSummaryEnabled) {
+      String firstKey = objectSummaries.isEmpty() ? null : objectSummaries.get(0).getKey();
+      String lastKey = objectSummaries.isEmpty() ? null : objectSummaries.get(objectSummaries.size() - 1).getKey();
+      dryRunSummaryReporter.reportPath(housekeepingEntity, objectSummaries.size(), bytesDeleted, firstKey, lastKey);
+    }
+    if (failure == null && s3Client.isDryRunEnabled()) {
+      housekeepingEntity.setEstimatedBytes(bytesDeleted);
+    }
+    if (failure == null && directory) {
+      deleteSentinelFiles(s3SchemeURI, s3SchemeURI.getKey(), s3SchemeURI.getBucket(),
+          housekeepingEntity.getTableName());
+    }
+    resultConsumer.accept(housekeepingEntity, failure);
+  }
+
+  private Optional<DeleteCheckpoint> findCheckpoint(HousekeepingEntity housekeepingEntity) {
+    if (s3Client.isDryRunEnabled()) {
+      return Optional.empty();
+    }
+    return checkpointStore.find(housekeepingEntity);
+  }
+
+  // the path was found to be a directory by the attempt which stored the checkpoint
+  private void resumeCleanupPath(
+      HousekeepingEntity housekeepingEntity,
+      S3SchemeURI s3SchemeURI,
+      DeleteCheckpoint checkpoint) {
+    log.info("Resuming deletion of path \"{}\": {}", housekeepingEntity.getPath(), checkpoint);
+    ListObjectsV2Result firstPage = s3Client
+        .listObjectsPageAfter(s3SchemeURI.getBucket(), directoryKey(s3SchemeURI.getKey()),
+            checkpoint.getStartAfter());
+    cleanupPath(housekeepingEntity, s3SchemeURI, firstPage, checkpoint);
+  }
+
+  /**
+   * @param checkpoint Checkpoint which the deletion of the directory carries on from, with {@code firstPage} listed
+   *          after it, or {@code null} to delete the file or directory from the start.
+   */
+  private void cleanupPath(
+      HousekeepingEntity housekeepingEntity,
+      S3SchemeURI s3SchemeURI,
+      ListObjectsV2Result firstPage,
+      DeleteCheckpoint checkpoint) {
     String key = s3SchemeURI.getKey();
     String bucket = s3SchemeURI.getBucket();
     S3BytesDeletedCalculator bytesDeletedCalculator = new S3BytesDeletedCalculator(s3Client);
-    boolean isFile = s3Client.doesObjectExist(bucket, key);
     try {
-      if (isFile) {
-        deleteFile(bucket, key, bytesDeletedCalculator);
+      Optional<S3ObjectSummary> file = checkpoint == null ? findFile(key, firstPage) : Optional.empty();
+      if (file.isPresent()) {
+        deleteFile(housekeepingEntity, bucket, file.get(), bytesDeletedCalculator);
       } else {
-        deleteFilesInDirectory(bucket, key, bytesDeletedCalculator);
+        S3DeleteCheckpointer checkpointer = new S3DeleteCheckpointer(checkpointStore, checkpointIntervalObjects,
+            housekeepingEntity, checkpoint);
+        String listPrefix = checkpoint == null ? key : directoryKey(key);
+        deleteFilesInDirectory(housekeepingEntity, bucket, listPrefix, firstPage, bytesDeletedCalculator,
+            checkpointer);
         deleteSentinelFiles(s3SchemeURI, key, bucket, housekeepingEntity.getTableName());
       }
+      if (s3Client.isDryRunEnabled()) {
+        // every object listed counts as deleted during dry runs, so this is the size of the whole path
+        housekeepingEntity.setEstimatedBytes(bytesDeletedCalculator.getBytesDeleted());
+      }
     } finally {
       long bytesDeleted = bytesDeletedCalculator.getBytesDeleted();
       if (bytesDeleted > 0) {
@@ -72,34 +245,131 @@ public class S3PathCleaner implements PathCleaner {
     }
   }
 
-  private void deleteFile(String bucket, String key, S3BytesDeletedCalculator bytesDeletedCalculator) {
-    bytesDeletedCalculator.storeFileSize(bucket, key);
+  // an object whose key is exactly the path sorts before every other key in the listing
+  private Optional<S3ObjectSummary> findFile(String key, ListObjectsV2Result firstPage) {
+    List<S3ObjectSummary> objectSummaries = firstPage.getObjectSummaries();
+    if (key.endsWith("/") || objectSummaries.isEmpty() || !objectSummaries.get(0).getKey().equals(key)) {
+      return Optional.empty();
+    }
+    return Optional.of(objectSummaries.get(0));
+  }
+
+  // the listing of a directory ends in its first page unless that page is truncated within the directory
+  private Optional<List<S3ObjectSummary>> directoryInFirstPage(String key, ListObjectsV2Result firstPage) {
+    String directoryKey = directoryKey(key);
+    List<S3ObjectSummary> objectSummaries = firstPage.getObjectSummaries();
+    if (firstPage.isTruncated() && !isPastDirectory(objectSummaries, directoryKey)) {
+      return Optional.empty();
+    }
+    return Optional.of(objectSummaries.stream()
+        .filter(objectSummary -> objectSummary.getKey().startsWith(directoryKey))
+        .collect(Collectors.toList()));
+  }
+
+  private String directoryKey(String key) {
+    return key.endsWith("/") ? key : key + "/";
+  }
+
+  private void deleteFile(
+      HousekeepingEntity housekeepingEntity,
+      String bucket,
+      S3ObjectSummary file,
+      S3BytesDeletedCalculator bytesDeletedCalculator) {
+    String key = file.getKey();
+    bytesDeletedCalculator.storeFileSizes(List.of(file));
+    if (dryRunSummaryEnabled) {
+      bytesDeletedCalculator.calculateBytesDeleted(List.of(key));
+      dryRunSummaryReporter.reportPath(housekeepingEntity, 1, bytesDeletedCalculator.getBytesDeleted(), key, key);
+      return;
+    }
     s3Client.deleteObject(bucket, key);
     bytesDeletedCalculator.calculateBytesDeleted(List.of(key));
   }
 
-  private void deleteFilesInDirectory(String bucket, String key, S3BytesDeletedCalculator bytesDeletedCalculator) {
-    if (!key.endsWith("/")) {
-      key += "/";
+  /**
+   * Deletes the objects under {@code key/}, continuing the listing which was started without the trailing slash. That
+   * listing can also hold siblings such as {@code key.tmp} or {@code key_$folder$}, which are skipped, and it is not
+   * followed past the last key of the directory. Nor is it followed through siblings such as {@code key-old/} or
+   * {@code key.bak/}, which sort before the directory: once a page ends before it, {@code key/} is listed instead. The
+   * next page is requested before the current one is deleted, which
+   * overlaps both when the client has a request pool. When parallel listing is enabled, a directory which does not fit
+   * in the first page is listed from there on by child prefix instead. Otherwise, a checkpoint may be stored after
+   * each page.
+   *
+   * @param key Prefix which the listing was started with, with or without the trailing slash.
+   */
+  private void deleteFilesInDirectory(
+      HousekeepingEntity housekeepingEntity,
+      String bucket,
+      String key,
+      ListObjectsV2Result firstPage,
+      S3BytesDeletedCalculator bytesDeletedCalculator,
+      S3DeleteCheckpointer checkpointer) {
+    String directoryKey = directoryKey(key);
+    S3DirectoryDeleter directoryDeleter = new S3DirectoryDeleter(s3Client, bucket, directoryKey,
+        bytesDeletedCalculator, dryRunSummaryEnabled);
+    ListObjectsV2Result page = firstPage;
+    String listPrefix = key;
+    while (true) {
+      List<S3ObjectSummary> objectSummaries = page.getObjectSummaries();
+      boolean lastPage = !page.isTruncated() || isPastDirectory(objectSummaries, directoryKey);
+      CompletableFuture<ListObjectsV2Result> nextPage = null;
+      if (!lastPage && !s3Client.isParallelListingEnabled()) {
+        String continuationToken = page.getNextContinuationToken();
+        if (isBeforeDirectory(objectSummaries, directoryKey)) {
+          listPrefix = directoryKey;
+          continuationToken = null;
+        }
+        nextPage = s3Client.listObjectsPageAsync(bucket, listPrefix, continuationToken);
+      }
+      directoryDeleter.deletePage(objectSummaries.stream()
+          .filter(objectSummary -> objectSummary.getKey().startsWith(directoryKey))
+          .collect(Collectors.toList()));
+      if (lastPage) {
+        break;
+      }
+      if (nextPage != null) {
+        checkpointer.afterPage(directoryDeleter, bytesDeletedCalculator,
+            objectSummaries.get(objectSummaries.size() - 1).getKey());
+      } else {
+        String startAfter = objectSummaries.get(objectSummaries.size() - 1).getKey();
+        s3Client.listObjectsInParallel(bucket, directoryKey, startAfter, directoryDeleter::deletePage);
+        break;
+      }
+      page = await(nextPage);
+    }
+    directoryDeleter.throwIfNotAllDeleted();
+    checkpointer.complete(directoryDeleter, bytesDeletedCalculator);
+    if (dryRunSummaryEnabled) {
+      dryRunSummaryReporter.reportPath(housekeepingEntity, directoryDeleter.getTotalFiles(),
+          bytesDeletedCalculator.getBytesDeleted(), directoryDeleter.getFirstKey(), directoryDeleter.getLastKey());
+    }
+  }
+
+  private ListObjectsV2Result await(CompletableFuture<ListObjectsV2Result> page) {
+    try {
+      return page.join();
+    } catch (CompletionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    }
+  }
+
+  private boolean isPastDirectory(List<S3ObjectSummary> objectSummaries, String directoryKey) {
+    if (objectSummaries.isEmpty()) {
+      return false;
     }
-    List<S3ObjectSummary> objectSummaries = s3Client.listObjects(bucket, key);
-    bytesDeletedCalculator.storeFileSizes(objectSummaries);
-    List<String> keys = objectSummaries.stream()
-        .map(S3ObjectSummary::getKey)
-        .collect(Collectors.toList());
-    List<String> deletedKeys = s3Client.deleteObjects(bucket, keys);
-    bytesDeletedCalculator.calculateBytesDeleted(deletedKeys);
-    int totalFiles = keys.size();
-    int successfulDeletes = deletedKeys.size();
-    if (successfulDeletes != totalFiles) {
-      keys.removeAll(deletedKeys);
-      String failedDeletions = keys.stream()
-          .map(k -> format("'%s'", k))
-          .collect(Collectors.joining(", "));
-      throw new BeekeeperException(
-          format("Not all files could be deleted at path \"%s/%s\"; deleted %s/%s objects. Objects not deleted: %s.",
-              bucket, key, successfulDeletes, totalFiles, failedDeletions));
+    String lastKey = objectSummaries.get(objectSummaries.size() - 1).getKey();
+    return !lastKey.startsWith(directoryKey) && lastKey.compareTo(directoryKey) > 0;
+  }
+
+  private boolean isBeforeDirectory(List<S3ObjectSummary> objectSummaries, String directoryKey) {
+    if (objectSummaries.isEmpty()) {
+      return false;
     }
+    return objectSummaries.get(objectSummaries.size() - 1).getKey().compareTo(directoryKey) < 0;
   }
 
   private void deleteSentinelFiles(S3SchemeURI s3SchemeURI, String key, String bucket, String tableName) {
@@ -108,6 +378,12 @@ public class S3PathCleaner implements PathCleaner {
       if (path.endsWith("/")) {
         path = path.substring(0, path.length() - 1);
       }
+      if (batchSentinelFilesCleaner != null) {
+        String directoryKey = key.endsWith("/") ? key.substring(0, key.length() - 1) : key;
+        batchSentinelFilesCleaner
+            .deleteSentinelFiles(bucket, directoryKey, ancestorKeys(directoryKey, path, tableName));
+        return;
+      }
       sentinelFilesCleaner.deleteSentinelFiles(path);
 
       // attempt to delete parents if there is at least one parent
@@ -132,9 +408,95 @@ public class S3PathCleaner implements PathCleaner {
     }
   }
 
+  private List<String> ancestorKeys(String key, String absolutePath, String tableName) {
+    List<String> ancestorKeys = new ArrayList<>();
+    String parentKey = key;
+    String parentPath = absolutePath;
+    while (parentKey.contains("/")) {
+      parentKey = parentKey.substring(0, parentKey.lastIndexOf("/"));
+      parentPath = parentPath.substring(0, parentPath.lastIndexOf("/"));
+      if (!pathHasValidTableName(parentPath, tableName)) {
+        break;
+      }
+      ancestorKeys.add(parentKey);
+    }
+    return ancestorKeys;
+  }
+
   // stop deleting if the path doesn't contain the table name or we got to the table directory
   private boolean pathHasValidTableName(String parent, String tableName) {
     String tableDirectory = "/" + tableName + "/";
     return !Strings.isNullOrEmpty(tableName) && parent.contains(tableDirectory) && !parent.endsWith("/" + tableName);
   }
+
+  public static class Builder {
+    private final S3Client s3Client;
+    private final SentinelFilesCleaner sentinelFilesCleaner;
+    private final BytesDeletedReporter bytesDeletedReporter;
+    private boolean batchSentinelCleanupEnabled;
+    private boolean deleteCoalescingEnabled;
+    private DryRunSummaryReporter dryRunSummaryReporter = DryRunSummaryReporter.disabled();
+    private DeleteCheckpointStore checkpointStore = DeleteCheckpointStore.none();
+    private long checkpointIntervalObjects;
+
+    private Builder(
+        S3Client s3Client,
+        SentinelFilesCleaner sentinelFilesCleaner,
+        BytesDeletedReporter bytesDeletedReporter) {
+      this.s3Client = s3Client;
+      this.sentinelFilesCleaner = sentinelFilesCleaner;
+      this.bytesDeletedReporter = bytesDeletedReporter;
+    }
+
+    /**
+     * @param batchSentinelCleanupEnabled When enabled, the sentinel files of a deleted directory and of its empty
+     *          ancestors are found with listings and deleted with a single DeleteObjects request, instead of being
+     *          checked and deleted one directory at a time by {@code sentinelFilesCleaner}.
+     */
+    public Builder batchSentinelCleanupEnabled(boolean batchSentinelCleanupEnabled) {
+      this.batchSentinelCleanupEnabled = batchSentinelCleanupEnabled;
+      return this;
+    }
+
+    /**
+     * @param deleteCoalescingEnabled When enabled, {@link S3PathCleaner#cleanupPaths(List, BiConsumer)} deletes the
+     *          objects of small paths of the same bucket with shared DeleteObjects requests.
+     */
+    public Builder deleteCoalescingEnabled(boolean deleteCoalescingEnabled) {
+      this.deleteCoalescingEnabled = deleteCoalescingEnabled;
+      return this;
+    }
+
+    /**
+     * @param dryRunSummaryReporter When enabled and {@code s3Client} is in dry run, the objects of each path are
+     *          summarised by this reporter instead of being logged one by one by {@code s3Client}.
+     */
+    public Builder dryRunSummaryReporter(DryRunSummaryReporter dryRunSummaryReporter) {
+      this.dryRunSummaryReporter = dryRunSummaryReporter;
+      return this;
+    }
+
+    /**
+     * @param checkpointStore Store of the progress of large directory deletions. A path with a checkpoint is listed
+     *          from the last key stored, instead of from the start.
+     */
+    public Builder checkpointStore(DeleteCheckpointStore checkpointStore) {
+      this.checkpointStore = checkpointStore;
+      return this;
+    }
+
+    /**
+     * @param checkpointIntervalObjects Number of objects deleted from a directory between checkpoints, or {@code 0} to
+     *          store none. Checkpoints are only stored while a directory is listed one page after another, and never
+     *          during dry runs.
+     */
+    public Builder checkpointIntervalObjects(long checkpointIntervalObjects) {
+      this.checkpointIntervalObjects = checkpointIntervalObjects;
+      return this;
+    }
+
+    public S3PathCleaner build() {
+      return new S3PathCleaner(this);
+    }
+  }
 }
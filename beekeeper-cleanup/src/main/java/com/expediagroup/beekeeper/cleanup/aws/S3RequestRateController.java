@@ -0,0 +1,309 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.collect.TreeMultiset;
+import com.google.common.util.concurrent.RateLimiter;
+
+/**
+ * Paces the requests sent to S3 with an additive-increase/multiplicative-decrease (AIMD) budget for each bucket, or
+ * for each key prefix of a bucket when {@code prefixDepth} is greater than 0.
+ * <p>
+ * A budget starts at {@code initialRate} requests per second. It grows by {@value #ADDITIVE_INCREASE} requests per
+ * second for every second without a throttled request, up to {@code maxRate}, and is halved when S3 answers with a 503
+ * SlowDown. The lowest current rate among the budgets of each bucket is exported as the {@value #METRIC_NAME} gauge,
+ * tagged with the bucket only, so that the number of gauges does not grow with the number of prefixes.
+ * <p>
+ * At most {@value #MAX_BUDGETS} budgets are kept, and a budget which has not been used for
+ * {@value #BUDGET_EXPIRY_MINUTES} minutes is dropped, so a later request to its prefix starts again from
+ * {@code initialRate}. The rates of the budgets of each bucket are kept sorted as they change, so the gauge does not
+ * scan the budgets.
+ */
+public class S3RequestRateController {
+
+  public static final String METRIC_NAME = "s3-request-rate";
+  private static final Logger log = LoggerFactory.getLogger(S3RequestRateController.class);
+  private static final String SLOW_DOWN_ERROR_CODE = "SlowDown";
+  private static final double MIN_RATE = 1.0;
+  private static final double ADDITIVE_INCREASE = 10.0;
+  private static final double MULTIPLICATIVE_DECREASE = 0.5;
+  private static final long ADJUSTMENT_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+  private static final long MAX_BUDGETS = 10_000;
+  private static final long BUDGET_EXPIRY_MINUTES = 10;
+  private static final S3RequestRateController DISABLED = new S3RequestRateController();
+
+  private final boolean enabled;
+  private final MeterRegistry meterRegistry;
+  private final double initialRate;
+  private final double maxRate;
+  private final int prefixDepth;
+  private final LongSupplier nanoTime;
+  private final Cache<String, RequestBudget> budgets;
+  private final Map<String, BucketRates> bucketRates = new ConcurrentHashMap<>();
+  private final ThreadLocal<RequestBudget> currentBudget = new ThreadLocal<>();
+
+  /**
+   * @param meterRegistry Registry of the current rate gauges.
+   * @param initialRate Requests per second allowed before any adjustment.
+   * @param maxRate Highest number of requests per second a budget can reach.
+   * @param prefixDepth Number of leading key segments which get a budget of their own, or 0 for one budget per bucket.
+   */
+  public S3RequestRateController(MeterRegistry meterRegistry, double initialRate, double maxRate, int prefixDepth) {
+    this(meterRegistry, initialRate, maxRate, prefixDepth, System::nanoTime);
+  }
+
+  S3RequestRateController(
+      MeterRegistry meterRegistry,
+      double initialRate,
+      double maxRate,
+      int prefixDepth,
+      LongSupplier nanoTime) {
+    enabled = true;
+    this.meterRegistry = meterRegistry;
+    this.maxRate = Math.max(MIN_RATE, maxRate);
+    this.initialRate = Math.min(this.maxRate, Math.max(MIN_RATE, initialRate));
+    this.prefixDepth = Math.max(0, prefixDepth);
+    this.nanoTime = nanoTime;
+    budgets = CacheBuilder
+        .newBuilder()
+        .maximumSize(MAX_BUDGETS)
+        .expireAfterAccess(BUDGET_EXPIRY_MINUTES, TimeUnit.MINUTES)
+        .ticker(new Ticker() {
+          @Override
+          public long read() {
+            return nanoTime.getAsLong();
+          }
+        })
+        .<String, RequestBudget>removalListener(notification -> notification.getValue().remove())
+        .build();
+  }
+
+  private S3RequestRateController() {
+    enabled = false;
+    meterRegistry = null;
+    initialRate = 0;
+    maxRate = 0;
+    prefixDepth = 0;
+    nanoTime = System::nanoTime;
+    budgets = null;
+  }
+
+  /**
+   * @return A controller which sends every request straight away.
+   */
+  public static S3RequestRateController disabled() {
+    return DISABLED;
+  }
+
+  /**
+   * The SDK retries a throttled request before its exception reaches {@link #execute(String, String, Supplier)}, so
+   * the budget would only back off once the retries are exhausted. Registered with the {@code AmazonS3} client, this
+   * handler sees every attempt, and backs off the budget of the request being sent on the same thread.
+   *
+   * @return A handler which does nothing when rate control is disabled.
+   */
+  public RequestHandler2 requestHandler() {
+    return new RequestHandler2() {
+      @Override
+      public void afterAttempt(HandlerAfterAttemptContext context) {
+        RequestBudget budget = currentBudget.get();
+        if (budget != null
+            && context.getException() instanceof AmazonServiceException
+            && isSlowDown((AmazonServiceException) context.getException())) {
+          budget.onSlowDown();
+        }
+      }
+    };
+  }
+
+  /**
+   * Waits for the budget of {@code key}'s bucket or prefix, then sends {@code request} and adjusts the budget to its
+   * outcome. Exceptions are rethrown unchanged.
+   */
+  <T> T execute(String bucket, String key, Supplier<T> request) {
+    if (!enabled) {
+      return request.get();
+    }
+    RequestBudget budget = budgets
+        .asMap()
+        .computeIfAbsent(budgetName(bucket, key), name -> new RequestBudget(bucket, name));
+    budget.acquire();
+    currentBudget.set(budget);
+    try {
+      T result = request.get();
+      budget.onSuccess();
+      return result;
+    } catch (AmazonServiceException e) {
+      // the request handler may already have seen this SlowDown, but the budget backs off once per interval
+      if (isSlowDown(e)) {
+        budget.onSlowDown();
+      }
+      throw e;
+    } finally {
+      currentBudget.remove();
+    }
+  }
+
+  void execute(String bucket, String key, Runnable request) {
+    execute(bucket, key, () -> {
+      request.run();
+      return null;
+    });
+  }
+
+  double getRate(String bucket, String key) {
+    RequestBudget budget = budgets.getIfPresent(budgetName(bucket, key));
+    return budget != null ? budget.rate : initialRate;
+  }
+
+  private double lowestRate(BucketRates rates) {
+    // expired budgets are otherwise only dropped when the cache is next used
+    budgets.cleanUp();
+    return rates.lowest();
+  }
+
+  private String budgetName(String bucket, String key) {
+    if (prefixDepth == 0 || key == null) {
+      return bucket;
+    }
+    int end = -1;
+    for (int segment = 0; segment < prefixDepth; segment++) {
+      int next = key.indexOf('/', end + 1);
+      if (next < 0) {
+        end = key.length();
+        break;
+      }
+      end = next;
+    }
+    return bucket + "/" + key.substring(0, end);
+  }
+
+  // a DeleteObjects request is not throttled as a whole; S3 reports SlowDown for each key instead
+  private boolean isSlowDown(AmazonServiceException e) {
+    if (e instanceof MultiObjectDeleteException) {
+      return ((MultiObjectDeleteException) e).getErrors()
+          .stream()
+          .anyMatch(error -> SLOW_DOWN_ERROR_CODE.equals(error.getCode()));
+    }
+    return e.getStatusCode() == 503 || SLOW_DOWN_ERROR_CODE.equals(e.getErrorCode());
+  }
+
+  /**
+   * Current rates of the budgets of a bucket, with repeats, so that the lowest one is found without a scan.
+   */
+  private class BucketRates {
+    private final TreeMultiset<Double> rates = TreeMultiset.create();
+
+    private synchronized void add(double rate) {
+      rates.add(rate);
+    }
+
+    private synchronized void replace(double oldRate, double newRate) {
+      rates.remove(oldRate);
+      rates.add(newRate);
+    }
+
+    private synchronized void remove(double rate) {
+      rates.remove(rate);
+    }
+
+    private synchronized double lowest() {
+      return rates.isEmpty() ? initialRate : rates.firstEntry().getElement();
+    }
+  }
+
+  private class RequestBudget {
+    private final String name;
+    private final BucketRates rates;
+    private final RateLimiter rateLimiter;
+    private volatile double rate;
+    private long lastAdjustment;
+    private boolean throttled;
+    private boolean removed;
+
+    private RequestBudget(String bucket, String name) {
+      this.name = name;
+      rate = initialRate;
+      rateLimiter = RateLimiter.create(rate);
+      lastAdjustment = nanoTime.getAsLong();
+      rates = bucketRates.computeIfAbsent(bucket, b -> {
+        BucketRates newRates = new BucketRates();
+        Gauge
+            .builder(METRIC_NAME, newRates, S3RequestRateController.this::lowestRate)
+            .tag("bucket", b)
+            .register(meterRegistry);
+        return newRates;
+      });
+      rates.add(rate);
+    }
+
+    private void acquire() {
+      rateLimiter.acquire();
+    }
+
+    private synchronized void onSuccess() {
+      long now = nanoTime.getAsLong();
+      if (rate < maxRate && now - lastAdjustment >= ADJUSTMENT_INTERVAL_NANOS) {
+        throttled = false;
+        setRate(Math.min(maxRate, rate + ADDITIVE_INCREASE), now);
+      }
+    }
+
+    // requests sent before the last decrease may still be throttled, so back off at most once per interval
+    private synchronized void onSlowDown() {
+      long now = nanoTime.getAsLong();
+      if (!throttled || now - lastAdjustment >= ADJUSTMENT_INTERVAL_NANOS) {
+        throttled = true;
+        setRate(Math.max(MIN_RATE, rate * MULTIPLICATIVE_DECREASE), now);
+        log.warn("S3 is throttling requests to \"{}\", reducing the request rate to {} per second", name, rate);
+      }
+    }
+
+    // a request sent with the budget may finish after it has been dropped, and must not add its rate back
+    private synchronized void remove() {
+      removed = true;
+      rates.remove(rate);
+    }
+
+    private void setRate(double rate, long now) {
+      if (!removed) {
+        rates.replace(this.rate, rate);
+      }
+      this.rate = rate;
+      rateLimiter.setRate(rate);
+      lastAdjustment = now;
+    }
+  }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -71,6 +71,8 @@ public class HiveClient implements CleanerClient {
    * @param databaseName
    * @param tableName
    * @param partitionName expected format: "event_date=2020-01-01/event_hour=0/event_type=A"
+   * @implNote Partitions are dropped one at a time: the Hive 2.3 metastore client only drops several partitions at
+   *           once by serialised filter expressions, and does not expose the Thrift request which drops them by name.
    */
   @Override
   public boolean dropPartition(String databaseName, String tableName, String partitionName) {
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2021 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,7 @@ package com.expediagroup.beekeeper.cleanup.hive;
 
 import com.expediagroup.beekeeper.cleanup.metadata.CleanerClient;
 import com.expediagroup.beekeeper.cleanup.metadata.MetadataCleaner;
+import com.expediagroup.beekeeper.cleanup.metadata.TablePropertiesCache;
 import com.expediagroup.beekeeper.cleanup.monitoring.DeletedMetadataReporter;
 import com.expediagroup.beekeeper.cleanup.validation.IcebergValidator;
 import com.expediagroup.beekeeper.core.config.MetadataType;
@@ -27,18 +28,33 @@ public class HiveMetadataCleaner implements MetadataCleaner {
 
   private DeletedMetadataReporter deletedMetadataReporter;
   private IcebergValidator icebergValidator;
+  private TablePropertiesCache tablePropertiesCache;
 
   public HiveMetadataCleaner(DeletedMetadataReporter deletedMetadataReporter, IcebergValidator icebergValidator) {
+    this(deletedMetadataReporter, icebergValidator, null);
+  }
+
+  /**
+   * @param tablePropertiesCache Cache from which the parameters of a table are dropped with it, or {@code null}.
+   */
+  public HiveMetadataCleaner(
+      DeletedMetadataReporter deletedMetadataReporter,
+      IcebergValidator icebergValidator,
+      TablePropertiesCache tablePropertiesCache) {
     this.deletedMetadataReporter = deletedMetadataReporter;
     this.icebergValidator = icebergValidator;
+    this.tablePropertiesCache = tablePropertiesCache;
   }
 
   @Override
   @TimedTaggable("hive-table-deleted")
   public void dropTable(HousekeepingMetadata housekeepingMetadata, CleanerClient client) {
     icebergValidator.throwExceptionIfIceberg(housekeepingMetadata.getDatabaseName(),
-        housekeepingMetadata.getTableName());
+        housekeepingMetadata.getTableName(), client);
     client.dropTable(housekeepingMetadata.getDatabaseName(), housekeepingMetadata.getTableName());
+    if (tablePropertiesCache != null) {
+      tablePropertiesCache.invalidate(housekeepingMetadata.getDatabaseName(), housekeepingMetadata.getTableName());
+    }
     deletedMetadataReporter.reportTaggable(housekeepingMetadata, MetadataType.HIVE_TABLE);
   }
 
@@ -46,7 +62,7 @@ public class HiveMetadataCleaner implements MetadataCleaner {
   @TimedTaggable("hive-partition-deleted")
   public boolean dropPartition(HousekeepingMetadata housekeepingMetadata, CleanerClient client) {
     icebergValidator.throwExceptionIfIceberg(housekeepingMetadata.getDatabaseName(),
-        housekeepingMetadata.getTableName());
+        housekeepingMetadata.getTableName(), client);
     boolean partitionDeleted = client
         .dropPartition(housekeepingMetadata.getDatabaseName(), housekeepingMetadata.getTableName(),
             housekeepingMetadata.getPartitionName());
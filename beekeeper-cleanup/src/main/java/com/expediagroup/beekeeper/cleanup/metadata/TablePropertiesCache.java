@@ -0,0 +1,145 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.metadata;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import com.google.common.base.Ticker;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Keeps the parameters of recently checked tables, so that the checks of the many records of a table, such as its
+ * expired partitions, fetch them from the metastore once. Entries expire a fixed time after they are fetched and the
+ * least recently used ones are evicted beyond the maximum size. The entry of a table is invalidated when it is dropped.
+ */
+public class TablePropertiesCache {
+
+  private final CleanerClientFactory cleanerClientFactory;
+  private final Cache<TableKey, Map<String, String>> cache;
+
+  /**
+   * @param maxSize Maximum number of tables whose parameters are kept, or {@code 0} to fetch them on every call.
+   * @param ttl Time after which the parameters of a table are fetched again.
+   */
+  public TablePropertiesCache(CleanerClientFactory cleanerClientFactory, long maxSize, Duration ttl) {
+    this(cleanerClientFactory, maxSize, ttl, Ticker.systemTicker());
+  }
+
+  TablePropertiesCache(CleanerClientFactory cleanerClientFactory, long maxSize, Duration ttl, Ticker ticker) {
+    if (maxSize < 0 || ttl.isNegative()) {
+      throw new BeekeeperException("The size and time to live of the table properties cache cannot be negative");
+    }
+    this.cleanerClientFactory = cleanerClientFactory;
+    cache = CacheBuilder.newBuilder()
+        .maximumSize(maxSize)
+        .expireAfterWrite(ttl.toNanos(), TimeUnit.NANOSECONDS)
+        .ticker(ticker)
+        .build();
+  }
+
+  /**
+   * @return A cache which fetches the parameters of a table on every call.
+   */
+  public static TablePropertiesCache uncached(CleanerClientFactory cleanerClientFactory) {
+    return new TablePropertiesCache(cleanerClientFactory, 0, Duration.ZERO);
+  }
+
+  /**
+   * Fetches the parameters of a table which are not cached with a client of its own.
+   *
+   * @return The parameters of the table, which cannot be modified, or an empty map if the table does not exist.
+   */
+  public Map<String, String> getTableProperties(String databaseName, String tableName) {
+    return get(databaseName, tableName, () -> {
+      try (CleanerClient client = cleanerClientFactory.newInstance()) {
+        return fetch(client, databaseName, tableName);
+      }
+    });
+  }
+
+  /**
+   * Fetches the parameters of a table which are not cached with a client the caller holds already, so that it does not
+   * wait for a second client while holding the first one.
+   *
+   * @return The parameters of the table, which cannot be modified, or an empty map if the table does not exist.
+   */
+  public Map<String, String> getTableProperties(String databaseName, String tableName, CleanerClient client) {
+    return get(databaseName, tableName, () -> fetch(client, databaseName, tableName));
+  }
+
+  public void invalidate(String databaseName, String tableName) {
+    cache.invalidate(new TableKey(databaseName, tableName));
+  }
+
+  private Map<String, String> get(String databaseName, String tableName, Callable<Map<String, String>> loader) {
+    try {
+      return cache.get(new TableKey(databaseName, tableName), loader);
+    } catch (UncheckedExecutionException e) {
+      if (e.getCause() instanceof RuntimeException) {
+        throw (RuntimeException) e.getCause();
+      }
+      throw e;
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof IOException) {
+        throw new BeekeeperException("Can't instantiate cleaner client.", e.getCause());
+      }
+      throw new BeekeeperException(
+          "Unexpected exception when getting table properties for \"" + databaseName + "." + tableName + "\".",
+          e.getCause());
+    }
+  }
+
+  private Map<String, String> fetch(CleanerClient client, String databaseName, String tableName) {
+    return Collections.unmodifiableMap(client.getTableProperties(databaseName, tableName));
+  }
+
+  private static final class TableKey {
+    private final String databaseName;
+    private final String tableName;
+
+    private TableKey(String databaseName, String tableName) {
+      this.databaseName = databaseName;
+      this.tableName = tableName;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+      if (this == o) {
+        return true;
+      }
+      if (!(o instanceof TableKey)) {
+        return false;
+      }
+      TableKey other = (TableKey) o;
+      return databaseName.equals(other.databaseName) && tableName.equals(other.tableName);
+    }
+
+    @Override
+    public int hashCode() {
+      return 31 * databaseName.hashCode() + tableName.hashCode();
+    }
+  }
+}
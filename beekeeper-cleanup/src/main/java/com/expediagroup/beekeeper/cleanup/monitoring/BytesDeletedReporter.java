@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2020 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,8 @@
  */
 package com.expediagroup.beekeeper.cleanup.monitoring;
 
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -35,6 +37,7 @@ public class BytesDeletedReporter {
 
   private MeterRegistry meterRegistry;
   private String metricName;
+  private final AtomicLong totalBytesDeleted = new AtomicLong();
 
   public BytesDeletedReporter(MeterRegistry meterRegistry, boolean dryRunEnabled) {
     this.meterRegistry = meterRegistry;
@@ -51,6 +54,14 @@ public class BytesDeletedReporter {
         .tags(tags(taggable.getMetricTag()))
         .register(meterRegistry);
     counter.increment(bytesDeleted);
+    totalBytesDeleted.addAndGet(bytesDeleted);
+  }
+
+  /**
+   * @return Number of bytes reported since this reporter was created, of every table.
+   */
+  public long getTotalBytesDeleted() {
+    return totalBytesDeleted.get();
   }
 
   private Iterable<Tag> tags(MetricTag metricTag) {
@@ -0,0 +1,175 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.monitoring;
+
+import static java.lang.String.format;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Strings;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingEntity;
+
+/**
+ * Summarises dry runs with one log line per path, instead of one per object, and one line per table at the end of each
+ * cleanup run. When a report file is configured, the same summaries are appended to it as CSV rows.
+ */
+public class DryRunSummaryReporter {
+
+  private static final Logger log = LoggerFactory.getLogger(DryRunSummaryReporter.class);
+  private static final DryRunSummaryReporter DISABLED = new DryRunSummaryReporter(false, null);
+  static final String REPORT_HEADER = "type,database,table,path,objects,bytes,first_key,last_key";
+
+  private final boolean enabled;
+  private final Path reportFile;
+  private final Map<String, Summary> tableSummaries = new LinkedHashMap<>();
+
+  /**
+   * @param reportFile File to which the summaries are appended as CSV rows, or an empty string for logs only.
+   */
+  public DryRunSummaryReporter(String reportFile) {
+    this(true, Strings.isNullOrEmpty(reportFile) ? null : Paths.get(reportFile));
+  }
+
+  private DryRunSummaryReporter(boolean enabled, Path reportFile) {
+    this.enabled = enabled;
+    this.reportFile = reportFile;
+  }
+
+  /**
+   * @return A reporter which is never enabled, for when objects are logged one by one.
+   */
+  public static DryRunSummaryReporter disabled() {
+    return DISABLED;
+  }
+
+  public boolean isEnabled() {
+    return enabled;
+  }
+
+  /**
+   * Logs the objects which would have been deleted at a path, and adds them to the summary of its table.
+   *
+   * @param firstKey Key of the first object, or {@code null} if there are no objects.
+   * @param lastKey Key of the last object, or {@code null} if there are no objects.
+   */
+  public synchronized void reportPath(
+      HousekeepingEntity housekeepingEntity,
+      long objects,
+      long bytes,
+      String firstKey,
+      String lastKey) {
+    Summary pathSummary = new Summary(objects, bytes, firstKey, lastKey);
+    log.info("Dry run - would delete {} from path \"{}\" of table \"{}.{}\"", pathSummary,
+        housekeepingEntity.getPath(), housekeepingEntity.getDatabaseName(), housekeepingEntity.getTableName());
+    writeRow("path", housekeepingEntity.getDatabaseName(), housekeepingEntity.getTableName(),
+        housekeepingEntity.getPath(), pathSummary);
+    tableSummaries
+        .computeIfAbsent(housekeepingEntity.getDatabaseName() + "." + housekeepingEntity.getTableName(),
+            table -> new Summary(0, 0, null, null))
+        .add(pathSummary);
+  }
+
+  /**
+   * Logs the summary of every table with paths reported since the last call, then forgets them.
+   */
+  public synchronized void reportTables() {
+    tableSummaries.forEach((table, summary) -> {
+      log.info("Dry run - would delete {} from table \"{}\"", summary, table);
+      int separator = table.indexOf('.');
+      writeRow("table", table.substring(0, separator), table.substring(separator + 1), "", summary);
+    });
+    tableSummaries.clear();
+  }
+
+  private void writeRow(String type, String databaseName, String tableName, String path, Summary summary) {
+    if (reportFile == null) {
+      return;
+    }
+    String row = Stream
+        .of(type, databaseName, tableName, path, String.valueOf(summary.objects), String.valueOf(summary.bytes),
+            Strings.nullToEmpty(summary.firstKey), Strings.nullToEmpty(summary.lastKey))
+        .map(this::csvField)
+        .collect(Collectors.joining(","));
+    try {
+      boolean newFile = Files.notExists(reportFile);
+      try (BufferedWriter writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8,
+          StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+        if (newFile) {
+          writer.write(REPORT_HEADER);
+          writer.newLine();
+        }
+        writer.write(row);
+        writer.newLine();
+      }
+    } catch (IOException e) {
+      log.warn("Could not write dry run report to \"{}\"", reportFile, e);
+    }
+  }
+
+  private String csvField(String value) {
+    if (value.contains(",") || value.contains("\"") || value.contains("\n")) {
+      return "\"" + value.replace("\"", "\"\"") + "\"";
+    }
+    return value;
+  }
+
+  private static class Summary {
+    private long objects;
+    private long bytes;
+    private String firstKey;
+    private String lastKey;
+
+    private Summary(long objects, long bytes, String firstKey, String lastKey) {
+      this.objects = objects;
+      this.bytes = bytes;
+      this.firstKey = firstKey;
+      this.lastKey = lastKey;
+    }
+
+    private void add(Summary other) {
+      objects += other.objects;
+      bytes += other.bytes;
+      if (other.firstKey != null && (firstKey == null || other.firstKey.compareTo(firstKey) < 0)) {
+        firstKey = other.firstKey;
+      }
+      if (other.lastKey != null && (lastKey == null || other.lastKey.compareTo(lastKey) > 0)) {
+        lastKey = other.lastKey;
+      }
+    }
+
+    @Override
+    public String toString() {
+      if (objects == 0) {
+        return "0 objects";
+      }
+      return format("%s objects (%s bytes), from \"%s\" to \"%s\"", objects, bytes, firstKey, lastKey);
+    }
+  }
+}
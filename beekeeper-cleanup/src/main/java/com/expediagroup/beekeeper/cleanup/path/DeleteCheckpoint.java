@@ -0,0 +1,56 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path;
+
+import static java.lang.String.format;
+
+/**
+ * How far the deletion of a directory has got: every object listed up to {@code startAfter} has been deleted.
+ */
+public class DeleteCheckpoint {
+
+  private final String startAfter;
+  private final long objectsDeleted;
+  private final long bytesDeleted;
+
+  /**
+   * @param startAfter Last key listed, after which the listing of the directory can start again.
+   * @param objectsDeleted Number of objects deleted up to {@code startAfter}, by every attempt so far.
+   * @param bytesDeleted Size of the objects deleted up to {@code startAfter}, by every attempt so far.
+   */
+  public DeleteCheckpoint(String startAfter, long objectsDeleted, long bytesDeleted) {
+    this.startAfter = startAfter;
+    this.objectsDeleted = objectsDeleted;
+    this.bytesDeleted = bytesDeleted;
+  }
+
+  public String getStartAfter() {
+    return startAfter;
+  }
+
+  public long getObjectsDeleted() {
+    return objectsDeleted;
+  }
+
+  public long getBytesDeleted() {
+    return bytesDeleted;
+  }
+
+  @Override
+  public String toString() {
+    return format("%s objects (%s bytes) deleted up to \"%s\"", objectsDeleted, bytesDeleted, startAfter);
+  }
+}
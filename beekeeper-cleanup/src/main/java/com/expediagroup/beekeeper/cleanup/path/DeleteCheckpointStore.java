@@ -0,0 +1,54 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.path;
+
+import java.util.Optional;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingEntity;
+
+/**
+ * Keeps the {@link DeleteCheckpoint} of a record durably, so that a cleanup which was interrupted can carry on from it
+ * instead of listing the whole directory again.
+ */
+public interface DeleteCheckpointStore {
+
+  /**
+   * @return A store which keeps no checkpoints.
+   */
+  static DeleteCheckpointStore none() {
+    return new DeleteCheckpointStore() {
+      @Override
+      public Optional<DeleteCheckpoint> find(HousekeepingEntity housekeepingEntity) {
+        return Optional.empty();
+      }
+
+      @Override
+      public void save(HousekeepingEntity housekeepingEntity, DeleteCheckpoint checkpoint) {}
+
+      @Override
+      public void clear(HousekeepingEntity housekeepingEntity) {}
+    };
+  }
+
+  Optional<DeleteCheckpoint> find(HousekeepingEntity housekeepingEntity);
+
+  void save(HousekeepingEntity housekeepingEntity, DeleteCheckpoint checkpoint);
+
+  /**
+   * Removes the checkpoint of a record once its directory has been deleted.
+   */
+  void clear(HousekeepingEntity housekeepingEntity);
+}
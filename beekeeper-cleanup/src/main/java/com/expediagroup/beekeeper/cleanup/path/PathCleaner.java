@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2020 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,10 +15,41 @@
  */
 package com.expediagroup.beekeeper.cleanup.path;
 
+import java.util.List;
+import java.util.function.BiConsumer;
+
 import com.expediagroup.beekeeper.core.model.HousekeepingEntity;
 
 public interface PathCleaner {
 
   void cleanupPath(HousekeepingEntity housekeepingEntity);
 
+  /**
+   * @return Whether {@link #cleanupPaths(List, BiConsumer)} shares requests between paths, and should be preferred to
+   *         cleaning them up one by one.
+   */
+  default boolean isBatchCleanupEnabled() {
+    return false;
+  }
+
+  /**
+   * Cleans up several paths. Each entity is handed to {@code resultConsumer} once its cleanup has finished, with the
+   * exception which made it fail, or with {@code null} if it was cleaned up.
+   *
+   * @param housekeepingEntities Entities to clean up.
+   * @param resultConsumer Receives every entity with the outcome of its cleanup.
+   */
+  default <T extends HousekeepingEntity> void cleanupPaths(
+      List<T> housekeepingEntities,
+      BiConsumer<T, Exception> resultConsumer) {
+    for (T housekeepingEntity : housekeepingEntities) {
+      Exception failure = null;
+      try {
+        cleanupPath(housekeepingEntity);
+      } catch (Exception e) {
+        failure = e;
+      }
+      resultConsumer.accept(housekeepingEntity, failure);
+    }
+  }
 }
@@ -0,0 +1,126 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.service;
+
+import static java.lang.String.format;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.function.LongSupplier;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Limits how long each cleanup cycle runs for, and how much it cleans up, so that cycles have a predictable length.
+ * <p>
+ * The budget is only checked between pages, so a cycle always processes at least one page, and it can go over its
+ * budget by up to one page. A cycle which runs out of budget stops there, and the next one carries on from that page.
+ */
+public class CleanupBudget {
+
+  private static final CleanupBudget UNLIMITED = new CleanupBudget(Duration.ZERO, 0, 0, () -> 0L);
+
+  private final Duration maxDuration;
+  private final long maxRecords;
+  private final long maxBytes;
+  private final LongSupplier bytesDeleted;
+  private final Clock clock;
+
+  /**
+   * @param maxDuration Time after which a cycle does not start another page, or zero for no limit.
+   * @param maxRecords Number of records after which a cycle does not start another page, or {@code 0} for no limit.
+   * @param maxBytes Number of bytes deleted after which a cycle does not start another page, or {@code 0} for no
+   *          limit.
+   * @param bytesDeleted Running total of the bytes deleted, of which the increase during a cycle is counted.
+   */
+  public CleanupBudget(Duration maxDuration, long maxRecords, long maxBytes, LongSupplier bytesDeleted) {
+    this(maxDuration, maxRecords, maxBytes, bytesDeleted, Clock.systemUTC());
+  }
+
+  CleanupBudget(Duration maxDuration, long maxRecords, long maxBytes, LongSupplier bytesDeleted, Clock clock) {
+    if (maxDuration.isNegative() || maxRecords < 0 || maxBytes < 0) {
+      throw new BeekeeperException(
+          format("Invalid cleanup budget of %s, %s records and %s bytes", maxDuration, maxRecords, maxBytes));
+    }
+    this.maxDuration = maxDuration;
+    this.maxRecords = maxRecords;
+    this.maxBytes = maxBytes;
+    this.bytesDeleted = bytesDeleted;
+    this.clock = clock;
+  }
+
+  /**
+   * @return Budget with no limits, for cycles which carry on until every record due has been processed.
+   */
+  public static CleanupBudget unlimited() {
+    return UNLIMITED;
+  }
+
+  public boolean isEnabled() {
+    return !maxDuration.isZero() || maxRecords > 0 || maxBytes > 0;
+  }
+
+  /**
+   * @return The spending of a new cycle, starting now.
+   */
+  public Cycle startCycle() {
+    return new Cycle();
+  }
+
+  @Override
+  public String toString() {
+    return format("%s, %s records and %s bytes", maxDuration, maxRecords, maxBytes);
+  }
+
+  /**
+   * What one cycle has spent of the budget.
+   */
+  public class Cycle {
+
+    private final Instant start = clock.instant();
+    private final long bytesAtStart = bytesDeleted.getAsLong();
+    private long records = 0;
+
+    private Cycle() {}
+
+    /**
+     * Counts the records of a page, once it has been processed.
+     */
+    public void addRecords(int count) {
+      records += count;
+    }
+
+    /**
+     * @return Whether the cycle has run out of budget, in which case it should not start another page.
+     */
+    public boolean isExhausted() {
+      if (maxRecords > 0 && records >= maxRecords) {
+        return true;
+      }
+      if (maxBytes > 0 && bytesDeleted.getAsLong() - bytesAtStart >= maxBytes) {
+        return true;
+      }
+      return !maxDuration.isZero() && !clock.instant().isBefore(start.plus(maxDuration));
+    }
+
+    @Override
+    public String toString() {
+      return format("%s records and %s bytes in %s", records, bytesDeleted.getAsLong() - bytesAtStart,
+          Duration.between(start, clock.instant()));
+    }
+  }
+}
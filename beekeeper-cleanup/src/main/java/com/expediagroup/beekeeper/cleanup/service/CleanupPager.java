@@ -0,0 +1,383 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.service;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import com.expediagroup.beekeeper.core.model.CleanupPriority;
+import com.expediagroup.beekeeper.core.model.HousekeepingEntity;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
+
+/**
+ * Pages through the records of the handlers of a cleanup service: in the order of the whole backlog, of their
+ * priorities or in turns between tables, claiming the records of each page under a lease, and stopping at the end of
+ * a page once the budget of a run is used up. The next run carries on from there, starting with the handler which was
+ * stopped, so each cleanup service needs its own pager.
+ * <p>
+ * Where a run stopped is only kept in memory, so resuming only works within one process: after a restart, the first
+ * run starts again from the head of the backlog. Runs are serialised, and the cursors are only read and written by the
+ * thread running one, while {@link #findNextDueTime(List, Instant)} can be called from any thread.
+ */
+public class CleanupPager {
+
+  private static final Logger log = LoggerFactory.getLogger(CleanupPager.class);
+
+  /**
+   * Cleans up the records of a page, which have been claimed when the pager has a lease.
+   */
+  @FunctionalInterface
+  public interface PageProcessor<T> {
+    void processPage(Pageable pageable, Slice<T> page);
+  }
+
+  /**
+   * Cleans up the records of one handler.
+   */
+  @FunctionalInterface
+  public interface HandlerCleanup<H> {
+    /**
+     * @return Whether every record of the handler was processed, rather than the cycle running out of budget first.
+     */
+    boolean cleanUp(H handler, CleanupBudget.Cycle cycle);
+  }
+
+  private final int pageSize;
+  private final boolean dryRunEnabled;
+  private final HousekeepingLease lease;
+  private final int tableShare;
+  private final CleanupPriority priority;
+  private final CleanupBudget budget;
+  // where each handler stopped when the previous cycle ran out of budget, in this process only
+  private final Map<CleanupRecordSource<?>, PageCursor<?>> cursors = new ConcurrentHashMap<>();
+  // guarded by this
+  private int firstHandler = 0;
+  private volatile boolean stoppedOnBudget = false;
+
+  private CleanupPager(Builder builder) {
+    pageSize = builder.pageSize;
+    dryRunEnabled = builder.dryRunEnabled;
+    lease = builder.lease;
+    tableShare = builder.tableShare;
+    priority = builder.priority;
+    budget = builder.budget;
+  }
+
+  public static Builder builder() {
+    return new Builder();
+  }
+
+  public boolean isDryRunEnabled() {
+    return dryRunEnabled;
+  }
+
+  /**
+   * Cleans up the handlers in turn, starting with the one which the previous run stopped in, until every record has
+   * been processed or the budget of the run is used up.
+   */
+  public synchronized <H> void cleanUp(List<H> handlers, HandlerCleanup<H> handlerCleanup) {
+    CleanupBudget.Cycle cycle = budget.startCycle();
+    int count = handlers.size();
+    for (int i = 0; i < count; i++) {
+      int handler = (firstHandler + i) % count;
+      if (cycle.isExhausted() || !handlerCleanup.cleanUp(handlers.get(handler), cycle)) {
+        log.info("Cleanup budget of {} used up after {}, the next run will carry on from here", budget, cycle);
+        firstHandler = handler;
+        stoppedOnBudget = true;
+        return;
+      }
+    }
+    firstHandler = 0;
+    stoppedOnBudget = false;
+  }
+
+  /**
+   * Processes every record of a source which is due, a page at a time, or carries on from where the previous pass of
+   * the source ran out of budget.
+   *
+   * @return Whether every record of the source was processed, rather than the cycle running out of budget first.
+   */
+  public <T extends HousekeepingEntity> boolean cleanupPass(
+      CleanupRecordSource<T> source,
+      LocalDateTime instant,
+      CleanupBudget.Cycle cycle,
+      PageProcessor<T> processor) {
+    Pageable pageable = PageRequest.of(0, pageSize).first();
+    @SuppressWarnings("unchecked")
+    PageCursor<T> cursor = (PageCursor<T>) cursors.remove(source);
+    if (tableShare > 0) {
+      return fairCleanupPass(source, instant, pageable, cursor, cycle, processor);
+    }
+    if (priority.isEnabled()) {
+      return priorityCleanupPass(source, instant, pageable, cursor, cycle, processor);
+    }
+    Slice<T> batch = cursor == null
+        ? source.findRecordsToClean(instant, pageable)
+        : source.findRecordsToClean(instant, cursor.lastRecord, pageable);
+
+    int i = 1;
+    while (!batch.getContent().isEmpty()) {
+      log.info("Processing page {}", i++);
+      List<T> content = batch.getContent();
+      T lastRecord = content.get(content.size() - 1);
+      processPage(source, instant, pageable, batch, processor);
+      cycle.addRecords(content.size());
+      if (!batch.hasNext()) {
+        break;
+      }
+      if (cycle.isExhausted()) {
+        cursors.put(source, PageCursor.after(lastRecord));
+        return false;
+      }
+      batch = source.findRecordsToClean(instant, lastRecord, pageable);
+    }
+    return true;
+  }
+
+  /**
+   * Records which were already due at {@code referenceTime} but are still to be cleaned up make the next run due at
+   * once: those left when the previous run stopped on its budget, failed records which can be tried again, and records
+   * scheduled during the run with a cleanup timestamp in the past. During dry runs no record is updated, so only the
+   * records left by a run stopped on its budget count.
+   *
+   * @return {@code referenceTime} if a record is already due, otherwise the earliest time at which any of the sources
+   *         has a record coming due, if any.
+   */
+  public Optional<Instant> findNextDueTime(List<? extends CleanupRecordSource<?>> sources, Instant referenceTime) {
+    LocalDateTime instant = LocalDateTime.ofInstant(referenceTime, ZoneOffset.UTC);
+    if (stoppedOnBudget || !dryRunEnabled && sources.stream().anyMatch(source -> source.hasRecordsToClean(instant))) {
+      return Optional.of(referenceTime);
+    }
+    return sources
+        .stream()
+        .map(source -> source.findNextCleanupTimestamp(instant))
+        .flatMap(Optional::stream)
+        .min(Comparator.naturalOrder())
+        .map(cleanupTimestamp -> cleanupTimestamp.toInstant(ZoneOffset.UTC));
+  }
+
+  private <T extends HousekeepingEntity> boolean priorityCleanupPass(
+      CleanupRecordSource<T> source,
+      LocalDateTime instant,
+      Pageable pageable,
+      PageCursor<T> cursor,
+      CleanupBudget.Cycle cycle,
+      PageProcessor<T> processor) {
+    scoreRecords(source, instant, pageable);
+    Slice<T> batch = cursor == null
+        ? source.findRecordsToCleanByPriority(instant, pageable)
+        : source.findRecordsToCleanByPriority(instant, cursor.lastPriority, cursor.lastRecord.getId(), pageable);
+
+    int i = 1;
+    while (!batch.getContent().isEmpty()) {
+      log.info("Processing page {}", i++);
+      List<T> content = batch.getContent();
+      T lastRecord = content.get(content.size() - 1);
+      // the score of the last record can change while its page is processed
+      double lastPriority = lastRecord.getCleanupPriority();
+      processPage(source, instant, pageable, batch, processor);
+      cycle.addRecords(content.size());
+      if (!batch.hasNext()) {
+        break;
+      }
+      if (cycle.isExhausted()) {
+        cursors.put(source, PageCursor.after(lastRecord, lastPriority));
+        return false;
+      }
+      batch = source.findRecordsToCleanByPriority(instant, lastPriority, lastRecord.getId(), pageable);
+    }
+    return true;
+  }
+
+  private <T extends HousekeepingEntity> void scoreRecords(
+      CleanupRecordSource<T> source,
+      LocalDateTime instant,
+      Pageable pageable) {
+    Slice<T> batch = source.findUnscoredRecordsToClean(instant, 0L, pageable);
+    while (!batch.getContent().isEmpty()) {
+      List<T> content = batch.getContent();
+      content.forEach(record -> updateScore(source, record));
+      if (!batch.hasNext()) {
+        break;
+      }
+      batch = source.findUnscoredRecordsToClean(instant, content.get(content.size() - 1).getId(), pageable);
+    }
+  }
+
+  private <T extends HousekeepingEntity> void updateScore(CleanupRecordSource<T> source, T record) {
+    if (priority.updateScore(record)) {
+      source.updateCleanupPriority(record);
+    }
+  }
+
+  /**
+   * A pass which ran out of budget keeps its pager, so the next cycle carries on with the tables and records which
+   * were due when the pass started, and records which have come due since are left to the pass after.
+   */
+  private <T extends HousekeepingEntity> boolean fairCleanupPass(
+      CleanupRecordSource<T> source,
+      LocalDateTime instant,
+      Pageable pageable,
+      PageCursor<T> cursor,
+      CleanupBudget.Cycle cycle,
+      PageProcessor<T> processor) {
+    FairTablePager<T> pager = cursor != null ? cursor.pager
+        : new FairTablePager<>(source.findTablesToClean(instant), tableShare,
+            (table, lastId, tablePageable) -> source.findRecordsToCleanInTable(instant, table, lastId, tablePageable));
+    List<T> content = pager.nextPage(pageSize);
+
+    int i = 1;
+    while (!content.isEmpty()) {
+      log.info("Processing page {}", i++);
+      processPage(source, instant, pageable, new SliceImpl<>(content, pageable, pager.hasNext()), processor);
+      cycle.addRecords(content.size());
+      if (pager.hasNext() && cycle.isExhausted()) {
+        cursors.put(source, PageCursor.of(pager));
+        return false;
+      }
+      content = pager.nextPage(pageSize);
+    }
+    return true;
+  }
+
+  private <T extends HousekeepingEntity> void processPage(
+      CleanupRecordSource<T> source,
+      LocalDateTime instant,
+      Pageable pageable,
+      Slice<T> batch,
+      PageProcessor<T> processor) {
+    if (dryRunEnabled || !lease.isEnabled()) {
+      processor.processPage(pageable, batch);
+      if (dryRunEnabled && priority.isEnabled()) {
+        batch.getContent().forEach(record -> updateScore(source, record));
+      }
+      return;
+    }
+    List<T> claimed = source.claimRecords(instant, batch.getContent(), lease);
+    if (claimed.size() < batch.getNumberOfElements()) {
+      log.info("Skipping {} records claimed by other instances", batch.getNumberOfElements() - claimed.size());
+    }
+    if (claimed.isEmpty()) {
+      return;
+    }
+    try {
+      processor.processPage(pageable, new SliceImpl<>(claimed, pageable, batch.hasNext()));
+    } finally {
+      source.releaseRecords(claimed, lease);
+    }
+  }
+
+  /**
+   * Where a source stopped: after a record, in the order of timestamps or of priorities, or in the pages of a pager.
+   */
+  private static class PageCursor<T extends HousekeepingEntity> {
+    private final T lastRecord;
+    private final double lastPriority;
+    private final FairTablePager<T> pager;
+
+    private PageCursor(T lastRecord, double lastPriority, FairTablePager<T> pager) {
+      this.lastRecord = lastRecord;
+      this.lastPriority = lastPriority;
+      this.pager = pager;
+    }
+
+    private static <T extends HousekeepingEntity> PageCursor<T> after(T lastRecord) {
+      return new PageCursor<>(lastRecord, 0, null);
+    }
+
+    private static <T extends HousekeepingEntity> PageCursor<T> after(T lastRecord, double lastPriority) {
+      return new PageCursor<>(lastRecord, lastPriority, null);
+    }
+
+    private static <T extends HousekeepingEntity> PageCursor<T> of(FairTablePager<T> pager) {
+      return new PageCursor<>(null, 0, pager);
+    }
+  }
+
+  public static class Builder {
+    private int pageSize;
+    private boolean dryRunEnabled;
+    private HousekeepingLease lease = HousekeepingLease.none();
+    private int tableShare;
+    private CleanupPriority priority = CleanupPriority.none();
+    private CleanupBudget budget = CleanupBudget.unlimited();
+
+    private Builder() {}
+
+    public Builder pageSize(int pageSize) {
+      this.pageSize = pageSize;
+      return this;
+    }
+
+    public Builder dryRunEnabled(boolean dryRunEnabled) {
+      this.dryRunEnabled = dryRunEnabled;
+      return this;
+    }
+
+    /**
+     * @param lease Lease under which the records of each page are claimed before they are cleaned up, so that several
+     *          instances can clean up at the same time. Records are not claimed during dry runs.
+     */
+    public Builder lease(HousekeepingLease lease) {
+      this.lease = lease;
+      return this;
+    }
+
+    /**
+     * @param tableShare Maximum number of records of one table in a page, taken in turns from every table with
+     *          records to clean up, or {@code 0} for pages which follow the order of the whole backlog.
+     */
+    public Builder tableShare(int tableShare) {
+      this.tableShare = tableShare;
+      return this;
+    }
+
+    /**
+     * @param priority Weights of the score which records are cleaned up in order of, highest first, unless
+     *          {@code tableShare} is set. Records are scored before each pass, and during dry runs their scores are
+     *          updated with the sizes listed, which is the only change made to records in dry runs.
+     */
+    public Builder priority(CleanupPriority priority) {
+      this.priority = priority;
+      return this;
+    }
+
+    /**
+     * @param budget Budget of each run, after which it stops at the end of a page.
+     */
+    public Builder budget(CleanupBudget budget) {
+      this.budget = budget;
+      return this;
+    }
+
+    public CleanupPager build() {
+      return new CleanupPager(this);
+    }
+  }
+}
@@ -0,0 +1,109 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingEntity;
+import com.expediagroup.beekeeper.core.model.HousekeepingTable;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
+
+/**
+ * Finds, scores and claims the records of one kind of cleanup, which a {@link CleanupPager} pages through.
+ */
+public interface CleanupRecordSource<T extends HousekeepingEntity> {
+
+  Slice<T> findRecordsToClean(LocalDateTime instant, Pageable pageable);
+
+  /**
+   * Finds the records to clean up which come after the last record of the previous page, in the order of
+   * {@link #findRecordsToClean(LocalDateTime, Pageable)}, so that every page costs the same to find.
+   *
+   * @param lastRecord Last record of the previous page.
+   * @param pageable Pageable giving the page size; the page number is not used.
+   */
+  Slice<T> findRecordsToClean(LocalDateTime instant, T lastRecord, Pageable pageable);
+
+  /**
+   * @return Whether any record is due to be cleaned up at {@code instant}.
+   */
+  default boolean hasRecordsToClean(LocalDateTime instant) {
+    return findRecordsToClean(instant, PageRequest.of(0, 1)).hasContent();
+  }
+
+  /**
+   * @return The tables which have records to clean up.
+   */
+  List<HousekeepingTable> findTablesToClean(LocalDateTime instant);
+
+  /**
+   * Finds the records to clean up of one table which come after a given id, in the order of their ids.
+   *
+   * @param lastId Id of the last record of the table already found, or {@code 0} for the first records.
+   */
+  Slice<T> findRecordsToCleanInTable(LocalDateTime instant, HousekeepingTable table, long lastId, Pageable pageable);
+
+  /**
+   * @return The earliest cleanup timestamp after {@code instant} of the records still to be cleaned up, if any.
+   */
+  Optional<LocalDateTime> findNextCleanupTimestamp(LocalDateTime instant);
+
+  /**
+   * Finds the scored records to clean up with the highest cleanup priority first.
+   */
+  Slice<T> findRecordsToCleanByPriority(LocalDateTime instant, Pageable pageable);
+
+  /**
+   * Finds the records to clean up which come after the last record of the previous page, in the order of
+   * {@link #findRecordsToCleanByPriority(LocalDateTime, Pageable)}.
+   *
+   * @param lastPriority Cleanup priority of the last record of the previous page, as it was read.
+   * @param lastId Id of the last record of the previous page.
+   */
+  Slice<T> findRecordsToCleanByPriority(LocalDateTime instant, double lastPriority, long lastId, Pageable pageable);
+
+  /**
+   * Finds the records to clean up which have not been given a cleanup priority yet, in the order of their ids.
+   *
+   * @param lastId Id of the last record already found, or {@code 0} for the first records.
+   */
+  Slice<T> findUnscoredRecordsToClean(LocalDateTime instant, long lastId, Pageable pageable);
+
+  /**
+   * Stores the estimated size and the cleanup priority of a record, and nothing else, so that it can be done during
+   * dry runs too.
+   */
+  void updateCleanupPriority(T record);
+
+  /**
+   * Claims records of a page under a lease, so that other instances cleaning up at the same time skip them.
+   *
+   * @param instant Instant the cleanup is happening; records updated since are not claimed.
+   * @return The records which were claimed, read again with their new versions, in the order of the page.
+   */
+  List<T> claimRecords(LocalDateTime instant, List<T> records, HousekeepingLease lease);
+
+  /**
+   * Releases the records claimed under a lease, once they have been processed and their updates written.
+   */
+  void releaseRecords(List<T> records, HousekeepingLease lease);
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2020 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package com.expediagroup.beekeeper.cleanup.service;
 
 import java.time.Instant;
+import java.util.Optional;
 
 public interface CleanupService {
 
@@ -26,4 +27,12 @@ public interface CleanupService {
    */
   void cleanUp(Instant referenceTime);
 
+  /**
+   * @param referenceTime Reference time of the last cleanup.
+   * @return The earliest time at which a record comes due, if any is known, which is {@code referenceTime} itself
+   *         when records are still due.
+   */
+  default Optional<Instant> findNextDueTime(Instant referenceTime) {
+    return Optional.empty();
+  }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2021 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,34 +16,117 @@
 package com.expediagroup.beekeeper.cleanup.service;
 
 import java.time.Instant;
+import java.util.Date;
+import java.util.Optional;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TriggerContext;
 import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
 import org.springframework.stereotype.Component;
 
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunSummaryReporter;
+
+/**
+ * Runs a cleanup as soon as the application starts, then again when the next record comes due. The next run is never
+ * sooner than the minimum delay after the previous one completes, nor later than the maximum delay, so that records
+ * which were scheduled in the meantime, or which could not be cleaned up yet, are still picked up.
+ * <p>
+ * Disabled tables are checked on their own timer, as they do not depend on when records come due.
+ */
 @Component
-public class CleanupServiceScheduler {
+public class CleanupServiceScheduler implements SchedulingConfigurer {
 
   private static final Logger log = LoggerFactory.getLogger(CleanupServiceScheduler.class);
+  private static final long DEFAULT_DELAY_MS = 300000L;
 
   private final CleanupService cleanupService;
   private final DisableTablesService disableTablesService;
+  private final DryRunSummaryReporter dryRunSummaryReporter;
+  private final long minDelayMs;
+  private final long maxDelayMs;
 
-  @Autowired
   public CleanupServiceScheduler(CleanupService cleanupService,
       DisableTablesService disableTablesService) {
+    this(cleanupService, disableTablesService, DryRunSummaryReporter.disabled(), DEFAULT_DELAY_MS, DEFAULT_DELAY_MS);
+  }
+
+  @Autowired
+  public CleanupServiceScheduler(CleanupService cleanupService,
+      DisableTablesService disableTablesService,
+      ObjectProvider<DryRunSummaryReporter> dryRunSummaryReporter,
+      @Value("${properties.scheduler-min-delay-ms}") long minDelayMs,
+      @Value("${properties.scheduler-delay-ms}") long maxDelayMs) {
+    this(cleanupService, disableTablesService, dryRunSummaryReporter.getIfAvailable(DryRunSummaryReporter::disabled),
+        minDelayMs, maxDelayMs);
+  }
+
+  CleanupServiceScheduler(CleanupService cleanupService,
+      DisableTablesService disableTablesService,
+      DryRunSummaryReporter dryRunSummaryReporter,
+      long minDelayMs,
+      long maxDelayMs) {
     this.cleanupService = cleanupService;
     this.disableTablesService = disableTablesService;
+    this.dryRunSummaryReporter = dryRunSummaryReporter;
+    this.minDelayMs = Math.min(minDelayMs, maxDelayMs);
+    this.maxDelayMs = maxDelayMs;
   }
 
-  @Scheduled(fixedDelayString = "${properties.scheduler-delay-ms}")
-  public void scheduleCleanupWithFixedDelay() {
-    disableTablesService.disable();
+  @Override
+  public void configureTasks(ScheduledTaskRegistrar taskRegistrar) {
+    taskRegistrar.addTriggerTask(this::scheduleCleanup, this::nextCleanupTime);
+  }
+
+  public void scheduleCleanup() {
     Instant now = Instant.now();
     log.info("Started cleanup for instant {}", now.toString());
-    cleanupService.cleanUp(now);
+    try {
+      cleanupService.cleanUp(now);
+    } finally {
+      if (dryRunSummaryReporter.isEnabled()) {
+        dryRunSummaryReporter.reportTables();
+      }
+    }
     log.info("Finished cleanup for instant {}", now.toString());
   }
+
+  @Scheduled(fixedDelayString = "${properties.disable-tables-delay-ms}")
+  public void scheduleDisableTables() {
+    disableTablesService.disable();
+  }
+
+  private Date nextCleanupTime(TriggerContext triggerContext) {
+    Date lastCompletionTime = triggerContext.lastCompletionTime();
+    if (lastCompletionTime == null) {
+      return new Date();
+    }
+    return Date.from(nextCleanupTime(lastCompletionTime.toInstant()));
+  }
+
+  /**
+   * @param completionTime When the previous cleanup completed.
+   * @return When the next record comes due, within the minimum and maximum delays after the previous cleanup.
+   */
+  Instant nextCleanupTime(Instant completionTime) {
+    Instant earliest = completionTime.plusMillis(minDelayMs);
+    Instant latest = completionTime.plusMillis(maxDelayMs);
+    Optional<Instant> nextDueTime = Optional.empty();
+    try {
+      nextDueTime = cleanupService.findNextDueTime(completionTime);
+    } catch (Exception e) {
+      log.warn("Could not find when the next record comes due, waiting {} ms", maxDelayMs, e);
+    }
+    Instant next = nextDueTime.filter(latest::isAfter).orElse(latest);
+    if (next.isBefore(earliest)) {
+      next = earliest;
+    }
+    log.debug("Next cleanup at {}", next);
+    return next;
+  }
 }
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingEntity;
+import com.expediagroup.beekeeper.core.model.HousekeepingTable;
+
+/**
+ * Builds the pages of a cleanup by taking turns between the tables which have records to clean up, instead of
+ * following the order of the whole backlog, so that the records of a large table do not hold up every other table.
+ * <p>
+ * Each page takes at most {@code tableShare} records from each table, so no more than that many records of one table
+ * are processed at the same time. The tables which still have records left after a page come first in the next one.
+ */
+public class FairTablePager<T extends HousekeepingEntity> {
+
+  /**
+   * Finds the records to clean up of one table, in the order of their ids.
+   */
+  @FunctionalInterface
+  public interface TableRecordFinder<T> {
+    Slice<T> findRecords(HousekeepingTable table, long lastId, Pageable pageable);
+  }
+
+  private final Deque<TableCursor> cursors = new ArrayDeque<>();
+  private final int tableShare;
+  private final TableRecordFinder<T> recordFinder;
+
+  public FairTablePager(List<HousekeepingTable> tables, int tableShare, TableRecordFinder<T> recordFinder) {
+    tables.forEach(table -> cursors.add(new TableCursor(table)));
+    this.tableShare = Math.max(1, tableShare);
+    this.recordFinder = recordFinder;
+  }
+
+  /**
+   * @return Up to {@code pageSize} records, or an empty list once every table has been cleaned up.
+   */
+  public List<T> nextPage(int pageSize) {
+    List<T> page = new ArrayList<>();
+    int tablesLeft = cursors.size();
+    while (tablesLeft-- > 0 && page.size() < pageSize) {
+      TableCursor cursor = cursors.poll();
+      Slice<T> records = recordFinder
+          .findRecords(cursor.table, cursor.lastId, PageRequest.of(0, Math.min(tableShare, pageSize - page.size())));
+      List<T> content = records.getContent();
+      page.addAll(content);
+      if (!content.isEmpty()) {
+        cursor.lastId = content.get(content.size() - 1).getId();
+      }
+      if (records.hasNext()) {
+        cursors.add(cursor);
+      }
+    }
+    return page;
+  }
+
+  /**
+   * @return Whether any table may have records left.
+   */
+  public boolean hasNext() {
+    return !cursors.isEmpty();
+  }
+
+  private static class TableCursor {
+    private final HousekeepingTable table;
+    private long lastId;
+
+    private TableCursor(HousekeepingTable table) {
+      this.table = table;
+    }
+  }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2024 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -24,6 +24,7 @@ import org.slf4j.LoggerFactory;
 
 import com.expediagroup.beekeeper.cleanup.metadata.CleanerClient;
 import com.expediagroup.beekeeper.cleanup.metadata.CleanerClientFactory;
+import com.expediagroup.beekeeper.cleanup.metadata.TablePropertiesCache;
 import com.expediagroup.beekeeper.core.error.BeekeeperIcebergException;
 import com.expediagroup.beekeeper.core.predicate.IsIcebergTablePredicate;
 
@@ -31,11 +32,15 @@ public class IcebergValidator {
 
   private static final Logger log = LoggerFactory.getLogger(IcebergValidator.class);
 
-  private final CleanerClientFactory cleanerClientFactory;
+  private final TablePropertiesCache tablePropertiesCache;
   private final IsIcebergTablePredicate isIcebergTablePredicate;
 
   public IcebergValidator(CleanerClientFactory cleanerClientFactory) {
-    this.cleanerClientFactory = cleanerClientFactory;
+    this(TablePropertiesCache.uncached(cleanerClientFactory));
+  }
+
+  public IcebergValidator(TablePropertiesCache tablePropertiesCache) {
+    this.tablePropertiesCache = tablePropertiesCache;
     this.isIcebergTablePredicate = new IsIcebergTablePredicate();
   }
 
@@ -48,8 +53,20 @@ public class IcebergValidator {
    * @param tableName
    */
   public void throwExceptionIfIceberg(String databaseName, String tableName) {
-    try (CleanerClient client = cleanerClientFactory.newInstance()) {
-      Map<String, String> tableParameters = client.getTableProperties(databaseName, tableName);
+    throwExceptionIfIceberg(databaseName, tableName, null);
+  }
+
+  /**
+   * Checks if the table is an Iceberg table like {@link #throwExceptionIfIceberg(String, String)}, fetching its
+   * parameters with a client which the caller holds already instead of a new one.
+   *
+   * @param client Client to fetch the table parameters with, or {@code null} to use a new one.
+   */
+  public void throwExceptionIfIceberg(String databaseName, String tableName, CleanerClient client) {
+    try {
+      Map<String, String> tableParameters = client == null
+          ? tablePropertiesCache.getTableProperties(databaseName, tableName)
+          : tablePropertiesCache.getTableProperties(databaseName, tableName, client);
 
       if (isIcebergTablePredicate.test(tableParameters)) {
         throw new BeekeeperIcebergException(
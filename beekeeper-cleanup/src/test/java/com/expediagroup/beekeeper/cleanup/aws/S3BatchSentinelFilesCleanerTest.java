@@ -0,0 +1,197 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.testcontainers.containers.localstack.LocalStackContainer.Service.S3;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import org.apache.hadoop.fs.s3a.BasicAWSCredentialsProvider;
+import org.junit.Rule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.testcontainers.containers.localstack.LocalStackContainer;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+
+import com.amazonaws.client.builder.AwsClientBuilder;
+import com.amazonaws.services.s3.AmazonS3;
+import com.amazonaws.services.s3.AmazonS3ClientBuilder;
+import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.ListObjectsV2Request;
+
+@ExtendWith(MockitoExtension.class)
+@Testcontainers
+class S3BatchSentinelFilesCleanerTest {
+
+  private final String bucket = "bucket";
+  private final String partitionKey = "table/id1/partition_1";
+  private final String partitionSentinel = "table/id1/partition_1_$folder$";
+  private final String partitionParentSentinel = "table/id1_$folder$";
+  private final String tableSentinel = "table_$folder$";
+  private final List<String> ancestorKeys = List.of("table/id1");
+
+  private AmazonS3 amazonS3;
+  private S3BatchSentinelFilesCleaner batchSentinelFilesCleaner;
+
+  @Rule
+  public static LocalStackContainer awsContainer = new LocalStackContainer(
+      DockerImageName.parse("localstack/localstack:0.14.2")).withServices(S3);
+  static {
+    awsContainer.start();
+  }
+  public static String S3_ENDPOINT = awsContainer.getEndpointConfiguration(S3).getServiceEndpoint();
+
+  @BeforeEach
+  void setUp() {
+    amazonS3 = spy(AmazonS3ClientBuilder
+        .standard()
+        .withCredentials(new BasicAWSCredentialsProvider("accesskey", "secretkey"))
+        .withEndpointConfiguration(
+            new AwsClientBuilder.EndpointConfiguration(S3_ENDPOINT, "region")).build());
+    amazonS3.createBucket(bucket);
+    amazonS3.listObjectsV2(bucket)
+        .getObjectSummaries()
+        .forEach(object -> amazonS3.deleteObject(bucket, object.getKey()));
+    batchSentinelFilesCleaner = new S3BatchSentinelFilesCleaner(new S3Client(amazonS3, false));
+  }
+
+  @Test
+  void typical() {
+    amazonS3.putObject(bucket, partitionSentinel, "");
+    amazonS3.putObject(bucket, partitionParentSentinel, "");
+    amazonS3.putObject(bucket, tableSentinel, "");
+
+    batchSentinelFilesCleaner.deleteSentinelFiles(bucket, partitionKey, ancestorKeys);
+
+    assertThat(amazonS3.doesObjectExist(bucket, partitionSentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, partitionParentSentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, tableSentinel)).isTrue();
+  }
+
+  @Test
+  void sentinelFilesAreDeletedWithOneRequest() {
+    amazonS3.putObject(bucket, partitionSentinel, "");
+    amazonS3.putObject(bucket, partitionParentSentinel, "");
+
+    batchSentinelFilesCleaner.deleteSentinelFiles(bucket, partitionKey, ancestorKeys);
+
+    verify(amazonS3).deleteObjects(any(DeleteObjectsRequest.class));
+    verify(amazonS3, never()).deleteObject(anyString(), anyString());
+    verify(amazonS3, never()).doesObjectExist(anyString(), anyString());
+    verify(amazonS3, never()).getObjectMetadata(anyString(), anyString());
+  }
+
+  @Test
+  void sentinelFileForNonEmptyParent() {
+    String parentFile = "table/id1/randomFile";
+    amazonS3.putObject(bucket, partitionSentinel, "");
+    amazonS3.putObject(bucket, partitionParentSentinel, "");
+    amazonS3.putObject(bucket, parentFile, "content");
+
+    batchSentinelFilesCleaner.deleteSentinelFiles(bucket, partitionKey, ancestorKeys);
+
+    assertThat(amazonS3.doesObjectExist(bucket, partitionSentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, parentFile)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, partitionParentSentinel)).isTrue();
+  }
+
+  @Test
+  void sentinelFileAfterOtherObjectsInParent() {
+    String parentFiles = "table/id1/a_partition/file";
+    amazonS3.putObject(bucket, parentFiles + "1", "content");
+    amazonS3.putObject(bucket, parentFiles + "2", "content");
+    amazonS3.putObject(bucket, partitionSentinel, "");
+    amazonS3.putObject(bucket, partitionParentSentinel, "");
+
+    batchSentinelFilesCleaner.deleteSentinelFiles(bucket, partitionKey, ancestorKeys);
+
+    assertThat(amazonS3.doesObjectExist(bucket, partitionSentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, partitionParentSentinel)).isTrue();
+  }
+
+  @Test
+  void nonEmptySentinelFile() {
+    amazonS3.putObject(bucket, partitionSentinel, "content");
+    amazonS3.putObject(bucket, partitionParentSentinel, "");
+
+    batchSentinelFilesCleaner.deleteSentinelFiles(bucket, partitionKey, ancestorKeys);
+
+    assertThat(amazonS3.doesObjectExist(bucket, partitionSentinel)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, partitionParentSentinel)).isTrue();
+  }
+
+  @Test
+  void noAncestors() {
+    amazonS3.putObject(bucket, partitionSentinel, "");
+    amazonS3.putObject(bucket, partitionParentSentinel, "");
+
+    batchSentinelFilesCleaner.deleteSentinelFiles(bucket, partitionKey, Collections.emptyList());
+
+    assertThat(amazonS3.doesObjectExist(bucket, partitionSentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, partitionParentSentinel)).isTrue();
+  }
+
+  @Test
+  void noSentinelFiles() {
+    batchSentinelFilesCleaner.deleteSentinelFiles(bucket, partitionKey, ancestorKeys);
+
+    verify(amazonS3, never()).deleteObjects(any(DeleteObjectsRequest.class));
+  }
+
+  @Test
+  void dryRunIgnoresObjectsOfDeletedDirectory() {
+    batchSentinelFilesCleaner = new S3BatchSentinelFilesCleaner(new S3Client(amazonS3, true));
+    amazonS3.putObject(bucket, partitionKey + "/file1", "content");
+    amazonS3.putObject(bucket, partitionSentinel, "");
+    amazonS3.putObject(bucket, partitionParentSentinel, "");
+
+    batchSentinelFilesCleaner.deleteSentinelFiles(bucket, partitionKey, ancestorKeys);
+
+    assertThat(amazonS3.doesObjectExist(bucket, partitionSentinel)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, partitionParentSentinel)).isTrue();
+    verify(amazonS3, never()).deleteObjects(any(DeleteObjectsRequest.class));
+  }
+
+  @Test
+  void dryRunStopsListingAncestorOnceItIsNotEmpty() {
+    batchSentinelFilesCleaner = new S3BatchSentinelFilesCleaner(new S3Client(amazonS3, true));
+    IntStream.rangeClosed(1, 1001)
+        .parallel()
+        .forEach(i -> amazonS3.putObject(bucket, "table/id1/partition_0/file" + i, "content"));
+    amazonS3.putObject(bucket, partitionKey + "/file1", "content");
+    amazonS3.putObject(bucket, partitionSentinel, "");
+    clearInvocations(amazonS3);
+
+    batchSentinelFilesCleaner.deleteSentinelFiles(bucket, partitionKey, ancestorKeys);
+
+    // the first page of the ancestor, then the sentinel file which that page did not reach
+    verify(amazonS3, times(2)).listObjectsV2(any(ListObjectsV2Request.class));
+    verify(amazonS3, never()).deleteObjects(any(DeleteObjectsRequest.class));
+  }
+}
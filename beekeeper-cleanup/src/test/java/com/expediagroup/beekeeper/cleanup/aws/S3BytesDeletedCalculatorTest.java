@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -92,6 +92,43 @@ class S3BytesDeletedCalculatorTest {
     assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(0);
   }
 
+  @Test
+  void keysAreOnlyCountedOnce() {
+    List<S3ObjectSummary> objectSummaries = objectSummaries(key1, key2);
+    s3BytesDeletedCalculator.storeFileSizes(objectSummaries);
+    s3BytesDeletedCalculator.calculateBytesDeleted(Arrays.asList(key1, key2));
+    s3BytesDeletedCalculator.calculateBytesDeleted(Arrays.asList(key1, key2));
+    assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(contentBytes * 2);
+  }
+
+  @Test
+  void allObjectsOfChunkDeleted() {
+    List<String> chunkKeys = List.of(key1, key2, key3);
+    s3BytesDeletedCalculator.calculateBytesDeleted(chunkKeys, new long[] { 1L, 2L, 3L }, List.of(key3, key1, key2));
+    assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(6L);
+  }
+
+  @Test
+  void someObjectsOfChunkDeleted() {
+    List<String> chunkKeys = List.of(key1, key2, key3);
+    s3BytesDeletedCalculator.calculateBytesDeleted(chunkKeys, new long[] { 1L, 2L, 3L }, List.of(key3, key1));
+    assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(4L);
+  }
+
+  @Test
+  void noObjectsOfChunkDeleted() {
+    List<String> chunkKeys = List.of(key1, key2, key3);
+    s3BytesDeletedCalculator.calculateBytesDeleted(chunkKeys, new long[] { 1L, 2L, 3L }, Collections.emptyList());
+    assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(0L);
+  }
+
+  @Test
+  void chunksAreAddedUp() {
+    s3BytesDeletedCalculator.calculateBytesDeleted(List.of(key1, key2), new long[] { 1L, 2L }, List.of(key1, key2));
+    s3BytesDeletedCalculator.calculateBytesDeleted(List.of(key3), new long[] { 3L }, List.of(key3));
+    assertThat(s3BytesDeletedCalculator.getBytesDeleted()).isEqualTo(6L);
+  }
+
   private List<S3ObjectSummary> objectSummaries(String... keys) {
     return Arrays.stream(keys)
       .map(key -> {
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,6 +30,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mockito;
 import org.testcontainers.containers.localstack.LocalStackContainer;
 import org.testcontainers.junit.jupiter.Testcontainers;
@@ -39,8 +40,12 @@ import com.amazonaws.client.builder.AwsClientBuilder;
 import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 import com.amazonaws.services.s3.model.DeleteObjectsRequest;
+import com.amazonaws.services.s3.model.DeleteObjectsResult;
+import com.amazonaws.services.s3.model.DeleteObjectsResult.DeletedObject;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
 import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
@@ -195,6 +200,70 @@ class S3ClientTest {
     assertThat(result.size()).isEqualTo(s3BatchSize + extraKeys);
   }
 
+  @Test
+  void listObjectsPageByPage() {
+    int s3BatchSize = 1000;
+    int extraKeys = 100;
+    List<String> keys = new ArrayList<>();
+    for (int i = 1; i <= s3BatchSize + extraKeys; i++) {
+      keys.add(keyRoot + "/file" + i);
+    }
+    keys.parallelStream().forEach(key -> amazonS3.putObject(bucket, key, content));
+
+    List<Integer> pageSizes = new ArrayList<>();
+    s3Client.listObjects(bucket, keyRoot, page -> pageSizes.add(page.size()));
+
+    assertThat(pageSizes).containsExactly(s3BatchSize, extraKeys);
+  }
+
+  @Test
+  void listObjectsInParallel() {
+    S3Client parallelS3Client = S3Client.builder(amazonS3).listConcurrency(3).build();
+    List<String> keys = new ArrayList<>();
+    keys.add(keyRoot + "/file");
+    for (int partition = 1; partition <= 4; partition++) {
+      for (int file = 1; file <= 3; file++) {
+        keys.add(keyRoot + "/partition_" + partition + "/file" + file);
+      }
+    }
+    keys.add(keyRoot + "/partition_1/nested/file");
+    keys.parallelStream().forEach(key -> amazonS3.putObject(bucket, key, content));
+
+    List<String> listedKeys = new ArrayList<>();
+    parallelS3Client.listObjectsInParallel(bucket, keyRoot + "/", null,
+        page -> page.forEach(objectSummary -> listedKeys.add(objectSummary.getKey())));
+
+    assertThat(listedKeys).containsExactlyInAnyOrderElementsOf(keys);
+    parallelS3Client.close();
+  }
+
+  @Test
+  void listObjectsInParallelStartingAfterKey() {
+    S3Client parallelS3Client = S3Client.builder(amazonS3).listConcurrency(3).build();
+    List<String> keys = List.of(keyRoot + "/partition_1/file1", keyRoot + "/partition_1/file2",
+        keyRoot + "/partition_1/file3", keyRoot + "/partition_2/file1");
+    keys.parallelStream().forEach(key -> amazonS3.putObject(bucket, key, content));
+
+    List<String> listedKeys = new ArrayList<>();
+    parallelS3Client.listObjectsInParallel(bucket, keyRoot + "/", keys.get(1),
+        page -> page.forEach(objectSummary -> listedKeys.add(objectSummary.getKey())));
+
+    assertThat(listedKeys).containsExactlyInAnyOrder(keys.get(2), keys.get(3));
+    parallelS3Client.close();
+  }
+
+  @Test
+  void listObjectsPageForFile() {
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+
+    ListObjectsV2Result result = s3Client.listObjectsPage(bucket, key1, null);
+
+    assertThat(result.isTruncated()).isFalse();
+    assertThat(result.getObjectSummaries()).extracting(S3ObjectSummary::getKey).containsExactly(key1);
+    assertThat(result.getObjectSummaries().get(0).getSize()).isEqualTo(content.getBytes().length);
+  }
+
   @Test
   void deleteObjectsInDirectory() {
     amazonS3.putObject(bucket, key1, content);
@@ -228,6 +297,23 @@ class S3ClientTest {
     assertThat(keys).isEqualTo(result);
   }
 
+  @ParameterizedTest
+  @ValueSource(ints = { 500, 1500, 3500 })
+  void concurrentDeleteObjectsInDirectory(final int totalObjects) {
+    S3Client concurrentS3Client = S3Client.builder(amazonS3).deleteConcurrency(3).build();
+    ArrayList<String> keys = new ArrayList<>();
+    for (int i = 1; i <= totalObjects; i++) {
+      keys.add(keyRoot + "/file" + i);
+    }
+    keys.parallelStream().forEach(key -> amazonS3.putObject(bucket, key, content));
+
+    List<String> result = concurrentS3Client.deleteObjects(bucket, keys);
+    concurrentS3Client.close();
+
+    assertThat(amazonS3.listObjects(bucket, keyRoot).getObjectSummaries()).isEmpty();
+    assertThat(result).isEqualTo(keys);
+  }
+
   @Test
   void deleteObjectsInDirectoryDryRun() {
     amazonS3.putObject(bucket, key1, content);
@@ -253,6 +339,59 @@ class S3ClientTest {
     verifyNoMoreInteractions(amazonS3);
   }
 
+  @Test
+  void deleteObjectsRetriesFailedKeys() {
+    AmazonS3 amazonS3 = Mockito.mock(AmazonS3.class);
+    S3Client s3Client = S3Client.builder(amazonS3).deleteMaxAttempts(3).deleteRetryBackoffMs(1).build();
+    Mockito.when(amazonS3.deleteObjects(Mockito.any(DeleteObjectsRequest.class)))
+        .thenThrow(multiObjectDeleteException(key1, key2))
+        .thenReturn(new DeleteObjectsResult(List.of(deletedObject(key2))));
+
+    List<String> result = s3Client.deleteObjects(bucket, List.of(key1, key2));
+
+    assertThat(result).containsExactly(key1, key2);
+    ArgumentCaptor<DeleteObjectsRequest> requestCaptor = ArgumentCaptor.forClass(DeleteObjectsRequest.class);
+    Mockito.verify(amazonS3, Mockito.times(2)).deleteObjects(requestCaptor.capture());
+    assertThat(requestCaptor.getAllValues().get(1).getKeys())
+        .extracting(DeleteObjectsRequest.KeyVersion::getKey)
+        .containsExactly(key2);
+  }
+
+  @Test
+  void deleteObjectsRetriesFailedKeysOnRequestPool() {
+    AmazonS3 amazonS3 = Mockito.mock(AmazonS3.class);
+    S3Client s3Client = S3Client
+        .builder(amazonS3)
+        .deleteConcurrency(2)
+        .deleteMaxAttempts(3)
+        .deleteRetryBackoffMs(1)
+        .requestPoolThreads(1)
+        .build();
+    Mockito.when(amazonS3.deleteObjects(Mockito.any(DeleteObjectsRequest.class)))
+        .thenThrow(multiObjectDeleteException(key1, key2))
+        .thenReturn(new DeleteObjectsResult(List.of(deletedObject(key2))));
+
+    List<String> result = s3Client.deleteObjects(bucket, List.of(key1, key2));
+    s3Client.close();
+
+    assertThat(result).containsExactly(key1, key2);
+    Mockito.verify(amazonS3, Mockito.times(2)).deleteObjects(Mockito.any(DeleteObjectsRequest.class));
+  }
+
+  @Test
+  void deleteObjectsGivesUpAfterMaxAttempts() {
+    AmazonS3 amazonS3 = Mockito.mock(AmazonS3.class);
+    S3Client s3Client = S3Client.builder(amazonS3).deleteMaxAttempts(3).deleteRetryBackoffMs(1).build();
+    Mockito.when(amazonS3.deleteObjects(Mockito.any(DeleteObjectsRequest.class)))
+        .thenThrow(multiObjectDeleteException(key1, key2))
+        .thenReturn(new DeleteObjectsResult(List.of()));
+
+    List<String> result = s3Client.deleteObjects(bucket, List.of(key1, key2));
+
+    assertThat(result).containsExactly(key1);
+    Mockito.verify(amazonS3, Mockito.times(3)).deleteObjects(Mockito.any(DeleteObjectsRequest.class));
+  }
+
   @Test
   void doesObjectExistForFile() {
     amazonS3.putObject(bucket, key2, content);
@@ -384,4 +523,17 @@ class S3ClientTest {
     assertThat(s3ClientDryRun.isEmpty(bucket, folder2, folder3)).isTrue();
     assertThat(s3ClientDryRun.isEmpty(bucket, folder1, folder2)).isTrue();
   }
+
+  private MultiObjectDeleteException multiObjectDeleteException(String deletedKey, String failedKey) {
+    DeleteError deleteError = new DeleteError();
+    deleteError.setKey(failedKey);
+    deleteError.setCode("InternalError");
+    return new MultiObjectDeleteException(List.of(deleteError), List.of(deletedObject(deletedKey)));
+  }
+
+  private DeletedObject deletedObject(String key) {
+    DeletedObject deletedObject = new DeletedObject();
+    deletedObject.setKey(key);
+    return deletedObject;
+  }
 }
@@ -0,0 +1,72 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.AmazonServiceException;
+
+class S3DeleteRequestWindowTest {
+
+  private final List<Integer> results = new ArrayList<>();
+
+  @Test
+  void typical() {
+    S3DeleteRequestWindow<Integer> window = new S3DeleteRequestWindow<>(2);
+    window.submit(() -> CompletableFuture.completedFuture(1), results::add);
+    window.submit(() -> CompletableFuture.completedFuture(2), results::add);
+    window.submit(() -> CompletableFuture.completedFuture(3), results::add);
+    window.awaitAll();
+
+    assertThat(results).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  void boundsRequestsInFlight() {
+    S3DeleteRequestWindow<Integer> window = new S3DeleteRequestWindow<>(2);
+    CompletableFuture<Integer> first = new CompletableFuture<>();
+    CompletableFuture<Integer> second = CompletableFuture.completedFuture(2);
+    window.submit(() -> first, results::add);
+    window.submit(() -> second, results::add);
+    assertThat(results).isEmpty();
+
+    first.complete(1);
+    window.submit(() -> CompletableFuture.completedFuture(3), results::add);
+    assertThat(results).containsExactly(1);
+
+    window.awaitAll();
+    assertThat(results).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  void failureIsRethrownAfterOtherRequestsComplete() {
+    S3DeleteRequestWindow<Integer> window = new S3DeleteRequestWindow<>(3);
+    CompletableFuture<Integer> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new AmazonServiceException("error"));
+    window.submit(() -> failed, results::add);
+    window.submit(() -> CompletableFuture.completedFuture(2), results::add);
+
+    assertThatExceptionOfType(AmazonServiceException.class).isThrownBy(window::awaitAll);
+    assertThat(results).containsExactly(2);
+  }
+}
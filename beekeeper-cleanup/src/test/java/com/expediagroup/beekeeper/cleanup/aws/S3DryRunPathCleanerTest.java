@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2024 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,6 +17,8 @@ package com.expediagroup.beekeeper.cleanup.aws;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 import static org.testcontainers.containers.localstack.LocalStackContainer.Service.S3;
 
 import java.time.Duration;
@@ -38,6 +40,7 @@ import com.amazonaws.services.s3.AmazonS3;
 import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunSummaryReporter;
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.core.model.PeriodDuration;
 
@@ -58,6 +61,8 @@ class S3DryRunPathCleanerTest {
   private HousekeepingPath housekeepingPath;
   private AmazonS3 amazonS3;
   private @Mock BytesDeletedReporter bytesDeletedReporter;
+  private @Mock DryRunSummaryReporter dryRunSummaryReporter;
+  private S3Client s3Client;
 
   private boolean dryRunEnabled = true;
 
@@ -80,7 +85,7 @@ class S3DryRunPathCleanerTest {
         .listObjectsV2(bucket)
         .getObjectSummaries()
         .forEach(object -> amazonS3.deleteObject(bucket, object.getKey()));
-    S3Client s3Client = new S3Client(amazonS3, dryRunEnabled);
+    s3Client = new S3Client(amazonS3, dryRunEnabled);
     s3DryRunPathCleaner = new S3PathCleaner(s3Client, new S3SentinelFilesCleaner(s3Client), bytesDeletedReporter);
     housekeepingPath = HousekeepingPath
         .builder()
@@ -101,6 +106,7 @@ class S3DryRunPathCleanerTest {
 
     assertThat(amazonS3.doesObjectExist(bucket, key1)).isTrue();
     assertThat(amazonS3.doesObjectExist(bucket, key2)).isTrue();
+    assertThat(housekeepingPath.getEstimatedBytes()).isEqualTo(content.getBytes().length * 2L);
   }
 
   @Test
@@ -127,6 +133,40 @@ class S3DryRunPathCleanerTest {
 
     assertThat(amazonS3.doesObjectExist(bucket, key1)).isTrue();
     assertThat(amazonS3.doesObjectExist(bucket, key2)).isTrue();
+    assertThat(housekeepingPath.getEstimatedBytes()).isEqualTo(content.getBytes().length);
+  }
+
+  @Test
+  void directorySummarised() {
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    when(dryRunSummaryReporter.isEnabled()).thenReturn(true);
+    s3DryRunPathCleaner = S3PathCleaner
+        .builder(s3Client, new S3SentinelFilesCleaner(s3Client), bytesDeletedReporter)
+        .dryRunSummaryReporter(dryRunSummaryReporter)
+        .build();
+
+    s3DryRunPathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, key2)).isTrue();
+    verify(dryRunSummaryReporter).reportPath(housekeepingPath, 2, content.getBytes().length * 2L, key1, key2);
+  }
+
+  @Test
+  void fileSummarised() {
+    amazonS3.putObject(bucket, key1, content);
+    when(dryRunSummaryReporter.isEnabled()).thenReturn(true);
+    s3DryRunPathCleaner = S3PathCleaner
+        .builder(s3Client, new S3SentinelFilesCleaner(s3Client), bytesDeletedReporter)
+        .dryRunSummaryReporter(dryRunSummaryReporter)
+        .build();
+    housekeepingPath.setPath("s3://" + bucket + "/" + key1);
+
+    s3DryRunPathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isTrue();
+    verify(dryRunSummaryReporter).reportPath(housekeepingPath, 1, content.getBytes().length, key1, key1);
   }
 
   @Test
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.amazonaws.services.s3.model.ListObjectsV2Result;
+import com.amazonaws.services.s3.model.S3ObjectSummary;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+class S3ParallelListerTest {
+
+  private static final String BUCKET = "bucket";
+  private static final String DIRECTORY = "table/";
+  private static final String CHILD_PREFIX = "table/partition=1/";
+
+  private final S3Client s3Client = mock(S3Client.class);
+  private final ExecutorService listExecutor = Executors.newFixedThreadPool(2);
+
+  @AfterEach
+  void shutdown() {
+    listExecutor.shutdownNow();
+  }
+
+  @Test
+  void childPrefixesListed() {
+    when(s3Client.listObjects(argThat(request -> request != null && DIRECTORY.equals(request.getPrefix()))))
+        .thenReturn(result(CHILD_PREFIX));
+    when(s3Client.listObjects(argThat(request -> request != null && CHILD_PREFIX.equals(request.getPrefix()))))
+        .thenReturn(result(null, CHILD_PREFIX + "file"));
+    List<String> keys = new ArrayList<>();
+
+    new S3ParallelLister(s3Client, listExecutor, 2)
+        .listObjects(BUCKET, DIRECTORY, null, page -> page.forEach(summary -> keys.add(summary.getKey())));
+
+    assertThat(keys).containsExactly(CHILD_PREFIX + "file");
+  }
+
+  @Test
+  void errorInListingTaskFailsListing() {
+    when(s3Client.listObjects(argThat(request -> request != null && DIRECTORY.equals(request.getPrefix()))))
+        .thenReturn(result(CHILD_PREFIX));
+    when(s3Client.listObjects(argThat(request -> request != null && CHILD_PREFIX.equals(request.getPrefix()))))
+        .thenThrow(new AssertionError("listing failed"));
+
+    assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThatExceptionOfType(BeekeeperException.class)
+        .isThrownBy(() -> new S3ParallelLister(s3Client, listExecutor, 2)
+            .listObjects(BUCKET, DIRECTORY, null, page -> {}))
+        .withCauseInstanceOf(AssertionError.class));
+  }
+
+  private ListObjectsV2Result result(String commonPrefix, String... keys) {
+    ListObjectsV2Result result = new ListObjectsV2Result();
+    if (commonPrefix != null) {
+      result.setCommonPrefixes(List.of(commonPrefix));
+    }
+    for (String key : keys) {
+      S3ObjectSummary summary = new S3ObjectSummary();
+      summary.setKey(key);
+      result.getObjectSummaries().add(summary);
+    }
+    return result;
+  }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,8 +21,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatCode;
 import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
@@ -30,13 +35,17 @@ import static org.testcontainers.containers.localstack.LocalStackContainer.Servi
 
 import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.IntStream;
 
 import org.apache.hadoop.fs.s3a.BasicAWSCredentialsProvider;
 import org.junit.Rule;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.testcontainers.containers.localstack.LocalStackContainer;
@@ -51,10 +60,12 @@ import com.amazonaws.services.s3.model.DeleteObjectsRequest;
 import com.amazonaws.services.s3.model.DeleteObjectsResult;
 import com.amazonaws.services.s3.model.ListObjectsV2Request;
 import com.amazonaws.services.s3.model.ListObjectsV2Result;
-import com.amazonaws.services.s3.model.ObjectMetadata;
 import com.amazonaws.services.s3.model.S3ObjectSummary;
 
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunSummaryReporter;
+import com.expediagroup.beekeeper.cleanup.path.DeleteCheckpoint;
+import com.expediagroup.beekeeper.cleanup.path.DeleteCheckpointStore;
 import com.expediagroup.beekeeper.core.config.FileSystemType;
 import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
@@ -105,16 +116,7 @@ class S3PathCleanerTest {
     s3Client = new S3Client(amazonS3, dryRunEnabled);
     s3SentinelFilesCleaner = new S3SentinelFilesCleaner(s3Client);
     s3PathCleaner = new S3PathCleaner(s3Client, s3SentinelFilesCleaner, bytesDeletedReporter);
-    String tableName = "table";
-    String databaseName = "database";
-    housekeepingPath = HousekeepingPath
-        .builder()
-        .path(absolutePath)
-        .tableName(tableName)
-        .databaseName(databaseName)
-        .creationTimestamp(LocalDateTime.now())
-        .cleanupDelay(PeriodDuration.of(Duration.ofDays(1)))
-        .build();
+    housekeepingPath = housekeepingPath(absolutePath);
   }
 
   @Test
@@ -129,6 +131,206 @@ class S3PathCleanerTest {
     verify(bytesDeletedReporter).reportTaggable(content.getBytes().length * 2, housekeepingPath, FileSystemType.S3);
   }
 
+  @Test
+  void directoryWithMultipleListingPages() {
+    int totalObjects = 1100;
+    IntStream.rangeClosed(1, totalObjects)
+        .parallel()
+        .forEach(i -> amazonS3.putObject(bucket, keyRoot + "/file" + i, content));
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.listObjectsV2(bucket, keyRootAsDirectory).getObjectSummaries()).isEmpty();
+    verify(bytesDeletedReporter)
+        .reportTaggable(content.getBytes().length * (long) totalObjects, housekeepingPath, FileSystemType.S3);
+  }
+
+  @Test
+  void directoryWithMultipleListingPagesWithRequestPool() {
+    int totalObjects = 2100;
+    IntStream.rangeClosed(1, totalObjects)
+        .parallel()
+        .forEach(i -> amazonS3.putObject(bucket, keyRoot + "/file" + i, content));
+    s3Client = S3Client.builder(amazonS3).deleteConcurrency(2).requestPoolThreads(4).build();
+    s3PathCleaner = new S3PathCleaner(s3Client, s3SentinelFilesCleaner, bytesDeletedReporter);
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.listObjectsV2(bucket, keyRootAsDirectory).getObjectSummaries()).isEmpty();
+    verify(bytesDeletedReporter)
+        .reportTaggable(content.getBytes().length * (long) totalObjects, housekeepingPath, FileSystemType.S3);
+    s3Client.close();
+  }
+
+  @Test
+  void smallPathsDeletedWithSharedDeleteRequest() {
+    String key3 = "table/id1/partition_2/file3";
+    String fileKey = "table/id1/partition_3/file4";
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    amazonS3.putObject(bucket, key3, content);
+    amazonS3.putObject(bucket, fileKey, content);
+    HousekeepingPath directoryPath = housekeepingPath("s3://" + bucket + "/table/id1/partition_2");
+    HousekeepingPath filePath = housekeepingPath("s3://" + bucket + "/" + fileKey);
+    AmazonS3 amazonS3Spy = spy(amazonS3);
+    s3Client = new S3Client(amazonS3Spy, false);
+    s3PathCleaner = S3PathCleaner
+        .builder(s3Client, s3SentinelFilesCleaner, bytesDeletedReporter)
+        .deleteCoalescingEnabled(true)
+        .build();
+    List<HousekeepingPath> cleanedUpPaths = new ArrayList<>();
+
+    s3PathCleaner.cleanupPaths(List.of(housekeepingPath, directoryPath, filePath), (path, failure) -> {
+      assertThat(failure).isNull();
+      cleanedUpPaths.add(path);
+    });
+
+    assertThat(cleanedUpPaths).containsExactly(housekeepingPath, directoryPath, filePath);
+    assertThat(amazonS3.listObjectsV2(bucket, "table/").getObjectSummaries()).isEmpty();
+    verify(amazonS3Spy, times(1)).deleteObjects(any(DeleteObjectsRequest.class));
+    long bytes = content.getBytes().length;
+    verify(bytesDeletedReporter).reportTaggable(bytes * 2, housekeepingPath, FileSystemType.S3);
+    verify(bytesDeletedReporter).reportTaggable(bytes, directoryPath, FileSystemType.S3);
+    verify(bytesDeletedReporter).reportTaggable(bytes, filePath, FileSystemType.S3);
+  }
+
+  @Test
+  void smallPathsSummarisedWithoutDeleteRequestDuringDryRun() {
+    String fileKey = "table/id1/partition_3/file4";
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    amazonS3.putObject(bucket, fileKey, content);
+    HousekeepingPath filePath = housekeepingPath("s3://" + bucket + "/" + fileKey);
+    S3Client s3ClientSpy = spy(new S3Client(amazonS3, true));
+    DryRunSummaryReporter dryRunSummaryReporter = mock(DryRunSummaryReporter.class);
+    when(dryRunSummaryReporter.isEnabled()).thenReturn(true);
+    s3PathCleaner = S3PathCleaner
+        .builder(s3ClientSpy, s3SentinelFilesCleaner, bytesDeletedReporter)
+        .deleteCoalescingEnabled(true)
+        .dryRunSummaryReporter(dryRunSummaryReporter)
+        .build();
+    List<HousekeepingPath> cleanedUpPaths = new ArrayList<>();
+
+    s3PathCleaner.cleanupPaths(List.of(housekeepingPath, filePath), (path, failure) -> {
+      assertThat(failure).isNull();
+      cleanedUpPaths.add(path);
+    });
+
+    assertThat(cleanedUpPaths).containsExactly(housekeepingPath, filePath);
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, fileKey)).isTrue();
+    verify(s3ClientSpy, never()).deleteObjects(any(), any());
+    long bytes = content.getBytes().length;
+    verify(dryRunSummaryReporter).reportPath(housekeepingPath, 2, bytes * 2, key1, key2);
+    verify(dryRunSummaryReporter).reportPath(filePath, 1, bytes, fileKey, fileKey);
+  }
+
+  @Test
+  void siblingsSortedBeforeDirectoryNotListed() {
+    String siblingKey = keyRoot + ".bak/file";
+    IntStream.rangeClosed(1, 1100)
+        .parallel()
+        .forEach(i -> amazonS3.putObject(bucket, siblingKey + i, content));
+    amazonS3.putObject(bucket, key1, content);
+    AmazonS3 amazonS3Spy = spy(amazonS3);
+    s3Client = new S3Client(amazonS3Spy, false);
+    s3PathCleaner = new S3PathCleaner(s3Client, s3SentinelFilesCleaner, bytesDeletedReporter);
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, siblingKey + 1100)).isTrue();
+    ArgumentCaptor<ListObjectsV2Request> requests = ArgumentCaptor.forClass(ListObjectsV2Request.class);
+    verify(amazonS3Spy, atLeastOnce()).listObjectsV2(requests.capture());
+    assertThat(requests.getAllValues())
+        .extracting(ListObjectsV2Request::getPrefix)
+        .containsSubsequence(keyRoot, keyRootAsDirectory)
+        .containsOnlyOnce(keyRoot);
+    verify(bytesDeletedReporter).reportTaggable(content.getBytes().length, housekeepingPath, FileSystemType.S3);
+  }
+
+  @Test
+  void directoryListedInParallel() {
+    int partitions = 4;
+    int objectsPerPartition = 300;
+    IntStream.range(0, partitions * objectsPerPartition)
+        .parallel()
+        .forEach(i -> amazonS3
+            .putObject(bucket, keyRoot + "/partition_" + (i % partitions) + "/file" + (i / partitions), content));
+    s3Client = S3Client.builder(amazonS3).listConcurrency(3).build();
+    s3PathCleaner = new S3PathCleaner(s3Client, s3SentinelFilesCleaner, bytesDeletedReporter);
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.listObjectsV2(bucket, keyRootAsDirectory).getObjectSummaries()).isEmpty();
+    verify(bytesDeletedReporter)
+        .reportTaggable(content.getBytes().length * (long) partitions * objectsPerPartition, housekeepingPath,
+            FileSystemType.S3);
+    s3Client.close();
+  }
+
+  @Test
+  void directoryDeletionResumedFromCheckpoint() {
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    DeleteCheckpointStore checkpointStore = mock(DeleteCheckpointStore.class);
+    when(checkpointStore.find(housekeepingPath)).thenReturn(Optional.of(new DeleteCheckpoint(key1, 10, 100)));
+    s3PathCleaner = S3PathCleaner
+        .builder(s3Client, s3SentinelFilesCleaner, bytesDeletedReporter)
+        .checkpointStore(checkpointStore)
+        .checkpointIntervalObjects(1)
+        .build();
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, key2)).isFalse();
+    verify(bytesDeletedReporter).reportTaggable(content.getBytes().length, housekeepingPath, FileSystemType.S3);
+    verify(checkpointStore).clear(housekeepingPath);
+  }
+
+  @Test
+  void checkpointsStoredWhileDirectoryIsDeleted() {
+    int totalObjects = 1100;
+    IntStream.rangeClosed(1, totalObjects)
+        .parallel()
+        .forEach(i -> amazonS3.putObject(bucket, keyRoot + "/file" + i, content));
+    DeleteCheckpointStore checkpointStore = mock(DeleteCheckpointStore.class);
+    when(checkpointStore.find(housekeepingPath)).thenReturn(Optional.empty());
+    s3PathCleaner = S3PathCleaner
+        .builder(s3Client, s3SentinelFilesCleaner, bytesDeletedReporter)
+        .checkpointStore(checkpointStore)
+        .checkpointIntervalObjects(1000)
+        .build();
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.listObjectsV2(bucket, keyRootAsDirectory).getObjectSummaries()).isEmpty();
+    ArgumentCaptor<DeleteCheckpoint> checkpoint = ArgumentCaptor.forClass(DeleteCheckpoint.class);
+    verify(checkpointStore).save(eq(housekeepingPath), checkpoint.capture());
+    assertThat(checkpoint.getValue().getObjectsDeleted()).isEqualTo(1000L);
+    assertThat(checkpoint.getValue().getBytesDeleted()).isEqualTo(content.getBytes().length * 1000L);
+    verify(checkpointStore).clear(housekeepingPath);
+  }
+
+  @Test
+  void noCheckpointsStoredForSmallDirectory() {
+    amazonS3.putObject(bucket, key1, content);
+    DeleteCheckpointStore checkpointStore = mock(DeleteCheckpointStore.class);
+    when(checkpointStore.find(housekeepingPath)).thenReturn(Optional.empty());
+    s3PathCleaner = S3PathCleaner
+        .builder(s3Client, s3SentinelFilesCleaner, bytesDeletedReporter)
+        .checkpointStore(checkpointStore)
+        .checkpointIntervalObjects(1000)
+        .build();
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isFalse();
+    verify(checkpointStore, never()).save(any(), any());
+    verify(checkpointStore, never()).clear(any());
+  }
+
   @Test
   void directoryWithSpace() {
     String directoryPath = absolutePath + "/ /";
@@ -168,6 +370,42 @@ class S3PathCleanerTest {
     verify(bytesDeletedReporter).reportTaggable(content.getBytes().length, housekeepingPath, FileSystemType.S3);
   }
 
+  @Test
+  void fileSizeIsTakenFromListing() {
+    S3Client mockS3Client = mock(S3Client.class);
+    s3PathCleaner = new S3PathCleaner(mockS3Client, s3SentinelFilesCleaner, bytesDeletedReporter);
+    mockFileListing(mockS3Client, key1, 10L);
+
+    housekeepingPath.setPath(absolutePath + "/file1");
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    verify(mockS3Client).deleteObject(bucket, key1);
+    verify(mockS3Client, never()).doesObjectExist(any(), any());
+    verify(mockS3Client, never()).getObjectMetadata(any(), any());
+    verify(bytesDeletedReporter).reportTaggable(10L, housekeepingPath, FileSystemType.S3);
+  }
+
+  @Test
+  void directoryWithSiblingsSharingItsPrefix() {
+    String siblingFile = "table/id1/partition_1.tmp";
+    String siblingDirectoryFile = "table/id1/partition_1-copy/file1";
+    String laterSiblingFile = "table/id1/partition_10/file1";
+    amazonS3.putObject(bucket, siblingFile, content);
+    amazonS3.putObject(bucket, siblingDirectoryFile, content);
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    amazonS3.putObject(bucket, laterSiblingFile, content);
+
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, key2)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, siblingFile)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, siblingDirectoryFile)).isTrue();
+    assertThat(amazonS3.doesObjectExist(bucket, laterSiblingFile)).isTrue();
+    verify(bytesDeletedReporter).reportTaggable(content.getBytes().length * 2, housekeepingPath, FileSystemType.S3);
+  }
+
   @Test
   void typicalWithSentinelFile() {
     amazonS3.putObject(bucket, partition1Sentinel, "");
@@ -222,6 +460,30 @@ class S3PathCleanerTest {
     assertThat(amazonS3.doesObjectExist(bucket, tableSentinelFile)).isTrue();
   }
 
+  @Test
+  void typicalWithParentSentinelFilesDeletedInBatch() {
+    String parentSentinelFile = "table/id1_$folder$";
+    String tableSentinelFile = "table_$folder$";
+    amazonS3.putObject(bucket, key1, content);
+    amazonS3.putObject(bucket, key2, content);
+    amazonS3.putObject(bucket, partition1Sentinel, "");
+    amazonS3.putObject(bucket, parentSentinelFile, "");
+    amazonS3.putObject(bucket, tableSentinelFile, "");
+
+    s3PathCleaner = S3PathCleaner
+        .builder(s3Client, s3SentinelFilesCleaner, bytesDeletedReporter)
+        .batchSentinelCleanupEnabled(true)
+        .build();
+    housekeepingPath.setPath(absolutePath + "/");
+    s3PathCleaner.cleanupPath(housekeepingPath);
+
+    assertThat(amazonS3.doesObjectExist(bucket, key1)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, key2)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, partition1Sentinel)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, parentSentinelFile)).isFalse();
+    assertThat(amazonS3.doesObjectExist(bucket, tableSentinelFile)).isTrue();
+  }
+
   @Test
   void deleteTable() {
     String parentSentinelFile = "table/id1_$folder$";
@@ -323,10 +585,7 @@ class S3PathCleanerTest {
   void noBytesDeletedMetricWhenFileDeletionFails() {
     S3Client mockS3Client = mock(S3Client.class);
     s3PathCleaner = new S3PathCleaner(mockS3Client, s3SentinelFilesCleaner, bytesDeletedReporter);
-    when(mockS3Client.doesObjectExist(bucket, key1)).thenReturn(true);
-    ObjectMetadata objectMetadata = new ObjectMetadata();
-    objectMetadata.setContentLength(10);
-    when(mockS3Client.getObjectMetadata(bucket, key1)).thenReturn(objectMetadata);
+    mockFileListing(mockS3Client, key1, 10L);
     doThrow(AmazonServiceException.class).when(mockS3Client).deleteObject(bucket, key1);
 
     housekeepingPath.setPath(absolutePath + "/file1");
@@ -339,7 +598,7 @@ class S3PathCleanerTest {
   void noBytesDeletedMetricWhenDirectoryDeletionFails() {
     S3Client mockS3Client = mock(S3Client.class);
     s3PathCleaner = new S3PathCleaner(mockS3Client, s3SentinelFilesCleaner, bytesDeletedReporter);
-    doThrow(AmazonServiceException.class).when(mockS3Client).listObjects(bucket, keyRootAsDirectory);
+    doThrow(AmazonServiceException.class).when(mockS3Client).listObjectsPage(bucket, keyRoot, null);
 
     assertThatExceptionOfType(AmazonServiceException.class)
         .isThrownBy(() -> s3PathCleaner.cleanupPath(housekeepingPath));
@@ -354,7 +613,28 @@ class S3PathCleanerTest {
     s3PathCleaner = new S3PathCleaner(mockS3Client, s3SentinelFilesCleaner, bytesDeletedReporter);
     assertThatExceptionOfType(BeekeeperException.class)
         .isThrownBy(() -> s3PathCleaner.cleanupPath(housekeepingPath))
-        .withMessage(format("Not all files could be deleted at path \"%s/%s\"; deleted 1/2 objects. "
+        .withMessage(format("Not all files could be deleted at path \"%s/%s\"; deleted 1/2 objects, 1 remaining. "
+            + "Objects not deleted: 'table/id1/partition_1/file2'.", bucket, keyRootAsDirectory));
+    verify(bytesDeletedReporter).reportTaggable(100L, housekeepingPath, FileSystemType.S3);
+  }
+
+  @Test
+  void reportBytesDeletedWhenSharedDeleteRequestPartiallyFails() {
+    AmazonS3 mockAmazonS3 = mock(AmazonS3.class);
+    S3Client mockS3Client = new S3Client(mockAmazonS3, false);
+    mockOneOutOfTwoObjectsDeleted(mockAmazonS3);
+    s3PathCleaner = S3PathCleaner
+        .builder(mockS3Client, s3SentinelFilesCleaner, bytesDeletedReporter)
+        .deleteCoalescingEnabled(true)
+        .build();
+    List<Exception> failures = new ArrayList<>();
+
+    s3PathCleaner.cleanupPaths(List.of(housekeepingPath), (path, failure) -> failures.add(failure));
+
+    assertThat(failures).hasSize(1);
+    assertThat(failures.get(0))
+        .isInstanceOf(BeekeeperException.class)
+        .hasMessage(format("Not all files could be deleted at path \"%s/%s\"; deleted 1/2 objects, 1 remaining. "
             + "Objects not deleted: 'table/id1/partition_1/file2'.", bucket, keyRootAsDirectory));
     verify(bytesDeletedReporter).reportTaggable(100L, housekeepingPath, FileSystemType.S3);
   }
@@ -368,6 +648,16 @@ class S3PathCleanerTest {
         .withMessage(format("'%s' is not an S3 path.", path));
   }
 
+  private void mockFileListing(S3Client mockS3Client, String key, long size) {
+    S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
+    s3ObjectSummary.setBucketName(bucket);
+    s3ObjectSummary.setKey(key);
+    s3ObjectSummary.setSize(size);
+    ListObjectsV2Result listObjectsV2Result = new ListObjectsV2Result();
+    listObjectsV2Result.getObjectSummaries().add(s3ObjectSummary);
+    when(mockS3Client.listObjectsPage(bucket, key, null)).thenReturn(listObjectsV2Result);
+  }
+
   private void mockOneOutOfTwoObjectsDeleted(AmazonS3 mockAmazonS3) {
     S3ObjectSummary s3ObjectSummary = new S3ObjectSummary();
     s3ObjectSummary.setBucketName(bucket);
@@ -385,4 +675,15 @@ class S3PathCleanerTest {
     when(mockAmazonS3.deleteObjects(any(DeleteObjectsRequest.class)))
         .thenReturn(new DeleteObjectsResult(List.of(deletedObject)));
   }
+
+  private HousekeepingPath housekeepingPath(String path) {
+    return HousekeepingPath
+        .builder()
+        .path(path)
+        .tableName("table")
+        .databaseName("database")
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(PeriodDuration.of(Duration.ofDays(1)))
+        .build();
+  }
 }
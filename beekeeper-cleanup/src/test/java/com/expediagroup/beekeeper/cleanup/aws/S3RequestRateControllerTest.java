@@ -0,0 +1,226 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.aws;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.amazonaws.AmazonServiceException;
+import com.amazonaws.handlers.HandlerAfterAttemptContext;
+import com.amazonaws.handlers.RequestHandler2;
+import com.amazonaws.services.s3.model.AmazonS3Exception;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException;
+import com.amazonaws.services.s3.model.MultiObjectDeleteException.DeleteError;
+
+class S3RequestRateControllerTest {
+
+  private static final String BUCKET = "bucket";
+  private static final String KEY = "table/partition_1/file1";
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private MeterRegistry meterRegistry;
+  private S3RequestRateController rateController;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    rateController = new S3RequestRateController(meterRegistry, 100, 125, 0, nanoTime::get);
+  }
+
+  @Test
+  void typical() {
+    String result = rateController.execute(BUCKET, KEY, () -> "result");
+
+    assertThat(result).isEqualTo("result");
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(100);
+    assertThat(meterRegistry.get(S3RequestRateController.METRIC_NAME).tag("bucket", BUCKET).gauge().value())
+        .isEqualTo(100);
+  }
+
+  @Test
+  void rateIncreasesAdditivelyUpToMaxRate() {
+    for (int second = 1; second <= 4; second++) {
+      nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+      rateController.execute(BUCKET, KEY, () -> "result");
+      rateController.execute(BUCKET, KEY, () -> "result");
+    }
+
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(125);
+  }
+
+  @Test
+  void rateDecreasesMultiplicativelyOnSlowDown() {
+    assertThatExceptionOfType(AmazonS3Exception.class)
+        .isThrownBy(() -> rateController.execute(BUCKET, KEY, this::slowDown));
+
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(50);
+    assertThat(meterRegistry.get(S3RequestRateController.METRIC_NAME).gauge().value()).isEqualTo(50);
+  }
+
+  @Test
+  void rateDecreasesOncePerInterval() {
+    for (int i = 0; i < 3; i++) {
+      assertThatExceptionOfType(AmazonS3Exception.class)
+          .isThrownBy(() -> rateController.execute(BUCKET, KEY, this::slowDown));
+    }
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(50);
+
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    assertThatExceptionOfType(AmazonS3Exception.class)
+        .isThrownBy(() -> rateController.execute(BUCKET, KEY, this::slowDown));
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(25);
+  }
+
+  @Test
+  void rateDoesNotIncreaseRightAfterSlowDown() {
+    assertThatExceptionOfType(AmazonS3Exception.class)
+        .isThrownBy(() -> rateController.execute(BUCKET, KEY, this::slowDown));
+    rateController.execute(BUCKET, KEY, () -> "result");
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(50);
+
+    nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+    rateController.execute(BUCKET, KEY, () -> "result");
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(60);
+  }
+
+  @Test
+  void slowDownForDeletedKeys() {
+    DeleteError deleteError = new DeleteError();
+    deleteError.setKey(KEY);
+    deleteError.setCode("SlowDown");
+    MultiObjectDeleteException exception = new MultiObjectDeleteException(List.of(deleteError), List.of());
+
+    assertThatExceptionOfType(MultiObjectDeleteException.class)
+        .isThrownBy(() -> rateController.execute(BUCKET, KEY, () -> {
+          throw exception;
+        }));
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(50);
+  }
+
+  @Test
+  void otherErrorsDoNotChangeRate() {
+    assertThatExceptionOfType(AmazonServiceException.class)
+        .isThrownBy(() -> rateController.execute(BUCKET, KEY, () -> {
+          throw new AmazonServiceException("Access Denied");
+        }));
+
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(100);
+  }
+
+  @Test
+  void budgetPerPrefix() {
+    rateController = new S3RequestRateController(meterRegistry, 100, 125, 1, nanoTime::get);
+    String otherTableKey = "other_table/partition_1/file1";
+
+    assertThatExceptionOfType(AmazonS3Exception.class)
+        .isThrownBy(() -> rateController.execute(BUCKET, KEY, this::slowDown));
+    rateController.execute(BUCKET, otherTableKey, () -> "result");
+
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(50);
+    assertThat(rateController.getRate(BUCKET, "table/partition_2/file1")).isEqualTo(50);
+    assertThat(rateController.getRate(BUCKET, otherTableKey)).isEqualTo(100);
+    assertThat(meterRegistry.get(S3RequestRateController.METRIC_NAME).gauges()).hasSize(1);
+    assertThat(meterRegistry.get(S3RequestRateController.METRIC_NAME).tag("bucket", BUCKET).gauge().value())
+        .isEqualTo(50);
+  }
+
+  @Test
+  void unusedBudgetExpires() {
+    rateController = new S3RequestRateController(meterRegistry, 100, 125, 1, nanoTime::get);
+    String otherTableKey = "other_table/partition_1/file1";
+
+    assertThatExceptionOfType(AmazonS3Exception.class)
+        .isThrownBy(() -> rateController.execute(BUCKET, KEY, this::slowDown));
+    nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(5));
+    rateController.execute(BUCKET, otherTableKey, () -> "result");
+    assertThat(meterRegistry.get(S3RequestRateController.METRIC_NAME).gauge().value()).isEqualTo(50);
+
+    nanoTime.addAndGet(TimeUnit.MINUTES.toNanos(6));
+    assertThat(meterRegistry.get(S3RequestRateController.METRIC_NAME).gauge().value()).isEqualTo(100);
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(100);
+    assertThat(rateController.getRate(BUCKET, otherTableKey)).isEqualTo(100);
+  }
+
+  @Test
+  void lowestRateFollowsRateChanges() {
+    rateController = new S3RequestRateController(meterRegistry, 100, 125, 1, nanoTime::get);
+    String otherTableKey = "other_table/partition_1/file1";
+
+    rateController.execute(BUCKET, otherTableKey, () -> "result");
+    assertThatExceptionOfType(AmazonS3Exception.class)
+        .isThrownBy(() -> rateController.execute(BUCKET, KEY, this::slowDown));
+    assertThat(meterRegistry.get(S3RequestRateController.METRIC_NAME).gauge().value()).isEqualTo(50);
+
+    for (int second = 1; second <= 6; second++) {
+      nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+      rateController.execute(BUCKET, KEY, () -> "result");
+    }
+    assertThat(meterRegistry.get(S3RequestRateController.METRIC_NAME).gauge().value()).isEqualTo(100);
+  }
+
+  @Test
+  void slowDownOfRetriedAttempt() {
+    RequestHandler2 requestHandler = rateController.requestHandler();
+
+    String result = rateController.execute(BUCKET, KEY, () -> {
+      requestHandler.afterAttempt(HandlerAfterAttemptContext.builder().withException(slowDownException()).build());
+      return "result";
+    });
+
+    assertThat(result).isEqualTo("result");
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(50);
+  }
+
+  @Test
+  void attemptOutsideOfControlledRequest() {
+    rateController.execute(BUCKET, KEY, () -> "result");
+
+    rateController.requestHandler()
+        .afterAttempt(HandlerAfterAttemptContext.builder().withException(slowDownException()).build());
+
+    assertThat(rateController.getRate(BUCKET, KEY)).isEqualTo(100);
+  }
+
+  @Test
+  void disabled() {
+    rateController = S3RequestRateController.disabled();
+
+    assertThatExceptionOfType(AmazonS3Exception.class)
+        .isThrownBy(() -> rateController.execute(BUCKET, KEY, this::slowDown));
+    assertThat(rateController.execute(BUCKET, KEY, () -> "result")).isEqualTo("result");
+  }
+
+  private String slowDown() {
+    throw slowDownException();
+  }
+
+  private AmazonS3Exception slowDownException() {
+    AmazonS3Exception exception = new AmazonS3Exception("Please reduce your request rate.");
+    exception.setStatusCode(503);
+    exception.setErrorCode("SlowDown");
+    return exception;
+  }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2024 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -27,6 +27,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import com.expediagroup.beekeeper.cleanup.metadata.TablePropertiesCache;
 import com.expediagroup.beekeeper.cleanup.monitoring.DeletedMetadataReporter;
 import com.expediagroup.beekeeper.cleanup.validation.IcebergValidator;
 import com.expediagroup.beekeeper.core.config.MetadataType;
@@ -40,6 +41,7 @@ public class HiveMetadataCleanerTest {
   private @Mock DeletedMetadataReporter deletedMetadataReporter;
   private @Mock HiveClient hiveClient;
   private @Mock IcebergValidator icebergValidator;
+  private @Mock TablePropertiesCache tablePropertiesCache;
 
   private HiveMetadataCleaner cleaner;
   private static final String DATABASE = "database";
@@ -58,11 +60,23 @@ public class HiveMetadataCleanerTest {
 
     cleaner.dropTable(housekeepingMetadata, hiveClient);
 
-    verify(icebergValidator).throwExceptionIfIceberg(DATABASE, TABLE_NAME);
+    verify(icebergValidator).throwExceptionIfIceberg(DATABASE, TABLE_NAME, hiveClient);
     verify(hiveClient).dropTable(DATABASE, TABLE_NAME);
     verify(deletedMetadataReporter).reportTaggable(housekeepingMetadata, MetadataType.HIVE_TABLE);
   }
 
+  @Test
+  public void dropTableInvalidatesTableProperties() {
+    cleaner = new HiveMetadataCleaner(deletedMetadataReporter, icebergValidator, tablePropertiesCache);
+    when(housekeepingMetadata.getDatabaseName()).thenReturn(DATABASE);
+    when(housekeepingMetadata.getTableName()).thenReturn(TABLE_NAME);
+
+    cleaner.dropTable(housekeepingMetadata, hiveClient);
+
+    verify(hiveClient).dropTable(DATABASE, TABLE_NAME);
+    verify(tablePropertiesCache).invalidate(DATABASE, TABLE_NAME);
+  }
+
   @Test
   public void typicalDropPartition() {
     when(housekeepingMetadata.getDatabaseName()).thenReturn(DATABASE);
@@ -72,7 +86,7 @@ public class HiveMetadataCleanerTest {
 
     cleaner.dropPartition(housekeepingMetadata, hiveClient);
 
-    verify(icebergValidator).throwExceptionIfIceberg(DATABASE, TABLE_NAME);
+    verify(icebergValidator).throwExceptionIfIceberg(DATABASE, TABLE_NAME, hiveClient);
     verify(hiveClient).dropPartition(DATABASE, TABLE_NAME, PARTITION_NAME);
     verify(deletedMetadataReporter).reportTaggable(housekeepingMetadata, MetadataType.HIVE_PARTITION);
   }
@@ -99,7 +113,7 @@ public class HiveMetadataCleanerTest {
     when(housekeepingMetadata.getDatabaseName()).thenReturn(DATABASE);
     when(housekeepingMetadata.getTableName()).thenReturn(TABLE_NAME);
     doThrow(new BeekeeperIcebergException("Iceberg table"))
-        .when(icebergValidator).throwExceptionIfIceberg(DATABASE, TABLE_NAME);
+        .when(icebergValidator).throwExceptionIfIceberg(DATABASE, TABLE_NAME, hiveClient);
 
     assertThrows(
         BeekeeperIcebergException.class,
@@ -115,7 +129,7 @@ public class HiveMetadataCleanerTest {
     when(housekeepingMetadata.getDatabaseName()).thenReturn(DATABASE);
     when(housekeepingMetadata.getTableName()).thenReturn(TABLE_NAME);
     doThrow(new BeekeeperIcebergException("Iceberg table"))
-        .when(icebergValidator).throwExceptionIfIceberg(DATABASE, TABLE_NAME);
+        .when(icebergValidator).throwExceptionIfIceberg(DATABASE, TABLE_NAME, hiveClient);
 
     assertThrows(
         BeekeeperIcebergException.class,
@@ -0,0 +1,144 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.metadata;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.google.common.base.Ticker;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+@ExtendWith(MockitoExtension.class)
+public class TablePropertiesCacheTest {
+
+  private static final String DATABASE = "database";
+  private static final String TABLE_NAME = "table";
+  private static final Map<String, String> PROPERTIES = Map.of("beekeeper.remove.expired.data", "true");
+
+  private final AtomicLong nanos = new AtomicLong();
+  private final Ticker ticker = new Ticker() {
+    @Override
+    public long read() {
+      return nanos.get();
+    }
+  };
+
+  private @Mock CleanerClientFactory cleanerClientFactory;
+  private @Mock CleanerClient cleanerClient;
+
+  @Test
+  public void tablePropertiesFetchedOnce() throws Exception {
+    givenTableProperties();
+    TablePropertiesCache cache = new TablePropertiesCache(cleanerClientFactory, 10, Duration.ofMinutes(10), ticker);
+
+    for (int i = 0; i < 100; i++) {
+      assertThat(cache.getTableProperties(DATABASE, TABLE_NAME)).isEqualTo(PROPERTIES);
+    }
+
+    verify(cleanerClient).getTableProperties(DATABASE, TABLE_NAME);
+    verify(cleanerClient).close();
+  }
+
+  @Test
+  public void tablePropertiesFetchedWithHeldClient() {
+    when(cleanerClient.getTableProperties(DATABASE, TABLE_NAME)).thenReturn(PROPERTIES);
+    TablePropertiesCache cache = new TablePropertiesCache(cleanerClientFactory, 10, Duration.ofMinutes(10), ticker);
+
+    assertThat(cache.getTableProperties(DATABASE, TABLE_NAME, cleanerClient)).isEqualTo(PROPERTIES);
+    assertThat(cache.getTableProperties(DATABASE, TABLE_NAME)).isEqualTo(PROPERTIES);
+
+    verify(cleanerClient).getTableProperties(DATABASE, TABLE_NAME);
+    verifyNoInteractions(cleanerClientFactory);
+  }
+
+  @Test
+  public void expiredTablePropertiesFetchedAgain() {
+    givenTableProperties();
+    TablePropertiesCache cache = new TablePropertiesCache(cleanerClientFactory, 10, Duration.ofMinutes(10), ticker);
+
+    cache.getTableProperties(DATABASE, TABLE_NAME);
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(9));
+    cache.getTableProperties(DATABASE, TABLE_NAME);
+    verify(cleanerClient).getTableProperties(DATABASE, TABLE_NAME);
+
+    nanos.addAndGet(TimeUnit.MINUTES.toNanos(2));
+    cache.getTableProperties(DATABASE, TABLE_NAME);
+    verify(cleanerClient, times(2)).getTableProperties(DATABASE, TABLE_NAME);
+  }
+
+  @Test
+  public void invalidatedTablePropertiesFetchedAgain() {
+    givenTableProperties();
+    TablePropertiesCache cache = new TablePropertiesCache(cleanerClientFactory, 10, Duration.ofMinutes(10), ticker);
+
+    cache.getTableProperties(DATABASE, TABLE_NAME);
+    cache.invalidate(DATABASE, TABLE_NAME);
+    cache.getTableProperties(DATABASE, TABLE_NAME);
+
+    verify(cleanerClient, times(2)).getTableProperties(DATABASE, TABLE_NAME);
+  }
+
+  @Test
+  public void uncachedTablePropertiesFetchedEveryTime() {
+    givenTableProperties();
+    TablePropertiesCache cache = TablePropertiesCache.uncached(cleanerClientFactory);
+
+    cache.getTableProperties(DATABASE, TABLE_NAME);
+    cache.getTableProperties(DATABASE, TABLE_NAME);
+
+    verify(cleanerClient, times(2)).getTableProperties(DATABASE, TABLE_NAME);
+  }
+
+  @Test
+  public void failureIsNotCached() {
+    TablePropertiesCache cache = new TablePropertiesCache(cleanerClientFactory, 10, Duration.ofMinutes(10), ticker);
+    when(cleanerClientFactory.newInstance()).thenReturn(cleanerClient);
+    when(cleanerClient.getTableProperties(DATABASE, TABLE_NAME))
+        .thenThrow(new BeekeeperException("error"))
+        .thenReturn(PROPERTIES);
+
+    assertThrows(BeekeeperException.class, () -> cache.getTableProperties(DATABASE, TABLE_NAME));
+    assertThat(cache.getTableProperties(DATABASE, TABLE_NAME)).isEqualTo(PROPERTIES);
+  }
+
+  @Test
+  public void invalidCache() {
+    assertThrows(BeekeeperException.class,
+        () -> new TablePropertiesCache(cleanerClientFactory, -1, Duration.ofMinutes(10)));
+    assertThrows(BeekeeperException.class,
+        () -> new TablePropertiesCache(cleanerClientFactory, 10, Duration.ofMinutes(-10)));
+  }
+
+  private void givenTableProperties() {
+    when(cleanerClientFactory.newInstance()).thenReturn(cleanerClient);
+    when(cleanerClient.getTableProperties(DATABASE, TABLE_NAME)).thenReturn(PROPERTIES);
+  }
+}
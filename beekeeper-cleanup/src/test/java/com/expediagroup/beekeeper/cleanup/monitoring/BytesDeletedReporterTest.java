@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2020 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -78,6 +78,14 @@ public class BytesDeletedReporterTest {
         .containsExactly((double) BYTES_DELETED * 2);
   }
 
+  @Test
+  public void totalBytesDeleted() {
+    bytesDeletedReporter.reportTaggable(BYTES_DELETED, taggable, FileSystemType.S3);
+    bytesDeletedReporter.reportTaggable(BYTES_DELETED, taggable, FileSystemType.S3);
+
+    assertThat(bytesDeletedReporter.getTotalBytesDeleted()).isEqualTo(BYTES_DELETED * 2);
+  }
+
   @Test
   public void typicalDryRun() {
     bytesDeletedReporter = new BytesDeletedReporter(meterRegistry, true);
@@ -0,0 +1,84 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.monitoring;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static com.expediagroup.beekeeper.cleanup.monitoring.DryRunSummaryReporter.REPORT_HEADER;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.core.model.PeriodDuration;
+
+class DryRunSummaryReporterTest {
+
+  private @TempDir Path tempDir;
+
+  @Test
+  void disabled() {
+    assertThat(DryRunSummaryReporter.disabled().isEnabled()).isFalse();
+    assertThat(new DryRunSummaryReporter("").isEnabled()).isTrue();
+  }
+
+  @Test
+  void reportFile() throws IOException {
+    Path reportFile = tempDir.resolve("report.csv");
+    DryRunSummaryReporter reporter = new DryRunSummaryReporter(reportFile.toString());
+
+    reporter.reportPath(housekeepingPath("table1", "s3://bucket/table1/p=1"), 2, 20, "table1/p=1/a", "table1/p=1/b");
+    reporter.reportPath(housekeepingPath("table1", "s3://bucket/table1/p=2"), 1, 5, "table1/p=2/a", "table1/p=2/a");
+    reporter.reportPath(housekeepingPath("table2", "s3://bucket/table2/p,3"), 0, 0, null, null);
+    reporter.reportTables();
+
+    assertThat(Files.readAllLines(reportFile)).containsExactly(
+        REPORT_HEADER,
+        "path,database,table1,s3://bucket/table1/p=1,2,20,table1/p=1/a,table1/p=1/b",
+        "path,database,table1,s3://bucket/table1/p=2,1,5,table1/p=2/a,table1/p=2/a",
+        "path,database,table2,\"s3://bucket/table2/p,3\",0,0,,",
+        "table,database,table1,,3,25,table1/p=1/a,table1/p=2/a",
+        "table,database,table2,,0,0,,");
+  }
+
+  @Test
+  void tablesAreForgottenOnceReported() throws IOException {
+    Path reportFile = tempDir.resolve("report.csv");
+    DryRunSummaryReporter reporter = new DryRunSummaryReporter(reportFile.toString());
+
+    reporter.reportPath(housekeepingPath("table1", "s3://bucket/table1/p=1"), 2, 20, "table1/p=1/a", "table1/p=1/b");
+    reporter.reportTables();
+    reporter.reportTables();
+
+    assertThat(Files.readAllLines(reportFile)).hasSize(3);
+  }
+
+  private HousekeepingPath housekeepingPath(String tableName, String path) {
+    return HousekeepingPath.builder()
+        .databaseName("database")
+        .tableName(tableName)
+        .path(path)
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(PeriodDuration.of(Duration.ofDays(1)))
+        .build();
+  }
+}
@@ -0,0 +1,94 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+@ExtendWith(MockitoExtension.class)
+public class CleanupBudgetTest {
+
+  private static final Instant START = Instant.parse("2020-01-01T00:00:00Z");
+
+  private final AtomicLong bytesDeleted = new AtomicLong(100);
+  private @Mock Clock clock;
+
+  @Test
+  public void unlimited() {
+    CleanupBudget.Cycle cycle = CleanupBudget.unlimited().startCycle();
+    cycle.addRecords(Integer.MAX_VALUE);
+
+    assertThat(CleanupBudget.unlimited().isEnabled()).isFalse();
+    assertThat(cycle.isExhausted()).isFalse();
+  }
+
+  @Test
+  public void maxRecords() {
+    when(clock.instant()).thenReturn(START);
+    CleanupBudget budget = new CleanupBudget(Duration.ZERO, 10, 0, bytesDeleted::get, clock);
+    CleanupBudget.Cycle cycle = budget.startCycle();
+
+    cycle.addRecords(9);
+    assertThat(cycle.isExhausted()).isFalse();
+    cycle.addRecords(1);
+    assertThat(cycle.isExhausted()).isTrue();
+    assertThat(budget.startCycle().isExhausted()).isFalse();
+  }
+
+  @Test
+  public void maxBytesCountsBytesDeletedDuringCycle() {
+    when(clock.instant()).thenReturn(START);
+    CleanupBudget budget = new CleanupBudget(Duration.ZERO, 0, 50, bytesDeleted::get, clock);
+    CleanupBudget.Cycle cycle = budget.startCycle();
+
+    bytesDeleted.addAndGet(49);
+    assertThat(cycle.isExhausted()).isFalse();
+    bytesDeleted.addAndGet(1);
+    assertThat(cycle.isExhausted()).isTrue();
+    assertThat(budget.startCycle().isExhausted()).isFalse();
+  }
+
+  @Test
+  public void maxDuration() {
+    when(clock.instant()).thenReturn(START, START.plusSeconds(59), START.plusSeconds(60));
+    CleanupBudget budget = new CleanupBudget(Duration.ofMinutes(1), 0, 0, bytesDeleted::get, clock);
+    CleanupBudget.Cycle cycle = budget.startCycle();
+
+    assertThat(cycle.isExhausted()).isFalse();
+    assertThat(cycle.isExhausted()).isTrue();
+  }
+
+  @Test
+  public void invalidBudget() {
+    assertThatExceptionOfType(BeekeeperException.class)
+        .isThrownBy(() -> new CleanupBudget(Duration.ZERO, -1, 0, bytesDeleted::get));
+    assertThatExceptionOfType(BeekeeperException.class)
+        .isThrownBy(() -> new CleanupBudget(Duration.ofMinutes(-1), 0, 0, bytesDeleted::get));
+  }
+}
@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
+
+@ExtendWith(MockitoExtension.class)
+public class CleanupPagerTest {
+
+  private static final LocalDateTime INSTANT = LocalDateTime.now();
+
+  private final HousekeepingPath record1 = path(1L);
+  private final HousekeepingPath record2 = path(2L);
+  private final HousekeepingPath record3 = path(3L);
+  private final List<Long> processed = new ArrayList<>();
+
+  private @Mock CleanupRecordSource<HousekeepingPath> source;
+  private @Mock CleanupRecordSource<HousekeepingPath> otherSource;
+
+  @Test
+  public void pagesFollowTheLastRecord() {
+    CleanupPager pager = CleanupPager.builder().pageSize(2).build();
+    when(source.findRecordsToClean(eq(INSTANT), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(record1, record2), PageRequest.of(0, 2), true));
+    when(source.findRecordsToClean(eq(INSTANT), eq(record2), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(record3)));
+
+    boolean complete = pager.cleanupPass(source, INSTANT, CleanupBudget.unlimited().startCycle(), this::process);
+
+    assertThat(complete).isTrue();
+    assertThat(processed).containsExactly(1L, 2L, 3L);
+  }
+
+  @Test
+  public void nextRunCarriesOnWhereBudgetRanOut() {
+    CleanupPager pager = CleanupPager
+        .builder()
+        .pageSize(2)
+        .budget(new CleanupBudget(Duration.ZERO, 2, 0, () -> 0L))
+        .build();
+    when(source.findRecordsToClean(eq(INSTANT), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(record1, record2), PageRequest.of(0, 2), true));
+    when(source.findRecordsToClean(eq(INSTANT), eq(record2), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(record3)));
+    List<CleanupRecordSource<HousekeepingPath>> sources = List.of(source, otherSource);
+
+    pager.cleanUp(sources, (handler, cycle) -> pager.cleanupPass(handler, INSTANT, cycle, this::process));
+
+    assertThat(processed).containsExactly(1L, 2L);
+    verify(otherSource, never()).findRecordsToClean(any(), any(Pageable.class));
+
+    when(otherSource.findRecordsToClean(eq(INSTANT), any(Pageable.class))).thenReturn(new SliceImpl<>(List.of()));
+    pager.cleanUp(sources, (handler, cycle) -> pager.cleanupPass(handler, INSTANT, cycle, this::process));
+
+    assertThat(processed).containsExactly(1L, 2L, 3L);
+    verify(otherSource).findRecordsToClean(eq(INSTANT), any(Pageable.class));
+  }
+
+  @Test
+  public void recordsClaimedByOtherInstancesAreSkipped() {
+    HousekeepingLease lease = new HousekeepingLease("owner", Duration.ofMinutes(10));
+    CleanupPager pager = CleanupPager.builder().pageSize(2).lease(lease).build();
+    when(source.findRecordsToClean(eq(INSTANT), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(record1, record2)));
+    when(source.claimRecords(INSTANT, List.of(record1, record2), lease)).thenReturn(List.of(record2));
+
+    pager.cleanupPass(source, INSTANT, CleanupBudget.unlimited().startCycle(), this::process);
+
+    assertThat(processed).containsExactly(2L);
+    verify(source).releaseRecords(List.of(record2), lease);
+  }
+
+  @Test
+  public void recordsAreNotClaimedDuringDryRuns() {
+    HousekeepingLease lease = new HousekeepingLease("owner", Duration.ofMinutes(10));
+    CleanupPager pager = CleanupPager.builder().pageSize(2).dryRunEnabled(true).lease(lease).build();
+    when(source.findRecordsToClean(eq(INSTANT), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(record1, record2)));
+
+    pager.cleanupPass(source, INSTANT, CleanupBudget.unlimited().startCycle(), this::process);
+
+    assertThat(processed).containsExactly(1L, 2L);
+    verify(source, never()).claimRecords(any(), any(), any());
+  }
+
+  @Test
+  public void nextRunDueAtOnceWhileRecordsAreDue() {
+    CleanupPager pager = CleanupPager.builder().pageSize(2).build();
+    when(source.hasRecordsToClean(INSTANT)).thenReturn(true);
+
+    assertThat(pager.findNextDueTime(List.of(source), INSTANT.toInstant(ZoneOffset.UTC)))
+        .contains(INSTANT.toInstant(ZoneOffset.UTC));
+    verify(source, never()).findNextCleanupTimestamp(any());
+  }
+
+  @Test
+  public void nextRunDueWhenNextRecordComesDue() {
+    CleanupPager pager = CleanupPager.builder().pageSize(2).build();
+    when(source.hasRecordsToClean(INSTANT)).thenReturn(false);
+    when(source.findNextCleanupTimestamp(INSTANT)).thenReturn(Optional.of(INSTANT.plusHours(1)));
+
+    assertThat(pager.findNextDueTime(List.of(source), INSTANT.toInstant(ZoneOffset.UTC)))
+        .contains(INSTANT.plusHours(1).toInstant(ZoneOffset.UTC));
+  }
+
+  @Test
+  public void dueRecordsIgnoredDuringDryRuns() {
+    CleanupPager pager = CleanupPager.builder().pageSize(2).dryRunEnabled(true).build();
+    when(source.findNextCleanupTimestamp(INSTANT)).thenReturn(Optional.empty());
+
+    assertThat(pager.findNextDueTime(List.of(source), INSTANT.toInstant(ZoneOffset.UTC))).isEmpty();
+    verify(source, never()).hasRecordsToClean(any());
+  }
+
+  private void process(Pageable pageable, Slice<HousekeepingPath> page) {
+    processed.addAll(page.getContent().stream().map(HousekeepingPath::getId).collect(Collectors.toList()));
+  }
+
+  private HousekeepingPath path(long id) {
+    HousekeepingPath path = new HousekeepingPath();
+    path.setId(id);
+    return path;
+  }
+}
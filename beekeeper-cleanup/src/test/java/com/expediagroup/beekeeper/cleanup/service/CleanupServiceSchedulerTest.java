@@ -0,0 +1,125 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
+
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunSummaryReporter;
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+
+@ExtendWith(MockitoExtension.class)
+public class CleanupServiceSchedulerTest {
+
+  private static final Instant COMPLETION_TIME = Instant.parse("2026-01-01T00:00:00Z");
+
+  private @Mock CleanupService cleanupService;
+  private @Mock DisableTablesService disableTablesService;
+  private @Mock CleanupRecordSource<HousekeepingPath> source;
+  private CleanupServiceScheduler scheduler;
+
+  @BeforeEach
+  public void init() {
+    scheduler = new CleanupServiceScheduler(cleanupService, disableTablesService, DryRunSummaryReporter.disabled(),
+        1000L, 60000L);
+  }
+
+  @Test
+  public void nextCleanupWhenRecordComesDue() {
+    when(cleanupService.findNextDueTime(COMPLETION_TIME)).thenReturn(Optional.of(COMPLETION_TIME.plusSeconds(10)));
+
+    assertThat(scheduler.nextCleanupTime(COMPLETION_TIME)).isEqualTo(COMPLETION_TIME.plusSeconds(10));
+  }
+
+  @Test
+  public void nextCleanupNoSoonerThanMinDelay() {
+    when(cleanupService.findNextDueTime(COMPLETION_TIME)).thenReturn(Optional.of(COMPLETION_TIME.plusMillis(10)));
+
+    assertThat(scheduler.nextCleanupTime(COMPLETION_TIME)).isEqualTo(COMPLETION_TIME.plusSeconds(1));
+  }
+
+  @Test
+  public void nextCleanupNoLaterThanMaxDelay() {
+    when(cleanupService.findNextDueTime(COMPLETION_TIME)).thenReturn(Optional.of(COMPLETION_TIME.plusSeconds(3600)));
+
+    assertThat(scheduler.nextCleanupTime(COMPLETION_TIME)).isEqualTo(COMPLETION_TIME.plusSeconds(60));
+  }
+
+  @Test
+  public void nextCleanupAfterMaxDelayWithoutRecords() {
+    when(cleanupService.findNextDueTime(COMPLETION_TIME)).thenReturn(Optional.empty());
+
+    assertThat(scheduler.nextCleanupTime(COMPLETION_TIME)).isEqualTo(COMPLETION_TIME.plusSeconds(60));
+  }
+
+  @Test
+  public void nextCleanupAfterMinDelayWhenCleanupStoppedOnBudget() {
+    CleanupPager pager = CleanupPager
+        .builder()
+        .pageSize(1)
+        .budget(new CleanupBudget(Duration.ZERO, 1, 0, () -> 0L))
+        .build();
+    when(source.findRecordsToClean(any(LocalDateTime.class), any(Pageable.class)))
+        .thenReturn(new SliceImpl<>(List.of(new HousekeepingPath()), PageRequest.of(0, 1), true));
+    List<CleanupRecordSource<HousekeepingPath>> sources = List.of(source);
+    CleanupService budgetedService = new CleanupService() {
+      @Override
+      public void cleanUp(Instant referenceTime) {
+        LocalDateTime instant = LocalDateTime.ofInstant(referenceTime, ZoneOffset.UTC);
+        pager.cleanUp(sources, (handler, cycle) -> pager.cleanupPass(handler, instant, cycle, (pageable, page) -> {}));
+      }
+
+      @Override
+      public Optional<Instant> findNextDueTime(Instant referenceTime) {
+        return pager.findNextDueTime(sources, referenceTime);
+      }
+    };
+    scheduler = new CleanupServiceScheduler(budgetedService, disableTablesService, DryRunSummaryReporter.disabled(),
+        1000L, 60000L);
+
+    scheduler.scheduleCleanup();
+
+    assertThat(scheduler.nextCleanupTime(COMPLETION_TIME)).isEqualTo(COMPLETION_TIME.plusSeconds(1));
+    verify(source, never()).findNextCleanupTimestamp(any());
+  }
+
+  @Test
+  public void nextCleanupAfterMaxDelayWhenLookupFails() {
+    when(cleanupService.findNextDueTime(COMPLETION_TIME)).thenThrow(new BeekeeperException("error"));
+
+    assertThat(scheduler.nextCleanupTime(COMPLETION_TIME)).isEqualTo(COMPLETION_TIME.plusSeconds(60));
+  }
+}
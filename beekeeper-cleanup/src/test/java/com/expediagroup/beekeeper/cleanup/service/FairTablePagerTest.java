@@ -0,0 +1,119 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.cleanup.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.core.model.HousekeepingTable;
+
+public class FairTablePagerTest {
+
+  private final HousekeepingTable largeTable = table("large_table");
+  private final HousekeepingTable smallTable = table("small_table");
+  private final Map<String, List<HousekeepingPath>> records = Map.of(
+      "large_table", List.of(path(1L, "large_table"), path(2L, "large_table"), path(3L, "large_table"),
+          path(4L, "large_table"), path(5L, "large_table")),
+      "small_table", List.of(path(6L, "small_table")));
+
+  @Test
+  public void tablesTakeTurns() {
+    FairTablePager<HousekeepingPath> pager = new FairTablePager<>(List.of(largeTable, smallTable), 1,
+        this::findRecords);
+
+    assertThat(ids(pager.nextPage(2))).containsExactly(1L, 6L);
+    assertThat(pager.hasNext()).isTrue();
+    assertThat(ids(pager.nextPage(2))).containsExactly(2L);
+    assertThat(ids(pager.nextPage(2))).containsExactly(3L);
+    assertThat(ids(pager.nextPage(2))).containsExactly(4L);
+    assertThat(ids(pager.nextPage(2))).containsExactly(5L);
+    assertThat(pager.hasNext()).isFalse();
+    assertThat(pager.nextPage(2)).isEmpty();
+  }
+
+  @Test
+  public void pageIsFilledUpToTableShare() {
+    FairTablePager<HousekeepingPath> pager = new FairTablePager<>(List.of(smallTable, largeTable), 3,
+        this::findRecords);
+
+    assertThat(ids(pager.nextPage(3))).containsExactly(6L, 1L, 2L);
+    assertThat(ids(pager.nextPage(3))).containsExactly(3L, 4L, 5L);
+    assertThat(pager.hasNext()).isFalse();
+  }
+
+  @Test
+  public void tablesLeftOutOfAFullPageComeFirst() {
+    FairTablePager<HousekeepingPath> pager = new FairTablePager<>(List.of(largeTable, smallTable), 2,
+        this::findRecords);
+
+    assertThat(ids(pager.nextPage(2))).containsExactly(1L, 2L);
+    assertThat(ids(pager.nextPage(2))).containsExactly(6L, 3L);
+  }
+
+  @Test
+  public void noTables() {
+    FairTablePager<HousekeepingPath> pager = new FairTablePager<>(List.of(), 1, this::findRecords);
+
+    assertThat(pager.hasNext()).isFalse();
+    assertThat(pager.nextPage(2)).isEmpty();
+  }
+
+  private Slice<HousekeepingPath> findRecords(HousekeepingTable table, long lastId, Pageable pageable) {
+    List<HousekeepingPath> remaining = records.get(table.getTableName())
+        .stream()
+        .filter(path -> path.getId() > lastId)
+        .collect(Collectors.toList());
+    List<HousekeepingPath> content = new ArrayList<>(
+        remaining.subList(0, Math.min(pageable.getPageSize(), remaining.size())));
+    return new SliceImpl<>(content, pageable, remaining.size() > content.size());
+  }
+
+  private List<Long> ids(List<HousekeepingPath> paths) {
+    return paths.stream().map(HousekeepingPath::getId).collect(Collectors.toList());
+  }
+
+  private HousekeepingPath path(long id, String tableName) {
+    HousekeepingPath path = new HousekeepingPath();
+    path.setId(id);
+    path.setDatabaseName("database");
+    path.setTableName(tableName);
+    return path;
+  }
+
+  private HousekeepingTable table(String tableName) {
+    return new HousekeepingTable() {
+      @Override
+      public String getDatabaseName() {
+        return "database";
+      }
+
+      @Override
+      public String getTableName() {
+        return tableName;
+      }
+    };
+  }
+}
@@ -17,6 +17,7 @@ package com.expediagroup.beekeeper.cleanup.validation;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThatThrownBy;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -78,6 +79,19 @@ public class IcebergValidatorTest {
     verify(cleanerClient).close();
   }
 
+  @Test
+  public void shouldUseClientHeldByCaller() throws Exception {
+    Map<String, String> properties = new HashMap<>();
+    properties.put("table_type", "HIVE_TABLE");
+    CleanerClient heldClient = mock(CleanerClient.class);
+
+    when(heldClient.getTableProperties("db", "table")).thenReturn(properties);
+
+    icebergValidator.throwExceptionIfIceberg("db", "table", heldClient);
+    verify(cleanerClientFactory, never()).newInstance();
+    verify(heldClient, never()).close();
+  }
+
   @Test
   public void shouldThrowExceptionWhenOutputFormatIsNull() throws Exception {
     Map<String, String> properties = new HashMap<>();
@@ -0,0 +1,93 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.model;
+
+import static java.lang.String.format;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Objects;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Weights of the score which records are cleaned up in order of, highest first: the estimated size of the record, in
+ * GiB, and how many hours past its cleanup timestamp it is.
+ * <p>
+ * Every record grows overdue at the same rate, so ordering by {@code bytesWeight * GiB + overdueWeight * hours overdue}
+ * is the same as ordering by {@code bytesWeight * GiB - overdueWeight * hours from the epoch to the cleanup timestamp}.
+ * The latter is the score which is stored, as it does not change over time.
+ */
+public class CleanupPriority {
+
+  private static final CleanupPriority NONE = new CleanupPriority(0, 0);
+  private static final double BYTES_PER_GIB = 1024L * 1024L * 1024L;
+  private static final double SECONDS_PER_HOUR = 3600;
+
+  private final double bytesWeight;
+  private final double overdueWeight;
+
+  /**
+   * @param bytesWeight Weight of each GiB of the estimated size of a record.
+   * @param overdueWeight Weight of each hour a record is past its cleanup timestamp.
+   */
+  public CleanupPriority(double bytesWeight, double overdueWeight) {
+    if (bytesWeight < 0 || overdueWeight < 0) {
+      throw new BeekeeperException(format("Invalid cleanup priority weights %s and %s", bytesWeight, overdueWeight));
+    }
+    this.bytesWeight = bytesWeight;
+    this.overdueWeight = overdueWeight;
+  }
+
+  /**
+   * @return Priority with no weights, for records cleaned up in the order of their timestamps.
+   */
+  public static CleanupPriority none() {
+    return NONE;
+  }
+
+  public boolean isEnabled() {
+    return bytesWeight > 0 || overdueWeight > 0;
+  }
+
+  /**
+   * @param estimatedBytes Estimated size of the record, or {@code null} if it is not known yet.
+   */
+  public double score(LocalDateTime cleanupTimestamp, Long estimatedBytes) {
+    double gib = estimatedBytes == null ? 0 : estimatedBytes / BYTES_PER_GIB;
+    double hours = cleanupTimestamp.toEpochSecond(ZoneOffset.UTC) / SECONDS_PER_HOUR;
+    return bytesWeight * gib - overdueWeight * hours;
+  }
+
+  /**
+   * Brings the stored score of a record up to date with its estimated size.
+   *
+   * @return Whether the score of the record changed.
+   */
+  public boolean updateScore(HousekeepingEntity housekeepingEntity) {
+    Double score = score(housekeepingEntity.getCleanupTimestamp(), housekeepingEntity.getEstimatedBytes());
+    if (Objects.equals(score, housekeepingEntity.getCleanupPriority())) {
+      return false;
+    }
+    housekeepingEntity.setCleanupPriority(score);
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return format("%s per GiB, %s per hour overdue", bytesWeight, overdueWeight);
+  }
+}
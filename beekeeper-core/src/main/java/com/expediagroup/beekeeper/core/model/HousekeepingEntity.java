@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -44,4 +44,30 @@ public interface HousekeepingEntity extends Taggable {
   int getCleanupAttempts();
 
   String getClientId();
+
+  String getLeaseOwner();
+
+  LocalDateTime getLeaseExpiry();
+
+  long getVersion();
+
+  /**
+   * @return Size of the files of the record as last listed, or {@code null} if they have not been listed.
+   */
+  Long getEstimatedBytes();
+
+  /**
+   * Sets the estimated size of the record, and clears its cleanup priority if the size changes.
+   */
+  void setEstimatedBytes(Long estimatedBytes);
+
+  /**
+   * @return Score which the record is cleaned up in order of, or {@code null} if it has not been scored.
+   * @see CleanupPriority
+   */
+  Double getCleanupPriority();
+
+  void setCleanupPriority(Double cleanupPriority);
+
+  void setVersion(long version);
 }
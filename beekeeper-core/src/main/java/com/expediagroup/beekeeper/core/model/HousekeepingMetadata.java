@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package com.expediagroup.beekeeper.core.model;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 import javax.persistence.Column;
 import javax.persistence.Convert;
@@ -25,7 +26,10 @@ import javax.persistence.Enumerated;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.PrePersist;
+import javax.persistence.PreUpdate;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -88,6 +92,31 @@ public class HousekeepingMetadata implements HousekeepingEntity {
   @Column(name = "lifecycle_type", nullable = false)
   private String lifecycleType;
 
+  @EqualsAndHashCode.Exclude
+  @Column(name = "table_hash")
+  private Long tableHash;
+
+  @EqualsAndHashCode.Exclude
+  @Column(name = "lease_owner")
+  private String leaseOwner;
+
+  @EqualsAndHashCode.Exclude
+  @Column(name = "lease_expiry")
+  private LocalDateTime leaseExpiry;
+
+  @EqualsAndHashCode.Exclude
+  @Version
+  @Column(name = "version", nullable = false)
+  private long version;
+
+  @EqualsAndHashCode.Exclude
+  @Column(name = "estimated_bytes")
+  private Long estimatedBytes;
+
+  @EqualsAndHashCode.Exclude
+  @Column(name = "cleanup_priority")
+  private Double cleanupPriority;
+
   @Builder
   public HousekeepingMetadata(
       Long id,
@@ -117,6 +146,15 @@ public class HousekeepingMetadata implements HousekeepingEntity {
     this.clientId = clientId;
   }
 
+  /**
+   * Keeps the hash of the table up to date, so that the queries of each {@link TableShard} can filter on it.
+   */
+  @PrePersist
+  @PreUpdate
+  void updateTableHash() {
+    tableHash = TableShard.tableHash(databaseName, tableName);
+  }
+
   private LocalDateTime configureCleanupTimestamp() {
     if (creationTimestamp == null) {
       throw new BeekeeperException("Table requires a creation timestamp");
@@ -127,9 +165,24 @@ public class HousekeepingMetadata implements HousekeepingEntity {
     return creationTimestamp.plus(cleanupDelay);
   }
 
+  /**
+   * Clears the cleanup priority when the estimated size changes, so that the record is scored again.
+   */
+  @Override
+  public void setEstimatedBytes(Long estimatedBytes) {
+    if (!Objects.equals(this.estimatedBytes, estimatedBytes)) {
+      cleanupPriority = null;
+    }
+    this.estimatedBytes = estimatedBytes;
+  }
+
+  /**
+   * Also clears the cleanup priority, which depends on the cleanup timestamp, so that the record is scored again.
+   */
   public void setCleanupDelay(PeriodDuration cleanupDelay) {
     this.cleanupDelay = cleanupDelay;
     cleanupTimestamp = creationTimestamp.plus(cleanupDelay);
+    cleanupPriority = null;
   }
 
   @Override
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,6 +18,7 @@ package com.expediagroup.beekeeper.core.model;
 import static java.lang.String.format;
 
 import java.time.LocalDateTime;
+import java.util.Objects;
 
 import javax.persistence.Column;
 import javax.persistence.Convert;
@@ -28,6 +29,7 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
+import javax.persistence.Version;
 
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -86,6 +88,39 @@ public class HousekeepingPath implements HousekeepingEntity {
   @Column(name = "lifecycle_type", nullable = false)
   private String lifecycleType;
 
+  @EqualsAndHashCode.Exclude
+  @Column(name = "lease_owner")
+  private String leaseOwner;
+
+  @EqualsAndHashCode.Exclude
+  @Column(name = "lease_expiry")
+  private LocalDateTime leaseExpiry;
+
+  @EqualsAndHashCode.Exclude
+  @Version
+  @Column(name = "version", nullable = false)
+  private long version;
+
+  @EqualsAndHashCode.Exclude
+  @Column(name = "estimated_bytes")
+  private Long estimatedBytes;
+
+  @EqualsAndHashCode.Exclude
+  @Column(name = "cleanup_priority")
+  private Double cleanupPriority;
+
+  @EqualsAndHashCode.Exclude
+  @Column(name = "delete_start_after")
+  private String deleteStartAfter;
+
+  @EqualsAndHashCode.Exclude
+  @Column(name = "objects_deleted")
+  private Long objectsDeleted;
+
+  @EqualsAndHashCode.Exclude
+  @Column(name = "bytes_deleted")
+  private Long bytesDeleted;
+
   @Builder
   public HousekeepingPath(
       Long id,
@@ -113,9 +148,24 @@ public class HousekeepingPath implements HousekeepingEntity {
     this.clientId = clientId;
   }
 
+  /**
+   * Clears the cleanup priority when the estimated size changes, so that the record is scored again.
+   */
+  @Override
+  public void setEstimatedBytes(Long estimatedBytes) {
+    if (!Objects.equals(this.estimatedBytes, estimatedBytes)) {
+      cleanupPriority = null;
+    }
+    this.estimatedBytes = estimatedBytes;
+  }
+
+  /**
+   * Also clears the cleanup priority, which depends on the cleanup timestamp, so that the record is scored again.
+   */
   public void setCleanupDelay(PeriodDuration cleanupDelay) {
     this.cleanupDelay = cleanupDelay;
     cleanupTimestamp = creationTimestamp.plus(cleanupDelay);
+    cleanupPriority = null;
   }
 
   @Override
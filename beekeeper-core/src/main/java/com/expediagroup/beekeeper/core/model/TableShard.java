@@ -0,0 +1,80 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.model;
+
+import static java.lang.String.format;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Objects;
+import java.util.zip.CRC32;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Share of the tables cleaned up by one of several instances. Every table belongs to exactly one shard, given by the
+ * CRC-32 of its qualified name, so all of the records of a table are cleaned up by the same instance.
+ */
+public class TableShard {
+
+  private static final TableShard ALL = new TableShard(0, 1);
+
+  private final int index;
+  private final int count;
+
+  /**
+   * @param index Index of this shard, from {@code 0} to {@code count - 1}.
+   * @param count Number of shards the tables are split into.
+   */
+  public TableShard(int index, int count) {
+    if (count < 1 || index < 0 || index >= count) {
+      throw new BeekeeperException(format("Invalid shard %s of %s", index, count));
+    }
+    this.index = index;
+    this.count = count;
+  }
+
+  /**
+   * @return The only shard, with every table in it.
+   */
+  public static TableShard all() {
+    return ALL;
+  }
+
+  /**
+   * @return The hash which the shard of a table is taken from. It is the same as MySQL's
+   *         {@code CRC32(CONCAT(COALESCE(database_name, ''), '.', COALESCE(table_name, '')))}, so a missing name is
+   *         hashed as an empty one.
+   */
+  public static long tableHash(String databaseName, String tableName) {
+    CRC32 crc = new CRC32();
+    crc.update(String.join(".", Objects.toString(databaseName, ""), Objects.toString(tableName, ""))
+        .getBytes(StandardCharsets.UTF_8));
+    return crc.getValue();
+  }
+
+  public int getIndex() {
+    return index;
+  }
+
+  public int getCount() {
+    return count;
+  }
+
+  @Override
+  public String toString() {
+    return format("%s/%s", index, count);
+  }
+}
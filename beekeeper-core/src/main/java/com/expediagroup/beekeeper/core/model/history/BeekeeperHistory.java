@@ -9,6 +9,9 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.Table;
 
+import org.hibernate.annotations.GenericGenerator;
+import org.hibernate.annotations.Parameter;
+
 import lombok.Builder;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -23,8 +26,17 @@ import com.expediagroup.beekeeper.core.monitoring.Taggable;
 @Table(name = "beekeeper_history")
 public class BeekeeperHistory implements Taggable {
 
+  // ids are allocated in blocks from a table, rather than by MySQL on insert, so that inserts can be batched
   @Id
-  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @GeneratedValue(strategy = GenerationType.TABLE, generator = "beekeeper_history_id")
+  @GenericGenerator(name = "beekeeper_history_id", strategy = "org.hibernate.id.enhanced.TableGenerator",
+      parameters = {
+          @Parameter(name = "table_name", value = "beekeeper_history_id"),
+          @Parameter(name = "segment_column_name", value = "sequence_name"),
+          @Parameter(name = "segment_value", value = "beekeeper_history"),
+          @Parameter(name = "value_column_name", value = "next_val"),
+          @Parameter(name = "increment_size", value = "50"),
+          @Parameter(name = "optimizer", value = "pooled-lo") })
   private Long id;
 
   @EqualsAndHashCode.Exclude
@@ -0,0 +1,298 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.pool;
+
+import static java.lang.String.format;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+/**
+ * Bounded pool of clients which are expensive to open, such as metastore connections. Each call to {@link #get()}
+ * borrows a client, which is given back to the pool, instead of being closed, when it is closed.
+ * <p>
+ * Idle clients are checked with the validator before they are borrowed again, and closed once they have been idle for
+ * longer than {@code maxIdle}. When every client is in use, {@link #get()} waits for one to be given back, for up to
+ * {@code maxWait}; the time spent waiting is recorded by the {@code <metricName>-wait} timer.
+ */
+public class ClientPool<T extends Closeable> implements Supplier<T>, Closeable {
+
+  private static final Logger log = LoggerFactory.getLogger(ClientPool.class);
+
+  private final Class<T> clientType;
+  private final Supplier<T> clientFactory;
+  private final Predicate<T> validator;
+  private final Duration maxIdle;
+  private final Duration maxWait;
+  private final Clock clock;
+  private final Semaphore permits;
+  // most recently given back first, so that the clients left at the end are the ones to evict
+  private final Deque<IdleClient<T>> idleClients = new ArrayDeque<>();
+  private final AtomicInteger activeClients = new AtomicInteger();
+  private final Timer waitTimer;
+  private final ScheduledExecutorService evictor;
+  private volatile boolean closed = false;
+
+  /**
+   * @param clientType Interface of the clients, which the borrowed clients implement.
+   * @param clientFactory Opens a new client.
+   * @param validator Checks that an idle client still works before it is borrowed again.
+   * @param maxSize Maximum number of clients open at the same time.
+   * @param maxIdle Time after which an idle client is closed, or zero to keep idle clients open.
+   * @param maxWait Maximum time to wait for a client when every client is in use.
+   * @param metricName Prefix of the names of the pool metrics.
+   */
+  public ClientPool(
+      Class<T> clientType,
+      Supplier<T> clientFactory,
+      Predicate<T> validator,
+      int maxSize,
+      Duration maxIdle,
+      Duration maxWait,
+      MeterRegistry meterRegistry,
+      String metricName) {
+    this(clientType, clientFactory, validator, maxSize, maxIdle, maxWait, meterRegistry, metricName,
+        Clock.systemUTC());
+  }
+
+  ClientPool(
+      Class<T> clientType,
+      Supplier<T> clientFactory,
+      Predicate<T> validator,
+      int maxSize,
+      Duration maxIdle,
+      Duration maxWait,
+      MeterRegistry meterRegistry,
+      String metricName,
+      Clock clock) {
+    if (maxSize < 1 || maxIdle.isNegative() || maxWait.isNegative()) {
+      throw new BeekeeperException(
+          format("Invalid client pool of %s clients, idle for %s and waited for %s", maxSize, maxIdle, maxWait));
+    }
+    this.clientType = clientType;
+    this.clientFactory = clientFactory;
+    this.validator = validator;
+    this.maxIdle = maxIdle;
+    this.maxWait = maxWait;
+    this.clock = clock;
+    permits = new Semaphore(maxSize, true);
+    waitTimer = Timer.builder(metricName + "-wait").register(meterRegistry);
+    Gauge.builder(metricName + "-active", activeClients, AtomicInteger::get).register(meterRegistry);
+    Gauge.builder(metricName + "-idle", this, ClientPool::idleCount).register(meterRegistry);
+    if (maxIdle.isZero()) {
+      evictor = null;
+    } else {
+      evictor = Executors.newSingleThreadScheduledExecutor(
+          new ThreadFactoryBuilder().setNameFormat(metricName + "-evictor").setDaemon(true).build());
+      long periodMs = Math.max(1, maxIdle.toMillis());
+      evictor.scheduleWithFixedDelay(this::evictIdleClients, periodMs, periodMs, TimeUnit.MILLISECONDS);
+    }
+  }
+
+  /**
+   * @return A client of the pool, which goes back to the pool when it is closed.
+   * @throws BeekeeperException If no client could be borrowed within {@code maxWait}.
+   */
+  @Override
+  public T get() {
+    if (closed) {
+      throw new BeekeeperException("Client pool is closed");
+    }
+    acquirePermit();
+    try {
+      T client = borrowIdleClient();
+      if (client == null) {
+        client = clientFactory.get();
+      }
+      activeClients.incrementAndGet();
+      return borrowed(client);
+    } catch (RuntimeException e) {
+      permits.release();
+      throw e;
+    }
+  }
+
+  private void acquirePermit() {
+    long start = System.nanoTime();
+    boolean acquired;
+    try {
+      acquired = permits.tryAcquire(maxWait.toMillis(), TimeUnit.MILLISECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new BeekeeperException("Interrupted while waiting for a client of the pool", e);
+    } finally {
+      waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+    if (!acquired) {
+      throw new BeekeeperException(format("No client of the pool was available within %s", maxWait));
+    }
+  }
+
+  private T borrowIdleClient() {
+    IdleClient<T> idleClient;
+    while ((idleClient = pollIdleClient()) != null) {
+      T client = idleClient.client;
+      if (isExpired(idleClient, clock.instant())) {
+        closeQuietly(client);
+      } else if (isValid(client)) {
+        return client;
+      } else {
+        log.info("Closing client which failed validation");
+        closeQuietly(client);
+      }
+    }
+    return null;
+  }
+
+  private synchronized IdleClient<T> pollIdleClient() {
+    return idleClients.pollFirst();
+  }
+
+  private boolean isValid(T client) {
+    try {
+      return validator.test(client);
+    } catch (Exception e) {
+      log.debug("Client validation failed", e);
+      return false;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private T borrowed(T client) {
+    AtomicBoolean givenBack = new AtomicBoolean(false);
+    return (T) Proxy.newProxyInstance(clientType.getClassLoader(), new Class<?>[] { clientType },
+        (proxy, method, args) -> {
+          if ("close".equals(method.getName()) && method.getParameterCount() == 0) {
+            if (givenBack.compareAndSet(false, true)) {
+              giveBack(client);
+            }
+            return null;
+          }
+          if (givenBack.get() && method.getDeclaringClass() != Object.class) {
+            throw new IllegalStateException("Client was already given back to the pool");
+          }
+          try {
+            return method.invoke(client, args);
+          } catch (InvocationTargetException e) {
+            throw e.getCause();
+          }
+        });
+  }
+
+  private void giveBack(T client) {
+    activeClients.decrementAndGet();
+    try {
+      if (closed) {
+        closeQuietly(client);
+      } else {
+        synchronized (this) {
+          idleClients.addFirst(new IdleClient<>(client, clock.instant()));
+        }
+      }
+    } finally {
+      permits.release();
+    }
+  }
+
+  /**
+   * Closes the clients which have been idle for longer than {@code maxIdle}.
+   */
+  void evictIdleClients() {
+    if (maxIdle.isZero()) {
+      return;
+    }
+    Instant now = clock.instant();
+    IdleClient<T> idleClient;
+    while ((idleClient = pollExpiredClient(now)) != null) {
+      closeQuietly(idleClient.client);
+    }
+  }
+
+  private synchronized IdleClient<T> pollExpiredClient(Instant now) {
+    IdleClient<T> oldest = idleClients.peekLast();
+    if (oldest == null || !isExpired(oldest, now)) {
+      return null;
+    }
+    return idleClients.pollLast();
+  }
+
+  private boolean isExpired(IdleClient<T> idleClient, Instant now) {
+    return !maxIdle.isZero() && !now.isBefore(idleClient.idleSince.plus(maxIdle));
+  }
+
+  synchronized int idleCount() {
+    return idleClients.size();
+  }
+
+  /**
+   * Closes the idle clients. The clients in use are closed when they are given back.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    if (evictor != null) {
+      evictor.shutdownNow();
+    }
+    IdleClient<T> idleClient;
+    while ((idleClient = pollIdleClient()) != null) {
+      closeQuietly(idleClient.client);
+    }
+  }
+
+  private void closeQuietly(T client) {
+    try {
+      client.close();
+    } catch (IOException | RuntimeException e) {
+      log.warn("Could not close client", e);
+    }
+  }
+
+  private static class IdleClient<T> {
+    private final T client;
+    private final Instant idleSince;
+
+    private IdleClient(T client, Instant idleSince) {
+      this.client = client;
+      this.idleSince = idleSince;
+    }
+  }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2025 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package com.expediagroup.beekeeper.core.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,19 +27,241 @@ import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.expediagroup.beekeeper.core.model.HousekeepingMetadata;
+import com.expediagroup.beekeeper.core.model.HousekeepingTable;
 
 public interface HousekeepingMetadataRepository
     extends PagingAndSortingRepository<HousekeepingMetadata, Long>, JpaSpecificationExecutor<HousekeepingMetadata> {
 
+  default Slice<HousekeepingMetadata> findRecordsForCleanupByModifiedTimestamp(
+      LocalDateTime instant,
+      Pageable pageable) {
+    return findRecordsForCleanupByModifiedTimestamp(instant, 0, 1, pageable);
+  }
+
+  /**
+   * Returns the records to clean up of the tables in one shard, those whose {@code table_hash} modulo
+   * {@code shardCount} is {@code shardIndex}. With a single shard, every record is returned.
+   */
   @Query(value = "from HousekeepingMetadata t where t.cleanupTimestamp <= :instant "
       + "and (t.housekeepingStatus = 'SCHEDULED' or t.housekeepingStatus = 'FAILED') "
-      + "and t.modifiedTimestamp <= :instant and t.cleanupAttempts < 10 order by t.modifiedTimestamp")
+      + "and t.modifiedTimestamp <= :instant and t.cleanupAttempts < 10 "
+      + "and (t.leaseExpiry is null or t.leaseExpiry <= :instant) "
+      + "and (:shardCount = 1 or mod(t.tableHash, :shardCount) = :shardIndex) "
+      + "order by t.modifiedTimestamp, t.id")
   Slice<HousekeepingMetadata> findRecordsForCleanupByModifiedTimestamp(
       @Param("instant") LocalDateTime instant,
+      @Param("shardIndex") int shardIndex,
+      @Param("shardCount") int shardCount,
+      Pageable pageable);
+
+  /**
+   * Returns the records of {@link #findRecordsForCleanupByModifiedTimestamp(LocalDateTime, Pageable)} which come after
+   * a given record, so that each page is found with an index seek on {@code (modified_timestamp, id)} rather than by
+   * skipping the records of every previous page.
+   *
+   * @param lastModifiedTimestamp Modified timestamp of the last record of the previous page, as it was read.
+   * @param lastId Id of the last record of the previous page.
+   * @param pageable Only the page size is used; the page number should always be 0.
+   */
+  default Slice<HousekeepingMetadata> findRecordsForCleanupByModifiedTimestampAfter(
+      LocalDateTime instant,
+      LocalDateTime lastModifiedTimestamp,
+      Long lastId,
+      Pageable pageable) {
+    return findRecordsForCleanupByModifiedTimestampAfter(instant, lastModifiedTimestamp, lastId, 0, 1, pageable);
+  }
+
+  /**
+   * Returns the records of
+   * {@link #findRecordsForCleanupByModifiedTimestampAfter(LocalDateTime, LocalDateTime, Long, Pageable)} of the
+   * tables in one shard.
+   *
+   * @see #findRecordsForCleanupByModifiedTimestamp(LocalDateTime, int, int, Pageable)
+   */
+  @Query(value = "from HousekeepingMetadata t where t.cleanupTimestamp <= :instant "
+      + "and (t.housekeepingStatus = 'SCHEDULED' or t.housekeepingStatus = 'FAILED') "
+      + "and t.modifiedTimestamp <= :instant and t.cleanupAttempts < 10 "
+      + "and (t.leaseExpiry is null or t.leaseExpiry <= :instant) "
+      + "and (:shardCount = 1 or mod(t.tableHash, :shardCount) = :shardIndex) "
+      + "and (t.modifiedTimestamp > :lastModifiedTimestamp "
+      + "or (t.modifiedTimestamp = :lastModifiedTimestamp and t.id > :lastId)) "
+      + "order by t.modifiedTimestamp, t.id")
+  Slice<HousekeepingMetadata> findRecordsForCleanupByModifiedTimestampAfter(
+      @Param("instant") LocalDateTime instant,
+      @Param("lastModifiedTimestamp") LocalDateTime lastModifiedTimestamp,
+      @Param("lastId") Long lastId,
+      @Param("shardIndex") int shardIndex,
+      @Param("shardCount") int shardCount,
+      Pageable pageable);
+
+  /**
+   * Returns the tables of one shard which have records to clean up, those of
+   * {@link #findRecordsForCleanupByModifiedTimestamp(LocalDateTime, int, int, Pageable)}.
+   */
+  @Query(value = "select distinct t.databaseName as databaseName, t.tableName as tableName "
+      + "from HousekeepingMetadata t where t.cleanupTimestamp <= :instant "
+      + "and (t.housekeepingStatus = 'SCHEDULED' or t.housekeepingStatus = 'FAILED') "
+      + "and t.modifiedTimestamp <= :instant and t.cleanupAttempts < 10 "
+      + "and (t.leaseExpiry is null or t.leaseExpiry <= :instant) "
+      + "and (:shardCount = 1 or mod(t.tableHash, :shardCount) = :shardIndex) "
+      + "order by t.databaseName, t.tableName")
+  List<HousekeepingTable> findTablesForCleanup(
+      @Param("instant") LocalDateTime instant,
+      @Param("shardIndex") int shardIndex,
+      @Param("shardCount") int shardCount);
+
+  /**
+   * Returns the records to clean up of one table which come after a given id, in the order of their ids.
+   *
+   * @param lastId Id of the last record of the table already returned, or {@code 0} for the first records.
+   * @param pageable Only the page size is used; the page number should always be 0.
+   */
+  @Query(value = "from HousekeepingMetadata t where t.cleanupTimestamp <= :instant "
+      + "and (t.housekeepingStatus = 'SCHEDULED' or t.housekeepingStatus = 'FAILED') "
+      + "and t.modifiedTimestamp <= :instant and t.cleanupAttempts < 10 "
+      + "and (t.leaseExpiry is null or t.leaseExpiry <= :instant) "
+      + "and t.databaseName = :databaseName and t.tableName = :tableName "
+      + "and t.id > :lastId "
+      + "order by t.id")
+  Slice<HousekeepingMetadata> findRecordsForCleanupInTable(
+      @Param("instant") LocalDateTime instant,
+      @Param("databaseName") String databaseName,
+      @Param("tableName") String tableName,
+      @Param("lastId") long lastId,
+      Pageable pageable);
+
+  /**
+   * Returns the earliest cleanup timestamp after {@code instant} of the records still to be cleaned up of the tables
+   * in one shard, so that the next cleanup can be run when they come due.
+   */
+  @Query(value = "select min(t.cleanupTimestamp) from HousekeepingMetadata t where t.cleanupTimestamp > :instant "
+      + "and (t.housekeepingStatus = 'SCHEDULED' or t.housekeepingStatus = 'FAILED') "
+      + "and t.cleanupAttempts < 10 "
+      + "and (:shardCount = 1 or mod(t.tableHash, :shardCount) = :shardIndex)")
+  Optional<LocalDateTime> findNextCleanupTimestamp(
+      @Param("instant") LocalDateTime instant,
+      @Param("shardIndex") int shardIndex,
+      @Param("shardCount") int shardCount);
+
+  /**
+   * Returns the scored records to clean up of the tables in one shard with the highest cleanup priority first, found
+   * on the {@code (housekeeping_status, cleanup_priority, id)} index.
+   *
+   * @see #findRecordsForCleanupByModifiedTimestamp(LocalDateTime, int, int, Pageable)
+   */
+  @Query(value = "from HousekeepingMetadata t where t.cleanupTimestamp <= :instant "
+      + "and (t.housekeepingStatus = 'SCHEDULED' or t.housekeepingStatus = 'FAILED') "
+      + "and t.modifiedTimestamp <= :instant and t.cleanupAttempts < 10 "
+      + "and (t.leaseExpiry is null or t.leaseExpiry <= :instant) "
+      + "and (:shardCount = 1 or mod(t.tableHash, :shardCount) = :shardIndex) "
+      + "and t.cleanupPriority is not null "
+      + "order by t.cleanupPriority desc, t.id desc")
+  Slice<HousekeepingMetadata> findRecordsForCleanupByPriority(
+      @Param("instant") LocalDateTime instant,
+      @Param("shardIndex") int shardIndex,
+      @Param("shardCount") int shardCount,
+      Pageable pageable);
+
+  /**
+   * Returns the records of {@link #findRecordsForCleanupByPriority(LocalDateTime, int, int, Pageable)} which come after
+   * a given record.
+   *
+   * @param lastPriority Cleanup priority of the last record of the previous page, as it was read.
+   * @param lastId Id of the last record of the previous page.
+   * @param pageable Only the page size is used; the page number should always be 0.
+   */
+  @Query(value = "from HousekeepingMetadata t where t.cleanupTimestamp <= :instant "
+      + "and (t.housekeepingStatus = 'SCHEDULED' or t.housekeepingStatus = 'FAILED') "
+      + "and t.modifiedTimestamp <= :instant and t.cleanupAttempts < 10 "
+      + "and (t.leaseExpiry is null or t.leaseExpiry <= :instant) "
+      + "and (:shardCount = 1 or mod(t.tableHash, :shardCount) = :shardIndex) "
+      + "and (t.cleanupPriority < :lastPriority "
+      + "or (t.cleanupPriority = :lastPriority and t.id < :lastId)) "
+      + "order by t.cleanupPriority desc, t.id desc")
+  Slice<HousekeepingMetadata> findRecordsForCleanupByPriorityAfter(
+      @Param("instant") LocalDateTime instant,
+      @Param("lastPriority") double lastPriority,
+      @Param("lastId") long lastId,
+      @Param("shardIndex") int shardIndex,
+      @Param("shardCount") int shardCount,
+      Pageable pageable);
+
+  /**
+   * Returns the records to clean up of the tables in one shard which have not been given a cleanup priority yet, in
+   * the order of their ids.
+   *
+   * @param lastId Id of the last record already returned, or {@code 0} for the first records.
+   * @param pageable Only the page size is used; the page number should always be 0.
+   */
+  @Query(value = "from HousekeepingMetadata t where t.cleanupTimestamp <= :instant "
+      + "and (t.housekeepingStatus = 'SCHEDULED' or t.housekeepingStatus = 'FAILED') "
+      + "and t.cleanupAttempts < 10 and t.cleanupPriority is null and t.id > :lastId "
+      + "and (:shardCount = 1 or mod(t.tableHash, :shardCount) = :shardIndex) "
+      + "order by t.id")
+  Slice<HousekeepingMetadata> findUnscoredRecordsForCleanup(
+      @Param("instant") LocalDateTime instant,
+      @Param("lastId") long lastId,
+      @Param("shardIndex") int shardIndex,
+      @Param("shardCount") int shardCount,
       Pageable pageable);
 
+  /**
+   * Stores the estimated size and the cleanup priority of a record, without changing its version, as neither changes
+   * how the record is cleaned up.
+   *
+   * @implNote The modified timestamp is set to itself, so that MySQL does not update it automatically.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "update HousekeepingMetadata t set t.estimatedBytes = :estimatedBytes, "
+      + "t.cleanupPriority = :cleanupPriority, t.modifiedTimestamp = t.modifiedTimestamp "
+      + "where t.id = :id")
+  int updateCleanupPriority(
+      @Param("id") long id,
+      @Param("estimatedBytes") Long estimatedBytes,
+      @Param("cleanupPriority") double cleanupPriority);
+
+  /**
+   * Claims the records which are still to be cleaned up and not held by another instance, incrementing their
+   * versions so that copies read earlier can no longer be saved.
+   *
+   * @implNote The modified timestamp is set to itself, so that MySQL does not update it automatically and the records
+   *           keep their place in {@link #findRecordsForCleanupByModifiedTimestamp(LocalDateTime, Pageable)}.
+   * @return The number of records claimed.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "update HousekeepingMetadata t set t.leaseOwner = :owner, t.leaseExpiry = :leaseExpiry, "
+      + "t.version = t.version + 1, t.modifiedTimestamp = t.modifiedTimestamp "
+      + "where t.id in :ids "
+      + "and (t.housekeepingStatus = 'SCHEDULED' or t.housekeepingStatus = 'FAILED') "
+      + "and t.modifiedTimestamp <= :instant "
+      + "and (t.leaseExpiry is null or t.leaseExpiry <= :now)")
+  int claimRecords(
+      @Param("ids") Collection<Long> ids,
+      @Param("owner") String owner,
+      @Param("instant") LocalDateTime instant,
+      @Param("now") LocalDateTime now,
+      @Param("leaseExpiry") LocalDateTime leaseExpiry);
+
+  @Query(value = "from HousekeepingMetadata t where t.id in :ids and t.leaseOwner = :owner "
+      + "order by t.modifiedTimestamp, t.id")
+  List<HousekeepingMetadata> findClaimedRecords(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+  /**
+   * Releases the records claimed by an owner, whether or not they have been cleaned up, without changing their
+   * versions.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "update HousekeepingMetadata t set t.leaseOwner = null, t.leaseExpiry = null, "
+      + "t.modifiedTimestamp = t.modifiedTimestamp "
+      + "where t.id in :ids and t.leaseOwner = :owner")
+  int releaseRecords(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
   /**
    * Returns the record that matches the inputs given, if there is one.
    *
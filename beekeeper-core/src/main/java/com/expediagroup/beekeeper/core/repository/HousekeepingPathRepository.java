@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,9 @@
 package com.expediagroup.beekeeper.core.repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
@@ -25,8 +28,10 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.core.model.HousekeepingTable;
 
 @Repository
 public interface HousekeepingPathRepository
@@ -34,9 +39,193 @@ public interface HousekeepingPathRepository
 
   @Query(value = "from HousekeepingPath p where p.cleanupTimestamp <= :instant "
       + "and (p.housekeepingStatus = 'SCHEDULED' or p.housekeepingStatus = 'FAILED') "
-      + "and p.modifiedTimestamp <= :instant and p.cleanupAttempts < 10")
+      + "and p.modifiedTimestamp <= :instant and p.cleanupAttempts < 10 "
+      + "and (p.leaseExpiry is null or p.leaseExpiry <= :instant) "
+      + "order by p.cleanupTimestamp, p.id")
   Slice<HousekeepingPath> findRecordsForCleanup(@Param("instant") LocalDateTime instant, Pageable pageable);
 
+  /**
+   * Returns the records of {@link #findRecordsForCleanup(LocalDateTime, Pageable)} which come after a given record,
+   * so that each page is found with an index seek on {@code (cleanup_timestamp, id)} rather than by skipping the
+   * records of every previous page.
+   *
+   * @param lastCleanupTimestamp Cleanup timestamp of the last record of the previous page.
+   * @param lastId Id of the last record of the previous page.
+   * @param pageable Only the page size is used; the page number should always be 0.
+   */
+  @Query(value = "from HousekeepingPath p where p.cleanupTimestamp <= :instant "
+      + "and (p.housekeepingStatus = 'SCHEDULED' or p.housekeepingStatus = 'FAILED') "
+      + "and p.modifiedTimestamp <= :instant and p.cleanupAttempts < 10 "
+      + "and (p.leaseExpiry is null or p.leaseExpiry <= :instant) "
+      + "and (p.cleanupTimestamp > :lastCleanupTimestamp "
+      + "or (p.cleanupTimestamp = :lastCleanupTimestamp and p.id > :lastId)) "
+      + "order by p.cleanupTimestamp, p.id")
+  Slice<HousekeepingPath> findRecordsForCleanupAfter(
+      @Param("instant") LocalDateTime instant,
+      @Param("lastCleanupTimestamp") LocalDateTime lastCleanupTimestamp,
+      @Param("lastId") Long lastId,
+      Pageable pageable);
+
+  /**
+   * Returns the tables which have records to clean up, those of
+   * {@link #findRecordsForCleanup(LocalDateTime, Pageable)}.
+   */
+  @Query(value = "select distinct p.databaseName as databaseName, p.tableName as tableName "
+      + "from HousekeepingPath p where p.cleanupTimestamp <= :instant "
+      + "and (p.housekeepingStatus = 'SCHEDULED' or p.housekeepingStatus = 'FAILED') "
+      + "and p.modifiedTimestamp <= :instant and p.cleanupAttempts < 10 "
+      + "and (p.leaseExpiry is null or p.leaseExpiry <= :instant) "
+      + "order by p.databaseName, p.tableName")
+  List<HousekeepingTable> findTablesForCleanup(@Param("instant") LocalDateTime instant);
+
+  /**
+   * Returns the records to clean up of one table which come after a given id, in the order of their ids.
+   *
+   * @param lastId Id of the last record of the table already returned, or {@code 0} for the first records.
+   * @param pageable Only the page size is used; the page number should always be 0.
+   */
+  @Query(value = "from HousekeepingPath p where p.cleanupTimestamp <= :instant "
+      + "and (p.housekeepingStatus = 'SCHEDULED' or p.housekeepingStatus = 'FAILED') "
+      + "and p.modifiedTimestamp <= :instant and p.cleanupAttempts < 10 "
+      + "and (p.leaseExpiry is null or p.leaseExpiry <= :instant) "
+      + "and (p.databaseName = :databaseName or (:databaseName is NULL and p.databaseName is NULL)) "
+      + "and (p.tableName = :tableName or (:tableName is NULL and p.tableName is NULL)) "
+      + "and p.id > :lastId "
+      + "order by p.id")
+  Slice<HousekeepingPath> findRecordsForCleanupInTable(
+      @Param("instant") LocalDateTime instant,
+      @Param("databaseName") String databaseName,
+      @Param("tableName") String tableName,
+      @Param("lastId") long lastId,
+      Pageable pageable);
+
+  /**
+   * Returns the earliest cleanup timestamp after {@code instant} of the records still to be cleaned up, so that the
+   * next cleanup can be run when they come due.
+   */
+  @Query(value = "select min(p.cleanupTimestamp) from HousekeepingPath p where p.cleanupTimestamp > :instant "
+      + "and (p.housekeepingStatus = 'SCHEDULED' or p.housekeepingStatus = 'FAILED') "
+      + "and p.cleanupAttempts < 10")
+  Optional<LocalDateTime> findNextCleanupTimestamp(@Param("instant") LocalDateTime instant);
+
+  /**
+   * Returns the scored records of {@link #findRecordsForCleanup(LocalDateTime, Pageable)} with the highest cleanup
+   * priority first, found on the {@code (housekeeping_status, cleanup_priority, id)} index.
+   */
+  @Query(value = "from HousekeepingPath p where p.cleanupTimestamp <= :instant "
+      + "and (p.housekeepingStatus = 'SCHEDULED' or p.housekeepingStatus = 'FAILED') "
+      + "and p.modifiedTimestamp <= :instant and p.cleanupAttempts < 10 "
+      + "and (p.leaseExpiry is null or p.leaseExpiry <= :instant) "
+      + "and p.cleanupPriority is not null "
+      + "order by p.cleanupPriority desc, p.id desc")
+  Slice<HousekeepingPath> findRecordsForCleanupByPriority(@Param("instant") LocalDateTime instant, Pageable pageable);
+
+  /**
+   * Returns the records of {@link #findRecordsForCleanupByPriority(LocalDateTime, Pageable)} which come after a given
+   * record.
+   *
+   * @param lastPriority Cleanup priority of the last record of the previous page, as it was read.
+   * @param lastId Id of the last record of the previous page.
+   * @param pageable Only the page size is used; the page number should always be 0.
+   */
+  @Query(value = "from HousekeepingPath p where p.cleanupTimestamp <= :instant "
+      + "and (p.housekeepingStatus = 'SCHEDULED' or p.housekeepingStatus = 'FAILED') "
+      + "and p.modifiedTimestamp <= :instant and p.cleanupAttempts < 10 "
+      + "and (p.leaseExpiry is null or p.leaseExpiry <= :instant) "
+      + "and (p.cleanupPriority < :lastPriority "
+      + "or (p.cleanupPriority = :lastPriority and p.id < :lastId)) "
+      + "order by p.cleanupPriority desc, p.id desc")
+  Slice<HousekeepingPath> findRecordsForCleanupByPriorityAfter(
+      @Param("instant") LocalDateTime instant,
+      @Param("lastPriority") double lastPriority,
+      @Param("lastId") long lastId,
+      Pageable pageable);
+
+  /**
+   * Returns the records to clean up which have not been given a cleanup priority yet, in the order of their ids.
+   *
+   * @param lastId Id of the last record already returned, or {@code 0} for the first records.
+   * @param pageable Only the page size is used; the page number should always be 0.
+   */
+  @Query(value = "from HousekeepingPath p where p.cleanupTimestamp <= :instant "
+      + "and (p.housekeepingStatus = 'SCHEDULED' or p.housekeepingStatus = 'FAILED') "
+      + "and p.cleanupAttempts < 10 and p.cleanupPriority is null and p.id > :lastId "
+      + "order by p.id")
+  Slice<HousekeepingPath> findUnscoredRecordsForCleanup(
+      @Param("instant") LocalDateTime instant,
+      @Param("lastId") long lastId,
+      Pageable pageable);
+
+  /**
+   * Stores the estimated size and the cleanup priority of a record, without changing its version, as neither changes
+   * how the record is cleaned up.
+   *
+   * @implNote The modified timestamp is set to itself, so that MySQL does not update it automatically.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "update HousekeepingPath p set p.estimatedBytes = :estimatedBytes, "
+      + "p.cleanupPriority = :cleanupPriority, p.modifiedTimestamp = p.modifiedTimestamp "
+      + "where p.id = :id")
+  int updateCleanupPriority(
+      @Param("id") long id,
+      @Param("estimatedBytes") Long estimatedBytes,
+      @Param("cleanupPriority") double cleanupPriority);
+
+  /**
+   * Stores how far the deletion of a path has got, without changing its version, so that it can be stored while the
+   * record is being cleaned up. A {@code null} start key clears the checkpoint.
+   *
+   * @implNote The modified timestamp is set to itself, so that MySQL does not update it automatically.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "update HousekeepingPath p set p.deleteStartAfter = :startAfter, "
+      + "p.objectsDeleted = :objectsDeleted, p.bytesDeleted = :bytesDeleted, "
+      + "p.modifiedTimestamp = p.modifiedTimestamp where p.id = :id")
+  int updateDeleteCheckpoint(
+      @Param("id") long id,
+      @Param("startAfter") String startAfter,
+      @Param("objectsDeleted") Long objectsDeleted,
+      @Param("bytesDeleted") Long bytesDeleted);
+
+  /**
+   * Claims the records which are still to be cleaned up and not held by another instance, incrementing their
+   * versions so that copies read earlier can no longer be saved.
+   *
+   * @implNote The modified timestamp is set to itself, so that MySQL does not update it automatically.
+   * @return The number of records claimed.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "update HousekeepingPath p set p.leaseOwner = :owner, p.leaseExpiry = :leaseExpiry, "
+      + "p.version = p.version + 1, p.modifiedTimestamp = p.modifiedTimestamp "
+      + "where p.id in :ids "
+      + "and (p.housekeepingStatus = 'SCHEDULED' or p.housekeepingStatus = 'FAILED') "
+      + "and p.modifiedTimestamp <= :instant "
+      + "and (p.leaseExpiry is null or p.leaseExpiry <= :now)")
+  int claimRecords(
+      @Param("ids") Collection<Long> ids,
+      @Param("owner") String owner,
+      @Param("instant") LocalDateTime instant,
+      @Param("now") LocalDateTime now,
+      @Param("leaseExpiry") LocalDateTime leaseExpiry);
+
+  @Query(value = "from HousekeepingPath p where p.id in :ids and p.leaseOwner = :owner "
+      + "order by p.cleanupTimestamp, p.id")
+  List<HousekeepingPath> findClaimedRecords(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
+  /**
+   * Releases the records claimed by an owner, whether or not they have been cleaned up, without changing their
+   * versions.
+   */
+  @Transactional
+  @Modifying
+  @Query(value = "update HousekeepingPath p set p.leaseOwner = null, p.leaseExpiry = null, "
+      + "p.modifiedTimestamp = p.modifiedTimestamp "
+      + "where p.id in :ids and p.leaseOwner = :owner")
+  int releaseRecords(@Param("ids") Collection<Long> ids, @Param("owner") String owner);
+
   @Modifying
   @Query(value = "delete from HousekeepingPath p where p.cleanupTimestamp < :instant "
       + "and p.housekeepingStatus = 'DELETED'")
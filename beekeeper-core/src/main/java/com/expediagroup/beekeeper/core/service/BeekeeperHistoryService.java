@@ -1,6 +1,7 @@
 package com.expediagroup.beekeeper.core.service;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,7 +22,26 @@ public class BeekeeperHistoryService {
   }
 
   public void saveHistory(HousekeepingEntity housekeepingEntity, HousekeepingStatus status) {
-    BeekeeperHistory event = BeekeeperHistory.builder()
+    BeekeeperHistory event = createHistory(housekeepingEntity, status);
+
+    log.info("Saving activity in Beekeeper History table; {}", event);
+    beekeeperHistoryRepository.save(event);
+  }
+
+  /**
+   * Saves events created with {@link #createHistory(HousekeepingEntity, HousekeepingStatus)}. Within a transaction,
+   * the inserts are sent as JDBC batches when the flush happens.
+   */
+  public void saveHistory(List<BeekeeperHistory> events) {
+    events.forEach(event -> log.info("Saving activity in Beekeeper History table; {}", event));
+    beekeeperHistoryRepository.saveAll(events);
+  }
+
+  /**
+   * Creates the event recording the status of an entity, as it is now, without saving it.
+   */
+  public BeekeeperHistory createHistory(HousekeepingEntity housekeepingEntity, HousekeepingStatus status) {
+    return BeekeeperHistory.builder()
         .eventTimestamp(LocalDateTime.now())
         .databaseName(housekeepingEntity.getDatabaseName())
         .tableName(housekeepingEntity.getTableName())
@@ -29,8 +49,5 @@ public class BeekeeperHistoryService {
         .housekeepingStatus(status.name())
         .eventDetails(housekeepingEntity.toString())
         .build();
-
-    log.info("Saving activity in Beekeeper History table; {}", event);
-    beekeeperHistoryRepository.save(event);
   }
 }
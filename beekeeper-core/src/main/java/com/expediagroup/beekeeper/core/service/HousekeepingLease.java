@@ -0,0 +1,73 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.service;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lease under which an instance claims the records it is about to clean up, so that other instances cleaning up at the
+ * same time skip them. A record whose lease has expired, because the instance holding it stopped, can be claimed
+ * again by any instance.
+ */
+public class HousekeepingLease {
+
+  private static final HousekeepingLease NONE = new HousekeepingLease(null, Duration.ZERO);
+
+  private final String owner;
+  private final Duration duration;
+
+  public HousekeepingLease(String owner, Duration duration) {
+    this.owner = owner;
+    this.duration = duration;
+  }
+
+  /**
+   * @return A lease which is never taken, for when only one instance cleans up the records.
+   */
+  public static HousekeepingLease none() {
+    return NONE;
+  }
+
+  /**
+   * @param duration Time for which the records claimed by this instance are skipped by the others, or zero to never
+   *          claim records.
+   * @return A lease owned by this instance, which is unique to the running process.
+   */
+  public static HousekeepingLease forThisInstance(Duration duration) {
+    if (duration.isZero() || duration.isNegative()) {
+      return NONE;
+    }
+    return new HousekeepingLease(ManagementFactory.getRuntimeMXBean().getName() + "/" + UUID.randomUUID(), duration);
+  }
+
+  public boolean isEnabled() {
+    return owner != null;
+  }
+
+  public String getOwner() {
+    return owner;
+  }
+
+  /**
+   * @return The time until which records claimed at {@code now} are held.
+   */
+  public LocalDateTime expiryFrom(LocalDateTime now) {
+    return now.plus(duration);
+  }
+}
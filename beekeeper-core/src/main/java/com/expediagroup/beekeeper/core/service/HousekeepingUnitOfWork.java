@@ -0,0 +1,162 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.service;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingEntity;
+import com.expediagroup.beekeeper.core.model.HousekeepingStatus;
+import com.expediagroup.beekeeper.core.model.history.BeekeeperHistory;
+
+/**
+ * Collects the status changes and history events of a page of cleanups and writes them together in one transaction,
+ * in which Hibernate sends the updates and the history inserts as JDBC batches. The entities of the page are loaded
+ * with a single query first, so that saving them does not select each one again.
+ * <p>
+ * If the transaction fails, every record is saved on its own instead, as an unbatched unit of work does immediately.
+ * <p>
+ * A record which was changed by another instance since it was read is not saved, as its version no longer matches.
+ * Such records are left out of the transaction once the page is loaded, so that one of them does not roll back the
+ * updates of the whole page. After a save, the version of the record is brought up to date, so that it can be saved
+ * again.
+ */
+public class HousekeepingUnitOfWork<T extends HousekeepingEntity> {
+
+  private static final Logger log = LoggerFactory.getLogger(HousekeepingUnitOfWork.class);
+
+  private final CrudRepository<T, Long> repository;
+  private final BeekeeperHistoryService historyService;
+  private final TransactionTemplate transactionTemplate;
+  private final Set<T> queuedEntities = Collections.newSetFromMap(new IdentityHashMap<>());
+  private final List<T> entities = new ArrayList<>();
+  private final List<BeekeeperHistory> events = new ArrayList<>();
+
+  public HousekeepingUnitOfWork(
+      CrudRepository<T, Long> repository,
+      BeekeeperHistoryService historyService,
+      TransactionTemplate transactionTemplate) {
+    this.repository = repository;
+    this.historyService = historyService;
+    this.transactionTemplate = transactionTemplate;
+  }
+
+  /**
+   * @return A unit of work which saves every change as soon as it is made.
+   */
+  public static <T extends HousekeepingEntity> HousekeepingUnitOfWork<T> unbatched(
+      CrudRepository<T, Long> repository,
+      BeekeeperHistoryService historyService) {
+    return new HousekeepingUnitOfWork<>(repository, historyService, null);
+  }
+
+  public synchronized void save(T entity) {
+    if (transactionTemplate == null) {
+      saveSeparately(entity);
+    } else {
+      if (queuedEntities.add(entity)) {
+        entities.add(entity);
+      }
+    }
+  }
+
+  /**
+   * Records the status of an entity as it is now, even if it changes again before the next flush.
+   */
+  public synchronized void saveHistory(T entity, HousekeepingStatus status) {
+    if (transactionTemplate == null) {
+      historyService.saveHistory(entity, status);
+    } else {
+      events.add(historyService.createHistory(entity, status));
+    }
+  }
+
+  /**
+   * Writes the changes collected since the last flush.
+   */
+  public synchronized void flush() {
+    if (entities.isEmpty() && events.isEmpty()) {
+      return;
+    }
+    List<T> pendingEntities = new ArrayList<>(entities);
+    List<BeekeeperHistory> pendingEvents = new ArrayList<>(events);
+    entities.clear();
+    queuedEntities.clear();
+    events.clear();
+    List<T> currentEntities = new ArrayList<>();
+    List<T> savedCopies = new ArrayList<>();
+    try {
+      transactionTemplate.executeWithoutResult(status -> {
+        Map<Long, Long> versions = new HashMap<>();
+        repository.findAllById(pendingEntities.stream()
+            .map(HousekeepingEntity::getId)
+            .filter(Objects::nonNull)
+            .collect(Collectors.toList()))
+            .forEach(loaded -> versions.put(loaded.getId(), loaded.getVersion()));
+        currentEntities.clear();
+        savedCopies.clear();
+        for (T entity : pendingEntities) {
+          Long version = versions.get(entity.getId());
+          if (version != null && version != entity.getVersion()) {
+            log.warn("Could not save {} because it was changed by another instance", entity);
+          } else {
+            currentEntities.add(entity);
+          }
+        }
+        repository.saveAll(currentEntities).forEach(savedCopies::add);
+        historyService.saveHistory(pendingEvents);
+      });
+      // the versions are only incremented when the transaction is flushed
+      for (int i = 0; i < savedCopies.size(); i++) {
+        updateVersion(currentEntities.get(i), savedCopies.get(i));
+      }
+    } catch (Exception e) {
+      // the transaction was rolled back, so none of its updates or history events is written twice
+      log.warn("Could not write {} records and {} history events in one transaction, writing them separately",
+          pendingEntities.size(), pendingEvents.size(), e);
+      pendingEntities.forEach(this::saveSeparately);
+      historyService.saveHistory(pendingEvents);
+    }
+  }
+
+  private void saveSeparately(T entity) {
+    try {
+      updateVersion(entity, repository.save(entity));
+    } catch (OptimisticLockingFailureException e) {
+      log.warn("Could not save {} because it was changed by another instance", entity, e);
+    }
+  }
+
+  private void updateVersion(T entity, T saved) {
+    // a detached entity is saved by merging it into a copy, which is the one given the new version
+    if (saved != null && saved != entity) {
+      entity.setVersion(saved.getVersion());
+    }
+  }
+}
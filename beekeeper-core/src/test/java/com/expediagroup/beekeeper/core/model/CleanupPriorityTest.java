@@ -0,0 +1,104 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+public class CleanupPriorityTest {
+
+  private static final long GIB = 1024L * 1024L * 1024L;
+  private static final LocalDateTime CLEANUP_TIMESTAMP = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+  @Test
+  public void none() {
+    assertThat(CleanupPriority.none().isEnabled()).isFalse();
+    assertThat(new CleanupPriority(0, 1).isEnabled()).isTrue();
+  }
+
+  @Test
+  public void invalidWeights() {
+    assertThrows(BeekeeperException.class, () -> new CleanupPriority(-1, 0));
+    assertThrows(BeekeeperException.class, () -> new CleanupPriority(0, -1));
+  }
+
+  @Test
+  public void largerRecordsScoreHigher() {
+    CleanupPriority priority = new CleanupPriority(1, 0);
+
+    assertThat(priority.score(CLEANUP_TIMESTAMP, 2 * GIB) - priority.score(CLEANUP_TIMESTAMP, GIB)).isEqualTo(1.0);
+    assertThat(priority.score(CLEANUP_TIMESTAMP, null)).isEqualTo(0.0);
+  }
+
+  @Test
+  public void moreOverdueRecordsScoreHigher() {
+    CleanupPriority priority = new CleanupPriority(0, 2);
+
+    assertThat(priority.score(CLEANUP_TIMESTAMP.minusHours(3), null) - priority.score(CLEANUP_TIMESTAMP, null))
+        .isEqualTo(6.0);
+  }
+
+  @Test
+  public void updateScore() {
+    CleanupPriority priority = new CleanupPriority(1, 1);
+    HousekeepingPath path = HousekeepingPath
+        .builder()
+        .path("s3://bucket/table/p=1")
+        .creationTimestamp(CLEANUP_TIMESTAMP)
+        .cleanupDelay(PeriodDuration.of(Duration.ZERO))
+        .build();
+
+    assertThat(priority.updateScore(path)).isTrue();
+    assertThat(path.getCleanupPriority()).isEqualTo(priority.score(CLEANUP_TIMESTAMP, null));
+    assertThat(priority.updateScore(path)).isFalse();
+
+    path.setEstimatedBytes(GIB);
+    assertThat(priority.updateScore(path)).isTrue();
+    assertThat(path.getCleanupPriority()).isEqualTo(priority.score(CLEANUP_TIMESTAMP, GIB));
+  }
+
+  @Test
+  public void scoreClearedWhenEstimatedBytesOrCleanupDelayChange() {
+    CleanupPriority priority = new CleanupPriority(1, 1);
+    HousekeepingMetadata metadata = HousekeepingMetadata
+        .builder()
+        .path("s3://bucket/table")
+        .databaseName("database")
+        .tableName("table")
+        .creationTimestamp(CLEANUP_TIMESTAMP)
+        .cleanupDelay(PeriodDuration.of(Duration.ZERO))
+        .build();
+    metadata.setEstimatedBytes(GIB);
+    priority.updateScore(metadata);
+
+    metadata.setEstimatedBytes(GIB);
+    assertThat(metadata.getCleanupPriority()).isNotNull();
+
+    metadata.setEstimatedBytes(2 * GIB);
+    assertThat(metadata.getCleanupPriority()).isNull();
+
+    priority.updateScore(metadata);
+    metadata.setCleanupDelay(PeriodDuration.of(Duration.ofDays(1)));
+    assertThat(metadata.getCleanupPriority()).isNull();
+  }
+}
@@ -0,0 +1,51 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.model;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.Test;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+public class TableShardTest {
+
+  @Test
+  public void tableHashIsCrc32OfQualifiedName() {
+    assertThat(TableShard.tableHash("database", "table")).isEqualTo(1229922779L);
+  }
+
+  @Test
+  public void tableHashOfMissingNameIsHashOfEmptyName() {
+    assertThat(TableShard.tableHash(null, "table")).isEqualTo(TableShard.tableHash("", "table"));
+    assertThat(TableShard.tableHash("database", null)).isEqualTo(TableShard.tableHash("database", ""));
+    assertThat(TableShard.tableHash(null, "table")).isNotEqualTo(TableShard.tableHash("null", "table"));
+  }
+
+  @Test
+  public void all() {
+    assertThat(TableShard.all().getIndex()).isEqualTo(0);
+    assertThat(TableShard.all().getCount()).isEqualTo(1);
+  }
+
+  @Test
+  public void invalidShards() {
+    assertThrows(BeekeeperException.class, () -> new TableShard(0, 0));
+    assertThrows(BeekeeperException.class, () -> new TableShard(-1, 2));
+    assertThrows(BeekeeperException.class, () -> new TableShard(2, 2));
+  }
+}
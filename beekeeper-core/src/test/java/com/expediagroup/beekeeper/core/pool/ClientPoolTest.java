@@ -0,0 +1,147 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+import org.junit.jupiter.api.Test;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+
+public class ClientPoolTest {
+
+  private static final Instant NOW = Instant.parse("2020-01-01T00:00:00Z");
+
+  private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+  private final List<TestClient> openedClients = new ArrayList<>();
+
+  @Test
+  public void clientGivenBackIsBorrowedAgain() throws IOException {
+    ClientPool<TestClient> pool = pool(client -> true, 2, Duration.ZERO);
+
+    TestClient first = pool.get();
+    assertThat(first.ping()).isEqualTo("pong");
+    first.close();
+    first.close();
+    pool.get().close();
+
+    assertThat(openedClients).hasSize(1);
+    verify(openedClients.get(0), never()).close();
+    assertThat(meterRegistry.get("test-pool-wait").timer().count()).isEqualTo(2);
+    assertThat(meterRegistry.get("test-pool-idle").gauge().value()).isEqualTo(1.0);
+  }
+
+  @Test
+  public void clientWhichFailsValidationIsReplaced() throws IOException {
+    ClientPool<TestClient> pool = pool(client -> false, 2, Duration.ZERO);
+
+    pool.get().close();
+    pool.get().close();
+
+    assertThat(openedClients).hasSize(2);
+    verify(openedClients.get(0)).close();
+  }
+
+  @Test
+  public void clientCannotBeUsedOnceGivenBack() throws IOException {
+    ClientPool<TestClient> pool = pool(client -> true, 1, Duration.ZERO);
+    TestClient client = pool.get();
+    client.close();
+
+    assertThatExceptionOfType(IllegalStateException.class).isThrownBy(client::ping);
+  }
+
+  @Test
+  public void waitForClientTimesOut() {
+    ClientPool<TestClient> pool = pool(client -> true, 1, Duration.ZERO);
+    TestClient client = pool.get();
+
+    assertThatExceptionOfType(BeekeeperException.class).isThrownBy(pool::get);
+    assertThat(meterRegistry.get("test-pool-active").gauge().value()).isEqualTo(1.0);
+    assertThat(openedClients).hasSize(1);
+  }
+
+  @Test
+  public void idleClientsAreEvicted() throws IOException {
+    Clock clock = mock(Clock.class);
+    when(clock.instant()).thenReturn(NOW, NOW.plusSeconds(59), NOW.plusSeconds(60));
+    ClientPool<TestClient> pool = new ClientPool<>(TestClient.class, this::openClient, client -> true, 2,
+        Duration.ofMinutes(1), Duration.ofMillis(10), meterRegistry, "test-pool", clock);
+    pool.get().close();
+
+    pool.evictIdleClients();
+    verify(openedClients.get(0), never()).close();
+    pool.evictIdleClients();
+    verify(openedClients.get(0)).close();
+    assertThat(pool.idleCount()).isEqualTo(0);
+    pool.close();
+  }
+
+  @Test
+  public void closeClosesIdleClients() throws IOException {
+    ClientPool<TestClient> pool = pool(client -> true, 2, Duration.ZERO);
+    TestClient idle = pool.get();
+    TestClient active = pool.get();
+    idle.close();
+
+    pool.close();
+    verify(openedClients.get(0)).close();
+    verify(openedClients.get(1), never()).close();
+
+    active.close();
+    verify(openedClients.get(1)).close();
+    assertThatExceptionOfType(BeekeeperException.class).isThrownBy(pool::get);
+  }
+
+  @Test
+  public void invalidPool() {
+    assertThatExceptionOfType(BeekeeperException.class)
+        .isThrownBy(() -> pool(client -> true, 0, Duration.ZERO));
+  }
+
+  private ClientPool<TestClient> pool(Predicate<TestClient> validator, int maxSize, Duration maxIdle) {
+    return new ClientPool<>(TestClient.class, this::openClient, validator, maxSize, maxIdle, Duration.ofMillis(10),
+        meterRegistry, "test-pool");
+  }
+
+  private TestClient openClient() {
+    TestClient client = mock(TestClient.class);
+    when(client.ping()).thenReturn("pong");
+    openedClients.add(client);
+    return client;
+  }
+
+  public interface TestClient extends Closeable {
+    String ping();
+  }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -32,8 +32,11 @@ import static com.expediagroup.beekeeper.core.model.LifecycleEventType.EXPIRED;
 
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -54,7 +57,9 @@ import com.google.common.collect.Lists;
 import com.expediagroup.beekeeper.core.TestApplication;
 import com.expediagroup.beekeeper.core.model.HousekeepingMetadata;
 import com.expediagroup.beekeeper.core.model.HousekeepingStatus;
+import com.expediagroup.beekeeper.core.model.HousekeepingTable;
 import com.expediagroup.beekeeper.core.model.PeriodDuration;
+import com.expediagroup.beekeeper.core.model.TableShard;
 
 @ExtendWith(SpringExtension.class)
 @TestPropertySource(properties = {
@@ -171,6 +176,93 @@ public class HousekeepingMetadataRepositoryTest {
     assertThat(result.getContent().get(0).getTableName()).isEqualTo(TABLE_NAME);
   }
 
+  @Test
+  public void findRecordsForCleanupByModifiedTimestampAfter() {
+    List.of("table1", "table2", "table3")
+        .forEach(table -> housekeepingMetadataRepository
+            .save(createEntityHouseKeepingTable(DATABASE_NAME, table, PARTITION_NAME)));
+
+    List<HousekeepingMetadata> firstPage = housekeepingMetadataRepository
+        .findRecordsForCleanupByModifiedTimestamp(CLEANUP_TIMESTAMP, PageRequest.of(PAGE, 1))
+        .getContent();
+    assertThat(firstPage).extracting("tableName").containsExactly("table1");
+
+    HousekeepingMetadata lastRecord = firstPage.get(0);
+    List<HousekeepingMetadata> result = housekeepingMetadataRepository
+        .findRecordsForCleanupByModifiedTimestampAfter(CLEANUP_TIMESTAMP, lastRecord.getModifiedTimestamp(),
+            lastRecord.getId(), PageRequest.of(PAGE, PAGE_SIZE))
+        .getContent();
+    assertThat(result).extracting("tableName").containsExactly("table2", "table3");
+  }
+
+  @Test
+  public void findRecordsForCleanupByModifiedTimestampInShard() {
+    List<String> tables = IntStream.range(0, 10).mapToObj(i -> "table" + i).collect(Collectors.toList());
+    tables.forEach(table -> {
+      housekeepingMetadataRepository.save(createEntityHouseKeepingTable(DATABASE_NAME, table, null));
+      housekeepingMetadataRepository.save(createEntityHouseKeepingTable(DATABASE_NAME, table, PARTITION_NAME));
+    });
+
+    List<HousekeepingMetadata> found = new ArrayList<>();
+    for (int shard = 0; shard < 3; shard++) {
+      int shardIndex = shard;
+      List<HousekeepingMetadata> result = housekeepingMetadataRepository
+          .findRecordsForCleanupByModifiedTimestamp(CLEANUP_TIMESTAMP, shardIndex, 3, PageRequest.of(PAGE, PAGE_SIZE))
+          .getContent();
+      assertThat(result).allMatch(metadata -> {
+        long tableHash = TableShard.tableHash(DATABASE_NAME, metadata.getTableName());
+        return metadata.getTableHash() == tableHash && tableHash % 3 == shardIndex;
+      });
+      found.addAll(result);
+    }
+    assertThat(found).hasSize(2 * tables.size());
+  }
+
+  @Test
+  public void findTablesAndRecordsForCleanupInTable() {
+    housekeepingMetadataRepository.save(createEntityHouseKeepingTable(DATABASE_NAME, "table1", null));
+    housekeepingMetadataRepository.save(createEntityHouseKeepingTable(DATABASE_NAME, "table1", PARTITION_NAME));
+    housekeepingMetadataRepository.save(createEntityHouseKeepingTable(DATABASE_NAME, "table2", null));
+
+    List<HousekeepingTable> tables = housekeepingMetadataRepository.findTablesForCleanup(CLEANUP_TIMESTAMP, 0, 1);
+    assertThat(tables).extracting("tableName").containsExactly("table1", "table2");
+
+    List<HousekeepingMetadata> firstPage = housekeepingMetadataRepository
+        .findRecordsForCleanupInTable(CLEANUP_TIMESTAMP, DATABASE_NAME, "table1", 0L, PageRequest.of(PAGE, 1))
+        .getContent();
+    assertThat(firstPage).extracting("partitionName").containsExactly((String) null);
+    Slice<HousekeepingMetadata> secondPage = housekeepingMetadataRepository
+        .findRecordsForCleanupInTable(CLEANUP_TIMESTAMP, DATABASE_NAME, "table1", firstPage.get(0).getId(),
+            PageRequest.of(PAGE, 1));
+    assertThat(secondPage.getContent()).extracting("partitionName").containsExactly(PARTITION_NAME);
+    assertThat(secondPage.hasNext()).isFalse();
+
+    int shardIndex = (int) (TableShard.tableHash(DATABASE_NAME, "table2") % 2);
+    assertThat(housekeepingMetadataRepository.findTablesForCleanup(CLEANUP_TIMESTAMP, shardIndex, 2))
+        .extracting("tableName")
+        .contains("table2");
+    assertThat(housekeepingMetadataRepository.findTablesForCleanup(CLEANUP_TIMESTAMP, 1 - shardIndex, 2))
+        .extracting("tableName")
+        .doesNotContain("table2");
+  }
+
+  @Test
+  public void findNextCleanupTimestamp() {
+    housekeepingMetadataRepository.save(createEntityHouseKeepingTable(DATABASE_NAME, "table1", null));
+    housekeepingMetadataRepository.save(createEntityHouseKeepingTable(DATABASE_NAME, "table2", null,
+        CREATION_TIMESTAMP.plusDays(1), SCHEDULED));
+
+    assertThat(housekeepingMetadataRepository.findNextCleanupTimestamp(CREATION_TIMESTAMP, 0, 1))
+        .hasValueSatisfying(timestamp -> assertThat(timestamp).isEqualToIgnoringNanos(CLEANUP_TIMESTAMP));
+    assertThat(housekeepingMetadataRepository.findNextCleanupTimestamp(CLEANUP_TIMESTAMP, 0, 1))
+        .hasValueSatisfying(timestamp -> assertThat(timestamp).isEqualToIgnoringNanos(CLEANUP_TIMESTAMP.plusDays(1)));
+    assertThat(housekeepingMetadataRepository.findNextCleanupTimestamp(CLEANUP_TIMESTAMP.plusDays(1), 0, 1)).isEmpty();
+
+    int shardIndex = (int) (TableShard.tableHash(DATABASE_NAME, "table2") % 2);
+    assertThat(housekeepingMetadataRepository.findNextCleanupTimestamp(CLEANUP_TIMESTAMP, 1 - shardIndex, 2))
+        .isEmpty();
+  }
+
   @Test
   public void findRecordsForCleanupByModifiedTimestampZeroResults() {
     HousekeepingMetadata table = createPartitionedEntityHousekeepingTable();
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -31,6 +31,7 @@ import static com.expediagroup.beekeeper.core.model.LifecycleEventType.UNREFEREN
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -51,6 +52,7 @@ import com.google.common.collect.Lists;
 import com.expediagroup.beekeeper.core.TestApplication;
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.core.model.HousekeepingStatus;
+import com.expediagroup.beekeeper.core.model.HousekeepingTable;
 import com.expediagroup.beekeeper.core.model.PeriodDuration;
 
 @ExtendWith(SpringExtension.class)
@@ -221,6 +223,136 @@ public class HousekeepingPathRepositoryTest {
     assertThat(result.get(1).getPath()).isEqualTo(path2);
   }
 
+  @Test
+  void findRecordsForCleanupAfter() {
+    housekeepingPathRepository.save(createEntityHousekeepingPath("path0", CREATION_TIMESTAMP.minusHours(1), SCHEDULED));
+    List.of("path1", "path2", "path3")
+        .forEach(path -> housekeepingPathRepository.save(createEntityHousekeepingPath(path, CREATION_TIMESTAMP,
+            SCHEDULED)));
+
+    List<HousekeepingPath> firstPage = housekeepingPathRepository
+        .findRecordsForCleanup(CLEANUP_TIMESTAMP, PageRequest.of(PAGE, 2))
+        .getContent();
+    assertThat(firstPage).extracting("path").containsExactly("path0", "path1");
+
+    HousekeepingPath lastRecord = firstPage.get(1);
+    List<HousekeepingPath> result = housekeepingPathRepository
+        .findRecordsForCleanupAfter(CLEANUP_TIMESTAMP, lastRecord.getCleanupTimestamp(), lastRecord.getId(),
+            PageRequest.of(PAGE, 2))
+        .getContent();
+    assertThat(result).extracting("path").containsExactly("path2", "path3");
+  }
+
+  @Test
+  void findTablesAndRecordsForCleanupInTable() {
+    List.of("path1", "path2", "path3").forEach(path -> {
+      HousekeepingPath housekeepingPath = createEntityHousekeepingPath(path, CREATION_TIMESTAMP, SCHEDULED);
+      housekeepingPath.setTableName(path.equals("path2") ? "other_table" : "table");
+      housekeepingPathRepository.save(housekeepingPath);
+    });
+    housekeepingPathRepository.save(createEntityHousekeepingPath("path4", CREATION_TIMESTAMP, DELETED));
+
+    List<HousekeepingTable> tables = housekeepingPathRepository.findTablesForCleanup(CLEANUP_TIMESTAMP);
+    assertThat(tables).extracting("databaseName").containsExactly("database", "database");
+    assertThat(tables).extracting("tableName").containsExactly("other_table", "table");
+
+    List<HousekeepingPath> firstPage = housekeepingPathRepository
+        .findRecordsForCleanupInTable(CLEANUP_TIMESTAMP, "database", "table", 0L, PageRequest.of(PAGE, 1))
+        .getContent();
+    assertThat(firstPage).extracting("path").containsExactly("path1");
+    Slice<HousekeepingPath> secondPage = housekeepingPathRepository
+        .findRecordsForCleanupInTable(CLEANUP_TIMESTAMP, "database", "table", firstPage.get(0).getId(),
+            PageRequest.of(PAGE, 1));
+    assertThat(secondPage.getContent()).extracting("path").containsExactly("path3");
+    assertThat(secondPage.hasNext()).isFalse();
+  }
+
+  @Test
+  void findRecordsForCleanupByPriority() {
+    List<HousekeepingPath> paths = List.of("path1", "path2", "path3", "path4")
+        .stream()
+        .map(path -> housekeepingPathRepository.save(createEntityHousekeepingPath(path, CREATION_TIMESTAMP, SCHEDULED)))
+        .collect(Collectors.toList());
+    housekeepingPathRepository.updateCleanupPriority(paths.get(0).getId(), null, 1.0);
+    housekeepingPathRepository.updateCleanupPriority(paths.get(1).getId(), 100L, 3.0);
+    housekeepingPathRepository.updateCleanupPriority(paths.get(2).getId(), null, 2.0);
+
+    assertThat(housekeepingPathRepository.findUnscoredRecordsForCleanup(CLEANUP_TIMESTAMP, 0L,
+        PageRequest.of(PAGE, PAGE_SIZE))).extracting("path").containsExactly("path4");
+
+    List<HousekeepingPath> firstPage = housekeepingPathRepository
+        .findRecordsForCleanupByPriority(CLEANUP_TIMESTAMP, PageRequest.of(PAGE, 2))
+        .getContent();
+    assertThat(firstPage).extracting("path").containsExactly("path2", "path3");
+    assertThat(firstPage.get(0).getEstimatedBytes()).isEqualTo(100L);
+
+    HousekeepingPath lastRecord = firstPage.get(1);
+    assertThat(housekeepingPathRepository.findRecordsForCleanupByPriorityAfter(CLEANUP_TIMESTAMP,
+        lastRecord.getCleanupPriority(), lastRecord.getId(), PageRequest.of(PAGE, 2)))
+        .extracting("path")
+        .containsExactly("path1");
+  }
+
+  @Test
+  void findNextCleanupTimestamp() {
+    housekeepingPathRepository.save(createEntityHousekeepingPath("path1", CREATION_TIMESTAMP, SCHEDULED));
+    housekeepingPathRepository.save(createEntityHousekeepingPath("path2", CREATION_TIMESTAMP.plusHours(1), FAILED));
+    housekeepingPathRepository.save(createEntityHousekeepingPath("path3", CREATION_TIMESTAMP.minusMinutes(30),
+        DELETED));
+
+    assertThat(housekeepingPathRepository.findNextCleanupTimestamp(CREATION_TIMESTAMP))
+        .hasValueSatisfying(timestamp -> assertThat(timestamp).isEqualToIgnoringNanos(CLEANUP_TIMESTAMP));
+    assertThat(housekeepingPathRepository.findNextCleanupTimestamp(CLEANUP_TIMESTAMP))
+        .hasValueSatisfying(timestamp -> assertThat(timestamp).isEqualToIgnoringNanos(CLEANUP_TIMESTAMP.plusHours(1)));
+    assertThat(housekeepingPathRepository.findNextCleanupTimestamp(CLEANUP_TIMESTAMP.plusHours(1))).isEmpty();
+  }
+
+  @Test
+  void updateDeleteCheckpoint() {
+    HousekeepingPath path = housekeepingPathRepository
+        .save(createEntityHousekeepingPath("path1", CREATION_TIMESTAMP, SCHEDULED));
+
+    assertThat(housekeepingPathRepository.updateDeleteCheckpoint(path.getId(), "path1/file1000", 1000L, 5000L))
+        .isEqualTo(1);
+    HousekeepingPath checkpointed = housekeepingPathRepository.findById(path.getId()).get();
+    assertThat(checkpointed.getDeleteStartAfter()).isEqualTo("path1/file1000");
+    assertThat(checkpointed.getObjectsDeleted()).isEqualTo(1000L);
+    assertThat(checkpointed.getBytesDeleted()).isEqualTo(5000L);
+    assertThat(checkpointed.getVersion()).isEqualTo(path.getVersion());
+
+    housekeepingPathRepository.updateDeleteCheckpoint(path.getId(), null, null, null);
+    HousekeepingPath cleared = housekeepingPathRepository.findById(path.getId()).get();
+    assertThat(cleared.getDeleteStartAfter()).isNull();
+    assertThat(cleared.getObjectsDeleted()).isNull();
+  }
+
+  @Test
+  void claimAndReleaseRecords() {
+    List<Long> ids = List.of("path1", "path2")
+        .stream()
+        .map(path -> housekeepingPathRepository.save(createEntityHousekeepingPath(path, CREATION_TIMESTAMP, SCHEDULED)))
+        .map(HousekeepingPath::getId)
+        .collect(Collectors.toList());
+    LocalDateTime now = CLEANUP_TIMESTAMP;
+
+    assertThat(housekeepingPathRepository.claimRecords(ids.subList(0, 1), "other", CLEANUP_TIMESTAMP, now,
+        now.plusHours(1))).isEqualTo(1);
+    assertThat(housekeepingPathRepository.claimRecords(ids, "owner", CLEANUP_TIMESTAMP, now, now.plusHours(1)))
+        .isEqualTo(1);
+    List<HousekeepingPath> claimed = housekeepingPathRepository.findClaimedRecords(ids, "owner");
+    assertThat(claimed).extracting("path").containsExactly("path2");
+    assertThat(claimed.get(0).getVersion()).isEqualTo(1L);
+    assertThat(housekeepingPathRepository.findRecordsForCleanup(CLEANUP_TIMESTAMP, PageRequest.of(PAGE, PAGE_SIZE)))
+        .isEmpty();
+
+    housekeepingPathRepository.releaseRecords(ids, "owner");
+    assertThat(housekeepingPathRepository.findRecordsForCleanup(CLEANUP_TIMESTAMP, PageRequest.of(PAGE, PAGE_SIZE)))
+        .extracting("path")
+        .containsExactly("path2");
+    assertThat(housekeepingPathRepository.claimRecords(ids, "owner", CLEANUP_TIMESTAMP, now.plusHours(2),
+        now.plusHours(3))).isEqualTo(2);
+  }
+
   @Test
   @Transactional
   public void cleanUpOldDeletedRecords() {
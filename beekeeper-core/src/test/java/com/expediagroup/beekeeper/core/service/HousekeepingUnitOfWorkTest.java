@@ -0,0 +1,178 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.core.service;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.DELETED;
+import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.SKIPPED;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.core.model.history.BeekeeperHistory;
+import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
+
+@ExtendWith(MockitoExtension.class)
+public class HousekeepingUnitOfWorkTest {
+
+  private @Mock HousekeepingPathRepository repository;
+  private @Mock BeekeeperHistoryService historyService;
+  private @Mock TransactionTemplate transactionTemplate;
+  private @Mock HousekeepingPath path;
+  private @Mock HousekeepingPath savedPath;
+  private @Mock BeekeeperHistory event;
+
+  @Test
+  public void unbatchedWritesImmediately() {
+    HousekeepingUnitOfWork<HousekeepingPath> unitOfWork = HousekeepingUnitOfWork.unbatched(repository, historyService);
+
+    unitOfWork.save(path);
+    unitOfWork.saveHistory(path, DELETED);
+
+    verify(repository).save(path);
+    verify(historyService).saveHistory(path, DELETED);
+    unitOfWork.flush();
+  }
+
+  @Test
+  public void unbatchedUpdatesVersion() {
+    HousekeepingUnitOfWork<HousekeepingPath> unitOfWork = HousekeepingUnitOfWork.unbatched(repository, historyService);
+    when(repository.save(path)).thenReturn(savedPath);
+    when(savedPath.getVersion()).thenReturn(2L);
+
+    unitOfWork.save(path);
+
+    verify(path).setVersion(2L);
+  }
+
+  @Test
+  public void unbatchedSkipsRecordChangedByAnotherInstance() {
+    HousekeepingUnitOfWork<HousekeepingPath> unitOfWork = HousekeepingUnitOfWork.unbatched(repository, historyService);
+    when(repository.save(path)).thenThrow(new ObjectOptimisticLockingFailureException(HousekeepingPath.class, 1L));
+
+    unitOfWork.save(path);
+
+    verify(path, never()).setVersion(anyLong());
+  }
+
+  @Test
+  public void writesOnFlushInOneTransaction() {
+    HousekeepingUnitOfWork<HousekeepingPath> unitOfWork = new HousekeepingUnitOfWork<>(repository, historyService,
+        transactionTemplate);
+    when(path.getId()).thenReturn(1L);
+    when(historyService.createHistory(path, DELETED)).thenReturn(event);
+    doAnswer(invocation -> {
+      Consumer<TransactionStatus> action = invocation.getArgument(0);
+      action.accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
+
+    unitOfWork.save(path);
+    unitOfWork.save(path);
+    unitOfWork.saveHistory(path, DELETED);
+    verifyNoInteractions(repository, transactionTemplate);
+
+    when(repository.saveAll(List.of(path))).thenReturn(List.of(savedPath));
+    when(savedPath.getVersion()).thenReturn(2L);
+
+    unitOfWork.flush();
+    verify(repository).findAllById(List.of(1L));
+    verify(path).setVersion(2L);
+    verify(historyService).saveHistory(List.of(event));
+    verify(repository, never()).save(path);
+  }
+
+  @Test
+  public void skipsRecordChangedByAnotherInstanceInPage() {
+    HousekeepingUnitOfWork<HousekeepingPath> unitOfWork = new HousekeepingUnitOfWork<>(repository, historyService,
+        transactionTemplate);
+    HousekeepingPath path1 = pathWithVersion(1L, 1L);
+    HousekeepingPath stalePath = pathWithVersion(2L, 1L);
+    HousekeepingPath path3 = pathWithVersion(3L, 1L);
+    HousekeepingPath current1 = pathWithVersion(1L, 1L);
+    HousekeepingPath current2 = pathWithVersion(2L, 2L);
+    HousekeepingPath current3 = pathWithVersion(3L, 1L);
+    when(historyService.createHistory(any(), eq(DELETED))).thenReturn(event);
+    when(repository.findAllById(List.of(1L, 2L, 3L))).thenReturn(List.of(current1, current2, current3));
+    when(repository.saveAll(List.of(path1, path3))).thenReturn(List.of(path1, path3));
+    doAnswer(invocation -> {
+      Consumer<TransactionStatus> action = invocation.getArgument(0);
+      action.accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
+
+    for (HousekeepingPath housekeepingPath : List.of(path1, stalePath, path3)) {
+      unitOfWork.save(housekeepingPath);
+      unitOfWork.saveHistory(housekeepingPath, DELETED);
+    }
+    unitOfWork.flush();
+
+    verify(repository).saveAll(List.of(path1, path3));
+    verify(historyService).saveHistory(List.of(event, event, event));
+    verify(repository, never()).save(any());
+  }
+
+  @Test
+  public void writesSeparatelyWhenTransactionFails() {
+    HousekeepingUnitOfWork<HousekeepingPath> unitOfWork = new HousekeepingUnitOfWork<>(repository, historyService,
+        transactionTemplate);
+    when(historyService.createHistory(path, SKIPPED)).thenReturn(event);
+    doThrow(new RuntimeException()).when(transactionTemplate).executeWithoutResult(any());
+
+    unitOfWork.save(path);
+    unitOfWork.saveHistory(path, SKIPPED);
+    unitOfWork.flush();
+
+    verify(repository).save(path);
+    verify(historyService).saveHistory(List.of(event));
+  }
+
+  @Test
+  public void flushWithoutChanges() {
+    HousekeepingUnitOfWork<HousekeepingPath> unitOfWork = new HousekeepingUnitOfWork<>(repository, historyService,
+        transactionTemplate);
+
+    unitOfWork.flush();
+
+    verifyNoInteractions(repository, historyService, transactionTemplate);
+  }
+
+  private HousekeepingPath pathWithVersion(long id, long version) {
+    HousekeepingPath housekeepingPath = mock(HousekeepingPath.class);
+    when(housekeepingPath.getId()).thenReturn(id);
+    when(housekeepingPath.getVersion()).thenReturn(version);
+    return housekeepingPath;
+  }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -91,6 +91,7 @@ public abstract class BeekeeperIntegrationTestBase {
   private static final String BEEKEEPER_HOUSEKEEPING_PATH_TABLE_NAME = "housekeeping_path";
   private static final String BEEKEEPER_HOUSEKEEPING_METADATA_TABLE_NAME = "housekeeping_metadata";
   private static final String BEEKEEPER_HISTORY_TABLE_NAME = "beekeeper_history";
+  private static final String BEEKEEPER_HISTORY_ID_TABLE_NAME = "beekeeper_history_id";
 
   // FIELDS TO INSERT INTO BEEKEEPER TABLES
   private Long id = 1L;
@@ -156,6 +157,7 @@ public abstract class BeekeeperIntegrationTestBase {
     mySQLTestUtils.dropTable(BEEKEEPER_DB_NAME, BEEKEEPER_HOUSEKEEPING_PATH_TABLE_NAME);
     mySQLTestUtils.dropTable(BEEKEEPER_DB_NAME, BEEKEEPER_HOUSEKEEPING_METADATA_TABLE_NAME);
     mySQLTestUtils.dropTable(BEEKEEPER_DB_NAME, BEEKEEPER_HISTORY_TABLE_NAME);
+    mySQLTestUtils.dropTable(BEEKEEPER_DB_NAME, BEEKEEPER_HISTORY_ID_TABLE_NAME);
   }
 
   protected void insertUnreferencedPath(String path) throws SQLException {
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2024 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -88,6 +88,7 @@ public class BeekeeperMetadataCleanupIntegrationTest extends BeekeeperIntegratio
 
   protected static final String SPRING_PROFILES_ACTIVE_PROPERTY = "spring.profiles.active";
   protected static final String SCHEDULER_DELAY_MS_PROPERTY = "properties.scheduler-delay-ms";
+  protected static final String DISABLE_TABLES_DELAY_MS_PROPERTY = "properties.disable-tables-delay-ms";
   protected static final String DRY_RUN_ENABLED_PROPERTY = "properties.dry-run-enabled";
   protected static final String AWS_S3_ENDPOINT_PROPERTY = "aws.s3.endpoint";
   protected static final String METASTORE_URI_PROPERTY = "properties.metastore-uri";
@@ -154,6 +155,7 @@ public class BeekeeperMetadataCleanupIntegrationTest extends BeekeeperIntegratio
   public static void init() {
     System.setProperty(SPRING_PROFILES_ACTIVE_PROPERTY, "test");
     System.setProperty(SCHEDULER_DELAY_MS_PROPERTY, SCHEDULER_DELAY_MS);
+    System.setProperty(DISABLE_TABLES_DELAY_MS_PROPERTY, SCHEDULER_DELAY_MS);
     System.setProperty(DRY_RUN_ENABLED_PROPERTY, "false");
     System.setProperty(AWS_S3_ENDPOINT_PROPERTY, S3_ENDPOINT);
     System.setProperty(AWS_DISABLE_GET_VALIDATION_PROPERTY, "true");
@@ -170,6 +172,7 @@ public class BeekeeperMetadataCleanupIntegrationTest extends BeekeeperIntegratio
 
     System.clearProperty(SPRING_PROFILES_ACTIVE_PROPERTY);
     System.clearProperty(SCHEDULER_DELAY_MS_PROPERTY);
+    System.clearProperty(DISABLE_TABLES_DELAY_MS_PROPERTY);
     System.clearProperty(DRY_RUN_ENABLED_PROPERTY);
     System.clearProperty(AWS_S3_ENDPOINT_PROPERTY);
     System.clearProperty(AWS_DISABLE_GET_VALIDATION_PROPERTY);
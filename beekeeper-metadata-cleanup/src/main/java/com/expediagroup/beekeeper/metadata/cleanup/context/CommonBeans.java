@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2025 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,10 +15,12 @@
  */
 package com.expediagroup.beekeeper.metadata.cleanup.context;
 
+import java.time.Duration;
 import java.util.List;
 import java.util.function.Supplier;
 
 import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.thrift.TException;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
@@ -28,6 +30,7 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Profile;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import io.micrometer.core.instrument.MeterRegistry;
 
@@ -37,21 +40,31 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 
 import com.expediagroup.beekeeper.cleanup.aws.S3Client;
 import com.expediagroup.beekeeper.cleanup.aws.S3PathCleaner;
+import com.expediagroup.beekeeper.cleanup.aws.S3RequestRateController;
 import com.expediagroup.beekeeper.cleanup.aws.S3SentinelFilesCleaner;
 import com.expediagroup.beekeeper.cleanup.hive.HiveClientFactory;
 import com.expediagroup.beekeeper.cleanup.hive.HiveMetadataCleaner;
 import com.expediagroup.beekeeper.cleanup.metadata.CleanerClientFactory;
 import com.expediagroup.beekeeper.cleanup.metadata.MetadataCleaner;
+import com.expediagroup.beekeeper.cleanup.metadata.TablePropertiesCache;
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunSummaryReporter;
 import com.expediagroup.beekeeper.cleanup.monitoring.DeletedMetadataReporter;
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
+import com.expediagroup.beekeeper.cleanup.service.CleanupBudget;
+import com.expediagroup.beekeeper.cleanup.service.CleanupPager;
 import com.expediagroup.beekeeper.cleanup.service.CleanupService;
 import com.expediagroup.beekeeper.cleanup.service.DisableTablesService;
 import com.expediagroup.beekeeper.cleanup.service.RepositoryCleanupService;
 import com.expediagroup.beekeeper.cleanup.validation.IcebergValidator;
+import com.expediagroup.beekeeper.core.model.CleanupPriority;
+import com.expediagroup.beekeeper.core.model.TableShard;
+import com.expediagroup.beekeeper.core.pool.ClientPool;
 import com.expediagroup.beekeeper.core.repository.BeekeeperHistoryRepository;
 import com.expediagroup.beekeeper.core.repository.HousekeepingMetadataRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
+import com.expediagroup.beekeeper.core.service.HousekeepingUnitOfWork;
 import com.expediagroup.beekeeper.metadata.cleanup.handler.ExpiredMetadataHandler;
 import com.expediagroup.beekeeper.metadata.cleanup.handler.MetadataHandler;
 import com.expediagroup.beekeeper.metadata.cleanup.service.MetadataDisableTablesService;
@@ -88,16 +101,35 @@ public class CommonBeans {
     return new HiveMetaStoreClientSupplier(metaStoreClientFactory, hiveConf, name);
   }
 
+  @Bean
+  public ClientPool<CloseableMetaStoreClient> metaStoreClientPool(
+      @Qualifier("metaStoreClientSupplier") Supplier<CloseableMetaStoreClient> metaStoreClientSupplier,
+      MeterRegistry meterRegistry,
+      @Value("${properties.metastore-client-pool-size}") int poolSize,
+      @Value("${properties.metastore-client-pool-max-idle-ms}") long maxIdleMs,
+      @Value("${properties.metastore-client-pool-max-wait-ms}") long maxWaitMs) {
+    return new ClientPool<>(CloseableMetaStoreClient.class, metaStoreClientSupplier, CommonBeans::isConnected,
+        poolSize, Duration.ofMillis(maxIdleMs), Duration.ofMillis(maxWaitMs), meterRegistry, "metastore-client-pool");
+  }
+
   @Bean(name = "hiveClientFactory")
   public CleanerClientFactory clientFactory(
-      Supplier<CloseableMetaStoreClient> metaStoreClientSupplier,
+      @Qualifier("metaStoreClientPool") Supplier<CloseableMetaStoreClient> metaStoreClientSupplier,
       @Value("${properties.dry-run-enabled}") boolean dryRunEnabled) {
     return new HiveClientFactory(metaStoreClientSupplier, dryRunEnabled);
   }
 
   @Bean
-  public IcebergValidator icebergValidator(CleanerClientFactory clientFactory) {
-    return new IcebergValidator(clientFactory);
+  public TablePropertiesCache tablePropertiesCache(
+      CleanerClientFactory clientFactory,
+      @Value("${properties.table-properties-cache-size}") long cacheSize,
+      @Value("${properties.table-properties-cache-ttl-ms}") long cacheTtlMs) {
+    return new TablePropertiesCache(clientFactory, cacheSize, Duration.ofMillis(cacheTtlMs));
+  }
+
+  @Bean
+  public IcebergValidator icebergValidator(TablePropertiesCache tablePropertiesCache) {
+    return new IcebergValidator(tablePropertiesCache);
   }
 
   @Bean
@@ -109,25 +141,31 @@ public class CommonBeans {
 
   @Bean(name = "hiveTableCleaner")
   public MetadataCleaner metadataCleaner(
-      DeletedMetadataReporter deletedMetadataReporter, IcebergValidator icebergValidator) {
-    return new HiveMetadataCleaner(deletedMetadataReporter, icebergValidator);
+      DeletedMetadataReporter deletedMetadataReporter,
+      IcebergValidator icebergValidator,
+      TablePropertiesCache tablePropertiesCache) {
+    return new HiveMetadataCleaner(deletedMetadataReporter, icebergValidator, tablePropertiesCache);
   }
 
   @Bean
   @Profile("default")
-  public AmazonS3 amazonS3() {
-    return AmazonS3ClientBuilder.defaultClient();
+  public AmazonS3 amazonS3(S3RequestRateController s3RequestRateController) {
+    return AmazonS3ClientBuilder
+        .standard()
+        .withRequestHandlers(s3RequestRateController.requestHandler())
+        .build();
   }
 
   @Bean
   @Profile("test")
-  public AmazonS3 amazonS3Test() {
+  public AmazonS3 amazonS3Test(S3RequestRateController s3RequestRateController) {
     String s3Endpoint = System.getProperty("aws.s3.endpoint");
     String region = System.getProperty("aws.region");
 
     return AmazonS3ClientBuilder
         .standard()
         .withEndpointConfiguration(new EndpointConfiguration(s3Endpoint, region))
+        .withRequestHandlers(s3RequestRateController.requestHandler())
         .build();
   }
 
@@ -139,15 +177,62 @@ public class CommonBeans {
   }
 
   @Bean
-  public S3Client s3Client(AmazonS3 amazonS3, @Value("${properties.dry-run-enabled}") boolean dryRunEnabled) {
-    return new S3Client(amazonS3, dryRunEnabled);
+  public DryRunSummaryReporter dryRunSummaryReporter(
+      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled,
+      @Value("${properties.dry-run-summary-enabled}") boolean dryRunSummaryEnabled,
+      @Value("${properties.dry-run-report-file}") String dryRunReportFile) {
+    if (!dryRunEnabled || !dryRunSummaryEnabled) {
+      return DryRunSummaryReporter.disabled();
+    }
+    return new DryRunSummaryReporter(dryRunReportFile);
+  }
+
+  @Bean
+  public S3RequestRateController s3RequestRateController(
+      MeterRegistry meterRegistry,
+      @Value("${properties.s3-request-rate-control-enabled}") boolean rateControlEnabled,
+      @Value("${properties.s3-request-rate-initial}") double initialRate,
+      @Value("${properties.s3-request-rate-max}") double maxRate,
+      @Value("${properties.s3-request-rate-prefix-depth}") int prefixDepth) {
+    if (!rateControlEnabled) {
+      return S3RequestRateController.disabled();
+    }
+    return new S3RequestRateController(meterRegistry, initialRate, maxRate, prefixDepth);
+  }
+
+  @Bean
+  public S3Client s3Client(
+      AmazonS3 amazonS3,
+      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled,
+      @Value("${properties.s3-delete-concurrency}") int deleteConcurrency,
+      @Value("${properties.s3-delete-max-attempts}") int deleteMaxAttempts,
+      @Value("${properties.s3-delete-retry-backoff-ms}") long deleteRetryBackoffMs,
+      @Value("${properties.s3-list-concurrency}") int listConcurrency,
+      S3RequestRateController s3RequestRateController,
+      @Value("${properties.s3-request-pool-threads}") int requestPoolThreads) {
+    return S3Client
+        .builder(amazonS3)
+        .dryRunEnabled(dryRunEnabled)
+        .deleteConcurrency(deleteConcurrency)
+        .deleteMaxAttempts(deleteMaxAttempts)
+        .deleteRetryBackoffMs(deleteRetryBackoffMs)
+        .listConcurrency(listConcurrency)
+        .rateController(s3RequestRateController)
+        .requestPoolThreads(requestPoolThreads)
+        .build();
   }
 
   @Bean(name = "s3PathCleaner")
   public PathCleaner pathCleaner(
       S3Client s3Client,
-      BytesDeletedReporter bytesDeletedReporter) {
-    return new S3PathCleaner(s3Client, new S3SentinelFilesCleaner(s3Client), bytesDeletedReporter);
+      BytesDeletedReporter bytesDeletedReporter,
+      @Value("${properties.s3-batch-sentinel-cleanup-enabled}") boolean batchSentinelCleanupEnabled,
+      DryRunSummaryReporter dryRunSummaryReporter) {
+    return S3PathCleaner
+        .builder(s3Client, new S3SentinelFilesCleaner(s3Client), bytesDeletedReporter)
+        .batchSentinelCleanupEnabled(batchSentinelCleanupEnabled)
+        .dryRunSummaryReporter(dryRunSummaryReporter)
+        .build();
   }
 
   @Bean(name = "expiredMetadataHandler")
@@ -156,9 +241,15 @@ public class CommonBeans {
       HousekeepingMetadataRepository housekeepingMetadataRepository,
       @Qualifier("hiveTableCleaner") MetadataCleaner metadataCleaner,
       @Qualifier("s3PathCleaner") PathCleaner pathCleaner,
-      BeekeeperHistoryService beekeeperHistoryService) {
+      BeekeeperHistoryService beekeeperHistoryService,
+      TransactionTemplate transactionTemplate,
+      @Value("${properties.cleanup-shard-index}") int shardIndex,
+      @Value("${properties.cleanup-shard-count}") int shardCount,
+      @Value("${properties.partition-drop-batch-size}") int partitionBatchSize) {
     return new ExpiredMetadataHandler(cleanerClientFactory, housekeepingMetadataRepository, metadataCleaner,
-        pathCleaner, beekeeperHistoryService);
+        pathCleaner, new HousekeepingUnitOfWork<>(housekeepingMetadataRepository, beekeeperHistoryService,
+            transactionTemplate),
+        new TableShard(shardIndex, shardCount), partitionBatchSize);
   }
 
   @Bean
@@ -170,8 +261,26 @@ public class CommonBeans {
   public CleanupService cleanupService(
       List<MetadataHandler> metadataHandlers,
       @Value("${properties.cleanup-page-size}") int pageSize,
-      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled) {
-    return new PagingMetadataCleanupService(metadataHandlers, pageSize, dryRunEnabled);
+      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled,
+      @Value("${properties.cleanup-lease-duration-minutes}") long leaseDurationMinutes,
+      @Value("${properties.cleanup-table-share}") int tableShare,
+      @Value("${properties.cleanup-priority-bytes-weight}") double priorityBytesWeight,
+      @Value("${properties.cleanup-priority-overdue-weight}") double priorityOverdueWeight,
+      BytesDeletedReporter bytesDeletedReporter,
+      @Value("${properties.cleanup-budget-minutes}") long budgetMinutes,
+      @Value("${properties.cleanup-budget-records}") long budgetRecords,
+      @Value("${properties.cleanup-budget-bytes}") long budgetBytes) {
+    CleanupPager pager = CleanupPager
+        .builder()
+        .pageSize(pageSize)
+        .dryRunEnabled(dryRunEnabled)
+        .lease(HousekeepingLease.forThisInstance(Duration.ofMinutes(leaseDurationMinutes)))
+        .tableShare(tableShare)
+        .priority(new CleanupPriority(priorityBytesWeight, priorityOverdueWeight))
+        .budget(new CleanupBudget(Duration.ofMinutes(budgetMinutes), budgetRecords, budgetBytes,
+            bytesDeletedReporter::getTotalBytesDeleted))
+        .build();
+    return new PagingMetadataCleanupService(metadataHandlers, pager);
   }
 
   @Bean
@@ -184,8 +293,18 @@ public class CommonBeans {
   @Bean
   public DisableTablesService disableTablesService(
       HousekeepingMetadataRepository housekeepingMetadataRepository,
-      CleanerClientFactory cleanerClientFactory,
+      TablePropertiesCache tablePropertiesCache,
       @Value("${properties.dry-run-enabled}") boolean dryRunEnabled) {
-    return new MetadataDisableTablesService(cleanerClientFactory, housekeepingMetadataRepository, dryRunEnabled);
+    return new MetadataDisableTablesService(tablePropertiesCache, housekeepingMetadataRepository, dryRunEnabled);
+  }
+
+  // a round trip to the metastore which reads no metadata
+  private static boolean isConnected(CloseableMetaStoreClient client) {
+    try {
+      client.getMetaConf(HiveConf.ConfVars.METASTORE_TRY_DIRECT_SQL.varname);
+      return true;
+    } catch (TException e) {
+      return false;
+    }
   }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -23,21 +23,39 @@ import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.FAILED_TO
 import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.SKIPPED;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 
+import com.google.common.base.Suppliers;
+import com.google.common.collect.Lists;
+
 import com.expediagroup.beekeeper.cleanup.metadata.CleanerClient;
 import com.expediagroup.beekeeper.cleanup.metadata.CleanerClientFactory;
 import com.expediagroup.beekeeper.cleanup.metadata.MetadataCleaner;
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.error.BeekeeperIcebergException;
 import com.expediagroup.beekeeper.core.model.HousekeepingMetadata;
 import com.expediagroup.beekeeper.core.model.HousekeepingStatus;
+import com.expediagroup.beekeeper.core.model.HousekeepingTable;
+import com.expediagroup.beekeeper.core.model.TableShard;
 import com.expediagroup.beekeeper.core.repository.HousekeepingMetadataRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
+import com.expediagroup.beekeeper.core.service.HousekeepingUnitOfWork;
 import com.expediagroup.beekeeper.core.validation.S3PathValidator;
 
 public class ExpiredMetadataHandler implements MetadataHandler {
@@ -48,7 +66,9 @@ public class ExpiredMetadataHandler implements MetadataHandler {
   private final HousekeepingMetadataRepository housekeepingMetadataRepository;
   private final MetadataCleaner metadataCleaner;
   private final PathCleaner pathCleaner;
-  private final BeekeeperHistoryService historyService;
+  private final HousekeepingUnitOfWork<HousekeepingMetadata> unitOfWork;
+  private final TableShard shard;
+  private final int partitionBatchSize;
 
   public ExpiredMetadataHandler(
       CleanerClientFactory cleanerClientFactory,
@@ -56,16 +76,133 @@ public class ExpiredMetadataHandler implements MetadataHandler {
       MetadataCleaner metadataCleaner,
       PathCleaner pathCleaner,
       BeekeeperHistoryService historyService) {
+    this(cleanerClientFactory, housekeepingMetadataRepository, metadataCleaner, pathCleaner,
+        HousekeepingUnitOfWork.unbatched(housekeepingMetadataRepository, historyService), TableShard.all(), 1);
+  }
+
+  /**
+   * @param unitOfWork Unit of work in which the status changes and history events of a page are written, which can
+   *          write them together once the whole page has been cleaned up.
+   * @param shard Shard of the tables cleaned up by this instance. Every record of a table is in the same shard, so its
+   *          partitions are still dropped before the table itself.
+   * @param partitionBatchSize Maximum number of partitions of a table in a page which are dropped with the same client,
+   *          after checking once that the table exists, or {@code 1} to clean up every record on its own.
+   */
+  public ExpiredMetadataHandler(
+      CleanerClientFactory cleanerClientFactory,
+      HousekeepingMetadataRepository housekeepingMetadataRepository,
+      MetadataCleaner metadataCleaner,
+      PathCleaner pathCleaner,
+      HousekeepingUnitOfWork<HousekeepingMetadata> unitOfWork,
+      TableShard shard,
+      int partitionBatchSize) {
+    if (partitionBatchSize < 1) {
+      throw new BeekeeperException("The partition batch size must be at least 1, not " + partitionBatchSize);
+    }
     this.cleanerClientFactory = cleanerClientFactory;
     this.housekeepingMetadataRepository = housekeepingMetadataRepository;
     this.metadataCleaner = metadataCleaner;
     this.pathCleaner = pathCleaner;
-    this.historyService = historyService;
+    this.unitOfWork = unitOfWork;
+    this.shard = shard;
+    this.partitionBatchSize = partitionBatchSize;
   }
 
   @Override
   public Slice<HousekeepingMetadata> findRecordsToClean(LocalDateTime instant, Pageable pageable) {
-    return housekeepingMetadataRepository.findRecordsForCleanupByModifiedTimestamp(instant, pageable);
+    return housekeepingMetadataRepository
+        .findRecordsForCleanupByModifiedTimestamp(instant, shard.getIndex(), shard.getCount(), pageable);
+  }
+
+  /**
+   * @implNote Saving a record updates the modified timestamp of the saved copy only, so {@code lastRecord} still holds
+   *           the timestamp it was read with.
+   */
+  @Override
+  public Slice<HousekeepingMetadata> findRecordsToClean(
+      LocalDateTime instant,
+      HousekeepingMetadata lastRecord,
+      Pageable pageable) {
+    return housekeepingMetadataRepository
+        .findRecordsForCleanupByModifiedTimestampAfter(instant, lastRecord.getModifiedTimestamp(), lastRecord.getId(),
+            shard.getIndex(), shard.getCount(), pageable);
+  }
+
+  @Override
+  public List<HousekeepingTable> findTablesToClean(LocalDateTime instant) {
+    return housekeepingMetadataRepository.findTablesForCleanup(instant, shard.getIndex(), shard.getCount());
+  }
+
+  @Override
+  public Slice<HousekeepingMetadata> findRecordsToCleanInTable(
+      LocalDateTime instant,
+      HousekeepingTable table,
+      long lastId,
+      Pageable pageable) {
+    return housekeepingMetadataRepository
+        .findRecordsForCleanupInTable(instant, table.getDatabaseName(), table.getTableName(), lastId, pageable);
+  }
+
+  @Override
+  public Optional<LocalDateTime> findNextCleanupTimestamp(LocalDateTime instant) {
+    return housekeepingMetadataRepository.findNextCleanupTimestamp(instant, shard.getIndex(), shard.getCount());
+  }
+
+  @Override
+  public Slice<HousekeepingMetadata> findRecordsToCleanByPriority(LocalDateTime instant, Pageable pageable) {
+    return housekeepingMetadataRepository
+        .findRecordsForCleanupByPriority(instant, shard.getIndex(), shard.getCount(), pageable);
+  }
+
+  @Override
+  public Slice<HousekeepingMetadata> findRecordsToCleanByPriority(
+      LocalDateTime instant,
+      double lastPriority,
+      long lastId,
+      Pageable pageable) {
+    return housekeepingMetadataRepository
+        .findRecordsForCleanupByPriorityAfter(instant, lastPriority, lastId, shard.getIndex(), shard.getCount(),
+            pageable);
+  }
+
+  @Override
+  public Slice<HousekeepingMetadata> findUnscoredRecordsToClean(
+      LocalDateTime instant,
+      long lastId,
+      Pageable pageable) {
+    return housekeepingMetadataRepository
+        .findUnscoredRecordsForCleanup(instant, lastId, shard.getIndex(), shard.getCount(), pageable);
+  }
+
+  @Override
+  public void updateCleanupPriority(HousekeepingMetadata record) {
+    housekeepingMetadataRepository
+        .updateCleanupPriority(record.getId(), record.getEstimatedBytes(), record.getCleanupPriority());
+  }
+
+  @Override
+  public List<HousekeepingMetadata> claimRecords(
+      LocalDateTime instant,
+      List<HousekeepingMetadata> records,
+      HousekeepingLease lease) {
+    List<Long> ids = ids(records);
+    LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+    housekeepingMetadataRepository.claimRecords(ids, lease.getOwner(), instant, now, lease.expiryFrom(now));
+    return housekeepingMetadataRepository.findClaimedRecords(ids, lease.getOwner());
+  }
+
+  @Override
+  public void releaseRecords(List<HousekeepingMetadata> records, HousekeepingLease lease) {
+    housekeepingMetadataRepository.releaseRecords(ids(records), lease.getOwner());
+  }
+
+  private List<Long> ids(List<HousekeepingMetadata> records) {
+    return records.stream().map(HousekeepingMetadata::getId).collect(Collectors.toList());
+  }
+
+  @Override
+  public void completePage() {
+    unitOfWork.flush();
   }
 
   /**
@@ -78,8 +215,71 @@ public class ExpiredMetadataHandler implements MetadataHandler {
    */
   @Override
   public void cleanupMetadata(HousekeepingMetadata housekeepingMetadata, LocalDateTime instant, boolean dryRunEnabled) {
+    cleanupRecord(housekeepingMetadata, dryRunEnabled, () -> {
+      try (CleanerClient client = cleanerClientFactory.newInstance()) {
+        return cleanup(client, housekeepingMetadata, instant, dryRunEnabled);
+      }
+    });
+  }
+
+  /**
+   * Groups the partitions of a page by table, and drops each batch of partitions of a table with the same client, after
+   * checking once that the table exists. The tables of the page are cleaned up last, so that the partitions dropped
+   * before them in the page are no longer counted. Each partition of a batch is still dropped with its own metastore
+   * call, see {@link CleanerClient#dropPartition(String, String, String)}.
+   */
+  @Override
+  public void cleanupMetadata(List<HousekeepingMetadata> records, LocalDateTime instant, boolean dryRunEnabled) {
+    if (partitionBatchSize == 1) {
+      MetadataHandler.super.cleanupMetadata(records, instant, dryRunEnabled);
+      return;
+    }
+    Map<String, List<HousekeepingMetadata>> partitionsByTable = new LinkedHashMap<>();
+    List<HousekeepingMetadata> tables = new ArrayList<>();
+    for (HousekeepingMetadata housekeepingMetadata : records) {
+      if (housekeepingMetadata.getPartitionName() == null) {
+        tables.add(housekeepingMetadata);
+      } else {
+        partitionsByTable
+            .computeIfAbsent(housekeepingMetadata.getDatabaseName() + "." + housekeepingMetadata.getTableName(),
+                table -> new ArrayList<>())
+            .add(housekeepingMetadata);
+      }
+    }
+    partitionsByTable.values()
+        .forEach(partitions -> Lists.partition(partitions, partitionBatchSize)
+            .forEach(batch -> cleanupPartitions(batch, dryRunEnabled)));
+    tables.forEach(table -> cleanupMetadata(table, instant, dryRunEnabled));
+  }
+
+  private void cleanupPartitions(List<HousekeepingMetadata> partitions, boolean dryRunEnabled) {
+    String databaseName = partitions.get(0).getDatabaseName();
+    String tableName = partitions.get(0).getTableName();
+    int processed = 0;
     try (CleanerClient client = cleanerClientFactory.newInstance()) {
-      boolean deleted = cleanup(client, housekeepingMetadata, instant, dryRunEnabled);
+      Supplier<Boolean> tableExists = Suppliers
+          .memoize(() -> metadataCleaner.tableExists(client, databaseName, tableName));
+      for (HousekeepingMetadata partition : partitions) {
+        cleanupRecord(partition, dryRunEnabled,
+            () -> cleanupPartition(client, partition, tableExists::get, dryRunEnabled));
+        processed++;
+      }
+    } catch (Exception e) {
+      // the client could not be opened, so the records not cleaned up yet fail as they would on their own
+      for (HousekeepingMetadata partition : partitions.subList(processed, partitions.size())) {
+        cleanupRecord(partition, dryRunEnabled, () -> {
+          throw e;
+        });
+      }
+    }
+  }
+
+  private void cleanupRecord(
+      HousekeepingMetadata housekeepingMetadata,
+      boolean dryRunEnabled,
+      Callable<Boolean> cleanup) {
+    try {
+      boolean deleted = cleanup.call();
       if (deleted && !dryRunEnabled) {
         updateAttemptsAndStatus(housekeepingMetadata, DELETED);
         saveHistory(housekeepingMetadata, DELETED, dryRunEnabled);
@@ -110,7 +310,10 @@ public class ExpiredMetadataHandler implements MetadataHandler {
       boolean dryRunEnabled) {
     String partitionName = housekeepingMetadata.getPartitionName();
     if (partitionName != null) {
-      return cleanupPartition(client, housekeepingMetadata, dryRunEnabled);
+      return cleanupPartition(client, housekeepingMetadata,
+          () -> metadataCleaner.tableExists(client, housekeepingMetadata.getDatabaseName(),
+              housekeepingMetadata.getTableName()),
+          dryRunEnabled);
     } else {
       Long partitionCount = countPartitionsForDatabaseAndTable(instant, housekeepingMetadata.getDatabaseName(),
           housekeepingMetadata.getTableName(), dryRunEnabled);
@@ -140,9 +343,13 @@ public class ExpiredMetadataHandler implements MetadataHandler {
     return true;
   }
 
+  /**
+   * @param tableExists Whether the table of the partition exists, which is only checked for a valid partition path.
+   */
   private boolean cleanupPartition(
       CleanerClient client,
       HousekeepingMetadata housekeepingMetadata,
+      BooleanSupplier tableExists,
       boolean dryRunEnabled) {
     if (!S3PathValidator.validPartitionPath(housekeepingMetadata.getPath())) {
       log.warn("Will not clean up partition path \"{}\" because it is not valid.", housekeepingMetadata.getPath());
@@ -153,7 +360,7 @@ public class ExpiredMetadataHandler implements MetadataHandler {
     String databaseName = housekeepingMetadata.getDatabaseName();
     String tableName = housekeepingMetadata.getTableName();
     log.info("Cleaning up metadata for \"{}.{}\"", databaseName, tableName);
-    if (metadataCleaner.tableExists(client, databaseName, tableName)) {
+    if (tableExists.getAsBoolean()) {
       boolean partitionDeleted = metadataCleaner.dropPartition(housekeepingMetadata, client);
       if (partitionDeleted) {
         pathCleaner.cleanupPath(housekeepingMetadata);
@@ -169,7 +376,7 @@ public class ExpiredMetadataHandler implements MetadataHandler {
   private void updateAttemptsAndStatus(HousekeepingMetadata housekeepingMetadata, HousekeepingStatus status) {
     housekeepingMetadata.setCleanupAttempts(housekeepingMetadata.getCleanupAttempts() + 1);
     housekeepingMetadata.setHousekeepingStatus(status);
-    housekeepingMetadataRepository.save(housekeepingMetadata);
+    unitOfWork.save(housekeepingMetadata);
   }
 
   private void updateStatus(
@@ -180,7 +387,7 @@ public class ExpiredMetadataHandler implements MetadataHandler {
       return;
     }
     housekeepingMetadata.setHousekeepingStatus(status);
-    housekeepingMetadataRepository.save(housekeepingMetadata);
+    unitOfWork.save(housekeepingMetadata);
   }
 
   private Long countPartitionsForDatabaseAndTable(
@@ -188,6 +395,8 @@ public class ExpiredMetadataHandler implements MetadataHandler {
       String databaseName,
       String tableName,
       boolean dryRunEnabled) {
+    // the partitions cleaned up earlier in the page must not be counted
+    unitOfWork.flush();
     if (dryRunEnabled) {
       return housekeepingMetadataRepository
           .countRecordsForDryRunWherePartitionIsNotNullOrExpired(instant, databaseName, tableName);
@@ -201,6 +410,6 @@ public class ExpiredMetadataHandler implements MetadataHandler {
     if (dryRunEnabled) {
       return;
     }
-    historyService.saveHistory(metadata, housekeepingStatus);
+    unitOfWork.saveHistory(metadata, housekeepingStatus);
   }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,15 +16,25 @@
 package com.expediagroup.beekeeper.metadata.cleanup.handler;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
-
+import com.expediagroup.beekeeper.cleanup.service.CleanupRecordSource;
 import com.expediagroup.beekeeper.core.model.HousekeepingMetadata;
 
-public interface MetadataHandler {
-
-  Slice<HousekeepingMetadata> findRecordsToClean(LocalDateTime instant, Pageable pageable);
+public interface MetadataHandler extends CleanupRecordSource<HousekeepingMetadata> {
 
   void cleanupMetadata(HousekeepingMetadata housekeepingMetadata, LocalDateTime instant, boolean dryRunEnabled);
+
+  /**
+   * Cleans up the records of a page, one after the other unless the handler groups them.
+   */
+  default void cleanupMetadata(List<HousekeepingMetadata> records, LocalDateTime instant, boolean dryRunEnabled) {
+    records.forEach(housekeepingMetadata -> cleanupMetadata(housekeepingMetadata, instant, dryRunEnabled));
+  }
+
+  /**
+   * Called once every record of a page has been cleaned up, before the next page is queried, to write the updates
+   * which the handler has not written yet.
+   */
+  default void completePage() {}
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -18,9 +18,7 @@ package com.expediagroup.beekeeper.metadata.cleanup.service;
 import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.DISABLED;
 import static com.expediagroup.beekeeper.core.model.LifecycleEventType.EXPIRED;
 
-import java.io.IOException;
 import java.util.List;
-import java.util.Map;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -28,10 +26,9 @@ import org.springframework.transaction.annotation.Transactional;
 
 import io.micrometer.core.annotation.Timed;
 
-import com.expediagroup.beekeeper.cleanup.metadata.CleanerClient;
 import com.expediagroup.beekeeper.cleanup.metadata.CleanerClientFactory;
+import com.expediagroup.beekeeper.cleanup.metadata.TablePropertiesCache;
 import com.expediagroup.beekeeper.cleanup.service.DisableTablesService;
-import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.model.HousekeepingMetadata;
 import com.expediagroup.beekeeper.core.repository.HousekeepingMetadataRepository;
 
@@ -39,7 +36,7 @@ public class MetadataDisableTablesService implements DisableTablesService {
 
   private static final Logger log = LoggerFactory.getLogger(MetadataDisableTablesService.class);
 
-  private final CleanerClientFactory cleanerClientFactory;
+  private final TablePropertiesCache tablePropertiesCache;
   private final HousekeepingMetadataRepository housekeepingMetadataRepository;
   private final boolean dryRunEnabled;
 
@@ -47,7 +44,14 @@ public class MetadataDisableTablesService implements DisableTablesService {
       CleanerClientFactory cleanerClientFactory,
       HousekeepingMetadataRepository housekeepingMetadataRepository,
       boolean dryRunEnabled) {
-    this.cleanerClientFactory = cleanerClientFactory;
+    this(TablePropertiesCache.uncached(cleanerClientFactory), housekeepingMetadataRepository, dryRunEnabled);
+  }
+
+  public MetadataDisableTablesService(
+      TablePropertiesCache tablePropertiesCache,
+      HousekeepingMetadataRepository housekeepingMetadataRepository,
+      boolean dryRunEnabled) {
+    this.tablePropertiesCache = tablePropertiesCache;
     this.housekeepingMetadataRepository = housekeepingMetadataRepository;
     this.dryRunEnabled = dryRunEnabled;
   }
@@ -73,12 +77,9 @@ public class MetadataDisableTablesService implements DisableTablesService {
   }
 
   private boolean tableHasBeekeeperProperty(HousekeepingMetadata metadata) {
-    try (CleanerClient client = cleanerClientFactory.newInstance()) {
-      Map<String, String> properties = client.getTableProperties(metadata.getDatabaseName(), metadata.getTableName());
-      String beekeeperProperty = properties.get(EXPIRED.getTableParameterName());
-      return "true".equals(beekeeperProperty);
-    } catch (IOException e) {
-      throw new BeekeeperException("Can't instantiate cleaner client.", e);
-    }
+    String beekeeperProperty = tablePropertiesCache
+        .getTableProperties(metadata.getDatabaseName(), metadata.getTableName())
+        .get(EXPIRED.getTableParameterName());
+    return "true".equals(beekeeperProperty);
   }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -21,14 +21,14 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
 
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 
 import io.micrometer.core.annotation.Timed;
 
+import com.expediagroup.beekeeper.cleanup.service.CleanupBudget;
+import com.expediagroup.beekeeper.cleanup.service.CleanupPager;
 import com.expediagroup.beekeeper.cleanup.service.CleanupService;
 import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.model.HousekeepingMetadata;
@@ -37,52 +37,60 @@ import com.expediagroup.beekeeper.metadata.cleanup.handler.MetadataHandler;
 public class PagingMetadataCleanupService implements CleanupService {
 
   private final List<MetadataHandler> metadataHandlers;
-  private final boolean dryRunEnabled;
-  private final int pageSize;
+  private final CleanupPager pager;
 
-  public PagingMetadataCleanupService(
-      List<MetadataHandler> metadataHandlers,
-      int pageSize,
-      boolean dryRunEnabled) {
+  /**
+   * @param pager Pager of the records of the handlers, of which this service needs its own.
+   */
+  public PagingMetadataCleanupService(List<MetadataHandler> metadataHandlers, CleanupPager pager) {
     this.metadataHandlers = metadataHandlers;
-    this.pageSize = pageSize;
-    this.dryRunEnabled = dryRunEnabled;
+    this.pager = pager;
   }
 
   @Override
   @Timed("metadata-cleanup-job")
   public void cleanUp(Instant referenceTime) {
     try {
-      metadataHandlers.forEach(handler -> pagingCleanup(handler, referenceTime));
+      pager.cleanUp(metadataHandlers, (handler, cycle) -> pagingCleanup(handler, referenceTime, cycle));
     } catch (Exception e) {
       throw new BeekeeperException(format("Metadata cleanup failed for instant %s", referenceTime.toString()), e);
     }
   }
 
+  @Override
+  public Optional<Instant> findNextDueTime(Instant referenceTime) {
+    return pager.findNextDueTime(metadataHandlers, referenceTime);
+  }
+
   /**
    * @param handler MetadataHandler which will cleanup the records
    * @param referenceTime Instant at which the cleanup is taking place
-   * @implNote No updates occur to records during dry runs.
+   * @implNote No updates occur to records during dry runs. Pages are found by key, after the last record of the
+   *           previous page, whether or not its records were updated. A table is only dropped once none of its
+   *           partitions are left, so the records which the first pass did not update, and only those, are given a
+   *           second pass. A cycle which runs out of budget carries on with the pass it stopped in, from where it
+   *           stopped, and then gives every record a second pass as usual.
+   * @return Whether every record of the handler was processed, rather than the cycle running out of budget first.
    */
   @Transactional
-  private void pagingCleanup(MetadataHandler handler, Instant referenceTime) {
-    Pageable pageable = PageRequest.of(0, pageSize).first();
-
+  private boolean pagingCleanup(MetadataHandler handler, Instant referenceTime, CleanupBudget.Cycle cycle) {
     LocalDateTime instant = LocalDateTime.ofInstant(referenceTime, ZoneOffset.UTC);
-    Slice<HousekeepingMetadata> batch = handler.findRecordsToClean(instant, pageable);
-
-    while (!batch.getContent().isEmpty()) {
-      pageable = processPage(handler, pageable, instant, batch);
-      batch = handler.findRecordsToClean(instant, pageable);
+    if (!cleanupPass(handler, instant, cycle)) {
+      return false;
     }
+    return pager.isDryRunEnabled() || cleanupPass(handler, instant, cycle);
   }
 
-  private Pageable processPage(MetadataHandler handler, Pageable pageable, LocalDateTime instant,
-      Slice<HousekeepingMetadata> batch) {
-    batch.getContent().forEach(metadata -> handler.cleanupMetadata(metadata, instant, dryRunEnabled));
-    if (dryRunEnabled) {
-      return pageable.next();
+  private boolean cleanupPass(MetadataHandler handler, LocalDateTime instant, CleanupBudget.Cycle cycle) {
+    return pager.cleanupPass(handler, instant, cycle,
+        (pageable, page) -> processRecords(handler, instant, page.getContent()));
+  }
+
+  private void processRecords(MetadataHandler handler, LocalDateTime instant, List<HousekeepingMetadata> records) {
+    try {
+      handler.cleanupMetadata(records, instant, pager.isDryRunEnabled());
+    } finally {
+      handler.completePage();
     }
-    return pageable;
   }
 }
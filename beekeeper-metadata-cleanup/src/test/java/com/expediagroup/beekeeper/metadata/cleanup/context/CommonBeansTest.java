@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2021 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -30,26 +30,33 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.Mock;
 import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 
 import com.amazonaws.services.s3.AmazonS3;
 
 import com.expediagroup.beekeeper.cleanup.aws.S3Client;
 import com.expediagroup.beekeeper.cleanup.aws.S3PathCleaner;
+import com.expediagroup.beekeeper.cleanup.aws.S3RequestRateController;
 import com.expediagroup.beekeeper.cleanup.hive.HiveClient;
 import com.expediagroup.beekeeper.cleanup.hive.HiveClientFactory;
 import com.expediagroup.beekeeper.cleanup.hive.HiveMetadataCleaner;
 import com.expediagroup.beekeeper.cleanup.metadata.CleanerClient;
 import com.expediagroup.beekeeper.cleanup.metadata.CleanerClientFactory;
 import com.expediagroup.beekeeper.cleanup.metadata.MetadataCleaner;
+import com.expediagroup.beekeeper.cleanup.metadata.TablePropertiesCache;
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunSummaryReporter;
 import com.expediagroup.beekeeper.cleanup.monitoring.DeletedMetadataReporter;
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
 import com.expediagroup.beekeeper.cleanup.service.CleanupService;
 import com.expediagroup.beekeeper.cleanup.service.DisableTablesService;
 import com.expediagroup.beekeeper.cleanup.service.RepositoryCleanupService;
 import com.expediagroup.beekeeper.cleanup.validation.IcebergValidator;
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+import com.expediagroup.beekeeper.core.pool.ClientPool;
 import com.expediagroup.beekeeper.core.repository.BeekeeperHistoryRepository;
 import com.expediagroup.beekeeper.core.repository.HousekeepingMetadataRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
@@ -80,8 +87,10 @@ public class CommonBeansTest {
   private @Mock MeterRegistry meterRegistry;
   private @Mock HiveClientFactory hiveClientFactory;
   private @Mock IcebergValidator icebergValidator;
+  private @Mock TablePropertiesCache tablePropertiesCache;
   private @Mock BeekeeperHistoryService beekeeperHistoryService;
   private @Mock BeekeeperHistoryRepository beekeeperHistoryRepository;
+  private @Mock TransactionTemplate transactionTemplate;
 
   @BeforeEach
   public void awsSetUp() {
@@ -117,6 +126,22 @@ public class CommonBeansTest {
     assertThat(metaStoreClientSupplier).isInstanceOf(HiveMetaStoreClientSupplier.class);
   }
 
+  @Test
+  public void verifyMetaStoreClientPool() {
+    Supplier<CloseableMetaStoreClient> metaStoreClientSupplier = Mockito.mock(Supplier.class);
+    ClientPool<CloseableMetaStoreClient> pool = commonBeans
+        .metaStoreClientPool(metaStoreClientSupplier, new SimpleMeterRegistry(), 4, 0, 1000);
+    assertThat(pool).isInstanceOf(ClientPool.class);
+    pool.close();
+  }
+
+  @Test
+  public void invalidMetaStoreClientPool() {
+    Supplier<CloseableMetaStoreClient> metaStoreClientSupplier = Mockito.mock(Supplier.class);
+    assertThrows(BeekeeperException.class,
+        () -> commonBeans.metaStoreClientPool(metaStoreClientSupplier, new SimpleMeterRegistry(), 0, 0, 1000));
+  }
+
   @Test
   public void verifyHiveClient() {
     Supplier<CloseableMetaStoreClient> metaStoreClientSupplier = Mockito.mock(Supplier.class);
@@ -125,58 +150,108 @@ public class CommonBeansTest {
     assertThat(client).isInstanceOf(HiveClient.class);
   }
 
+  @Test
+  public void verifyTablePropertiesCache() {
+    assertThat(commonBeans.tablePropertiesCache(hiveClientFactory, 100, 1000))
+        .isInstanceOf(TablePropertiesCache.class);
+  }
+
+  @Test
+  public void verifyIcebergValidator() {
+    assertThat(commonBeans.icebergValidator(tablePropertiesCache)).isInstanceOf(IcebergValidator.class);
+  }
+
   @Test
   public void verifyHiveMetadataCleaner() {
     DeletedMetadataReporter reporter = commonBeans.deletedMetadataReporter(meterRegistry, false);
-    MetadataCleaner metadataCleaner = commonBeans.metadataCleaner(reporter, icebergValidator);
+    MetadataCleaner metadataCleaner = commonBeans.metadataCleaner(reporter, icebergValidator, tablePropertiesCache);
     assertThat(metadataCleaner).isInstanceOf(HiveMetadataCleaner.class);
   }
 
   @Test
   public void typicalAmazonClient() {
-    AmazonS3 amazonS3 = commonBeans.amazonS3();
+    AmazonS3 amazonS3 = commonBeans.amazonS3(S3RequestRateController.disabled());
     URL url = amazonS3.getUrl(BUCKET, KEY);
     assertThat(url.getHost()).isEqualTo(String.join(".", BUCKET, AWS_ENDPOINT));
   }
 
   @Test
   public void endpointConfiguredAmazonClient() {
-    AmazonS3 amazonS3 = commonBeans.amazonS3Test();
+    AmazonS3 amazonS3 = commonBeans.amazonS3Test(S3RequestRateController.disabled());
     URL url = amazonS3.getUrl(BUCKET, KEY);
     assertThat(url.getHost()).isEqualTo(String.join(".", BUCKET, ENDPOINT));
   }
 
   @Test
   public void verifyS3Client() {
-    AmazonS3 amazonS3 = commonBeans.amazonS3Test();
+    AmazonS3 amazonS3 = commonBeans.amazonS3Test(S3RequestRateController.disabled());
     S3Client s3Client = new S3Client(amazonS3, false);
-    S3Client beansS3Client = commonBeans.s3Client(amazonS3, false);
+    S3Client beansS3Client = commonBeans
+        .s3Client(amazonS3, false, 1, 1, 0, 1, S3RequestRateController.disabled(), 0);
     assertThat(s3Client).isEqualToComparingFieldByField(beansS3Client);
   }
 
+  @Test
+  public void verifyDryRunSummaryReporter() {
+    assertThat(commonBeans.dryRunSummaryReporter(false, true, "")).isSameAs(DryRunSummaryReporter.disabled());
+    assertThat(commonBeans.dryRunSummaryReporter(true, false, "")).isSameAs(DryRunSummaryReporter.disabled());
+    assertThat(commonBeans.dryRunSummaryReporter(true, true, "").isEnabled()).isTrue();
+  }
+
+  @Test
+  public void verifyS3ClientWithRequestPool() {
+    S3RequestRateController rateController = S3RequestRateController.disabled();
+    S3Client s3Client = commonBeans
+        .s3Client(commonBeans.amazonS3(rateController), false, 1, 1, 0, 1, rateController, 4);
+    assertThat(s3Client).extracting("requestExecutorService").isNotNull();
+    s3Client.close();
+  }
+
+  @Test
+  public void verifyS3RequestRateController() {
+    assertThat(commonBeans.s3RequestRateController(meterRegistry, false, 100, 3500, 0))
+        .isSameAs(S3RequestRateController.disabled());
+    assertThat(commonBeans.s3RequestRateController(meterRegistry, true, 100, 3500, 0))
+        .isNotSameAs(S3RequestRateController.disabled());
+  }
+
   @Test
   void verifyS3pathCleaner() {
     BytesDeletedReporter reporter = commonBeans.bytesDeletedReporter(meterRegistry, false);
-    S3Client s3Client = commonBeans.s3Client(commonBeans.amazonS3(), false);
-    PathCleaner pathCleaner = commonBeans.pathCleaner(s3Client, reporter);
+    S3RequestRateController rateController = S3RequestRateController.disabled();
+    S3Client s3Client = commonBeans
+        .s3Client(commonBeans.amazonS3(rateController), false, 1, 1, 0, 1, rateController, 0);
+    PathCleaner pathCleaner = commonBeans.pathCleaner(s3Client, reporter, false, DryRunSummaryReporter.disabled());
     assertThat(pathCleaner).isInstanceOf(S3PathCleaner.class);
   }
 
   @Test
   public void verifyExpiredMetadataHandler() {
     ExpiredMetadataHandler expiredMetadataHandler = commonBeans.expiredMetadataHandler(hiveClientFactory,
-        metadataRepository, metadataCleaner, pathCleaner, beekeeperHistoryService);
+        metadataRepository, metadataCleaner, pathCleaner, beekeeperHistoryService, transactionTemplate, 0, 1, 100);
     assertThat(expiredMetadataHandler).isInstanceOf(ExpiredMetadataHandler.class);
   }
 
+  @Test
+  public void verifyExpiredMetadataHandlerWithInvalidShard() {
+    assertThrows(BeekeeperException.class, () -> commonBeans.expiredMetadataHandler(hiveClientFactory,
+        metadataRepository, metadataCleaner, pathCleaner, beekeeperHistoryService, transactionTemplate, 2, 2, 100));
+  }
+
+  @Test
+  public void verifyExpiredMetadataHandlerWithInvalidPartitionBatchSize() {
+    assertThrows(BeekeeperException.class, () -> commonBeans.expiredMetadataHandler(hiveClientFactory,
+        metadataRepository, metadataCleaner, pathCleaner, beekeeperHistoryService, transactionTemplate, 0, 1, 0));
+  }
+
   @Test
   public void verifyCleanupService() {
     HiveClientFactory hiveClientFactory = Mockito.mock(HiveClientFactory.class);
     CleanupService cleanupService = commonBeans.cleanupService(
         List.of(
             commonBeans.expiredMetadataHandler(hiveClientFactory, metadataRepository, metadataCleaner, pathCleaner,
-                beekeeperHistoryService)), 2,
-        false);
+                beekeeperHistoryService, transactionTemplate, 0, 1, 100)), 2,
+        false, 0, 0, 0, 0, commonBeans.bytesDeletedReporter(meterRegistry, false), 0, 0, 0);
     assertThat(cleanupService).isInstanceOf(PagingMetadataCleanupService.class);
   }
 
@@ -189,7 +264,7 @@ public class CommonBeansTest {
   @Test
   public void verifyDisableTablesService() {
     DisableTablesService disableTablesService = commonBeans.disableTablesService(
-        metadataRepository, hiveClientFactory, false);
+        metadataRepository, tablePropertiesCache, false);
     assertThat(disableTablesService).isInstanceOf(MetadataDisableTablesService.class);
   }
 
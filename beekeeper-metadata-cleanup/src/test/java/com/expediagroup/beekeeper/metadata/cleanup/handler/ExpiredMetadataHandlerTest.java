@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -20,6 +20,7 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -29,9 +30,11 @@ import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.FAILED_TO
 import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.SKIPPED;
 import static com.expediagroup.beekeeper.core.model.LifecycleEventType.EXPIRED;
 
+import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -41,15 +44,20 @@ import org.mockito.Mockito;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.expediagroup.beekeeper.cleanup.aws.S3PathCleaner;
 import com.expediagroup.beekeeper.cleanup.hive.HiveClient;
 import com.expediagroup.beekeeper.cleanup.hive.HiveClientFactory;
 import com.expediagroup.beekeeper.cleanup.hive.HiveMetadataCleaner;
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.model.HousekeepingMetadata;
 import com.expediagroup.beekeeper.core.model.LifecycleEventType;
+import com.expediagroup.beekeeper.core.model.TableShard;
 import com.expediagroup.beekeeper.core.repository.HousekeepingMetadataRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
+import com.expediagroup.beekeeper.core.service.HousekeepingUnitOfWork;
 
 @ExtendWith(MockitoExtension.class)
 public class ExpiredMetadataHandlerTest {
@@ -61,6 +69,7 @@ public class ExpiredMetadataHandlerTest {
   private @Mock S3PathCleaner s3PathCleaner;
   private @Mock HousekeepingMetadata housekeepingMetadata;
   private @Mock BeekeeperHistoryService beekeeperHistoryService;
+  private @Mock TransactionTemplate transactionTemplate;
 
   private static final LifecycleEventType lifecycleEventType = EXPIRED;
   private static final String DATABASE = "database";
@@ -99,7 +108,51 @@ public class ExpiredMetadataHandlerTest {
     LocalDateTime now = LocalDateTime.now();
     Pageable emptyPageable = PageRequest.of(0, 1);
     expiredMetadataHandler.findRecordsToClean(now, emptyPageable);
-    verify(housekeepingMetadataRepository).findRecordsForCleanupByModifiedTimestamp(now, emptyPageable);
+    verify(housekeepingMetadataRepository).findRecordsForCleanupByModifiedTimestamp(now, 0, 1, emptyPageable);
+  }
+
+  @Test
+  public void verifyHousekeepingMetadataFetchInShard() {
+    ExpiredMetadataHandler shardedHandler = new ExpiredMetadataHandler(hiveClientFactory,
+        housekeepingMetadataRepository, hiveMetadataCleaner, s3PathCleaner, unitOfWork(), new TableShard(1, 3), 1);
+    LocalDateTime now = LocalDateTime.now();
+    Pageable emptyPageable = PageRequest.of(0, 1);
+    when(housekeepingMetadata.getModifiedTimestamp()).thenReturn(CLEANUP_INSTANCE);
+    when(housekeepingMetadata.getId()).thenReturn(2L);
+
+    shardedHandler.findRecordsToClean(now, emptyPageable);
+    shardedHandler.findRecordsToClean(now, housekeepingMetadata, emptyPageable);
+
+    verify(housekeepingMetadataRepository).findRecordsForCleanupByModifiedTimestamp(now, 1, 3, emptyPageable);
+    verify(housekeepingMetadataRepository)
+        .findRecordsForCleanupByModifiedTimestampAfter(now, CLEANUP_INSTANCE, 2L, 1, 3, emptyPageable);
+  }
+
+  @Test
+  public void verifyHousekeepingMetadataFetchAfterLastRecord() {
+    LocalDateTime now = LocalDateTime.now();
+    Pageable emptyPageable = PageRequest.of(0, 1);
+    when(housekeepingMetadata.getModifiedTimestamp()).thenReturn(CLEANUP_INSTANCE);
+    when(housekeepingMetadata.getId()).thenReturn(2L);
+    expiredMetadataHandler.findRecordsToClean(now, housekeepingMetadata, emptyPageable);
+    verify(housekeepingMetadataRepository)
+        .findRecordsForCleanupByModifiedTimestampAfter(now, CLEANUP_INSTANCE, 2L, 0, 1, emptyPageable);
+  }
+
+  @Test
+  public void verifyHousekeepingMetadataClaimAndRelease() {
+    LocalDateTime now = LocalDateTime.now();
+    HousekeepingLease lease = new HousekeepingLease("owner", Duration.ofMinutes(10));
+    when(housekeepingMetadata.getId()).thenReturn(2L);
+    when(housekeepingMetadataRepository.findClaimedRecords(List.of(2L), "owner"))
+        .thenReturn(List.of(housekeepingMetadata));
+
+    assertThat(expiredMetadataHandler.claimRecords(now, List.of(housekeepingMetadata), lease))
+        .containsExactly(housekeepingMetadata);
+    verify(housekeepingMetadataRepository).claimRecords(eq(List.of(2L)), eq("owner"), eq(now), any(), any());
+
+    expiredMetadataHandler.releaseRecords(List.of(housekeepingMetadata), lease);
+    verify(housekeepingMetadataRepository).releaseRecords(List.of(2L), "owner");
   }
 
   @Test
@@ -362,4 +415,83 @@ public class ExpiredMetadataHandlerTest {
     verify(housekeepingMetadataRepository).save(housekeepingMetadata);
     verify(beekeeperHistoryService).saveHistory(any(), eq(FAILED_TO_DELETE));
   }
+
+  @Test
+  public void partitionsOfTableDroppedInBatches() {
+    ExpiredMetadataHandler batchingHandler = new ExpiredMetadataHandler(hiveClientFactory,
+        housekeepingMetadataRepository, hiveMetadataCleaner, s3PathCleaner, unitOfWork(), TableShard.all(), 2);
+    HousekeepingMetadata partition1 = partition("event_date=2020-01-01");
+    HousekeepingMetadata partition2 = partition("event_date=2020-01-02");
+    HousekeepingMetadata partition3 = partition("event_date=2020-01-03");
+    when(hiveClientFactory.newInstance()).thenReturn(hiveClient);
+    when(hiveMetadataCleaner.tableExists(hiveClient, DATABASE, TABLE_NAME)).thenReturn(true);
+    when(hiveMetadataCleaner.dropPartition(any(), eq(hiveClient))).thenReturn(true);
+
+    batchingHandler.cleanupMetadata(List.of(partition1, partition2, partition3), CLEANUP_INSTANCE, false);
+
+    verify(hiveClientFactory, times(2)).newInstance();
+    verify(hiveMetadataCleaner, times(2)).tableExists(hiveClient, DATABASE, TABLE_NAME);
+    for (HousekeepingMetadata partition : List.of(partition1, partition2, partition3)) {
+      verify(hiveMetadataCleaner).dropPartition(partition, hiveClient);
+      verify(s3PathCleaner).cleanupPath(partition);
+      verify(partition).setHousekeepingStatus(DELETED);
+    }
+    verify(hiveClient, times(2)).close();
+  }
+
+  @Test
+  public void partitionDropFailureInBatch() {
+    ExpiredMetadataHandler batchingHandler = new ExpiredMetadataHandler(hiveClientFactory,
+        housekeepingMetadataRepository, hiveMetadataCleaner, s3PathCleaner, unitOfWork(), TableShard.all(), 10);
+    HousekeepingMetadata partition1 = partition("event_date=2020-01-01");
+    HousekeepingMetadata partition2 = partition("event_date=2020-01-02");
+    when(hiveClientFactory.newInstance()).thenReturn(hiveClient);
+    when(hiveMetadataCleaner.tableExists(hiveClient, DATABASE, TABLE_NAME)).thenReturn(true);
+    doThrow(RuntimeException.class).when(hiveMetadataCleaner).dropPartition(partition1, hiveClient);
+    when(hiveMetadataCleaner.dropPartition(partition2, hiveClient)).thenReturn(true);
+
+    batchingHandler.cleanupMetadata(List.of(partition1, partition2), CLEANUP_INSTANCE, false);
+
+    verify(partition1).setHousekeepingStatus(FAILED);
+    verify(s3PathCleaner, never()).cleanupPath(partition1);
+    verify(partition2).setHousekeepingStatus(DELETED);
+    verify(s3PathCleaner).cleanupPath(partition2);
+  }
+
+  @Test
+  public void clientFailureFailsBatch() {
+    ExpiredMetadataHandler batchingHandler = new ExpiredMetadataHandler(hiveClientFactory,
+        housekeepingMetadataRepository, hiveMetadataCleaner, s3PathCleaner, unitOfWork(), TableShard.all(), 10);
+    HousekeepingMetadata partition1 = Mockito.mock(HousekeepingMetadata.class);
+    HousekeepingMetadata partition2 = Mockito.mock(HousekeepingMetadata.class);
+    for (HousekeepingMetadata partition : List.of(partition1, partition2)) {
+      when(partition.getDatabaseName()).thenReturn(DATABASE);
+      when(partition.getTableName()).thenReturn(TABLE_NAME);
+      when(partition.getPartitionName()).thenReturn(PARTITION_NAME);
+    }
+    when(hiveClientFactory.newInstance()).thenThrow(new BeekeeperException("No client available"));
+
+    batchingHandler.cleanupMetadata(List.of(partition1, partition2), CLEANUP_INSTANCE, false);
+
+    for (HousekeepingMetadata partition : List.of(partition1, partition2)) {
+      verify(partition).setCleanupAttempts(1);
+      verify(partition).setHousekeepingStatus(FAILED);
+      verify(beekeeperHistoryService).createHistory(partition, FAILED_TO_DELETE);
+    }
+    verify(hiveMetadataCleaner, never()).dropPartition(any(), any());
+  }
+
+  private HousekeepingUnitOfWork<HousekeepingMetadata> unitOfWork() {
+    return new HousekeepingUnitOfWork<>(housekeepingMetadataRepository, beekeeperHistoryService, transactionTemplate);
+  }
+
+  private HousekeepingMetadata partition(String partitionName) {
+    HousekeepingMetadata partition = Mockito.mock(HousekeepingMetadata.class);
+    when(partition.getDatabaseName()).thenReturn(DATABASE);
+    when(partition.getTableName()).thenReturn(TABLE_NAME);
+    when(partition.getPartitionName()).thenReturn(partitionName);
+    when(partition.getPath()).thenReturn(VALID_PARTITION_PATH);
+    when(partition.getCleanupAttempts()).thenReturn(0);
+    return partition;
+  }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -55,18 +55,25 @@ import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ContextConfiguration;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 import org.springframework.test.context.support.AnnotationConfigContextLoader;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.testcontainers.shaded.com.google.common.collect.Lists;
 
 import com.expediagroup.beekeeper.cleanup.hive.HiveClient;
 import com.expediagroup.beekeeper.cleanup.hive.HiveClientFactory;
 import com.expediagroup.beekeeper.cleanup.metadata.MetadataCleaner;
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
+import com.expediagroup.beekeeper.cleanup.service.CleanupBudget;
+import com.expediagroup.beekeeper.cleanup.service.CleanupPager;
 import com.expediagroup.beekeeper.core.model.HousekeepingMetadata;
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.core.model.HousekeepingStatus;
 import com.expediagroup.beekeeper.core.model.PeriodDuration;
+import com.expediagroup.beekeeper.core.model.TableShard;
 import com.expediagroup.beekeeper.core.repository.HousekeepingMetadataRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
+import com.expediagroup.beekeeper.core.service.HousekeepingUnitOfWork;
 import com.expediagroup.beekeeper.metadata.cleanup.TestApplication;
 import com.expediagroup.beekeeper.metadata.cleanup.handler.ExpiredMetadataHandler;
 import com.expediagroup.beekeeper.metadata.cleanup.handler.MetadataHandler;
@@ -86,6 +93,7 @@ public class PagingMetadataCleanupServiceTest {
   private @Captor ArgumentCaptor<HousekeepingPath> pathCaptor;
   private @Captor ArgumentCaptor<HiveClient> hiveClientCaptor;
   private @Autowired HousekeepingMetadataRepository metadataRepository;
+  private @Autowired PlatformTransactionManager transactionManager;
   private @MockBean MetadataCleaner metadataCleaner;
   private @MockBean PathCleaner pathCleaner;
   private @MockBean HiveClientFactory hiveClientFactory;
@@ -108,7 +116,7 @@ public class PagingMetadataCleanupServiceTest {
     handler = new ExpiredMetadataHandler(hiveClientFactory, metadataRepository, metadataCleaner, pathCleaner,
         beekeeperHistoryService);
     handlers = List.of(handler);
-    pagingCleanupService = new PagingMetadataCleanupService(handlers, 2, false);
+    pagingCleanupService = new PagingMetadataCleanupService(handlers, CleanupPager.builder().pageSize(2).build());
   }
 
   @Test
@@ -142,7 +150,8 @@ public class PagingMetadataCleanupServiceTest {
 
   @Test
   public void typicalDryRunEnabled() {
-    pagingCleanupService = new PagingMetadataCleanupService(handlers, 2, true);
+    pagingCleanupService = new PagingMetadataCleanupService(handlers,
+        CleanupPager.builder().pageSize(2).dryRunEnabled(true).build());
 
     List<String> tables = List.of("table1", "table2", "table3");
 
@@ -197,6 +206,119 @@ public class PagingMetadataCleanupServiceTest {
     verifyNoMoreInteractions(pathCleaner);
   }
 
+  @Test
+  public void typicalPartitionedWithBatchedUpdates() {
+    handler = new ExpiredMetadataHandler(hiveClientFactory, metadataRepository, metadataCleaner, pathCleaner,
+        new HousekeepingUnitOfWork<>(metadataRepository, beekeeperHistoryService,
+            new TransactionTemplate(transactionManager)),
+        TableShard.all(), 1);
+    pagingCleanupService = new PagingMetadataCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(2).build());
+    List<String> tables = List.of("table1", "table2", "table3");
+
+    IntStream
+        .range(0, tables.size())
+        .forEach(i -> metadataRepository
+            .save(createHousekeepingMetadata(tables.get(i), PARTITION_PATHS.get(i), PARTITION_NAME, SCHEDULED)));
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(metadataCleaner, times(3)).dropPartition(metadataCaptor.capture(), hiveClientCaptor.capture());
+    verify(beekeeperHistoryService, times(3)).createHistory(Mockito.any(), Mockito.eq(DELETED));
+    verify(beekeeperHistoryService, times(2)).saveHistory(Mockito.anyList());
+    metadataRepository.findAll().forEach(housekeepingMetadata -> {
+      assertThat(housekeepingMetadata.getCleanupAttempts()).isEqualTo(1);
+      assertThat(housekeepingMetadata.getHousekeepingStatus()).isEqualTo(DELETED);
+    });
+
+    pagingCleanupService.cleanUp(Instant.now());
+    verify(metadataCleaner, times(3)).dropPartition(Mockito.any(), Mockito.any());
+  }
+
+  @Test
+  public void partitionsClaimedByAnotherInstanceAreSkipped() {
+    handler = new ExpiredMetadataHandler(hiveClientFactory, metadataRepository, metadataCleaner, pathCleaner,
+        new HousekeepingUnitOfWork<>(metadataRepository, beekeeperHistoryService,
+            new TransactionTemplate(transactionManager)),
+        TableShard.all(), 1);
+    pagingCleanupService = new PagingMetadataCleanupService(List.of(handler), CleanupPager
+        .builder()
+        .pageSize(2)
+        .lease(HousekeepingLease.forThisInstance(Duration.ofMinutes(10)))
+        .build());
+    List<String> tables = List.of("table1", "table2", "table3");
+    List<HousekeepingMetadata> partitions = new ArrayList<>();
+    IntStream
+        .range(0, tables.size())
+        .forEach(i -> partitions
+            .add(metadataRepository
+                .save(createHousekeepingMetadata(tables.get(i), PARTITION_PATHS.get(i), PARTITION_NAME, SCHEDULED))));
+    metadataRepository
+        .claimRecords(List.of(partitions.get(1).getId()), "other-instance", localNow.plusDays(1), localNow,
+            localNow.plusHours(1));
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(metadataCleaner, times(2)).dropPartition(metadataCaptor.capture(), hiveClientCaptor.capture());
+    assertThat(metadataCaptor.getAllValues()).extracting("tableName").containsExactly(tables.get(0), tables.get(2));
+    metadataRepository.findAll().forEach(housekeepingMetadata -> {
+      if (housekeepingMetadata.getTableName().equals(tables.get(1))) {
+        assertThat(housekeepingMetadata.getHousekeepingStatus()).isEqualTo(SCHEDULED);
+        assertThat(housekeepingMetadata.getLeaseOwner()).isEqualTo("other-instance");
+      } else {
+        assertThat(housekeepingMetadata.getHousekeepingStatus()).isEqualTo(DELETED);
+        assertThat(housekeepingMetadata.getLeaseOwner()).isNull();
+        assertThat(housekeepingMetadata.getVersion()).isEqualTo(2L);
+      }
+    });
+  }
+
+  @Test
+  public void tablesTakeTurnsWithTableShare() {
+    pagingCleanupService = new PagingMetadataCleanupService(handlers,
+        CleanupPager.builder().pageSize(2).tableShare(1).build());
+    PARTITION_PATHS.forEach(
+        path -> metadataRepository.save(createHousekeepingMetadata("large_table", path, PARTITION_NAME, SCHEDULED)));
+    metadataRepository
+        .save(createHousekeepingMetadata("small_table", "s3://bucket/small_table/1", PARTITION_NAME, SCHEDULED));
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(pathCleaner, times(4)).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getAllValues())
+        .extracting("path")
+        .containsExactly(PARTITION_PATHS.get(0), "s3://bucket/small_table/1", PARTITION_PATHS.get(1),
+            PARTITION_PATHS.get(2));
+    metadataRepository
+        .findAll()
+        .forEach(housekeepingMetadata -> assertThat(housekeepingMetadata.getHousekeepingStatus()).isEqualTo(DELETED));
+  }
+
+  @Test
+  public void runStopsWhenBudgetIsUsedUp() {
+    pagingCleanupService = new PagingMetadataCleanupService(handlers, CleanupPager
+        .builder()
+        .pageSize(2)
+        .budget(new CleanupBudget(Duration.ZERO, 2, 0, () -> 0L))
+        .build());
+    PARTITION_PATHS.forEach(
+        path -> metadataRepository.save(createHousekeepingMetadata("table1", path, PARTITION_NAME, SCHEDULED)));
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(pathCleaner, times(2)).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getAllValues()).extracting("path").containsExactly(PARTITION_PATHS.get(0),
+        PARTITION_PATHS.get(1));
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(pathCleaner, times(3)).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getValue().getPath()).isEqualTo(PARTITION_PATHS.get(2));
+    metadataRepository
+        .findAll()
+        .forEach(housekeepingMetadata -> assertThat(housekeepingMetadata.getHousekeepingStatus()).isEqualTo(DELETED));
+  }
+
   @Test
   public void mixOfScheduledAndFailedPaths() {
     List<HousekeepingMetadata> tables = List
@@ -314,7 +436,8 @@ public class PagingMetadataCleanupServiceTest {
   @Test
   @Timeout(value = 10)
   void doNotInfiniteLoopOnDryRunCleanup() {
-    pagingCleanupService = new PagingMetadataCleanupService(handlers, 2, true);
+    pagingCleanupService = new PagingMetadataCleanupService(handlers,
+        CleanupPager.builder().pageSize(2).dryRunEnabled(true).build());
 
     List<HousekeepingMetadata> tables = List
         .of(createHousekeepingMetadata("table1", "s3://some_foo", null, SCHEDULED),
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2021 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,6 +15,7 @@
  */
 package com.expediagroup.beekeeper.path.cleanup.context;
 
+import java.time.Duration;
 import java.util.List;
 
 import org.springframework.beans.factory.annotation.Value;
@@ -34,16 +35,23 @@ import com.amazonaws.services.s3.AmazonS3ClientBuilder;
 
 import com.expediagroup.beekeeper.cleanup.aws.S3Client;
 import com.expediagroup.beekeeper.cleanup.aws.S3PathCleaner;
+import com.expediagroup.beekeeper.cleanup.aws.S3RequestRateController;
 import com.expediagroup.beekeeper.cleanup.aws.S3SentinelFilesCleaner;
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunSummaryReporter;
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
+import com.expediagroup.beekeeper.cleanup.service.CleanupBudget;
+import com.expediagroup.beekeeper.cleanup.service.CleanupPager;
 import com.expediagroup.beekeeper.cleanup.service.CleanupService;
 import com.expediagroup.beekeeper.cleanup.service.DisableTablesService;
 import com.expediagroup.beekeeper.cleanup.service.RepositoryCleanupService;
+import com.expediagroup.beekeeper.core.model.CleanupPriority;
 import com.expediagroup.beekeeper.core.repository.BeekeeperHistoryRepository;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
 import com.expediagroup.beekeeper.path.cleanup.handler.GenericPathHandler;
+import com.expediagroup.beekeeper.path.cleanup.service.HousekeepingPathCheckpointStore;
 import com.expediagroup.beekeeper.path.cleanup.service.PagingPathCleanupService;
 import com.expediagroup.beekeeper.path.cleanup.service.PathRepositoryCleanupService;
 
@@ -56,19 +64,22 @@ public class CommonBeans {
 
   @Bean
   @Profile("default")
-  public AmazonS3 amazonS3() {
-    return AmazonS3ClientBuilder.defaultClient();
+  public AmazonS3 amazonS3(S3RequestRateController s3RequestRateController) {
+    return AmazonS3ClientBuilder.standard()
+        .withRequestHandlers(s3RequestRateController.requestHandler())
+        .build();
   }
 
   @Bean
   @Profile("test")
-  public AmazonS3 amazonS3Test() {
+  public AmazonS3 amazonS3Test(S3RequestRateController s3RequestRateController) {
     String s3Endpoint = System.getProperty("aws.s3.endpoint");
     String region = System.getProperty("aws.region");
 
     EndpointConfiguration endpointConfiguration = new EndpointConfiguration(s3Endpoint, region);
     return AmazonS3ClientBuilder.standard()
         .withEndpointConfiguration(endpointConfiguration)
+        .withRequestHandlers(s3RequestRateController.requestHandler())
         .build();
   }
 
@@ -80,23 +91,95 @@ public class CommonBeans {
   }
 
   @Bean
-  public S3Client s3Client(AmazonS3 amazonS3, @Value("${properties.dry-run-enabled}") boolean dryRunEnabled) {
-    return new S3Client(amazonS3, dryRunEnabled);
+  public DryRunSummaryReporter dryRunSummaryReporter(
+      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled,
+      @Value("${properties.dry-run-summary-enabled}") boolean dryRunSummaryEnabled,
+      @Value("${properties.dry-run-report-file}") String dryRunReportFile) {
+    if (!dryRunEnabled || !dryRunSummaryEnabled) {
+      return DryRunSummaryReporter.disabled();
+    }
+    return new DryRunSummaryReporter(dryRunReportFile);
+  }
+
+  @Bean
+  public S3RequestRateController s3RequestRateController(
+      MeterRegistry meterRegistry,
+      @Value("${properties.s3-request-rate-control-enabled}") boolean rateControlEnabled,
+      @Value("${properties.s3-request-rate-initial}") double initialRate,
+      @Value("${properties.s3-request-rate-max}") double maxRate,
+      @Value("${properties.s3-request-rate-prefix-depth}") int prefixDepth) {
+    if (!rateControlEnabled) {
+      return S3RequestRateController.disabled();
+    }
+    return new S3RequestRateController(meterRegistry, initialRate, maxRate, prefixDepth);
+  }
+
+  @Bean
+  public S3Client s3Client(
+      AmazonS3 amazonS3,
+      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled,
+      @Value("${properties.s3-delete-concurrency}") int deleteConcurrency,
+      @Value("${properties.s3-delete-max-attempts}") int deleteMaxAttempts,
+      @Value("${properties.s3-delete-retry-backoff-ms}") long deleteRetryBackoffMs,
+      @Value("${properties.s3-list-concurrency}") int listConcurrency,
+      S3RequestRateController s3RequestRateController,
+      @Value("${properties.s3-request-pool-threads}") int requestPoolThreads) {
+    return S3Client
+        .builder(amazonS3)
+        .dryRunEnabled(dryRunEnabled)
+        .deleteConcurrency(deleteConcurrency)
+        .deleteMaxAttempts(deleteMaxAttempts)
+        .deleteRetryBackoffMs(deleteRetryBackoffMs)
+        .listConcurrency(listConcurrency)
+        .rateController(s3RequestRateController)
+        .requestPoolThreads(requestPoolThreads)
+        .build();
   }
 
   @Bean(name = "s3PathCleaner")
   public PathCleaner pathCleaner(
       S3Client s3Client,
-      BytesDeletedReporter bytesDeletedReporter) {
-    return new S3PathCleaner(s3Client, new S3SentinelFilesCleaner(s3Client), bytesDeletedReporter);
+      BytesDeletedReporter bytesDeletedReporter,
+      @Value("${properties.s3-batch-sentinel-cleanup-enabled}") boolean batchSentinelCleanupEnabled,
+      @Value("${properties.s3-delete-coalescing-enabled}") boolean deleteCoalescingEnabled,
+      DryRunSummaryReporter dryRunSummaryReporter,
+      HousekeepingPathRepository housekeepingPathRepository,
+      @Value("${properties.s3-delete-checkpoint-objects}") long checkpointIntervalObjects) {
+    return S3PathCleaner
+        .builder(s3Client, new S3SentinelFilesCleaner(s3Client), bytesDeletedReporter)
+        .batchSentinelCleanupEnabled(batchSentinelCleanupEnabled)
+        .deleteCoalescingEnabled(deleteCoalescingEnabled)
+        .dryRunSummaryReporter(dryRunSummaryReporter)
+        .checkpointStore(new HousekeepingPathCheckpointStore(housekeepingPathRepository))
+        .checkpointIntervalObjects(checkpointIntervalObjects)
+        .build();
   }
 
   @Bean
   public CleanupService cleanupService(
       List<GenericPathHandler> pathHandlers,
       @Value("${properties.cleanup-page-size}") int pageSize,
-      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled) {
-    return new PagingPathCleanupService(pathHandlers, pageSize, dryRunEnabled);
+      @Value("${properties.dry-run-enabled}") boolean dryRunEnabled,
+      @Value("${properties.cleanup-page-concurrency}") int pageConcurrency,
+      @Value("${properties.cleanup-lease-duration-minutes}") long leaseDurationMinutes,
+      @Value("${properties.cleanup-table-share}") int tableShare,
+      @Value("${properties.cleanup-priority-bytes-weight}") double priorityBytesWeight,
+      @Value("${properties.cleanup-priority-overdue-weight}") double priorityOverdueWeight,
+      BytesDeletedReporter bytesDeletedReporter,
+      @Value("${properties.cleanup-budget-minutes}") long budgetMinutes,
+      @Value("${properties.cleanup-budget-records}") long budgetRecords,
+      @Value("${properties.cleanup-budget-bytes}") long budgetBytes) {
+    CleanupPager pager = CleanupPager
+        .builder()
+        .pageSize(pageSize)
+        .dryRunEnabled(dryRunEnabled)
+        .lease(HousekeepingLease.forThisInstance(Duration.ofMinutes(leaseDurationMinutes)))
+        .tableShare(tableShare)
+        .priority(new CleanupPriority(priorityBytesWeight, priorityOverdueWeight))
+        .budget(new CleanupBudget(Duration.ofMinutes(budgetMinutes), budgetRecords, budgetBytes,
+            bytesDeletedReporter::getTotalBytesDeleted))
+        .build();
+    return new PagingPathCleanupService(pathHandlers, pager, pageConcurrency);
   }
 
   @Bean
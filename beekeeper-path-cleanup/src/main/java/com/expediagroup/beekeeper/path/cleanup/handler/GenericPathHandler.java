@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -19,37 +19,55 @@ import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.DELETED;
 import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.FAILED_TO_DELETE;
 import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.SKIPPED;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.function.Consumer;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
 
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
+import com.expediagroup.beekeeper.cleanup.service.CleanupRecordSource;
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.core.model.HousekeepingStatus;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
+import com.expediagroup.beekeeper.core.service.HousekeepingUnitOfWork;
 import com.expediagroup.beekeeper.core.validation.S3PathValidator;
 
-public abstract class GenericPathHandler {
+public abstract class GenericPathHandler implements CleanupRecordSource<HousekeepingPath> {
 
   private final Logger log = LoggerFactory.getLogger(GenericPathHandler.class);
 
-  private final HousekeepingPathRepository housekeepingPathRepository;
   private final PathCleaner pathCleaner;
-  private final BeekeeperHistoryService beekeeperHistoryService;
+  private final HousekeepingUnitOfWork<HousekeepingPath> unitOfWork;
 
   public GenericPathHandler(HousekeepingPathRepository housekeepingPathRepository, PathCleaner pathCleaner,
       BeekeeperHistoryService beekeeperHistoryService) {
-    this.housekeepingPathRepository = housekeepingPathRepository;
     this.pathCleaner = pathCleaner;
-    this.beekeeperHistoryService = beekeeperHistoryService;
+    unitOfWork = HousekeepingUnitOfWork.unbatched(housekeepingPathRepository, beekeeperHistoryService);
   }
 
-  public abstract Slice<HousekeepingPath> findRecordsToClean(LocalDateTime instant, Pageable pageable);
+  /**
+   * @param transactionTemplate Transaction in which the status changes and history events of a page are written
+   *          together, once the whole page has been processed.
+   */
+  public GenericPathHandler(HousekeepingPathRepository housekeepingPathRepository, PathCleaner pathCleaner,
+      BeekeeperHistoryService beekeeperHistoryService, TransactionTemplate transactionTemplate) {
+    this.pathCleaner = pathCleaner;
+    unitOfWork = new HousekeepingUnitOfWork<>(housekeepingPathRepository, beekeeperHistoryService,
+        transactionTemplate);
+  }
 
   /**
    * Processes a pageable entityHouseKeepingPath page.
@@ -64,13 +82,133 @@ public abstract class GenericPathHandler {
    * @implNote Note that we only expect pageable.next to be called during a dry run.
    */
   public Pageable processPage(Pageable pageable, Slice<HousekeepingPath> page, boolean dryRunEnabled) {
-    List<HousekeepingPath> pageContent = page.getContent();
+    return processPage(pageable, page, dryRunEnabled, Runnable::run, 1);
+  }
+
+  /**
+   * Processes a pageable entityHouseKeepingPath page, cleaning up to {@code concurrency} of its records at the same
+   * time on {@code executor}. Every record is updated by the thread which cleaned it up, and this method only returns
+   * once every record of the page has been processed, so that the next query does not return records still in progress.
+   *
+   * @param executor Executor running the cleanups, with at most {@code concurrency} threads
+   * @param concurrency Number of groups the records of the page are split into when the path cleaner cleans them up
+   *          in batches
+   * @see #processPage(Pageable, Slice, boolean)
+   */
+  public Pageable processPage(
+      Pageable pageable,
+      Slice<HousekeepingPath> page,
+      boolean dryRunEnabled,
+      Executor executor,
+      int concurrency) {
+    return processPage(pageable, page, dryRunEnabled, executor, concurrency, new PathPrefixTrie());
+  }
+
+  /**
+   * Processes a pageable entityHouseKeepingPath page, without listing the paths which are nested in another path that
+   * was deleted. The paths of the page which have no ancestor in the page are cleaned up first. Then every other path
+   * whose ancestor was deleted, now or earlier in the cleanup, is only marked as deleted, with its history, and the
+   * others are cleaned up on their own.
+   *
+   * @param deletedPaths Paths deleted earlier in the cleanup, to which the paths deleted from this page are added.
+   * @see #processPage(Pageable, Slice, boolean, Executor, int)
+   */
+  public Pageable processPage(
+      Pageable pageable,
+      Slice<HousekeepingPath> page,
+      boolean dryRunEnabled,
+      Executor executor,
+      int concurrency,
+      PathPrefixTrie deletedPaths) {
+    PathPrefixTrie pagePaths = new PathPrefixTrie();
+    page.getContent().forEach(housekeepingPath -> pagePaths.add(housekeepingPath.getPath()));
+    List<HousekeepingPath> pageContent = new ArrayList<>();
+    List<HousekeepingPath> nestedPaths = new ArrayList<>();
+    for (HousekeepingPath housekeepingPath : page.getContent()) {
+      String path = housekeepingPath.getPath();
+      if (pagePaths.hasAncestor(path) || deletedPaths.hasAncestor(path)) {
+        nestedPaths.add(housekeepingPath);
+      } else {
+        pageContent.add(housekeepingPath);
+      }
+    }
     if (dryRunEnabled) {
-      pageContent.forEach(this::cleanUpPath);
+      dryRunCleanup(pageContent, executor, concurrency, deletedPaths);
+      List<HousekeepingPath> uncoveredPaths = new ArrayList<>();
+      for (HousekeepingPath housekeepingPath : nestedPaths) {
+        if (deletedPaths.hasAncestor(housekeepingPath.getPath())) {
+          log.info("Dry run - path \"{}\" would be deleted with one of its ancestors", housekeepingPath.getPath());
+        } else {
+          uncoveredPaths.add(housekeepingPath);
+        }
+      }
+      dryRunCleanup(uncoveredPaths, executor, concurrency, deletedPaths);
       return pageable.next();
+    }
+    try {
+      cleanupContent(pageContent, executor, concurrency, deletedPaths);
+      List<HousekeepingPath> uncoveredPaths = new ArrayList<>();
+      for (HousekeepingPath housekeepingPath : nestedPaths) {
+        if (deletedPaths.hasAncestor(housekeepingPath.getPath())) {
+          cleanupCoveredPath(housekeepingPath);
+        } else {
+          uncoveredPaths.add(housekeepingPath);
+        }
+      }
+      if (!uncoveredPaths.isEmpty()) {
+        cleanupContent(uncoveredPaths, executor, concurrency, deletedPaths);
+      }
+    } finally {
+      unitOfWork.flush();
+    }
+    return pageable;
+  }
+
+  private void dryRunCleanup(
+      List<HousekeepingPath> pageContent,
+      Executor executor,
+      int concurrency,
+      PathPrefixTrie deletedPaths) {
+    List<HousekeepingPath> listedPaths = Collections.synchronizedList(new ArrayList<>());
+    runAll(pageContent, housekeepingPath -> {
+      if (cleanUpPath(housekeepingPath)) {
+        listedPaths.add(housekeepingPath);
+      }
+    }, executor, concurrency);
+    listedPaths.forEach(housekeepingPath -> deletedPaths.add(housekeepingPath.getPath()));
+  }
+
+  private void cleanupContent(
+      List<HousekeepingPath> pageContent,
+      Executor executor,
+      int concurrency,
+      PathPrefixTrie deletedPaths) {
+    if (pathCleaner.isBatchCleanupEnabled()) {
+      int groupSize = Math.max(1, (pageContent.size() + concurrency - 1) / concurrency);
+      runAll(Lists.partition(pageContent, groupSize), this::cleanupContent, executor, concurrency);
     } else {
-      pageContent.forEach(this::cleanupContent);
-      return pageable;
+      runAll(pageContent, this::cleanupContent, executor, concurrency);
+    }
+    // the statuses are set by the threads which cleaned the paths up, which have all finished
+    pageContent
+        .stream()
+        .filter(housekeepingPath -> housekeepingPath.getHousekeepingStatus() == DELETED)
+        .forEach(housekeepingPath -> deletedPaths.add(housekeepingPath.getPath()));
+  }
+
+  private <T> void runAll(List<T> items, Consumer<T> action, Executor executor, int concurrency) {
+    if (concurrency <= 1) {
+      items.forEach(action);
+      return;
+    }
+    CompletableFuture<?>[] futures = items.stream()
+        .map(item -> CompletableFuture.runAsync(() -> action.accept(item), executor))
+        .toArray(CompletableFuture[]::new);
+    try {
+      CompletableFuture.allOf(futures).join();
+    } catch (CompletionException e) {
+      Throwables.throwIfUnchecked(e.getCause());
+      throw e;
     }
   }
 
@@ -99,19 +237,58 @@ public abstract class GenericPathHandler {
     }
   }
 
+  /**
+   * Cleans up the valid paths of a page with a single call to the path cleaner, which can share requests between them.
+   * Every path is still updated on its own, as soon as its cleanup has finished.
+   */
+  private void cleanupContent(List<HousekeepingPath> pageContent) {
+    List<HousekeepingPath> validPaths = new ArrayList<>();
+    for (HousekeepingPath housekeepingPath : pageContent) {
+      if (S3PathValidator.validTablePath(housekeepingPath.getPath())) {
+        log.info("Cleaning up path \"{}\"", housekeepingPath.getPath());
+        validPaths.add(housekeepingPath);
+      } else {
+        log.warn("Will not clean up path \"{}\" because it is not valid.", housekeepingPath.getPath());
+        updateStatus(housekeepingPath, SKIPPED);
+      }
+    }
+    pathCleaner.cleanupPaths(validPaths, this::completeCleanup);
+  }
+
+  private void cleanupCoveredPath(HousekeepingPath housekeepingPath) {
+    log.info("Path \"{}\" was deleted with one of its ancestors", housekeepingPath.getPath());
+    updateAttemptsAndStatus(housekeepingPath, DELETED);
+    saveHistory(housekeepingPath, DELETED);
+  }
+
+  private void completeCleanup(HousekeepingPath housekeepingPath, Exception failure) {
+    if (failure == null) {
+      try {
+        updateAttemptsAndStatus(housekeepingPath, DELETED);
+        saveHistory(housekeepingPath, DELETED);
+        return;
+      } catch (Exception e) {
+        failure = e;
+      }
+    }
+    updateAttemptsAndStatus(housekeepingPath, HousekeepingStatus.FAILED);
+    saveHistory(housekeepingPath, FAILED_TO_DELETE);
+    log.warn("Unexpected exception deleting \"{}\"", housekeepingPath.getPath(), failure);
+  }
+
   private void updateAttemptsAndStatus(HousekeepingPath housekeepingPath, HousekeepingStatus status) {
     housekeepingPath.setCleanupAttempts(housekeepingPath.getCleanupAttempts() + 1);
     housekeepingPath.setHousekeepingStatus(status);
-    housekeepingPathRepository.save(housekeepingPath);
+    unitOfWork.save(housekeepingPath);
   }
 
   private void updateStatus(HousekeepingPath housekeepingPath, HousekeepingStatus status) {
     housekeepingPath.setHousekeepingStatus(status);
-    housekeepingPathRepository.save(housekeepingPath);
+    unitOfWork.save(housekeepingPath);
     saveHistory(housekeepingPath, status);
   }
 
   private void saveHistory(HousekeepingPath housekeepingPath, HousekeepingStatus status) {
-    beekeeperHistoryService.saveHistory(housekeepingPath, status);
+    unitOfWork.saveHistory(housekeepingPath, status);
   }
 }
@@ -0,0 +1,92 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.path.cleanup.handler;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Paths, stored by their "/" separated segments, which can be asked whether they contain an ancestor of another path.
+ * The scheme of a path is ignored, so {@code s3a://bucket/table} is an ancestor of {@code s3://bucket/table/p=1}.
+ * <p>
+ * Only the shallowest paths are kept: a path is not added when one of its ancestors already is, and adding a path
+ * drops its descendants, which it covers.
+ */
+public class PathPrefixTrie {
+
+  private final Node root = new Node();
+  private int size;
+
+  public void add(String path) {
+    Node node = root;
+    for (String segment : segments(path)) {
+      if (node.terminal) {
+        return;
+      }
+      node = node.children.computeIfAbsent(segment, key -> new Node());
+    }
+    if (!node.terminal) {
+      size -= node.countTerminals();
+      node.terminal = true;
+      node.children.clear();
+      size++;
+    }
+  }
+
+  /**
+   * @return Whether a path strictly above {@code path} was added; the path itself does not count.
+   */
+  public boolean hasAncestor(String path) {
+    Node node = root;
+    String[] segments = segments(path);
+    for (int i = 0; i < segments.length - 1; i++) {
+      node = node.children.get(segments[i]);
+      if (node == null) {
+        return false;
+      }
+      if (node.terminal) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @return Number of paths kept, which does not include the descendants of other paths.
+   */
+  public int size() {
+    return size;
+  }
+
+  private static String[] segments(String path) {
+    int schemeEnd = path.indexOf("://");
+    String location = schemeEnd < 0 ? path : path.substring(schemeEnd + 3);
+    return location.replaceAll("/+", "/").replaceAll("^/|/$", "").split("/");
+  }
+
+  private static class Node {
+    private final Map<String, Node> children = new HashMap<>();
+    private boolean terminal;
+
+    private int countTerminals() {
+      int count = terminal ? 1 : 0;
+      for (Node child : children.values()) {
+        count += child.countTerminals();
+      }
+      return count;
+    }
+  }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,34 +16,124 @@
 package com.expediagroup.beekeeper.path.cleanup.handler;
 
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.core.model.HousekeepingTable;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
 
 @Component
 public class UnreferencedPathHandler extends GenericPathHandler {
 
   private final HousekeepingPathRepository housekeepingPathRepository;
 
-  @Autowired
   public UnreferencedPathHandler(
       HousekeepingPathRepository housekeepingPathRepository,
-      @Qualifier("s3PathCleaner") PathCleaner pathCleaner,
+      PathCleaner pathCleaner,
       BeekeeperHistoryService beekeeperHistoryService) {
     super(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
     this.housekeepingPathRepository = housekeepingPathRepository;
   }
 
+  @Autowired
+  public UnreferencedPathHandler(
+      HousekeepingPathRepository housekeepingPathRepository,
+      @Qualifier("s3PathCleaner") PathCleaner pathCleaner,
+      BeekeeperHistoryService beekeeperHistoryService,
+      TransactionTemplate transactionTemplate) {
+    super(housekeepingPathRepository, pathCleaner, beekeeperHistoryService, transactionTemplate);
+    this.housekeepingPathRepository = housekeepingPathRepository;
+  }
+
   @Override
   public Slice<HousekeepingPath> findRecordsToClean(LocalDateTime instant, Pageable pageable) {
     return housekeepingPathRepository.findRecordsForCleanup(instant, pageable);
   }
+
+  @Override
+  public Slice<HousekeepingPath> findRecordsToClean(
+      LocalDateTime instant,
+      HousekeepingPath lastRecord,
+      Pageable pageable) {
+    return housekeepingPathRepository
+        .findRecordsForCleanupAfter(instant, lastRecord.getCleanupTimestamp(), lastRecord.getId(), pageable);
+  }
+
+  @Override
+  public List<HousekeepingTable> findTablesToClean(LocalDateTime instant) {
+    return housekeepingPathRepository.findTablesForCleanup(instant);
+  }
+
+  @Override
+  public Slice<HousekeepingPath> findRecordsToCleanInTable(
+      LocalDateTime instant,
+      HousekeepingTable table,
+      long lastId,
+      Pageable pageable) {
+    return housekeepingPathRepository
+        .findRecordsForCleanupInTable(instant, table.getDatabaseName(), table.getTableName(), lastId, pageable);
+  }
+
+  @Override
+  public Optional<LocalDateTime> findNextCleanupTimestamp(LocalDateTime instant) {
+    return housekeepingPathRepository.findNextCleanupTimestamp(instant);
+  }
+
+  @Override
+  public Slice<HousekeepingPath> findRecordsToCleanByPriority(LocalDateTime instant, Pageable pageable) {
+    return housekeepingPathRepository.findRecordsForCleanupByPriority(instant, pageable);
+  }
+
+  @Override
+  public Slice<HousekeepingPath> findRecordsToCleanByPriority(
+      LocalDateTime instant,
+      double lastPriority,
+      long lastId,
+      Pageable pageable) {
+    return housekeepingPathRepository.findRecordsForCleanupByPriorityAfter(instant, lastPriority, lastId, pageable);
+  }
+
+  @Override
+  public Slice<HousekeepingPath> findUnscoredRecordsToClean(LocalDateTime instant, long lastId, Pageable pageable) {
+    return housekeepingPathRepository.findUnscoredRecordsForCleanup(instant, lastId, pageable);
+  }
+
+  @Override
+  public void updateCleanupPriority(HousekeepingPath record) {
+    housekeepingPathRepository
+        .updateCleanupPriority(record.getId(), record.getEstimatedBytes(), record.getCleanupPriority());
+  }
+
+  @Override
+  public List<HousekeepingPath> claimRecords(
+      LocalDateTime instant,
+      List<HousekeepingPath> records,
+      HousekeepingLease lease) {
+    List<Long> ids = ids(records);
+    LocalDateTime now = LocalDateTime.now(ZoneOffset.UTC);
+    housekeepingPathRepository.claimRecords(ids, lease.getOwner(), instant, now, lease.expiryFrom(now));
+    return housekeepingPathRepository.findClaimedRecords(ids, lease.getOwner());
+  }
+
+  @Override
+  public void releaseRecords(List<HousekeepingPath> records, HousekeepingLease lease) {
+    housekeepingPathRepository.releaseRecords(ids(records), lease.getOwner());
+  }
+
+  private List<Long> ids(List<HousekeepingPath> records) {
+    return records.stream().map(HousekeepingPath::getId).collect(Collectors.toList());
+  }
 }
@@ -0,0 +1,79 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.path.cleanup.service;
+
+import java.util.Optional;
+
+import com.expediagroup.beekeeper.cleanup.path.DeleteCheckpoint;
+import com.expediagroup.beekeeper.cleanup.path.DeleteCheckpointStore;
+import com.expediagroup.beekeeper.core.model.HousekeepingEntity;
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
+
+/**
+ * Keeps the checkpoints of path deletions in the columns of their {@code housekeeping_path} records. They are read
+ * with the records of each page, and written straight away, as well as on the records themselves, so that saving a
+ * record afterwards keeps them.
+ */
+public class HousekeepingPathCheckpointStore implements DeleteCheckpointStore {
+
+  private final HousekeepingPathRepository housekeepingPathRepository;
+
+  public HousekeepingPathCheckpointStore(HousekeepingPathRepository housekeepingPathRepository) {
+    this.housekeepingPathRepository = housekeepingPathRepository;
+  }
+
+  @Override
+  public Optional<DeleteCheckpoint> find(HousekeepingEntity housekeepingEntity) {
+    if (!(housekeepingEntity instanceof HousekeepingPath)) {
+      return Optional.empty();
+    }
+    HousekeepingPath housekeepingPath = (HousekeepingPath) housekeepingEntity;
+    if (housekeepingPath.getDeleteStartAfter() == null) {
+      return Optional.empty();
+    }
+    return Optional.of(new DeleteCheckpoint(housekeepingPath.getDeleteStartAfter(),
+        valueOf(housekeepingPath.getObjectsDeleted()), valueOf(housekeepingPath.getBytesDeleted())));
+  }
+
+  @Override
+  public void save(HousekeepingEntity housekeepingEntity, DeleteCheckpoint checkpoint) {
+    update(housekeepingEntity, checkpoint.getStartAfter(), checkpoint.getObjectsDeleted(),
+        checkpoint.getBytesDeleted());
+  }
+
+  @Override
+  public void clear(HousekeepingEntity housekeepingEntity) {
+    update(housekeepingEntity, null, null, null);
+  }
+
+  private void update(HousekeepingEntity housekeepingEntity, String startAfter, Long objectsDeleted,
+      Long bytesDeleted) {
+    if (!(housekeepingEntity instanceof HousekeepingPath) || housekeepingEntity.getId() == null) {
+      return;
+    }
+    HousekeepingPath housekeepingPath = (HousekeepingPath) housekeepingEntity;
+    housekeepingPathRepository.updateDeleteCheckpoint(housekeepingPath.getId(), startAfter, objectsDeleted,
+        bytesDeleted);
+    housekeepingPath.setDeleteStartAfter(startAfter);
+    housekeepingPath.setObjectsDeleted(objectsDeleted);
+    housekeepingPath.setBytesDeleted(bytesDeleted);
+  }
+
+  private long valueOf(Long value) {
+    return value == null ? 0L : value;
+  }
+}
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,61 +17,92 @@ package com.expediagroup.beekeeper.path.cleanup.service;
 
 import static java.lang.String.format;
 
+import java.io.Closeable;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
 import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
-import org.slf4j.Logger;
-import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
 import org.springframework.transaction.annotation.Transactional;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 import io.micrometer.core.annotation.Timed;
 
+import com.expediagroup.beekeeper.cleanup.service.CleanupBudget;
+import com.expediagroup.beekeeper.cleanup.service.CleanupPager;
 import com.expediagroup.beekeeper.cleanup.service.CleanupService;
 import com.expediagroup.beekeeper.core.error.BeekeeperException;
-import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.path.cleanup.handler.GenericPathHandler;
+import com.expediagroup.beekeeper.path.cleanup.handler.PathPrefixTrie;
 
-public class PagingPathCleanupService implements CleanupService {
-
-  private static final Logger log = LoggerFactory.getLogger(PagingPathCleanupService.class);
+public class PagingPathCleanupService implements CleanupService, Closeable {
 
   private final List<GenericPathHandler> pathHandlers;
-  private final boolean dryRunEnabled;
-  private final int pageSize;
+  private final CleanupPager pager;
+  private final int pageConcurrency;
+  private final ExecutorService pageExecutorService;
+  private final Executor pageExecutor;
 
-  public PagingPathCleanupService(List<GenericPathHandler> pathHandlers, int pageSize, boolean dryRunEnabled) {
+  /**
+   * @param pager Pager of the records of the handlers, of which this service needs its own.
+   * @param pageConcurrency Number of records of a page cleaned up at the same time. The next page is only queried once
+   *          every record of the current one has been processed.
+   */
+  public PagingPathCleanupService(List<GenericPathHandler> pathHandlers, CleanupPager pager, int pageConcurrency) {
     this.pathHandlers = pathHandlers;
-    this.pageSize = pageSize;
-    this.dryRunEnabled = dryRunEnabled;
+    this.pager = pager;
+    this.pageConcurrency = Math.max(1, pageConcurrency);
+    if (this.pageConcurrency > 1) {
+      pageExecutorService = Executors
+          .newFixedThreadPool(this.pageConcurrency,
+              new ThreadFactoryBuilder().setNameFormat("path-cleanup-%d").setDaemon(true).build());
+      pageExecutor = pageExecutorService;
+    } else {
+      pageExecutorService = null;
+      pageExecutor = Runnable::run;
+    }
+  }
+
+  /**
+   * Stops the threads which clean up the records of a page. Called by Spring when the application shuts down.
+   */
+  @Override
+  public void close() {
+    if (pageExecutorService != null) {
+      pageExecutorService.shutdown();
+    }
   }
 
   @Override
   @Timed("path-cleanup-job")
   public void cleanUp(Instant referenceTime) {
     try {
-      pathHandlers.forEach(handler -> pagingCleanup(handler, referenceTime));
+      pager.cleanUp(pathHandlers, (handler, cycle) -> pagingCleanup(handler, referenceTime, cycle));
     } catch (Exception e) {
       throw new BeekeeperException(format("Cleanup failed for instant %s", referenceTime.toString()), e);
     }
   }
 
-  @Transactional
-  private void pagingCleanup(GenericPathHandler handler, Instant referenceTime) {
-    Pageable pageable = PageRequest.of(0, pageSize).first();
+  @Override
+  public Optional<Instant> findNextDueTime(Instant referenceTime) {
+    return pager.findNextDueTime(pathHandlers, referenceTime);
+  }
 
+  /**
+   * @return Whether every record of the handler was processed, rather than the cycle running out of budget first.
+   */
+  @Transactional
+  private boolean pagingCleanup(GenericPathHandler handler, Instant referenceTime, CleanupBudget.Cycle cycle) {
     LocalDateTime instant = LocalDateTime.ofInstant(referenceTime, ZoneOffset.UTC);
-    Slice<HousekeepingPath> batch = handler.findRecordsToClean(instant, pageable);
-
-    int i = 1;
-    while (!batch.getContent().isEmpty()) {
-      log.info("Processing page {}", i++);
-      pageable = handler.processPage(pageable, batch, dryRunEnabled);
-      batch = handler.findRecordsToClean(instant, pageable);
-    }
+    // paths nested in a path deleted earlier in this cleanup are not listed again
+    PathPrefixTrie deletedPaths = new PathPrefixTrie();
+    return pager
+        .cleanupPass(handler, instant, cycle, (pageable, page) -> handler
+            .processPage(pageable, page, pager.isDryRunEnabled(), pageExecutor, pageConcurrency, deletedPaths));
   }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2021 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,6 +16,7 @@
 package com.expediagroup.beekeeper.path.cleanup.context;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.Mockito.mock;
 
 import java.net.URL;
@@ -35,11 +36,14 @@ import com.amazonaws.services.s3.AmazonS3;
 
 import com.expediagroup.beekeeper.cleanup.aws.S3Client;
 import com.expediagroup.beekeeper.cleanup.aws.S3PathCleaner;
+import com.expediagroup.beekeeper.cleanup.aws.S3RequestRateController;
 import com.expediagroup.beekeeper.cleanup.monitoring.BytesDeletedReporter;
+import com.expediagroup.beekeeper.cleanup.monitoring.DryRunSummaryReporter;
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
 import com.expediagroup.beekeeper.cleanup.service.CleanupService;
 import com.expediagroup.beekeeper.cleanup.service.DisableTablesService;
 import com.expediagroup.beekeeper.cleanup.service.RepositoryCleanupService;
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
 import com.expediagroup.beekeeper.core.repository.BeekeeperHistoryRepository;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
@@ -77,7 +81,7 @@ class CommonBeansTest {
 
   @Test
   void typicalAmazonClient() {
-    AmazonS3 amazonS3 = commonBeans.amazonS3();
+    AmazonS3 amazonS3 = commonBeans.amazonS3(S3RequestRateController.disabled());
     URL url = amazonS3.getUrl(BUCKET, KEY);
     assertThat(url.getHost()).isEqualTo(String.join(".", BUCKET, AWS_ENDPOINT));
   }
@@ -85,34 +89,78 @@ class CommonBeansTest {
   @Test
   void endpointConfiguredAmazonClient() {
     System.setProperty(AWS_S3_ENDPOINT_PROPERTY, ENDPOINT);
-    AmazonS3 amazonS3 = commonBeans.amazonS3Test();
+    AmazonS3 amazonS3 = commonBeans.amazonS3Test(S3RequestRateController.disabled());
     URL url = amazonS3.getUrl(BUCKET, KEY);
     assertThat(url.getHost()).isEqualTo(String.join(".", BUCKET, ENDPOINT));
   }
 
   @Test
   void s3Client() {
-    AmazonS3 amazonS3 = commonBeans.amazonS3();
+    AmazonS3 amazonS3 = commonBeans.amazonS3(S3RequestRateController.disabled());
     S3Client s3Client = new S3Client(amazonS3, dryRunEnabled);
-    S3Client beansS3Client = commonBeans.s3Client(amazonS3, dryRunEnabled);
+    S3Client beansS3Client = commonBeans
+        .s3Client(amazonS3, dryRunEnabled, 1, 1, 0, 1, S3RequestRateController.disabled(), 0);
     assertThat(s3Client).isEqualToComparingFieldByField(beansS3Client);
   }
 
+  @Test
+  void s3ClientWithRequestPool() {
+    S3RequestRateController rateController = S3RequestRateController.disabled();
+    S3Client s3Client = commonBeans
+        .s3Client(commonBeans.amazonS3(rateController), dryRunEnabled, 1, 1, 0, 1, rateController, 4);
+    assertThat(s3Client).extracting("requestExecutorService").isNotNull();
+    s3Client.close();
+  }
+
+  @Test
+  void dryRunSummaryReporter() {
+    assertThat(commonBeans.dryRunSummaryReporter(false, true, "")).isSameAs(DryRunSummaryReporter.disabled());
+    assertThat(commonBeans.dryRunSummaryReporter(true, false, "")).isSameAs(DryRunSummaryReporter.disabled());
+    assertThat(commonBeans.dryRunSummaryReporter(true, true, "").isEnabled()).isTrue();
+  }
+
+  @Test
+  void s3RequestRateController() {
+    MeterRegistry meterRegistry = mock(GraphiteMeterRegistry.class);
+    assertThat(commonBeans.s3RequestRateController(meterRegistry, false, 100, 3500, 0))
+        .isSameAs(S3RequestRateController.disabled());
+    assertThat(commonBeans.s3RequestRateController(meterRegistry, true, 100, 3500, 0))
+        .isNotSameAs(S3RequestRateController.disabled());
+  }
+
   @Test
   void verifyS3pathCleaner() {
-    S3Client s3Client = commonBeans.s3Client(commonBeans.amazonS3(), dryRunEnabled);
+    S3RequestRateController rateController = S3RequestRateController.disabled();
+    S3Client s3Client = commonBeans
+        .s3Client(commonBeans.amazonS3(rateController), dryRunEnabled, 1, 1, 0, 1, rateController, 0);
     MeterRegistry meterRegistry = mock(GraphiteMeterRegistry.class);
 
-    PathCleaner pathCleaner = commonBeans.pathCleaner(s3Client, bytesDeletedReporter);
+    PathCleaner pathCleaner = commonBeans.pathCleaner(s3Client, bytesDeletedReporter, false, false,
+        DryRunSummaryReporter.disabled(), repository, 0);
     assertThat(pathCleaner).isInstanceOf(S3PathCleaner.class);
   }
 
   @Test
   void cleanupService() {
-    CleanupService cleanupService = commonBeans.cleanupService(Collections.emptyList(), 2, dryRunEnabled);
+    CleanupService cleanupService = commonBeans
+        .cleanupService(Collections.emptyList(), 2, dryRunEnabled, 1, 0, 0, 0, 0, bytesDeletedReporter, 0, 0, 0);
     assertThat(cleanupService).isInstanceOf(PagingPathCleanupService.class);
   }
 
+  @Test
+  void cleanupServiceWithNegativePriorityWeight() {
+    assertThrows(BeekeeperException.class,
+        () -> commonBeans.cleanupService(Collections.emptyList(), 2, dryRunEnabled, 1, 0, 0, -1, 0,
+            bytesDeletedReporter, 0, 0, 0));
+  }
+
+  @Test
+  void cleanupServiceWithNegativeBudget() {
+    assertThrows(BeekeeperException.class,
+        () -> commonBeans.cleanupService(Collections.emptyList(), 2, dryRunEnabled, 1, 0, 0, 0, 0,
+            bytesDeletedReporter, 0, -1, 0));
+  }
+
   @Test
   public void repositoryCleanupService() {
     RepositoryCleanupService cleanupService = commonBeans.repositoryCleanupService(repository, 5);
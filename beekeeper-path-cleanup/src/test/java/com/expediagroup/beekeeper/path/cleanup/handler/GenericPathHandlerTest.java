@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2022 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -17,9 +17,13 @@ package com.expediagroup.beekeeper.path.cleanup.handler;
 
 import static org.assertj.core.api.AssertionsForClassTypes.assertThat;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -28,7 +32,15 @@ import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.FAILED;
 import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.FAILED_TO_DELETE;
 import static com.expediagroup.beekeeper.core.model.HousekeepingStatus.SKIPPED;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -37,9 +49,12 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import com.expediagroup.beekeeper.cleanup.aws.S3PathCleaner;
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
+import com.expediagroup.beekeeper.core.model.PeriodDuration;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
 
@@ -60,6 +75,8 @@ public class GenericPathHandlerTest {
   private Pageable nextPage;
   @Mock
   private PageImpl<HousekeepingPath> mockPage;
+  @Mock
+  private TransactionTemplate transactionTemplate;
   private static final String VALID_TABLE_PATH = "s3://bucket/table";
 
   private UnreferencedPathHandler handler;
@@ -67,7 +84,7 @@ public class GenericPathHandlerTest {
   @BeforeEach
   public void initTest() {
     handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
-    when(mockPath.getPath()).thenReturn(VALID_TABLE_PATH);
+    lenient().when(mockPath.getPath()).thenReturn(VALID_TABLE_PATH);
   }
 
   @Test
@@ -107,6 +124,105 @@ public class GenericPathHandlerTest {
     assertThat(pageable).isEqualTo(pageable);
   }
 
+  @Test
+  public void typicalProcessPageWithBatchCleanup() {
+    when(pathCleaner.isBatchCleanupEnabled()).thenReturn(true);
+    when(mockPath.getCleanupAttempts()).thenReturn(0);
+    when(mockPage.getContent()).thenReturn(List.of(mockPath));
+    completeBatchCleanup(null);
+    Pageable pageable = handler.processPage(mockPageable, mockPage, false);
+    verify(pathCleaner, never()).cleanupPath(mockPath);
+    verify(mockPageable, never()).next();
+    verify(mockPath).setCleanupAttempts(1);
+    verify(mockPath).setHousekeepingStatus(DELETED);
+    verify(housekeepingPathRepository).save(mockPath);
+    verify(beekeeperHistoryService).saveHistory(any(), eq(DELETED));
+    assertThat(pageable).isEqualTo(pageable);
+  }
+
+  @Test
+  public void processPageWithBatchCleanupFails() {
+    when(pathCleaner.isBatchCleanupEnabled()).thenReturn(true);
+    when(mockPath.getCleanupAttempts()).thenReturn(0);
+    when(mockPage.getContent()).thenReturn(List.of(mockPath));
+    completeBatchCleanup(new RuntimeException());
+    Pageable pageable = handler.processPage(mockPageable, mockPage, false);
+    verify(mockPageable, never()).next();
+    verify(mockPath).setCleanupAttempts(1);
+    verify(mockPath).setHousekeepingStatus(FAILED);
+    verify(housekeepingPathRepository).save(mockPath);
+    verify(beekeeperHistoryService).saveHistory(any(), eq(FAILED_TO_DELETE));
+    assertThat(pageable).isEqualTo(pageable);
+  }
+
+  @Test
+  public void processPageWithBatchCleanupInvalidPath() {
+    when(pathCleaner.isBatchCleanupEnabled()).thenReturn(true);
+    when(mockPath.getPath()).thenReturn("invalid");
+    when(mockPage.getContent()).thenReturn(List.of(mockPath));
+    Pageable pageable = handler.processPage(mockPageable, mockPage, false);
+    verify(pathCleaner).cleanupPaths(eq(List.of()), any());
+    verify(mockPath, never()).setCleanupAttempts(1);
+    verify(mockPath).setHousekeepingStatus(SKIPPED);
+    verify(housekeepingPathRepository).save(mockPath);
+    verify(beekeeperHistoryService).saveHistory(any(), eq(SKIPPED));
+    assertThat(pageable).isEqualTo(pageable);
+  }
+
+  @Test
+  public void processPageConcurrently() {
+    HousekeepingPath otherPath = HousekeepingPath.builder()
+        .path("s3://bucket/other_table")
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(PeriodDuration.of(Duration.ofDays(1)))
+        .build();
+    when(mockPath.getCleanupAttempts()).thenReturn(0);
+    when(mockPage.getContent()).thenReturn(List.of(mockPath, otherPath));
+    CountDownLatch cleanupsStarted = new CountDownLatch(2);
+    doAnswer(invocation -> {
+      cleanupsStarted.countDown();
+      assertThat(cleanupsStarted.await(5, TimeUnit.SECONDS)).isTrue();
+      return null;
+    }).when(pathCleaner).cleanupPath(any());
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      Pageable pageable = handler.processPage(mockPageable, mockPage, false, executor, 2);
+      verify(mockPageable, never()).next();
+      verify(mockPath).setHousekeepingStatus(DELETED);
+      assertThat(otherPath.getHousekeepingStatus()).isEqualTo(DELETED);
+      assertThat(otherPath.getCleanupAttempts()).isEqualTo(1);
+      verify(housekeepingPathRepository).save(mockPath);
+      verify(housekeepingPathRepository).save(otherPath);
+      verify(beekeeperHistoryService, times(2)).saveHistory(any(), eq(DELETED));
+      assertThat(pageable).isEqualTo(mockPageable);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void processPageWithBatchedUpdates() {
+    handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService,
+        transactionTemplate);
+    when(mockPath.getCleanupAttempts()).thenReturn(0);
+    when(mockPath.getId()).thenReturn(1L);
+    when(mockPage.getContent()).thenReturn(List.of(mockPath));
+    doAnswer(invocation -> {
+      Consumer<TransactionStatus> action = invocation.getArgument(0);
+      action.accept(null);
+      return null;
+    }).when(transactionTemplate).executeWithoutResult(any());
+    Pageable pageable = handler.processPage(mockPageable, mockPage, false);
+    verify(pathCleaner).cleanupPath(mockPath);
+    verify(mockPath).setHousekeepingStatus(DELETED);
+    verify(housekeepingPathRepository, never()).save(mockPath);
+    verify(housekeepingPathRepository).findAllById(List.of(1L));
+    verify(housekeepingPathRepository).saveAll(List.of(mockPath));
+    verify(beekeeperHistoryService).createHistory(mockPath, DELETED);
+    verify(beekeeperHistoryService).saveHistory(anyList());
+    assertThat(pageable).isEqualTo(mockPageable);
+  }
+
   @Test
   public void processPageInvalidPath() {
     when(mockPath.getPath()).thenReturn("invalid");
@@ -120,4 +236,81 @@ public class GenericPathHandlerTest {
     verify(beekeeperHistoryService).saveHistory(any(), eq(SKIPPED));
     assertThat(pageable).isEqualTo(pageable);
   }
+
+  @Test
+  public void nestedPathsAreDeletedWithTheirAncestor() {
+    HousekeepingPath partitionPath = housekeepingPath(VALID_TABLE_PATH + "/p=1");
+    HousekeepingPath tablePath = housekeepingPath(VALID_TABLE_PATH);
+    when(mockPage.getContent()).thenReturn(List.of(partitionPath, tablePath));
+    PathPrefixTrie deletedPaths = new PathPrefixTrie();
+
+    handler.processPage(mockPageable, mockPage, false, Runnable::run, 1, deletedPaths);
+
+    verify(pathCleaner).cleanupPath(tablePath);
+    verify(pathCleaner, never()).cleanupPath(partitionPath);
+    assertThat(partitionPath.getHousekeepingStatus()).isEqualTo(DELETED);
+    assertThat(partitionPath.getCleanupAttempts()).isEqualTo(1);
+    verify(beekeeperHistoryService).saveHistory(partitionPath, DELETED);
+    verify(beekeeperHistoryService).saveHistory(tablePath, DELETED);
+    assertThat(deletedPaths.hasAncestor(VALID_TABLE_PATH + "/p=2")).isTrue();
+  }
+
+  @Test
+  public void nestedPathsOfPathDeletedEarlierAreNotListed() {
+    HousekeepingPath partitionPath = housekeepingPath(VALID_TABLE_PATH + "/p=1");
+    when(mockPage.getContent()).thenReturn(List.of(partitionPath));
+    PathPrefixTrie deletedPaths = new PathPrefixTrie();
+    deletedPaths.add(VALID_TABLE_PATH);
+
+    handler.processPage(mockPageable, mockPage, false, Runnable::run, 1, deletedPaths);
+
+    verify(pathCleaner, never()).cleanupPath(any());
+    assertThat(partitionPath.getHousekeepingStatus()).isEqualTo(DELETED);
+    verify(beekeeperHistoryService).saveHistory(partitionPath, DELETED);
+  }
+
+  @Test
+  public void nestedPathsAreCleanedUpWhenTheirAncestorFails() {
+    HousekeepingPath partitionPath = housekeepingPath(VALID_TABLE_PATH + "/p=1");
+    HousekeepingPath tablePath = housekeepingPath(VALID_TABLE_PATH);
+    when(mockPage.getContent()).thenReturn(List.of(tablePath, partitionPath));
+    doThrow(RuntimeException.class).when(pathCleaner).cleanupPath(tablePath);
+
+    handler.processPage(mockPageable, mockPage, false);
+
+    verify(pathCleaner).cleanupPath(partitionPath);
+    assertThat(tablePath.getHousekeepingStatus()).isEqualTo(FAILED);
+    assertThat(partitionPath.getHousekeepingStatus()).isEqualTo(DELETED);
+  }
+
+  @Test
+  public void nestedPathsAreNotListedInDryRun() {
+    HousekeepingPath partitionPath = housekeepingPath(VALID_TABLE_PATH + "/p=1");
+    HousekeepingPath tablePath = housekeepingPath(VALID_TABLE_PATH);
+    when(mockPage.getContent()).thenReturn(List.of(partitionPath, tablePath));
+    when(mockPageable.next()).thenReturn(nextPage);
+
+    Pageable pageable = handler.processPage(mockPageable, mockPage, true);
+
+    verify(pathCleaner).cleanupPath(tablePath);
+    verify(pathCleaner, never()).cleanupPath(partitionPath);
+    assertThat(partitionPath.getHousekeepingStatus()).isNull();
+    assertThat(pageable).isEqualTo(nextPage);
+  }
+
+  private HousekeepingPath housekeepingPath(String path) {
+    return HousekeepingPath.builder()
+        .path(path)
+        .creationTimestamp(LocalDateTime.now())
+        .cleanupDelay(PeriodDuration.of(Duration.ofDays(1)))
+        .build();
+  }
+
+  private void completeBatchCleanup(Exception failure) {
+    doAnswer(invocation -> {
+      BiConsumer<HousekeepingPath, Exception> resultConsumer = invocation.getArgument(1);
+      resultConsumer.accept(mockPath, failure);
+      return null;
+    }).when(pathCleaner).cleanupPaths(eq(List.of(mockPath)), any());
+  }
 }
@@ -0,0 +1,62 @@
+/**
+ * Copyright (C) 2019-2026 Expedia, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.expediagroup.beekeeper.path.cleanup.handler;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+public class PathPrefixTrieTest {
+
+  @Test
+  public void typical() {
+    PathPrefixTrie trie = new PathPrefixTrie();
+    trie.add("s3://bucket/table");
+
+    assertThat(trie.hasAncestor("s3://bucket/table/p=1")).isTrue();
+    assertThat(trie.hasAncestor("s3://bucket/table/p=1/q=2/")).isTrue();
+    assertThat(trie.hasAncestor("s3://bucket/table")).isFalse();
+    assertThat(trie.hasAncestor("s3://bucket/table2/p=1")).isFalse();
+    assertThat(trie.hasAncestor("s3://bucket")).isFalse();
+    assertThat(trie.hasAncestor("s3://other_bucket/table/p=1")).isFalse();
+  }
+
+  @Test
+  public void schemeAndSlashesAreIgnored() {
+    PathPrefixTrie trie = new PathPrefixTrie();
+    trie.add("s3a://bucket/table/");
+
+    assertThat(trie.hasAncestor("s3://bucket//table/p=1")).isTrue();
+    assertThat(trie.hasAncestor("s3://bucket/table/")).isFalse();
+  }
+
+  @Test
+  public void onlyShallowestPathsAreKept() {
+    PathPrefixTrie trie = new PathPrefixTrie();
+    trie.add("s3://bucket/table/p=1");
+    trie.add("s3://bucket/table/p=2");
+    trie.add("s3://bucket/other_table");
+    assertThat(trie.size()).isEqualTo(3);
+
+    trie.add("s3://bucket/table");
+    assertThat(trie.size()).isEqualTo(2);
+    assertThat(trie.hasAncestor("s3://bucket/table/p=3")).isTrue();
+
+    trie.add("s3://bucket/table/p=4");
+    trie.add("s3://bucket/table");
+    assertThat(trie.size()).isEqualTo(2);
+  }
+}
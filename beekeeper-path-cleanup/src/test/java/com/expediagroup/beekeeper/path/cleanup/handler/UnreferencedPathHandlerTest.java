@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,11 +16,16 @@
 package com.expediagroup.beekeeper.path.cleanup.handler;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import static com.expediagroup.beekeeper.core.model.LifecycleEventType.UNREFERENCED;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.List;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -31,9 +36,12 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 
 import com.expediagroup.beekeeper.cleanup.aws.S3PathCleaner;
+import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.core.model.LifecycleEventType;
+import com.expediagroup.beekeeper.core.model.PeriodDuration;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
 
 @ExtendWith(MockitoExtension.class)
 public class UnreferencedPathHandlerTest {
@@ -71,4 +79,36 @@ public class UnreferencedPathHandlerTest {
     handler.findRecordsToClean(now, emptyPageable);
     verify(housekeepingPathRepository).findRecordsForCleanup(now, emptyPageable);
   }
+
+  @Test
+  public void verifyHousekeepingPathFetchAfterLastRecord() {
+    LocalDateTime now = LocalDateTime.now();
+    Pageable emptyPageable = PageRequest.of(0, 1);
+    HousekeepingPath lastRecord = HousekeepingPath.builder()
+        .id(2L)
+        .creationTimestamp(now)
+        .cleanupDelay(PeriodDuration.of(Duration.ofDays(1)))
+        .build();
+    handler.findRecordsToClean(now, lastRecord, emptyPageable);
+    verify(housekeepingPathRepository)
+        .findRecordsForCleanupAfter(now, lastRecord.getCleanupTimestamp(), 2L, emptyPageable);
+  }
+
+  @Test
+  public void verifyHousekeepingPathClaimAndRelease() {
+    LocalDateTime now = LocalDateTime.now();
+    HousekeepingLease lease = new HousekeepingLease("owner", Duration.ofMinutes(10));
+    HousekeepingPath record = HousekeepingPath.builder()
+        .id(2L)
+        .creationTimestamp(now)
+        .cleanupDelay(PeriodDuration.of(Duration.ofDays(1)))
+        .build();
+    when(housekeepingPathRepository.findClaimedRecords(List.of(2L), "owner")).thenReturn(List.of(record));
+
+    assertThat(handler.claimRecords(now, List.of(record), lease)).containsExactly(record);
+    verify(housekeepingPathRepository).claimRecords(eq(List.of(2L)), eq("owner"), eq(now), any(), any());
+
+    handler.releaseRecords(List.of(record), lease);
+    verify(housekeepingPathRepository).releaseRecords(List.of(2L), "owner");
+  }
 }
@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2021 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -46,7 +46,9 @@ import com.expediagroup.beekeeper.core.error.BeekeeperException;
 @ExtendWith(SpringExtension.class)
 @ExtendWith(MockitoExtension.class)
 @TestPropertySource(properties = {
-    "properties.scheduler-delay-ms=2000" })
+    "properties.scheduler-delay-ms=2000",
+    "properties.scheduler-min-delay-ms=1000",
+    "properties.disable-tables-delay-ms=2000" })
 @ContextConfiguration(classes = { CleanupServiceScheduler.class, TestConfig.class },
     loader = AnnotationConfigContextLoader.class)
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
@@ -71,4 +73,10 @@ class CleanupServiceSchedulerTest {
     await().atMost(Duration.TEN_SECONDS)
         .untilAsserted(() -> verify(cleanupService, atLeast(2)).cleanUp(any()));
   }
+
+  @Test
+  void disableTablesOnOwnTimer() {
+    await().atMost(Duration.TEN_SECONDS)
+        .untilAsserted(() -> verify(disableTablesService, atLeast(2)).disable());
+  }
 }
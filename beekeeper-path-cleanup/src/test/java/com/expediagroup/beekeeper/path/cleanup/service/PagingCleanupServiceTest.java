@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2023 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -16,8 +16,12 @@
 package com.expediagroup.beekeeper.path.cleanup.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatExceptionOfType;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -31,7 +35,9 @@ import java.time.Duration;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.Timeout;
@@ -50,11 +56,16 @@ import org.springframework.test.context.support.AnnotationConfigContextLoader;
 import com.google.common.collect.Lists;
 
 import com.expediagroup.beekeeper.cleanup.path.PathCleaner;
+import com.expediagroup.beekeeper.cleanup.service.CleanupBudget;
+import com.expediagroup.beekeeper.cleanup.service.CleanupPager;
+import com.expediagroup.beekeeper.core.error.BeekeeperException;
+import com.expediagroup.beekeeper.core.model.CleanupPriority;
 import com.expediagroup.beekeeper.core.model.HousekeepingPath;
 import com.expediagroup.beekeeper.core.model.HousekeepingStatus;
 import com.expediagroup.beekeeper.core.model.PeriodDuration;
 import com.expediagroup.beekeeper.core.repository.HousekeepingPathRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
+import com.expediagroup.beekeeper.core.service.HousekeepingLease;
 import com.expediagroup.beekeeper.path.cleanup.TestApplication;
 import com.expediagroup.beekeeper.path.cleanup.handler.UnreferencedPathHandler;
 
@@ -69,6 +80,8 @@ import com.expediagroup.beekeeper.path.cleanup.handler.UnreferencedPathHandler;
 @DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_EACH_TEST_METHOD)
 public class PagingCleanupServiceTest {
 
+  private static final long GIB = 1024L * 1024L * 1024L;
+
   private final LocalDateTime localNow = LocalDateTime.ofInstant(Instant.now(), ZoneOffset.UTC);
   private PagingPathCleanupService pagingCleanupService;
   private @Captor ArgumentCaptor<HousekeepingPath> pathCaptor;
@@ -79,7 +92,8 @@ public class PagingCleanupServiceTest {
   @Test
   public void typicalWithPaging() {
     UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
-    pagingCleanupService = new PagingPathCleanupService(List.of(handler), 2, false);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(2).build(), 1);
 
     List<String> paths = List.of("s3://bucket/some_foo", "s3://bucket/some_bar", "s3://bucket/some_foobar");
     paths.forEach(path -> housekeepingPathRepository.save(createEntityHousekeepingPath(path, SCHEDULED)));
@@ -97,10 +111,31 @@ public class PagingCleanupServiceTest {
     verifyNoMoreInteractions(pathCleaner);
   }
 
+  @Test
+  public void nestedPathsAreDeletedWithTheirAncestor() {
+    UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner,
+        beekeeperHistoryService);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(2).build(), 1);
+    List<String> paths = List.of("s3://bucket/table", "s3://bucket/table/p=1", "s3://bucket/table/p=2");
+    paths.forEach(path -> housekeepingPathRepository.save(createEntityHousekeepingPath(path, SCHEDULED)));
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(pathCleaner).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getValue().getPath()).isEqualTo(paths.get(0));
+    housekeepingPathRepository.findAll().forEach(housekeepingPath -> {
+      assertThat(housekeepingPath.getCleanupAttempts()).isEqualTo(1);
+      assertThat(housekeepingPath.getHousekeepingStatus()).isEqualTo(DELETED);
+    });
+    verify(beekeeperHistoryService, times(3)).saveHistory(any(), eq(DELETED));
+  }
+
   @Test
   public void mixOfScheduledAndFailedPaths() {
     UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
-    pagingCleanupService = new PagingPathCleanupService(List.of(handler), 2, false);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(2).build(), 1);
     List<HousekeepingPath> paths = List
         .of(createEntityHousekeepingPath("s3://bucket/some_foo", SCHEDULED),
             createEntityHousekeepingPath("s3://bucket/some_bar", FAILED));
@@ -116,7 +151,8 @@ public class PagingCleanupServiceTest {
   @Test
   public void mixOfAllPaths() {
     UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
-    pagingCleanupService = new PagingPathCleanupService(List.of(handler), 2, false);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(2).build(), 1);
     List<HousekeepingPath> paths = List
         .of(createEntityHousekeepingPath("s3://bucket/some_foo", SCHEDULED),
             createEntityHousekeepingPath("s3://bucket/some_bar", FAILED),
@@ -130,10 +166,185 @@ public class PagingCleanupServiceTest {
         .containsExactly(paths.get(0).getPath(), paths.get(1).getPath());
   }
 
+  @Test
+  public void pathsClaimedByAnotherInstanceAreSkipped() {
+    UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler), CleanupPager
+        .builder()
+        .pageSize(2)
+        .lease(HousekeepingLease.forThisInstance(Duration.ofMinutes(10)))
+        .build(), 1);
+    List<HousekeepingPath> paths = List
+        .of(createEntityHousekeepingPath("s3://bucket/some_foo", SCHEDULED),
+            createEntityHousekeepingPath("s3://bucket/some_bar", SCHEDULED),
+            createEntityHousekeepingPath("s3://bucket/some_foobar", SCHEDULED));
+    paths.forEach(path -> housekeepingPathRepository.save(path));
+    housekeepingPathRepository
+        .claimRecords(List.of(paths.get(1).getId()), "other-instance", localNow.plusDays(1), localNow,
+            localNow.plusHours(1));
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(pathCleaner, times(2)).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getAllValues())
+        .extracting("path")
+        .containsExactly(paths.get(0).getPath(), paths.get(2).getPath());
+    housekeepingPathRepository.findAll().forEach(housekeepingPath -> {
+      if (housekeepingPath.getPath().equals(paths.get(1).getPath())) {
+        assertThat(housekeepingPath.getHousekeepingStatus()).isEqualTo(SCHEDULED);
+        assertThat(housekeepingPath.getLeaseOwner()).isEqualTo("other-instance");
+      } else {
+        assertThat(housekeepingPath.getHousekeepingStatus()).isEqualTo(DELETED);
+        assertThat(housekeepingPath.getLeaseOwner()).isNull();
+        assertThat(housekeepingPath.getVersion()).isEqualTo(2L);
+      }
+    });
+  }
+
+  @Test
+  public void tablesTakeTurnsWithTableShare() {
+    UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(2).tableShare(1).build(), 1);
+    List.of("s3://bucket/large_1", "s3://bucket/large_2", "s3://bucket/large_3")
+        .forEach(path -> housekeepingPathRepository.save(createEntityHousekeepingPath(path, SCHEDULED)));
+    HousekeepingPath smallTablePath = createEntityHousekeepingPath("s3://bucket/small_1", SCHEDULED);
+    smallTablePath.setTableName("small_table");
+    housekeepingPathRepository.save(smallTablePath);
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(pathCleaner, times(4)).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getAllValues())
+        .extracting("path")
+        .containsExactly("s3://bucket/small_1", "s3://bucket/large_1", "s3://bucket/large_2", "s3://bucket/large_3");
+    housekeepingPathRepository
+        .findAll()
+        .forEach(housekeepingPath -> assertThat(housekeepingPath.getHousekeepingStatus()).isEqualTo(DELETED));
+  }
+
+  @Test
+  public void largestPathsFirstWithPriority() {
+    UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(2).priority(new CleanupPriority(1, 0)).build(), 1);
+    List.of("s3://bucket/unknown", "s3://bucket/small", "s3://bucket/large").forEach(path -> {
+      HousekeepingPath housekeepingPath = createEntityHousekeepingPath(path, SCHEDULED);
+      housekeepingPath.setEstimatedBytes(path.endsWith("unknown") ? null : path.endsWith("small") ? GIB : 10 * GIB);
+      housekeepingPathRepository.save(housekeepingPath);
+    });
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(pathCleaner, times(3)).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getAllValues())
+        .extracting("path")
+        .containsExactly("s3://bucket/large", "s3://bucket/small", "s3://bucket/unknown");
+    housekeepingPathRepository
+        .findAll()
+        .forEach(housekeepingPath -> assertThat(housekeepingPath.getHousekeepingStatus()).isEqualTo(DELETED));
+  }
+
+  @Test
+  public void dryRunStoresEstimatedBytesWithPriority() {
+    UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler), CleanupPager
+        .builder()
+        .pageSize(2)
+        .dryRunEnabled(true)
+        .priority(new CleanupPriority(1, 0))
+        .build(), 1);
+    doAnswer(invocation -> {
+      invocation.<HousekeepingPath>getArgument(0).setEstimatedBytes(GIB);
+      return null;
+    }).when(pathCleaner).cleanupPath(any(HousekeepingPath.class));
+    housekeepingPathRepository.save(createEntityHousekeepingPath("s3://bucket/some_foo", SCHEDULED));
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    housekeepingPathRepository.findAll().forEach(housekeepingPath -> {
+      assertThat(housekeepingPath.getHousekeepingStatus()).isEqualTo(SCHEDULED);
+      assertThat(housekeepingPath.getCleanupAttempts()).isEqualTo(0);
+      assertThat(housekeepingPath.getEstimatedBytes()).isEqualTo(GIB);
+      assertThat(housekeepingPath.getCleanupPriority()).isEqualTo(1.0);
+    });
+  }
+
+  @Test
+  public void runStopsWhenBudgetIsUsedUp() {
+    UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner,
+        beekeeperHistoryService);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler), CleanupPager
+        .builder()
+        .pageSize(2)
+        .budget(new CleanupBudget(Duration.ZERO, 2, 0, () -> 0L))
+        .build(), 1);
+    List<String> paths = List.of("s3://bucket/some_foo", "s3://bucket/some_bar", "s3://bucket/some_foobar");
+    paths.forEach(path -> housekeepingPathRepository.save(createEntityHousekeepingPath(path, SCHEDULED)));
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(pathCleaner, times(2)).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getAllValues()).extracting("path").containsExactly(paths.get(0), paths.get(1));
+
+    pagingCleanupService.cleanUp(Instant.now());
+
+    verify(pathCleaner, times(3)).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getValue().getPath()).isEqualTo(paths.get(2));
+    housekeepingPathRepository
+        .findAll()
+        .forEach(housekeepingPath -> assertThat(housekeepingPath.getHousekeepingStatus()).isEqualTo(DELETED));
+  }
+
+  @Test
+  public void dryRunCarriesOnFromWhereBudgetWasUsedUp() {
+    UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner,
+        beekeeperHistoryService);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler), CleanupPager
+        .builder()
+        .pageSize(1)
+        .dryRunEnabled(true)
+        .budget(new CleanupBudget(Duration.ZERO, 1, 0, () -> 0L))
+        .build(), 1);
+    List<String> paths = List.of("s3://bucket/some_foo", "s3://bucket/some_bar", "s3://bucket/some_foobar");
+    paths.forEach(path -> housekeepingPathRepository.save(createEntityHousekeepingPath(path, SCHEDULED)));
+
+    for (int i = 0; i < 4; i++) {
+      pagingCleanupService.cleanUp(Instant.now());
+    }
+
+    verify(pathCleaner, times(4)).cleanupPath(pathCaptor.capture());
+    assertThat(pathCaptor.getAllValues())
+        .extracting("path")
+        .containsExactly(paths.get(0), paths.get(1), paths.get(2), paths.get(0));
+  }
+
+  @Test
+  public void nextDueTimeOfPathsToCleanUp() {
+    UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner,
+        beekeeperHistoryService);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(2).build(), 1);
+    Instant now = localNow.toInstant(ZoneOffset.UTC);
+    assertThat(pagingCleanupService.findNextDueTime(now)).isEmpty();
+
+    HousekeepingPath deletedPath = createEntityHousekeepingPath("s3://bucket/some_foo", DELETED);
+    deletedPath.setCleanupTimestamp(localNow.plusMinutes(30));
+    HousekeepingPath laterPath = createEntityHousekeepingPath("s3://bucket/some_bar", SCHEDULED);
+    laterPath.setCleanupTimestamp(localNow.plusHours(2));
+    HousekeepingPath nextPath = createEntityHousekeepingPath("s3://bucket/some_foobar", FAILED);
+    nextPath.setCleanupTimestamp(localNow.plusHours(1));
+    List.of(deletedPath, laterPath, nextPath).forEach(path -> housekeepingPathRepository.save(path));
+
+    assertThat(pagingCleanupService.findNextDueTime(now).map(dueTime -> dueTime.truncatedTo(ChronoUnit.SECONDS)))
+        .contains(now.plus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.SECONDS));
+  }
+
   @Test
   void pathCleanerException() {
     UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
-    pagingCleanupService = new PagingPathCleanupService(List.of(handler), 2, false);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(2).build(), 1);
 
     doThrow(new RuntimeException("Error")).doNothing().when(pathCleaner).cleanupPath(any(HousekeepingPath.class));
 
@@ -161,7 +372,8 @@ public class PagingCleanupServiceTest {
   @Timeout(value = 10)
   void doNotInfiniteLoopOnRepeatedFailures() {
     UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
-    pagingCleanupService = new PagingPathCleanupService(List.of(handler), 1, false);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(1).build(), 1);
     List<HousekeepingPath> paths = List
         .of(createEntityHousekeepingPath("s3://bucket/some_foo", FAILED),
             createEntityHousekeepingPath("s3://bucket/some_bar", FAILED),
@@ -189,7 +401,8 @@ public class PagingCleanupServiceTest {
   @Timeout(value = 10)
   void doNotInfiniteLoopOnDryRunCleanup() {
     UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner, beekeeperHistoryService);
-    pagingCleanupService = new PagingPathCleanupService(List.of(handler), 1, true);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(1).dryRunEnabled(true).build(), 1);
     List<HousekeepingPath> paths = List
         .of(createEntityHousekeepingPath("s3://bucket/some_foo", SCHEDULED),
             createEntityHousekeepingPath("s3://bucket/some_bar", SCHEDULED),
@@ -204,6 +417,22 @@ public class PagingCleanupServiceTest {
     });
   }
 
+  @Test
+  void closedServiceStopsCleaningUp() {
+    UnreferencedPathHandler handler = new UnreferencedPathHandler(housekeepingPathRepository, pathCleaner,
+        beekeeperHistoryService);
+    pagingCleanupService = new PagingPathCleanupService(List.of(handler),
+        CleanupPager.builder().pageSize(2).build(), 2);
+    housekeepingPathRepository.save(createEntityHousekeepingPath("s3://bucket/some_foo", SCHEDULED));
+
+    pagingCleanupService.close();
+
+    assertThatExceptionOfType(BeekeeperException.class)
+        .isThrownBy(() -> pagingCleanupService.cleanUp(Instant.now()))
+        .withRootCauseInstanceOf(RejectedExecutionException.class);
+    verify(pathCleaner, never()).cleanupPath(any());
+  }
+
   private HousekeepingPath createEntityHousekeepingPath(String path, HousekeepingStatus housekeepingStatus) {
     HousekeepingPath housekeepingPath = HousekeepingPath
         .builder()
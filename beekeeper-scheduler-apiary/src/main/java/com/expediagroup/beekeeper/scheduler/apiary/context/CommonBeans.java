@@ -1,5 +1,5 @@
 /**
- * Copyright (C) 2019-2025 Expedia, Inc.
+ * Copyright (C) 2019-2026 Expedia, Inc.
  *
  * Licensed under the Apache License, Version 2.0 (the "License");
  * you may not use this file except in compliance with the License.
@@ -15,11 +15,13 @@
  */
 package com.expediagroup.beekeeper.scheduler.apiary.context;
 
+import java.time.Duration;
 import java.util.EnumMap;
 import java.util.List;
 import java.util.function.Supplier;
 
 import org.apache.hadoop.hive.conf.HiveConf;
+import org.apache.thrift.TException;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
@@ -29,6 +31,8 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 import org.springframework.retry.annotation.EnableRetry;
 
+import io.micrometer.core.instrument.MeterRegistry;
+
 import com.expedia.apiary.extensions.receiver.common.event.AddPartitionEvent;
 import com.expedia.apiary.extensions.receiver.common.event.AlterPartitionEvent;
 import com.expedia.apiary.extensions.receiver.common.event.AlterTableEvent;
@@ -40,6 +44,7 @@ import com.expedia.apiary.extensions.receiver.common.messaging.MessageReader;
 import com.expedia.apiary.extensions.receiver.sqs.messaging.SqsMessageReader;
 
 import com.expediagroup.beekeeper.core.model.LifecycleEventType;
+import com.expediagroup.beekeeper.core.pool.ClientPool;
 import com.expediagroup.beekeeper.core.repository.BeekeeperHistoryRepository;
 import com.expediagroup.beekeeper.core.service.BeekeeperHistoryService;
 import com.expediagroup.beekeeper.scheduler.apiary.filter.EventTypeListenerEventFilter;
@@ -182,9 +187,31 @@ public class CommonBeans {
     return new PartitionIteratorFactory();
   }
 
+  @Bean
+  public ClientPool<CloseableMetaStoreClient> metaStoreClientPool(
+      @Qualifier("metaStoreClientSupplier") Supplier<CloseableMetaStoreClient> metaStoreClientSupplier,
+      MeterRegistry meterRegistry,
+      @Value("${properties.metastore-client-pool-size}") int poolSize,
+      @Value("${properties.metastore-client-pool-max-idle-ms}") long maxIdleMs,
+      @Value("${properties.metastore-client-pool-max-wait-ms}") long maxWaitMs) {
+    return new ClientPool<>(CloseableMetaStoreClient.class, metaStoreClientSupplier, CommonBeans::isConnected,
+        poolSize, Duration.ofMillis(maxIdleMs), Duration.ofMillis(maxWaitMs), meterRegistry, "metastore-client-pool");
+  }
+
   @Bean(name = "hiveClientFactory")
-  public HiveClientFactory clientFactory(Supplier<CloseableMetaStoreClient> metaStoreClientSupplier,
+  public HiveClientFactory clientFactory(
+      @Qualifier("metaStoreClientPool") Supplier<CloseableMetaStoreClient> metaStoreClientSupplier,
       PartitionIteratorFactory partitionIteratorFactory) {
     return new HiveClientFactory(metaStoreClientSupplier, partitionIteratorFactory);
   }
+
+  // a round trip to the metastore which reads no metadata
+  private static boolean isConnected(CloseableMetaStoreClient client) {
+    try {
+      client.getMetaConf(HiveConf.ConfVars.METASTORE_TRY_DIRECT_SQL.varname);
+      return true;
+    } catch (TException e) {
+      return false;
+    }
+  }
 }
@@ -0,0 +1,11 @@
+USE beekeeper;
+
+ALTER TABLE housekeeping_path
+  ADD COLUMN estimated_bytes BIGINT(20) NULL,
+  ADD COLUMN cleanup_priority DOUBLE NULL,
+  ADD INDEX `housekeeping_path_index_priority` (`cleanup_priority`, `id`);
+
+ALTER TABLE housekeeping_metadata
+  ADD COLUMN estimated_bytes BIGINT(20) NULL,
+  ADD COLUMN cleanup_priority DOUBLE NULL,
+  ADD INDEX `housekeeping_metadata_index_priority` (`cleanup_priority`, `id`);
@@ -0,0 +1,3 @@
+USE beekeeper;
+
+ALTER TABLE housekeeping_metadata ADD INDEX `housekeeping_metadata_index_cleanup_timestamp` (`cleanup_timestamp`);
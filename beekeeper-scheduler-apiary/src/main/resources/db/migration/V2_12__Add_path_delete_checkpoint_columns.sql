@@ -0,0 +1,6 @@
+USE beekeeper;
+
+ALTER TABLE housekeeping_path
+  ADD COLUMN delete_start_after VARCHAR(1024) NULL,
+  ADD COLUMN objects_deleted BIGINT(20) NULL,
+  ADD COLUMN bytes_deleted BIGINT(20) NULL;
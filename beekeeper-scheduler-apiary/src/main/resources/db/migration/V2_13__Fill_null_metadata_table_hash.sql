@@ -0,0 +1,5 @@
+USE beekeeper;
+
+UPDATE housekeeping_metadata
+SET table_hash = CRC32(CONCAT(COALESCE(database_name, ''), '.', COALESCE(table_name, '')))
+WHERE table_hash IS NULL OR database_name IS NULL OR table_name IS NULL;
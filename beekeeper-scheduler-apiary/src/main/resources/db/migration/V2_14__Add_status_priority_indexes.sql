@@ -0,0 +1,9 @@
+USE beekeeper;
+
+ALTER TABLE housekeeping_path
+  ADD INDEX `housekeeping_path_index_status_priority` (`housekeeping_status`, `cleanup_priority`, `id`),
+  DROP INDEX `housekeeping_path_index_priority`;
+
+ALTER TABLE housekeeping_metadata
+  ADD INDEX `housekeeping_metadata_index_status_priority` (`housekeeping_status`, `cleanup_priority`, `id`),
+  DROP INDEX `housekeeping_metadata_index_priority`;
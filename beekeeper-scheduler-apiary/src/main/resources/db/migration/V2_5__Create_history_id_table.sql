@@ -0,0 +1,10 @@
+USE beekeeper;
+
+CREATE TABLE IF NOT EXISTS beekeeper_history_id (
+  sequence_name VARCHAR(255) NOT NULL,
+  next_val BIGINT(20),
+  PRIMARY KEY (sequence_name)
+);
+
+INSERT IGNORE INTO beekeeper_history_id (sequence_name, next_val)
+SELECT 'beekeeper_history', COALESCE(MAX(id), 0) + 1 FROM beekeeper_history;
@@ -0,0 +1,4 @@
+USE beekeeper;
+
+ALTER TABLE housekeeping_path ADD INDEX `housekeeping_path_index_cleanup_timestamp_id` (`cleanup_timestamp`, `id`);
+ALTER TABLE housekeeping_metadata ADD INDEX `housekeeping_metadata_index_modified_timestamp_id` (`modified_timestamp`, `id`);
@@ -0,0 +1,11 @@
+USE beekeeper;
+
+ALTER TABLE housekeeping_path
+  ADD COLUMN lease_owner VARCHAR(255),
+  ADD COLUMN lease_expiry TIMESTAMP NULL,
+  ADD COLUMN version BIGINT(20) NOT NULL DEFAULT 0;
+
+ALTER TABLE housekeeping_metadata
+  ADD COLUMN lease_owner VARCHAR(255),
+  ADD COLUMN lease_expiry TIMESTAMP NULL,
+  ADD COLUMN version BIGINT(20) NOT NULL DEFAULT 0;
@@ -0,0 +1,5 @@
+USE beekeeper;
+
+ALTER TABLE housekeeping_metadata ADD COLUMN table_hash BIGINT(20);
+
+UPDATE housekeeping_metadata SET table_hash = CRC32(CONCAT(database_name, '.', table_name));